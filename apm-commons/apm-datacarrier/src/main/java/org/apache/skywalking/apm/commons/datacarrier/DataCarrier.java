@@ -19,12 +19,15 @@
 package org.apache.skywalking.apm.commons.datacarrier;
 
 import java.util.Properties;
+import java.util.function.Supplier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumeDriver;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.ConsumerPool;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IDriver;
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 import org.apache.skywalking.apm.commons.datacarrier.partition.SimpleRollingPartitioner;
 
@@ -49,16 +52,29 @@ public class DataCarrier<T> {
     }
 
     public DataCarrier(String name, String envPrefix, int channelSize, int bufferSize, BufferStrategy strategy) {
+        this(name, envPrefix, channelSize, bufferSize, strategy, BufferType.DEFAULT);
+    }
+
+    public DataCarrier(String name,
+                       String envPrefix,
+                       int channelSize,
+                       int bufferSize,
+                       BufferStrategy strategy,
+                       BufferType bufferType) {
         this.name = name;
         bufferSize = EnvUtil.getInt(envPrefix + "_BUFFER_SIZE", bufferSize);
         channelSize = EnvUtil.getInt(envPrefix + "_CHANNEL_SIZE", channelSize);
-        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy);
+        channels = new Channels<>(channelSize, bufferSize, new SimpleRollingPartitioner<T>(), strategy, bufferType);
     }
 
     public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy) {
         this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy);
     }
 
+    public DataCarrier(int channelSize, int bufferSize, BufferStrategy strategy, BufferType bufferType) {
+        this("DEFAULT", "DEFAULT", channelSize, bufferSize, strategy, bufferType);
+    }
+
     /**
      * set a new IDataPartitioner. It will cover the current one or default one.(Default is {@link
      * SimpleRollingPartitioner}
@@ -142,6 +158,22 @@ public class DataCarrier<T> {
         return this.consume(consumer, num, 20);
     }
 
+    /**
+     * set consumeDriver to this Carrier. consumer begin to run when {@link DataCarrier#produce} begin to work.
+     *
+     * @param consumer            single instance of consumer, all consumer threads will all use this instance.
+     * @param num                 number of consumer threads
+     * @param waitStrategyCreator creates the {@link WaitStrategy} for each consumer thread.
+     */
+    public DataCarrier consume(IConsumer<T> consumer, int num, Supplier<WaitStrategy> waitStrategyCreator) {
+        if (driver != null) {
+            driver.close(channels);
+        }
+        driver = new ConsumeDriver<T>(this.name, this.channels, consumer, num, waitStrategyCreator);
+        driver.begin(channels);
+        return this;
+    }
+
     /**
      * Set a consumer pool to manage the channels of this DataCarrier. Then consumerPool could use its own consuming
      * model to adjust the consumer thread and throughput.
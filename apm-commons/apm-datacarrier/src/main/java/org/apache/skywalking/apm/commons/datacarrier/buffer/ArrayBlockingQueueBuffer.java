@@ -40,7 +40,9 @@ public class ArrayBlockingQueueBuffer<T> implements QueueBuffer<T> {
 
     @Override
     public boolean save(T data) {
-        //only BufferStrategy.BLOCKING
+        if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+            return queue.offer(data);
+        }
         try {
             queue.put(data);
         } catch (InterruptedException e) {
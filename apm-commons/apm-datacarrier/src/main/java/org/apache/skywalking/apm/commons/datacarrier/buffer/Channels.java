@@ -18,6 +18,7 @@
 
 package org.apache.skywalking.apm.commons.datacarrier.buffer;
 
+import org.apache.skywalking.apm.commons.datacarrier.consumer.WaitStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.partition.IDataPartitioner;
 
 /**
@@ -28,14 +29,28 @@ public class Channels<T> {
     private final QueueBuffer<T>[] bufferChannels;
     private IDataPartitioner<T> dataPartitioner;
     private final BufferStrategy strategy;
+    private final BufferType bufferType;
+    private final WaitStrategy[] waitStrategies;
     private final long size;
 
     public Channels(int channelSize, int bufferSize, IDataPartitioner<T> partitioner, BufferStrategy strategy) {
+        this(channelSize, bufferSize, partitioner, strategy, BufferType.DEFAULT);
+    }
+
+    public Channels(int channelSize,
+                    int bufferSize,
+                    IDataPartitioner<T> partitioner,
+                    BufferStrategy strategy,
+                    BufferType bufferType) {
         this.dataPartitioner = partitioner;
         this.strategy = strategy;
+        this.bufferType = bufferType;
         bufferChannels = new QueueBuffer[channelSize];
+        waitStrategies = new WaitStrategy[channelSize];
         for (int i = 0; i < channelSize; i++) {
-            if (BufferStrategy.BLOCKING.equals(strategy)) {
+            if (BufferType.RING.equals(bufferType)) {
+                bufferChannels[i] = new MpscRingBuffer<>(bufferSize, strategy);
+            } else if (BufferStrategy.BLOCKING.equals(strategy)) {
                 bufferChannels[i] = new ArrayBlockingQueueBuffer<>(bufferSize, strategy);
             } else {
                 bufferChannels[i] = new Buffer<>(bufferSize, strategy);
@@ -48,7 +63,8 @@ public class Channels<T> {
     public boolean save(T data) {
         int index = dataPartitioner.partition(bufferChannels.length, data);
         int retryCountDown = 1;
-        if (BufferStrategy.IF_POSSIBLE.equals(strategy)) {
+        // A full ring rejects at once and counts the drop, retrying on the same channel only inflates the counter.
+        if (BufferStrategy.IF_POSSIBLE.equals(strategy) && !BufferType.RING.equals(bufferType)) {
             int maxRetryCount = dataPartitioner.maxRetryCount();
             if (maxRetryCount > 1) {
                 retryCountDown = maxRetryCount;
@@ -56,12 +72,24 @@ public class Channels<T> {
         }
         for (; retryCountDown > 0; retryCountDown--) {
             if (bufferChannels[index].save(data)) {
+                WaitStrategy waitStrategy = waitStrategies[index];
+                if (waitStrategy != null) {
+                    waitStrategy.signal();
+                }
                 return true;
             }
         }
         return false;
     }
 
+    /**
+     * Set the {@link WaitStrategy} of the consumer thread in charge of the channel at the given index, which is
+     * signalled when data is saved into the channel.
+     */
+    public void setWaitStrategy(int index, WaitStrategy waitStrategy) {
+        this.waitStrategies[index] = waitStrategy;
+    }
+
     public void setPartitioner(IDataPartitioner<T> dataPartitioner) {
         this.dataPartitioner = dataPartitioner;
     }
@@ -90,4 +118,16 @@ public class Channels<T> {
     public QueueBuffer<T> getBuffer(int index) {
         return this.bufferChannels[index];
     }
+
+    /**
+     * @return the number of data rejected by the channel at the given index. Only {@link MpscRingBuffer} counts the
+     * rejections, other buffers always return 0.
+     */
+    public long getDroppedCount(int index) {
+        QueueBuffer<T> buffer = this.bufferChannels[index];
+        if (buffer instanceof MpscRingBuffer) {
+            return ((MpscRingBuffer<T>) buffer).getDroppedCount();
+        }
+        return 0;
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequence based multi-producer/single-consumer ring queue.
+ * <p>
+ * Each slot carries a sequence number. A producer claims the next position by CAS on the tail cursor, writes the
+ * element, then publishes it by moving the slot sequence forward. The consumer only walks the published slots from
+ * its head cursor, so {@link #obtain(List)} costs in proportion to the data it drains instead of the buffer size.
+ * <p>
+ * When the ring is full, {@link BufferStrategy#BLOCKING} parks the producer until the consumer frees a slot, and
+ * {@link BufferStrategy#IF_POSSIBLE} rejects the data and counts it in {@link #getDroppedCount()}.
+ */
+public class MpscRingBuffer<T> implements QueueBuffer<T> {
+    /**
+     * Pad the tail cursor with 7 longs on each side, to keep it in its own cache line.
+     */
+    private static final int CURSOR_OFFSET = 7;
+    private static final long MAX_PARK_NANOS = 1_000_000L;
+
+    private final int bufferSize;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray tail;
+    private final AtomicBoolean consuming;
+    private final AtomicLong dropped;
+    /**
+     * Only read and written by the thread holding {@link #consuming}.
+     */
+    private long head;
+    private volatile BufferStrategy strategy;
+
+    MpscRingBuffer(int bufferSize, BufferStrategy strategy) {
+        this.bufferSize = bufferSize;
+        this.strategy = strategy;
+        this.elements = new Object[bufferSize];
+        this.sequences = new AtomicLongArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            sequences.set(i, i);
+        }
+        this.tail = new AtomicLongArray(CURSOR_OFFSET * 2 + 1);
+        this.consuming = new AtomicBoolean(false);
+        this.dropped = new AtomicLong(0);
+    }
+
+    @Override
+    public boolean save(T data) {
+        long parkNanos = 1;
+        long position = tail.get(CURSOR_OFFSET);
+        while (true) {
+            int index = (int) (position % bufferSize);
+            long distance = sequences.get(index) - position;
+            if (distance == 0) {
+                if (tail.compareAndSet(CURSOR_OFFSET, position, position + 1)) {
+                    elements[index] = data;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+            } else if (distance < 0) {
+                // The slot still holds the data of the previous round, the ring is full.
+                if (!BufferStrategy.BLOCKING.equals(strategy) || Thread.currentThread().isInterrupted()) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, MAX_PARK_NANOS);
+            }
+            position = tail.get(CURSOR_OFFSET);
+        }
+    }
+
+    @Override
+    public void setStrategy(BufferStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    @Override
+    public void obtain(List<T> consumeList) {
+        if (!consuming.compareAndSet(false, true)) {
+            // Another consumer is draining this ring, such as the previous driver during a driver switch.
+            return;
+        }
+        try {
+            long position = head;
+            final long limit = position + bufferSize;
+            while (position < limit) {
+                int index = (int) (position % bufferSize);
+                if (sequences.get(index) != position + 1) {
+                    break;
+                }
+                consumeList.add((T) elements[index]);
+                elements[index] = null;
+                sequences.lazySet(index, position + bufferSize);
+                position++;
+            }
+            head = position;
+        } finally {
+            consuming.set(false);
+        }
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the number of data rejected because the ring was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+}
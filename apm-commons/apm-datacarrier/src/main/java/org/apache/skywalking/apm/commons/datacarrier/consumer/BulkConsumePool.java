@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import org.apache.skywalking.apm.commons.datacarrier.EnvUtil;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 
@@ -35,10 +36,17 @@ public class BulkConsumePool implements ConsumerPool {
     private volatile boolean isStarted = false;
 
     public BulkConsumePool(String name, int size, long consumeCycle) {
+        this(name, size, () -> new SleepWaitStrategy(consumeCycle));
+    }
+
+    /**
+     * @param waitStrategyCreator creates the {@link WaitStrategy} for each consumer thread.
+     */
+    public BulkConsumePool(String name, int size, Supplier<WaitStrategy> waitStrategyCreator) {
         size = EnvUtil.getInt(name + "_THREAD", size);
         allConsumers = new ArrayList<MultipleChannelsConsumer>(size);
         for (int i = 0; i < size; i++) {
-            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", consumeCycle);
+            MultipleChannelsConsumer multipleChannelsConsumer = new MultipleChannelsConsumer("DataCarrier." + name + ".BulkConsumePool." + i + ".Thread", waitStrategyCreator.get());
             multipleChannelsConsumer.setDaemon(true);
             allConsumers.add(multipleChannelsConsumer);
         }
@@ -98,17 +106,21 @@ public class BulkConsumePool implements ConsumerPool {
     public static class Creator implements Callable<ConsumerPool> {
         private String name;
         private int size;
-        private long consumeCycle;
+        private Supplier<WaitStrategy> waitStrategyCreator;
 
         public Creator(String name, int poolSize, long consumeCycle) {
+            this(name, poolSize, () -> new SleepWaitStrategy(consumeCycle));
+        }
+
+        public Creator(String name, int poolSize, Supplier<WaitStrategy> waitStrategyCreator) {
             this.name = name;
             this.size = poolSize;
-            this.consumeCycle = consumeCycle;
+            this.waitStrategyCreator = waitStrategyCreator;
         }
 
         @Override
         public ConsumerPool call() {
-            return new BulkConsumePool(name, size, consumeCycle);
+            return new BulkConsumePool(name, size, waitStrategyCreator);
         }
 
         public static int recommendMaxSize() {
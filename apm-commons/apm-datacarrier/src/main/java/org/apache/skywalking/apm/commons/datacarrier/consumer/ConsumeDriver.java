@@ -21,6 +21,7 @@ package org.apache.skywalking.apm.commons.datacarrier.consumer;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Properties;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 
 /**
@@ -48,11 +49,22 @@ public class ConsumeDriver<T> implements IDriver {
     }
 
     public ConsumeDriver(String name, Channels<T> channels, IConsumer<T> prototype, int num, long consumeCycle) {
+        this(name, channels, prototype, num, () -> new SleepWaitStrategy(consumeCycle));
+    }
+
+    /**
+     * @param waitStrategyCreator creates the {@link WaitStrategy} for each consumer thread.
+     */
+    public ConsumeDriver(String name,
+                         Channels<T> channels,
+                         IConsumer<T> prototype,
+                         int num,
+                         Supplier<WaitStrategy> waitStrategyCreator) {
         this(channels, num);
         prototype.init(new Properties());
         for (int i = 0; i < num; i++) {
             consumerThreads[i] = new ConsumerThread(
-                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, consumeCycle);
+                "DataCarrier." + name + ".Consumer." + i + ".Thread", prototype, waitStrategyCreator.get());
             consumerThreads[i].setDaemon(true);
         }
 
@@ -121,6 +133,7 @@ public class ConsumeDriver<T> implements IDriver {
         for (int channelIndex = 0; channelIndex < channelSize; channelIndex++) {
             int consumerIndex = channelIndex % consumerThreads.length;
             consumerThreads[consumerIndex].addDataSource(channels.getBuffer(channelIndex));
+            channels.setWaitStrategy(channelIndex, consumerThreads[consumerIndex].getWaitStrategy());
         }
 
     }
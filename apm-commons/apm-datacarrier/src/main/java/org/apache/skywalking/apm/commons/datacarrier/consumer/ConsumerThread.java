@@ -27,14 +27,18 @@ public class ConsumerThread<T> extends Thread {
     private volatile boolean running;
     private IConsumer<T> consumer;
     private List<DataSource> dataSources;
-    private long consumeCycle;
+    private final WaitStrategy waitStrategy;
 
     ConsumerThread(String threadName, IConsumer<T> consumer, long consumeCycle) {
+        this(threadName, consumer, new SleepWaitStrategy(consumeCycle));
+    }
+
+    ConsumerThread(String threadName, IConsumer<T> consumer, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumer = consumer;
         running = false;
         dataSources = new ArrayList<DataSource>(1);
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = waitStrategy;
     }
 
     /**
@@ -50,12 +54,7 @@ public class ConsumerThread<T> extends Thread {
 
         final List<T> consumeList = new ArrayList<T>(1500);
         while (running) {
-            if (!consume(consumeList)) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
-            }
+            waitStrategy.await(consume(consumeList));
         }
 
         // consumer thread is going to stop
@@ -86,6 +85,11 @@ public class ConsumerThread<T> extends Thread {
 
     void shutdown() {
         running = false;
+        waitStrategy.wakeUp();
+    }
+
+    WaitStrategy getWaitStrategy() {
+        return waitStrategy;
     }
 
     /**
@@ -32,12 +32,16 @@ public class MultipleChannelsConsumer extends Thread {
     private volatile ArrayList<Group> consumeTargets;
     @SuppressWarnings("NonAtomicVolatileUpdate")
     private volatile long size;
-    private final long consumeCycle;
+    private final WaitStrategy waitStrategy;
 
     public MultipleChannelsConsumer(String threadName, long consumeCycle) {
+        this(threadName, new SleepWaitStrategy(consumeCycle));
+    }
+
+    public MultipleChannelsConsumer(String threadName, WaitStrategy waitStrategy) {
         super(threadName);
         this.consumeTargets = new ArrayList<Group>();
-        this.consumeCycle = consumeCycle;
+        this.waitStrategy = waitStrategy;
     }
 
     @Override
@@ -52,12 +56,7 @@ public class MultipleChannelsConsumer extends Thread {
                 hasData = hasData || consume;
             }
 
-            if (!hasData) {
-                try {
-                    Thread.sleep(consumeCycle);
-                } catch (InterruptedException e) {
-                }
-            }
+            waitStrategy.await(hasData);
         }
 
         // consumer thread is going to stop
@@ -102,6 +101,9 @@ public class MultipleChannelsConsumer extends Thread {
         newList.add(group);
         consumeTargets = newList;
         size += channels.size();
+        for (int i = 0; i < channels.getChannelSize(); i++) {
+            channels.setWaitStrategy(i, waitStrategy);
+        }
     }
 
     public long size() {
@@ -110,6 +112,7 @@ public class MultipleChannelsConsumer extends Thread {
 
     void shutdown() {
         running = false;
+        waitStrategy.wakeUp();
     }
 
     private static class Group {
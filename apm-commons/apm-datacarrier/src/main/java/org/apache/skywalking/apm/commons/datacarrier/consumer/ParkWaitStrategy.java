@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Park the consumer thread when the last round fetched nothing, and let producers unpark it once the data saved since
+ * the last fetch reaches the watermark.
+ * <p>
+ * The park time starts from the min idle time, and doubles for each round fetching nothing, until the max idle time.
+ * So an idle consumer wakes up rarely, and a busy one is woken up by producers instead of waiting for the cycle.
+ * <p>
+ * Producers count every saved data, even when the consumer is running. Otherwise, the data saved between the last
+ * fetch and the park would not be noticed until the park times out. The counter is reset after each round, so it
+ * only holds the data which the next fetch may not have seen.
+ */
+public class ParkWaitStrategy implements WaitStrategy {
+    private final long minIdleNanos;
+    private final long maxIdleNanos;
+    private final int watermark;
+    private final AtomicReference<Thread> waiter;
+    private final LongAdder pending;
+    private long idleNanos;
+
+    /**
+     * @param minIdleMillis the park time of the first idle round.
+     * @param maxIdleMillis the upper bound of the park time.
+     * @param watermark     the number of data saved since the last fetch to wake up the consumer.
+     */
+    public ParkWaitStrategy(long minIdleMillis, long maxIdleMillis, int watermark) {
+        this.minIdleNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(minIdleMillis, 1));
+        this.maxIdleNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(maxIdleMillis), this.minIdleNanos);
+        this.watermark = Math.max(watermark, 1);
+        this.waiter = new AtomicReference<>();
+        this.pending = new LongAdder();
+        this.idleNanos = this.minIdleNanos;
+    }
+
+    @Override
+    public void await(boolean consumed) {
+        if (consumed) {
+            idleNanos = minIdleNanos;
+        } else {
+            waiter.set(Thread.currentThread());
+            // Producers may have crossed the watermark before the waiter is visible, check it again.
+            if (pending.sum() < watermark) {
+                LockSupport.parkNanos(this, idleNanos);
+            }
+            waiter.set(null);
+            idleNanos = Math.min(idleNanos << 1, maxIdleNanos);
+        }
+        // Increments lost by the reset belong to data saved before it, which the next fetch can see.
+        pending.reset();
+    }
+
+    @Override
+    public void signal() {
+        pending.increment();
+        if (waiter.get() != null && pending.sum() >= watermark) {
+            wakeUp();
+        }
+    }
+
+    @Override
+    public void wakeUp() {
+        Thread thread = waiter.getAndSet(null);
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+/**
+ * Sleep a fixed consume cycle whenever the last round fetched nothing. Producers are never involved.
+ */
+public class SleepWaitStrategy implements WaitStrategy {
+    private final long consumeCycle;
+
+    /**
+     * @param consumeCycle sleep time in millis.
+     */
+    public SleepWaitStrategy(long consumeCycle) {
+        this.consumeCycle = consumeCycle;
+    }
+
+    @Override
+    public void await(boolean consumed) {
+        if (consumed) {
+            return;
+        }
+        try {
+            Thread.sleep(consumeCycle);
+        } catch (InterruptedException e) {
+        }
+    }
+
+    @Override
+    public void signal() {
+    }
+
+    @Override
+    public void wakeUp() {
+        // The sleep is short enough, let the consumer finish it.
+    }
+}
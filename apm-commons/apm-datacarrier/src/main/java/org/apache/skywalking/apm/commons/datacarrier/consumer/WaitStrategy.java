@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+/**
+ * WaitStrategy decides how a consumer thread waits between two rounds of consuming. Each consumer thread owns one
+ * instance, and the channels assigned to the thread signal it through {@link #signal()} when new data is saved.
+ */
+public interface WaitStrategy {
+    /**
+     * Called by the consumer thread after each round of consuming.
+     *
+     * @param consumed true if the last round has fetched data from the channels.
+     */
+    void await(boolean consumed);
+
+    /**
+     * Called by the producer threads after the data is saved into a channel of this consumer.
+     */
+    void signal();
+
+    /**
+     * Wake up the waiting consumer thread at once, such as at shutdown.
+     */
+    void wakeUp();
+}
@@ -22,6 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferType;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.Channels;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.QueueBuffer;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
@@ -95,6 +96,29 @@ public class DataCarrierTest {
         Assert.assertEquals(200, result.size());
     }
 
+    @Test
+    public void testRingIfPossibleProduce() throws IllegalAccessException, NoSuchFieldException {
+        DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(
+            2, 100, BufferStrategy.IF_POSSIBLE, BufferType.RING);
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setName("d" + i)));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            Assert.assertFalse(carrier.produce(new SampleData().setName("d" + i + "_2")));
+        }
+
+        Channels<SampleData> channels = FieldGetter.getValue(carrier, "channels");
+        Assert.assertEquals(100, channels.getDroppedCount(0));
+        Assert.assertEquals(100, channels.getDroppedCount(1));
+
+        List result = new ArrayList();
+        channels.getBuffer(0).obtain(result);
+        channels.getBuffer(1).obtain(result);
+        Assert.assertEquals(200, result.size());
+    }
+
     @Test
     public void testBlockingProduce() throws IllegalAccessException {
         final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(2, 100);
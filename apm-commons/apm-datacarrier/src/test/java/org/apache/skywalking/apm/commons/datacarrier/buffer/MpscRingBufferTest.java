@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MpscRingBufferTest {
+    @Test
+    public void testSaveAndObtainInOrder() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(10, BufferStrategy.IF_POSSIBLE);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 7; i++) {
+                Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+            }
+            List<SampleData> result = new ArrayList<>();
+            buffer.obtain(result);
+            Assert.assertEquals(7, result.size());
+            for (int i = 0; i < 7; i++) {
+                Assert.assertEquals(i, result.get(i).getIntValue());
+            }
+        }
+    }
+
+    @Test
+    public void testIfPossibleDropsWhenFull() {
+        MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(100, BufferStrategy.IF_POSSIBLE);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        for (int i = 0; i < 20; i++) {
+            Assert.assertFalse(buffer.save(new SampleData().setIntValue(i)));
+        }
+        Assert.assertEquals(20, buffer.getDroppedCount());
+
+        List<SampleData> result = new ArrayList<>();
+        buffer.obtain(result);
+        Assert.assertEquals(100, result.size());
+        Assert.assertTrue(buffer.save(new SampleData()));
+    }
+
+    @Test
+    public void testBlockingWaitsForConsumer() throws InterruptedException {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(10, BufferStrategy.BLOCKING);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(buffer.save(new SampleData().setIntValue(i)));
+        }
+        final CountDownLatch saved = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            buffer.save(new SampleData().setIntValue(10));
+            saved.countDown();
+        });
+        producer.start();
+        Thread.sleep(200);
+        Assert.assertEquals(1, saved.getCount());
+
+        List<SampleData> result = new ArrayList<>();
+        buffer.obtain(result);
+        saved.await();
+        buffer.obtain(result);
+        Assert.assertEquals(11, result.size());
+        Assert.assertEquals(0, buffer.getDroppedCount());
+    }
+
+    @Test
+    public void testMultipleProducers() throws InterruptedException {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(64, BufferStrategy.BLOCKING);
+        final int producers = 4;
+        final int perProducer = 10000;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            threads[p] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    buffer.save(new SampleData().setIntValue(base + i));
+                }
+            });
+            threads[p].start();
+        }
+
+        Set<Integer> values = new HashSet<>();
+        List<SampleData> result = new ArrayList<>();
+        while (values.size() < producers * perProducer) {
+            buffer.obtain(result);
+            for (SampleData data : result) {
+                Assert.assertTrue(values.add(data.getIntValue()));
+            }
+            result.clear();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        buffer.obtain(result);
+        Assert.assertTrue(result.isEmpty());
+    }
+}
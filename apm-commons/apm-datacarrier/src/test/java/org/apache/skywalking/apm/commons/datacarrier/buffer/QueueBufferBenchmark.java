@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.buffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare {@link Buffer}, {@link ArrayBlockingQueueBuffer} and {@link MpscRingBuffer} with 4 producers and 1 consumer,
+ * the same shape as a DataCarrier channel in the agent. All buffers use {@link BufferStrategy#IF_POSSIBLE}, as blocked
+ * producers would never return once the consumer thread stops at the end of an iteration.
+ */
+@BenchmarkMode({Mode.Throughput})
+public class QueueBufferBenchmark {
+    private static final int BUFFER_SIZE = 300;
+    private static final SampleData DATA = new SampleData();
+
+    @State(Scope.Group)
+    public static class BufferState {
+        final Buffer<SampleData> buffer = new Buffer<>(BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        final List<SampleData> consumeList = new ArrayList<>(BUFFER_SIZE);
+    }
+
+    @State(Scope.Group)
+    public static class ArrayBlockingQueueBufferState {
+        final ArrayBlockingQueueBuffer<SampleData> buffer = new ArrayBlockingQueueBuffer<>(
+            BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        final List<SampleData> consumeList = new ArrayList<>(BUFFER_SIZE);
+    }
+
+    @State(Scope.Group)
+    public static class RingBufferState {
+        final MpscRingBuffer<SampleData> buffer = new MpscRingBuffer<>(BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
+        final List<SampleData> consumeList = new ArrayList<>(BUFFER_SIZE);
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(4)
+    public boolean bufferSave(BufferState state) {
+        return state.buffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("buffer")
+    @GroupThreads(1)
+    public int bufferObtain(BufferState state) {
+        state.buffer.obtain(state.consumeList);
+        int size = state.consumeList.size();
+        state.consumeList.clear();
+        return size;
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueueBuffer")
+    @GroupThreads(4)
+    public boolean arrayBlockingQueueBufferSave(ArrayBlockingQueueBufferState state) {
+        return state.buffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueueBuffer")
+    @GroupThreads(1)
+    public int arrayBlockingQueueBufferObtain(ArrayBlockingQueueBufferState state) {
+        state.buffer.obtain(state.consumeList);
+        int size = state.consumeList.size();
+        state.consumeList.clear();
+        return size;
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(4)
+    public boolean ringBufferSave(RingBufferState state) {
+        return state.buffer.save(DATA);
+    }
+
+    @Benchmark
+    @Group("ringBuffer")
+    @GroupThreads(1)
+    public int ringBufferObtain(RingBufferState state) {
+        state.buffer.obtain(state.consumeList);
+        int size = state.consumeList.size();
+        state.consumeList.clear();
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(QueueBufferBenchmark.class.getName())
+                                          .addProfiler(GCProfiler.class)
+                                          .jvmArgsAppend("-Xmx512m", "-Xms512m")
+                                          .warmupIterations(3)
+                                          .measurementIterations(5)
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
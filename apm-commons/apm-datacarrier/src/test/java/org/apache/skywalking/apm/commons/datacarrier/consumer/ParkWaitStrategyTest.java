@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParkWaitStrategyTest {
+    @Test
+    public void testProducerWakesUpParkedConsumer() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 100, BufferStrategy.IF_POSSIBLE);
+        LatchConsumer consumer = new LatchConsumer(3);
+        carrier.consume(consumer, 1, () -> new ParkWaitStrategy(60_000, 60_000, 1));
+
+        // Let the consumer thread go to park.
+        Thread.sleep(200);
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertTrue(carrier.produce(new SampleData().setIntValue(i)));
+        }
+        Assert.assertTrue(consumer.latch.await(5, TimeUnit.SECONDS));
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testIdleBackoff() throws InterruptedException {
+        final DataCarrier<SampleData> carrier = new DataCarrier<SampleData>(1, 100, BufferStrategy.IF_POSSIBLE);
+        LatchConsumer consumer = new LatchConsumer(1);
+        carrier.consume(consumer, 1, () -> new ParkWaitStrategy(10, 320, 1));
+
+        Thread.sleep(1000);
+        // 10 + 20 + 40 + 80 + 160 + 320 + 320, far less than the 100 rounds of a fixed 10ms cycle.
+        Assert.assertTrue(consumer.idleRounds < 10);
+
+        carrier.shutdownConsumers();
+    }
+
+    @Test
+    public void testBelowWatermarkWaitsForIdleTime() throws InterruptedException {
+        ParkWaitStrategy strategy = new ParkWaitStrategy(300, 300, 2);
+        Thread producer = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+            }
+            strategy.signal();
+        });
+        producer.start();
+
+        long start = System.nanoTime();
+        strategy.await(false);
+        Assert.assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(250));
+        producer.join();
+    }
+
+    private static class LatchConsumer implements IConsumer<SampleData> {
+        private final CountDownLatch latch;
+        private volatile int idleRounds;
+
+        private LatchConsumer(int count) {
+            this.latch = new CountDownLatch(count);
+        }
+
+        @Override
+        public void init(final Properties properties) {
+
+        }
+
+        @Override
+        public void consume(List<SampleData> data) {
+            for (SampleData one : data) {
+                latch.countDown();
+            }
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+
+        @Override
+        public void nothingToConsume() {
+            idleRounds++;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.commons.datacarrier.consumer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
+import org.apache.skywalking.apm.commons.datacarrier.SampleData;
+import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare {@link SleepWaitStrategy} with the default 20ms cycle and {@link ParkWaitStrategy}.
+ * <p>
+ * {@link #produceToConsume} measures the latency from producing one data to the consumer receiving it.
+ * {@link #idle} keeps the carrier empty for 100ms per op, and reports the wake-ups and the CPU time of the consumer
+ * thread per op.
+ */
+public class WaitStrategyBenchmark {
+    private static final String CARRIER_NAME = "WaitStrategyBenchmark";
+    private static final SampleData DATA = new SampleData();
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    @State(Scope.Benchmark)
+    public static class CarrierState {
+        @Param({
+            "sleep",
+            "park"
+        })
+        public String strategy;
+
+        DataCarrier<SampleData> carrier;
+        CountingConsumer consumer;
+        long consumerThreadId;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Supplier<WaitStrategy> creator = "park".equals(strategy)
+                ? () -> new ParkWaitStrategy(20, 1000, 1)
+                : () -> new SleepWaitStrategy(20);
+            consumer = new CountingConsumer();
+            carrier = new DataCarrier<>(CARRIER_NAME, CARRIER_NAME, 1, 1000, BufferStrategy.IF_POSSIBLE);
+            carrier.consume(consumer, 1, creator);
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().startsWith("DataCarrier." + CARRIER_NAME + ".Consumer.")) {
+                    consumerThreadId = thread.getId();
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            carrier.shutdownConsumers();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class IdleCounters {
+        public long wakeUps;
+        public long cpuNanos;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long produceToConsume(CarrierState state) {
+        long target = state.consumer.consumed + 1;
+        state.carrier.produce(DATA);
+        while (state.consumer.consumed < target) {
+            Thread.yield();
+        }
+        return target;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void idle(CarrierState state, IdleCounters counters) throws InterruptedException {
+        long idleRounds = state.consumer.idleRounds;
+        long cpuTime = THREAD_MX_BEAN.getThreadCpuTime(state.consumerThreadId);
+        Thread.sleep(100);
+        counters.wakeUps += state.consumer.idleRounds - idleRounds;
+        counters.cpuNanos += THREAD_MX_BEAN.getThreadCpuTime(state.consumerThreadId) - cpuTime;
+    }
+
+    public static class CountingConsumer implements IConsumer<SampleData> {
+        private volatile long consumed;
+        private volatile long idleRounds;
+
+        @Override
+        public void init(final Properties properties) {
+
+        }
+
+        @Override
+        @SuppressWarnings("NonAtomicVolatileUpdate")
+        public void consume(List<SampleData> data) {
+            consumed += data.size();
+        }
+
+        @Override
+        public void onError(List<SampleData> data, Throwable t) {
+
+        }
+
+        @Override
+        public void onExit() {
+
+        }
+
+        @Override
+        @SuppressWarnings("NonAtomicVolatileUpdate")
+        public void nothingToConsume() {
+            idleRounds++;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder().include(WaitStrategyBenchmark.class.getName())
+                                          .warmupIterations(2)
+                                          .measurementIterations(5)
+                                          .forks(1)
+                                          .build();
+        new Runner(opt).run();
+    }
+}
@@ -23,7 +23,6 @@ import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -32,13 +31,13 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.network.common.v3.Commands;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskCommandQuery;
 import org.apache.skywalking.apm.network.language.asyncprofiler.v10.AsyncProfilerTaskGrpc;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.GRPC_UPSTREAM_TIMEOUT;
@@ -52,7 +51,7 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     private volatile AsyncProfilerTaskGrpc.AsyncProfilerTaskBlockingStub asyncProfilerTaskBlockingStub;
 
     // query task schedule
-    private volatile ScheduledFuture<?> getTaskFuture;
+    private volatile ScheduledTask getTaskTask;
 
     @Override
     public void run() {
@@ -78,8 +77,8 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
                 final StatusRuntimeException statusRuntimeException = (StatusRuntimeException) t;
                 if (Status.Code.UNIMPLEMENTED.equals(statusRuntimeException.getStatus().getCode())) {
                     LOGGER.warn("Backend doesn't support async-profiler, async-profiler will be disabled");
-                    if (getTaskFuture != null) {
-                        getTaskFuture.cancel(true);
+                    if (getTaskTask != null) {
+                        getTaskTask.cancel();
                     }
                 }
             }
@@ -106,9 +105,8 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
     public void boot() throws Throwable {
 
         if (Config.AsyncProfiler.ACTIVE) {
-            getTaskFuture = Executors.newSingleThreadScheduledExecutor(
-                    new DefaultNamedThreadFactory("AsyncProfilerGetTaskService")
-            ).scheduleWithFixedDelay(
+            getTaskTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleWithFixedDelay(
+                    "AsyncProfilerGetTaskService",
                     new RunnableWithExceptionProtection(
                             this,
                             t -> LOGGER.error("Query async profiler task list failure.", t)
@@ -124,8 +122,8 @@ public class AsyncProfilerTaskChannelService implements BootService, Runnable, G
 
     @Override
     public void shutdown() throws Throwable {
-        if (getTaskFuture != null) {
-            getTaskFuture.cancel(true);
+        if (getTaskTask != null) {
+            getTaskTask.cancel();
         }
     }
 }
@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.base64;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 /**
  * A wrapper of {@link java.util.Base64} with convenient conversion methods between {@code byte[]} and {@code String}
@@ -26,6 +27,15 @@ import java.nio.charset.StandardCharsets;
 public final class Base64 {
     private static final java.util.Base64.Decoder DECODER = java.util.Base64.getDecoder();
     private static final java.util.Base64.Encoder ENCODER = java.util.Base64.getEncoder();
+    private static final char[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    private static final int[] DECODE_TABLE = new int[128];
+
+    static {
+        Arrays.fill(DECODE_TABLE, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            DECODE_TABLE[ALPHABET[i]] = i;
+        }
+    }
 
     private Base64() {
     }
@@ -38,4 +48,138 @@ public final class Base64 {
         return ENCODER.encodeToString(text.getBytes(StandardCharsets.UTF_8));
     }
 
+    /**
+     * @return the length of the Base64 encoded UTF-8 bytes of the text.
+     */
+    public static int encodedLength(String text) {
+        return (utf8Length(text) + 2) / 3 * 4;
+    }
+
+    /**
+     * Encode the UTF-8 bytes of the text into the chars, without creating the bytes. The unpaired surrogates are
+     * encoded as '?', the same as {@link String#getBytes(java.nio.charset.Charset)}.
+     *
+     * @param out    the chars to write, with {@link #encodedLength(String)} space from the offset.
+     * @param offset the index of the first char to write.
+     * @return the index after the last written char.
+     */
+    public static int encode(String text, char[] out, int offset) {
+        int buffer = 0;
+        int buffered = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int codePoint = text.charAt(i);
+            if (Character.isHighSurrogate((char) codePoint) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+                codePoint = Character.toCodePoint((char) codePoint, text.charAt(++i));
+            } else if (Character.isSurrogate((char) codePoint)) {
+                codePoint = '?';
+            }
+            int bytes;
+            int byteCount;
+            if (codePoint < 0x80) {
+                bytes = codePoint;
+                byteCount = 1;
+            } else if (codePoint < 0x800) {
+                bytes = (0xC0 | codePoint >> 6) << 8 | 0x80 | codePoint & 0x3F;
+                byteCount = 2;
+            } else if (codePoint < 0x10000) {
+                bytes = (0xE0 | codePoint >> 12) << 16 | (0x80 | codePoint >> 6 & 0x3F) << 8 | 0x80 | codePoint & 0x3F;
+                byteCount = 3;
+            } else {
+                bytes = (0xF0 | codePoint >> 18) << 24 | (0x80 | codePoint >> 12 & 0x3F) << 16
+                    | (0x80 | codePoint >> 6 & 0x3F) << 8 | 0x80 | codePoint & 0x3F;
+                byteCount = 4;
+            }
+            for (int shift = (byteCount - 1) * 8; shift >= 0; shift -= 8) {
+                buffer = buffer << 8 | bytes >>> shift & 0xFF;
+                if (++buffered == 3) {
+                    out[offset++] = ALPHABET[buffer >>> 18];
+                    out[offset++] = ALPHABET[buffer >>> 12 & 0x3F];
+                    out[offset++] = ALPHABET[buffer >>> 6 & 0x3F];
+                    out[offset++] = ALPHABET[buffer & 0x3F];
+                    buffer = 0;
+                    buffered = 0;
+                }
+            }
+        }
+        if (buffered == 1) {
+            out[offset++] = ALPHABET[buffer >>> 2];
+            out[offset++] = ALPHABET[buffer << 4 & 0x3F];
+            out[offset++] = '=';
+            out[offset++] = '=';
+        } else if (buffered == 2) {
+            out[offset++] = ALPHABET[buffer >>> 10];
+            out[offset++] = ALPHABET[buffer >>> 4 & 0x3F];
+            out[offset++] = ALPHABET[buffer << 2 & 0x3F];
+            out[offset++] = '=';
+        }
+        return offset;
+    }
+
+    /**
+     * Decode the chars between the begin and the end index of the input, without creating the substring.
+     *
+     * @throws IllegalArgumentException if the chars are not Base64 encoded.
+     */
+    public static String decode2UTFString(String in, int begin, int end) {
+        int padding = 0;
+        if (end > begin && in.charAt(end - 1) == '=') {
+            padding = end - 1 > begin && in.charAt(end - 2) == '=' ? 2 : 1;
+            if ((end - begin) % 4 != 0) {
+                throw new IllegalArgumentException("Illegal Base64 padding.");
+            }
+        }
+        int dataLength = end - begin - padding;
+        if (dataLength % 4 == 1) {
+            throw new IllegalArgumentException("Illegal Base64 length.");
+        }
+        byte[] bytes = new byte[dataLength * 3 / 4];
+        int buffer = 0;
+        int buffered = 0;
+        int position = 0;
+        for (int i = begin; i < begin + dataLength; i++) {
+            char c = in.charAt(i);
+            int value = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+            if (value < 0) {
+                throw new IllegalArgumentException("Illegal Base64 character " + c);
+            }
+            buffer = buffer << 6 | value;
+            if (++buffered == 4) {
+                bytes[position++] = (byte) (buffer >> 16);
+                bytes[position++] = (byte) (buffer >> 8);
+                bytes[position++] = (byte) buffer;
+                buffer = 0;
+                buffered = 0;
+            }
+        }
+        if (buffered == 2) {
+            bytes[position] = (byte) (buffer >> 4);
+        } else if (buffered == 3) {
+            bytes[position++] = (byte) (buffer >> 10);
+            bytes[position] = (byte) (buffer >> 2);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int utf8Length(String text) {
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length()
+                && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
 }
@@ -25,6 +25,7 @@ import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
 import org.apache.skywalking.apm.agent.core.logging.core.LogOutput;
 import org.apache.skywalking.apm.agent.core.logging.core.ResolverType;
 import org.apache.skywalking.apm.agent.core.logging.core.WriterFactory;
+import org.apache.skywalking.apm.agent.core.remote.BackendPoolStrategy;
 import org.apache.skywalking.apm.util.Length;
 
 /**
@@ -86,6 +87,18 @@ public class Config {
          */
         public static int SAMPLE_N_PER_3_SECS = -1;
 
+        /**
+         * If true, {@link #SAMPLE_N_PER_3_SECS} is shared among the endpoints, the operation names of the first spans,
+         * so the endpoints with more traces than their share are sampled less, rather than taking the whole limit.
+         */
+        public static boolean SAMPLE_ENDPOINT_FAIRNESS = false;
+
+        /**
+         * The max number of endpoints tracked by {@link #SAMPLE_ENDPOINT_FAIRNESS}, the least recently used endpoints
+         * are evicted beyond it.
+         */
+        public static int SAMPLE_MAX_ENDPOINTS = 1000;
+
         /**
          * If the operation name of the first span is included in this set, this segment should be ignored. Multiple
          * values should be separated by `,`.
@@ -174,6 +187,15 @@ public class Config {
          * Enable the agent kernel services and instrumentation.
          */
         public static boolean ENABLE = true;
+
+        /**
+         * The max number of threads running the periodic tasks of the agent services which may block on the backend,
+         * such as the heartbeat, the metrics reporting and the polling of the profile tasks and the dynamic
+         * configurations. The short in-memory tasks, such as the sampling resets, run in the timer thread instead. More
+         * threads keep a slow or unreachable backend from delaying the other calls, at the cost of more threads while
+         * they are busy, the threads are stopped when idle.
+         */
+        public static int SCHEDULER_WORKER_THREADS = 2;
     }
 
     public static class OsInfo {
@@ -217,6 +239,95 @@ public class Config {
          * If true, skywalking agent will enable periodically resolving DNS to update receiver service addresses.
          */
         public static boolean IS_RESOLVE_DNS_PERIODICALLY = false;
+        /**
+         * The number of backends connected at the same time, the calls are spread over them by {@link
+         * #BACKEND_POOL_STRATEGY}. 1 means all the data is sent to one backend.
+         */
+        public static int BACKEND_POOL_SIZE = 1;
+        /**
+         * How the calls are spread over the backends, when {@link #BACKEND_POOL_SIZE} is larger than 1.
+         */
+        public static BackendPoolStrategy BACKEND_POOL_STRATEGY = BackendPoolStrategy.LEAST_OUTSTANDING;
+        /**
+         * If true, trace segments are sent through a stream kept open across batches, instead of a new stream per
+         * batch waiting for the collector to complete it.
+         */
+        public static boolean SEGMENT_STREAM_LONG_LIVED = false;
+        /**
+         * The max age of the long-lived segment stream, it is replaced by a new one after that. Unit is second.
+         */
+        public static long SEGMENT_STREAM_MAX_AGE = 60;
+        /**
+         * The number of threads serializing trace segments before sending, for both gRPC and Kafka reporters. 0 means
+         * serializing on the consumer thread of the reporter.
+         */
+        public static int SEGMENT_SERIALIZE_THREADS = 0;
+        /**
+         * If true, the serialized segments are sent in the order they are finished. Otherwise, each one is sent as
+         * soon as it is serialized.
+         */
+        public static boolean SEGMENT_SERIALIZE_ORDERED = true;
+        /**
+         * The directory spooling the trace segments while the collector is not connected, they are replayed once
+         * connected. The relative path is resolved against the agent directory. Empty means the segments are
+         * abandoned.
+         */
+        public static String SEGMENT_SPOOL_PATH = "";
+        /**
+         * The size of every spool file. Unit is byte.
+         */
+        public static int SEGMENT_SPOOL_FILE_SIZE = 16 * 1024 * 1024;
+        /**
+         * The max number of spool files, the oldest one is dropped when a new one is required.
+         */
+        public static int SEGMENT_SPOOL_MAX_FILES = 8;
+        /**
+         * The spooled segments older than this are dropped rather than replayed. Unit is second.
+         */
+        public static long SEGMENT_SPOOL_MAX_AGE = 3600;
+        /**
+         * The max number of spooled segments replayed per second.
+         */
+        public static int SEGMENT_SPOOL_REPLAY_RATE = 200;
+    }
+
+    public static class TailSampling {
+        /**
+         * If true, the finished segments are held in memory, and only the segments of the error, slow and sampled
+         * traces are reported. Works best with the head sampling {@link Agent#SAMPLE_N_PER_3_SECS} off.
+         */
+        public static boolean ACTIVE = false;
+
+        /**
+         * The trace is decided once no segment of it finished in this time(milliseconds), or it has been held for 10
+         * times of this time.
+         */
+        public static long DECISION_WAIT = 2000;
+
+        /**
+         * The max number of spans held in memory. Once reached, the trace of the incoming segment is decided
+         * immediately, and counted as evicted.
+         */
+        public static int MAX_BUFFERED_SPANS = 50000;
+
+        /**
+         * The trace is kept if the first span of any segment lasts longer than this time(milliseconds). Negative or
+         * zero means no trace is kept for the latency. This could be changed dynamically.
+         */
+        public static long LATENCY_THRESHOLD = 1000;
+
+        /**
+         * The latency thresholds overriding {@link #LATENCY_THRESHOLD} for the given endpoints, the operation names of
+         * the first spans. Format is `endpoint=milliseconds`, multiple values should be separated by `,`. This could be
+         * changed dynamically.
+         */
+        public static String ENDPOINT_LATENCY_THRESHOLDS = "";
+
+        /**
+         * The number of traces without error and slow spans kept in 3 seconds. Negative means keeping all of them.
+         * This could be changed dynamically.
+         */
+        public static int SAMPLE_N_PER_3_SECS = 10;
     }
 
     public static class Profile {
@@ -296,6 +407,31 @@ public class Config {
         public static Integer MAX_METER_SIZE = 500;
     }
 
+    public static class Red {
+        /**
+         * If true, the agent aggregates the rate, errors and duration of every entry and exit span, no matter the trace
+         * is sampled or not, and reports them as meters.
+         */
+        public static boolean ACTIVE = false;
+
+        /**
+         * The interval(seconds) of reporting the aggregated meters.
+         */
+        public static int FLUSH_INTERVAL = 20;
+
+        /**
+         * The max number of endpoints, the operation names of the entry spans, measured separately. The others are
+         * measured together.
+         */
+        public static int MAX_ENDPOINTS = 100;
+
+        /**
+         * The max number of downstream peers, the peers of the exit spans, measured separately. The others are measured
+         * together.
+         */
+        public static int MAX_PEERS = 50;
+    }
+
     public static class Jvm {
         /**
          * The buffer size of collected JVM info.
@@ -403,6 +539,33 @@ public class Config {
          * Mount the folders of the plugins. The folder path is relative to agent.jar.
          */
         public static List<String> MOUNT = Arrays.asList("plugins", "activations");
+
+        /**
+         * The folder keeping the enhanced classes, so they are loaded without enhancing again after the application
+         * restarts. The folder path is relative to agent.jar. Empty means the cache is disabled.
+         */
+        public static String ENHANCED_CLASS_CACHE_PATH = "";
+
+        /**
+         * The number of threads loading the plugin defines and generating the bootstrap delegators at the agent
+         * startup. 0 or 1 means they are done in the premain thread.
+         */
+        public static int BOOTSTRAP_PARALLELISM = 0;
+
+        /**
+         * If true, the plugin defines indexed in the plugin jars are loaded only when the classes matched by them show
+         * up, rather than at the agent startup. Plugins without the index, matching the classes by anything other
+         * than the names, the name prefixes, the class annotations or the super types, or instrumenting the bootstrap
+         * classes, are still loaded at the startup.
+         */
+        public static boolean LAZY_ACTIVATION = false;
+
+        /**
+         * The time cost of the interceptors is measured in one of every this number of calls, to not read the clock
+         * in every intercepted call. 1 means every call is measured. With a bigger interval, the counts of the
+         * interceptor time cost histogram are a sample of the intercepted calls, rather than the number of them.
+         */
+        public static int INTERCEPTOR_TIME_COST_SAMPLE_INTERVAL = 1;
     }
 
     public static class Correlation {
@@ -26,15 +26,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.Getter;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.commands.CommandService;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -43,6 +40,8 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.agent.core.util.CollectionUtil;
 import org.apache.skywalking.apm.network.language.agent.v3.ConfigurationDiscoveryServiceGrpc;
 import org.apache.skywalking.apm.network.language.agent.v3.ConfigurationSyncRequest;
@@ -65,7 +64,7 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
 
     private volatile int lastRegisterWatcherSize;
 
-    private volatile ScheduledFuture<?> getDynamicConfigurationFuture;
+    private volatile ScheduledTask getDynamicConfigurationTask;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
     private volatile ConfigurationDiscoveryServiceGrpc.ConfigurationDiscoveryServiceBlockingStub configurationDiscoveryServiceBlockingStub;
 
@@ -89,9 +88,8 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
 
     @Override
     public void boot() throws Throwable {
-        getDynamicConfigurationFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ConfigurationDiscoveryService")
-        ).scheduleAtFixedRate(
+        getDynamicConfigurationTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+            "ConfigurationDiscoveryService",
             new RunnableWithExceptionProtection(
                 this::getAgentDynamicConfig,
                 t -> LOGGER.error("Sync config from OAP error.", t)
@@ -109,8 +107,8 @@ public class ConfigurationDiscoveryService implements BootService, GRPCChannelLi
 
     @Override
     public void shutdown() throws Throwable {
-        if (getDynamicConfigurationFuture != null) {
-            getDynamicConfigurationFuture.cancel(true);
+        if (getDynamicConfigurationTask != null) {
+            getDynamicConfigurationTask.cancel();
         }
     }
 
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.conf.dynamic.watcher;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.TailSamplingService;
+
+/**
+ * Watch one of the dynamic settings of {@link TailSamplingService}. The raw value is kept, and parsed by the service
+ * into its policy.
+ */
+public class TailSamplingPolicyWatcher extends AgentConfigChangeWatcher {
+    private static final ILog LOGGER = LogManager.getLogger(TailSamplingPolicyWatcher.class);
+
+    private final String defaultValue;
+    private final AtomicReference<String> setting;
+    private final TailSamplingService tailSamplingService;
+
+    public TailSamplingPolicyWatcher(final String propertyKey,
+                                     final String defaultValue,
+                                     final TailSamplingService tailSamplingService) {
+        super(propertyKey);
+        this.defaultValue = defaultValue;
+        this.setting = new AtomicReference<>(defaultValue);
+        this.tailSamplingService = tailSamplingService;
+    }
+
+    private void activeSetting(String config) {
+        if (LOGGER.isDebugEnable()) {
+            LOGGER.debug("Updating using new static config: {}", config);
+        }
+        this.setting.set(config);
+        tailSamplingService.handlePolicyChanged();
+    }
+
+    @Override
+    public void notify(final ConfigChangeEvent value) {
+        if (EventType.DELETE.equals(value.getEventType())) {
+            activeSetting(defaultValue);
+        } else {
+            activeSetting(value.getNewValue());
+        }
+    }
+
+    @Override
+    public String value() {
+        return setting.get();
+    }
+}
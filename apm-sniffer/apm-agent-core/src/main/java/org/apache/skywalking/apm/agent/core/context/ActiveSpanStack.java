@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+
+/**
+ * The array-backed 'ActiveSpanStack' of {@link TracingContext}. Push and pop only move the top index, and the array
+ * is doubled once it is full, so no node is created per span.
+ * <p>
+ * It is not thread safe, as the stack is only accessed by the thread tracing the context.
+ */
+final class ActiveSpanStack {
+    private AbstractSpan[] elements;
+    private int size;
+
+    ActiveSpanStack(int initialCapacity) {
+        this.elements = new AbstractSpan[Math.max(initialCapacity, 1)];
+    }
+
+    void push(AbstractSpan span) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size << 1);
+        }
+        elements[size++] = span;
+    }
+
+    /**
+     * @return the top element, and remove it.
+     * @throws NoSuchElementException if the stack is empty.
+     */
+    AbstractSpan pop() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        AbstractSpan span = elements[--size];
+        elements[size] = null;
+        return span;
+    }
+
+    /**
+     * @return the top element, or null if the stack is empty.
+     */
+    AbstractSpan peek() {
+        return size == 0 ? null : elements[size - 1];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Iterate the spans from the bottom to the top.
+     */
+    void forEach(Consumer<AbstractSpan> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(elements[i]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+
+/**
+ * Keep the encoded and decoded values of a header field, such as the service name of the current and the parent
+ * service. The encoded value is the current service in most of the calls, only the last one is kept. The decoded
+ * values come from all the upstream services, they are kept in a small table indexed by the hash of the encoded value,
+ * and a value only replaces the one of the same slot.
+ */
+final class Base64Cache {
+    private static final int DECODED_SLOTS = 64;
+
+    private volatile Entry encoded;
+    /**
+     * The entries are immutable, a slot read or written concurrently holds either the former or the latter entry.
+     */
+    private final Entry[] decoded = new Entry[DECODED_SLOTS];
+
+    /**
+     * @return the encoded chars, should not be changed.
+     */
+    char[] encode(String value) {
+        Entry entry = encoded;
+        if (entry == null || !entry.value.equals(value)) {
+            char[] chars = new char[Base64.encodedLength(value)];
+            Base64.encode(value, chars, 0);
+            entry = new Entry(value, null, chars);
+            encoded = entry;
+        }
+        return entry.chars;
+    }
+
+    /**
+     * @see Base64#decode2UTFString(String, int, int)
+     */
+    String decode(String in, int begin, int end) {
+        int hash = 0;
+        for (int i = begin; i < end; i++) {
+            hash = 31 * hash + in.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (DECODED_SLOTS - 1);
+        Entry entry = decoded[slot];
+        int length = end - begin;
+        if (entry != null && entry.encodedValue.length() == length
+            && in.regionMatches(begin, entry.encodedValue, 0, length)) {
+            return entry.value;
+        }
+        String value = Base64.decode2UTFString(in, begin, end);
+        decoded[slot] = new Entry(value, in.substring(begin, end), null);
+        return value;
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final String encodedValue;
+        private final char[] chars;
+
+        private Entry(String value, String encodedValue, char[] chars) {
+            this.value = value;
+            this.encodedValue = encodedValue;
+            this.chars = chars;
+        }
+    }
+}
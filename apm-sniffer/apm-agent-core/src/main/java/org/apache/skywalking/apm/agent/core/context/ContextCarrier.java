@@ -33,6 +33,9 @@ import org.apache.skywalking.apm.util.StringUtil;
  */
 @Setter(AccessLevel.PACKAGE)
 public class ContextCarrier implements Serializable {
+    private static final Base64Cache SERVICE_CACHE = new Base64Cache();
+    private static final Base64Cache SERVICE_INSTANCE_CACHE = new Base64Cache();
+
     @Getter
     private String traceId;
     /**
@@ -107,56 +110,113 @@ public class ContextCarrier implements Serializable {
     }
 
     /**
-     * Serialize this {@link ContextCarrier} to a {@link String}, with '|' split.
+     * Serialize this {@link ContextCarrier} to a {@link String}, with '-' split. The chars are written in one pass, and
+     * the encoded service and instance names are reused.
      *
      * @return the serialization string.
      */
     String serialize(HeaderVersion version) {
         if (this.isValid(version)) {
-            return StringUtil.join(
-                '-',
-                "1",
-                Base64.encode(this.getTraceId()),
-                Base64.encode(this.getTraceSegmentId()),
-                this.getSpanId() + "",
-                Base64.encode(this.getParentService()),
-                Base64.encode(this.getParentServiceInstance()),
-                Base64.encode(this.getParentEndpoint()),
-                Base64.encode(this.getAddressUsedAtClient())
-            );
+            char[] service = SERVICE_CACHE.encode(this.getParentService());
+            char[] serviceInstance = SERVICE_INSTANCE_CACHE.encode(this.getParentServiceInstance());
+            int spanIdLength = digits(this.getSpanId());
+            char[] header = new char[2 + Base64.encodedLength(this.getTraceId())
+                + 1 + Base64.encodedLength(this.getTraceSegmentId())
+                + 1 + spanIdLength
+                + 1 + service.length
+                + 1 + serviceInstance.length
+                + 1 + Base64.encodedLength(this.getParentEndpoint())
+                + 1 + Base64.encodedLength(this.getAddressUsedAtClient())];
+            header[0] = '1';
+            header[1] = '-';
+            int position = Base64.encode(this.getTraceId(), header, 2);
+            header[position++] = '-';
+            position = Base64.encode(this.getTraceSegmentId(), header, position);
+            header[position++] = '-';
+            position += spanIdLength;
+            for (int value = this.getSpanId(), i = position - 1; i >= position - spanIdLength; i--, value /= 10) {
+                header[i] = (char) ('0' + value % 10);
+            }
+            header[position++] = '-';
+            System.arraycopy(service, 0, header, position, service.length);
+            position += service.length;
+            header[position++] = '-';
+            System.arraycopy(serviceInstance, 0, header, position, serviceInstance.length);
+            position += serviceInstance.length;
+            header[position++] = '-';
+            position = Base64.encode(this.getParentEndpoint(), header, position);
+            header[position++] = '-';
+            Base64.encode(this.getAddressUsedAtClient(), header, position);
+            return new String(header);
         }
         return "";
     }
 
     /**
-     * Initialize fields with the given text.
+     * Initialize fields with the given text, by decoding the parts between the '-' in place.
      *
-     * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '|' split.
+     * @param text carries {@link #traceSegmentId} and {@link #spanId}, with '-' split.
      */
     ContextCarrier deserialize(String text, HeaderVersion version) {
         if (text == null) {
             return this;
         }
         if (HeaderVersion.v3.equals(version)) {
-            String[] parts = text.split("-", 8);
-            if (parts.length == 8) {
-                try {
-                    // parts[0] is sample flag, always trace if header exists.
-                    this.traceId = Base64.decode2UTFString(parts[1]);
-                    this.traceSegmentId = Base64.decode2UTFString(parts[2]);
-                    this.spanId = Integer.parseInt(parts[3]);
-                    this.parentService = Base64.decode2UTFString(parts[4]);
-                    this.parentServiceInstance = Base64.decode2UTFString(parts[5]);
-                    this.parentEndpoint = Base64.decode2UTFString(parts[6]);
-                    this.addressUsedAtClient = Base64.decode2UTFString(parts[7]);
-                } catch (IllegalArgumentException ignored) {
-
+            // The index of the '-' before each part, parts[0] is sample flag, always trace if header exists.
+            int[] separators = new int[7];
+            int from = 0;
+            for (int i = 0; i < separators.length; i++) {
+                separators[i] = text.indexOf('-', from);
+                if (separators[i] < 0) {
+                    return this;
                 }
+                from = separators[i] + 1;
+            }
+            try {
+                this.traceId = Base64.decode2UTFString(text, separators[0] + 1, separators[1]);
+                this.traceSegmentId = Base64.decode2UTFString(text, separators[1] + 1, separators[2]);
+                this.spanId = parseSpanId(text, separators[2] + 1, separators[3]);
+                this.parentService = SERVICE_CACHE.decode(text, separators[3] + 1, separators[4]);
+                this.parentServiceInstance = SERVICE_INSTANCE_CACHE.decode(text, separators[4] + 1, separators[5]);
+                this.parentEndpoint = Base64.decode2UTFString(text, separators[5] + 1, separators[6]);
+                this.addressUsedAtClient = Base64.decode2UTFString(text, separators[6] + 1, text.length());
+            } catch (IllegalArgumentException ignored) {
+
             }
         }
         return this;
     }
 
+    private static int digits(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    /**
+     * @throws NumberFormatException if the chars are not a non-negative int.
+     */
+    private static int parseSpanId(String text, int begin, int end) {
+        if (begin == end || end - begin > 10) {
+            throw new NumberFormatException("Illegal span id " + text.substring(begin, end));
+        }
+        long value = 0;
+        for (int i = begin; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new NumberFormatException("Illegal span id " + text.substring(begin, end));
+            }
+            value = value * 10 + c - '0';
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Illegal span id " + text.substring(begin, end));
+        }
+        return (int) value;
+    }
+
     public boolean isValid() {
         return isValid(HeaderVersion.v3);
     }
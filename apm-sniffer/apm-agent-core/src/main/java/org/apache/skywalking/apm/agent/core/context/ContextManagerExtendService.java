@@ -29,6 +29,7 @@ import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.IgnoreSuffixPatternsWatcher;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
+import org.apache.skywalking.apm.agent.core.red.RedMetricsService;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelListener;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelStatus;
@@ -47,6 +48,8 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
 
     private SpanLimitWatcher spanLimitWatcher;
 
+    private RedMetricsService redMetricsService;
+
     @Override
     public void prepare() {
         ServiceManager.INSTANCE.findService(GRPCChannelManager.class).addChannelListener(this);
@@ -64,6 +67,10 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
         configurationDiscoveryService.registerAgentConfigChangeWatcher(ignoreSuffixPatternsWatcher);
 
         handleIgnoreSuffixPatternsChanged();
+
+        if (Config.Red.ACTIVE) {
+            redMetricsService = ServiceManager.INSTANCE.findService(RedMetricsService.class);
+        }
     }
 
     @Override
@@ -95,10 +102,14 @@ public class ContextManagerExtendService implements BootService, GRPCChannelList
             if (forceSampling || samplingService.trySampling(operationName)) {
                 AgentSo11y.measureTracingContextCreation(forceSampling, false);
                 context = new TracingContext(operationName, spanLimitWatcher);
-            } else {
+            } else if (samplingService.isIgnored(operationName)) {
                 AgentSo11y.measureTracingContextCreation(false, true);
                 AgentSo11y.measureLeakedTracingContext(true);
                 context = new IgnoredTracerContext();
+            } else {
+                AgentSo11y.measureTracingContextCreation(false, true);
+                AgentSo11y.measureLeakedTracingContext(true);
+                context = new IgnoredTracerContext(redMetricsService);
             }
         }
 
@@ -24,7 +24,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
 import org.apache.skywalking.apm.agent.core.base64.Base64;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.tag.StringTag;
@@ -106,7 +105,8 @@ public class CorrelationContext {
     }
 
     /**
-     * Serialize this {@link CorrelationContext} to a {@link String}
+     * Serialize this {@link CorrelationContext} to a {@link String}, the encoded data are written into the chars of it
+     * directly.
      *
      * @return the serialization string.
      */
@@ -115,29 +115,54 @@ public class CorrelationContext {
             return "";
         }
 
-        return data.entrySet().stream()
-                   .map(entry -> Base64.encode(entry.getKey()) + ":" + Base64.encode(entry.getValue()))
-                   .collect(Collectors.joining(","));
+        int length = 0;
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            length += 2 + Base64.encodedLength(entry.getKey()) + Base64.encodedLength(entry.getValue());
+        }
+        char[] header = new char[length];
+        int position = 0;
+        for (Map.Entry<String, String> entry : data.entrySet()) {
+            if (position + 2 + Base64.encodedLength(entry.getKey()) + Base64.encodedLength(entry.getValue()) > length) {
+                // The data is changed by another thread.
+                return serialize();
+            }
+            if (position > 0) {
+                header[position++] = ',';
+            }
+            position = Base64.encode(entry.getKey(), header, position);
+            header[position++] = ':';
+            position = Base64.encode(entry.getValue(), header, position);
+        }
+        return new String(header, 0, position);
     }
 
     /**
-     * Deserialize data from {@link String}
+     * Deserialize data from {@link String}, the parts between ',' and ':' are decoded in place.
      */
     void deserialize(String value) {
         if (StringUtil.isEmpty(value)) {
             return;
         }
 
-        for (String perData : value.split(",")) {
+        for (int begin = 0, end; begin <= value.length(); begin = end + 1) {
+            end = value.indexOf(',', begin);
+            if (end < 0) {
+                end = value.length();
+            }
             // Only data with limited count of elements can be added
             if (data.size() >= Config.Correlation.ELEMENT_MAX_NUMBER) {
                 break;
             }
-            final String[] parts = perData.split(":");
-            if (parts.length != 2) {
+            int separator = value.indexOf(':', begin);
+            if (separator < 0 || separator >= end - 1) {
+                continue;
+            }
+            int nextSeparator = value.indexOf(':', separator + 1);
+            if (nextSeparator >= 0 && nextSeparator < end) {
                 continue;
             }
-            data.put(Base64.decode2UTFString(parts[0]), Base64.decode2UTFString(parts[1]));
+            data.put(
+                Base64.decode2UTFString(value, begin, separator), Base64.decode2UTFString(value, separator + 1, end));
         }
     }
 
@@ -21,15 +21,19 @@ package org.apache.skywalking.apm.agent.core.context;
 import java.util.LinkedList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.MeasuredNoopSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
 import org.apache.skywalking.apm.agent.core.profile.ProfileStatusContext;
+import org.apache.skywalking.apm.agent.core.red.RedMetricsService;
 import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 
 /**
  * The <code>IgnoredTracerContext</code> represent a context should be ignored. So it just maintains the stack with an
  * integer depth field.
  * <p>
- * All operations through this will be ignored, and keep the memory and gc cost as low as possible.
+ * All operations through this will be ignored, and keep the memory and gc cost as low as possible. Only when the
+ * {@link RedMetricsService} is given, the entry and exit spans are {@link MeasuredNoopSpan}s, for measuring the RED
+ * metrics.
  */
 public class IgnoredTracerContext implements AbstractTracerContext {
     private static final NoopSpan NOOP_SPAN = new NoopSpan();
@@ -38,14 +42,27 @@ public class IgnoredTracerContext implements AbstractTracerContext {
     private final CorrelationContext correlationContext;
     private final ExtensionContext extensionContext;
     private final ProfileStatusContext profileStatusContext;
+    private final RedMetricsService redMetricsService;
 
     private int stackDepth;
+    /**
+     * The latest opened and not finished measured span.
+     */
+    private MeasuredNoopSpan measuredSpan;
 
     public IgnoredTracerContext() {
+        this((RedMetricsService) null);
+    }
+
+    /**
+     * @param redMetricsService measures the entry and exit spans, or null to ignore them as well.
+     */
+    public IgnoredTracerContext(RedMetricsService redMetricsService) {
         this.stackDepth = 0;
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
         this.profileStatusContext = ProfileStatusContext.createWithNone();
+        this.redMetricsService = redMetricsService;
     }
 
     public IgnoredTracerContext(int stackDepth) {
@@ -53,6 +70,7 @@ public class IgnoredTracerContext implements AbstractTracerContext {
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
         this.profileStatusContext = ProfileStatusContext.createWithNone();
+        this.redMetricsService = null;
     }
 
     @Override
@@ -93,7 +111,10 @@ public class IgnoredTracerContext implements AbstractTracerContext {
     @Override
     public AbstractSpan createEntrySpan(String operationName) {
         stackDepth++;
-        return NOOP_SPAN;
+        if (redMetricsService == null) {
+            return NOOP_SPAN;
+        }
+        return createMeasuredSpan(true, operationName, null);
     }
 
     @Override
@@ -105,16 +126,47 @@ public class IgnoredTracerContext implements AbstractTracerContext {
     @Override
     public AbstractSpan createExitSpan(String operationName, String remotePeer) {
         stackDepth++;
-        return NOOP_SPAN;
+        if (redMetricsService == null) {
+            return NOOP_SPAN;
+        }
+        return createMeasuredSpan(false, operationName, remotePeer);
+    }
+
+    /**
+     * Like the {@link TracingContext}, the entry span created when the active span is an entry span is merged into
+     * the active one, and so is the exit span.
+     */
+    private AbstractSpan createMeasuredSpan(boolean entry, String operationName, String remotePeer) {
+        final MeasuredNoopSpan parent = measuredSpan;
+        if (parent != null && parent.getDepth() == stackDepth - 1 && parent.isEntry() == entry) {
+            parent.nest(stackDepth);
+            if (entry) {
+                parent.setOperationName(operationName);
+            }
+            return parent;
+        }
+        measuredSpan = new MeasuredNoopSpan(entry, operationName, remotePeer, stackDepth, parent);
+        return measuredSpan;
     }
 
     @Override
     public AbstractSpan activeSpan() {
-        return NOOP_SPAN;
+        final MeasuredNoopSpan span = measuredSpan;
+        return span != null && span.getDepth() == stackDepth ? span : NOOP_SPAN;
     }
 
     @Override
     public boolean stopSpan(AbstractSpan span) {
+        final MeasuredNoopSpan active = measuredSpan;
+        if (active != null && active.getDepth() == stackDepth && active.unnest()) {
+            measuredSpan = active.getParent();
+            if (active.isEntry()) {
+                redMetricsService.recordEndpoint(
+                    active.getOperationName(), active.durationMillis(), active.isErrorOccurred());
+            } else {
+                redMetricsService.recordPeer(active.getPeer(), active.durationMillis(), active.isErrorOccurred());
+            }
+        }
         stackDepth--;
         if (stackDepth == 0) {
             AgentSo11y.measureTracingContextCompletion(true);
@@ -21,12 +21,24 @@ package org.apache.skywalking.apm.agent.core.context;
 public class SW8CarrierItem extends CarrierItem {
     public static final String HEADER_NAME = "sw8";
     private ContextCarrier carrier;
+    private String headValue;
 
     public SW8CarrierItem(ContextCarrier carrier, CarrierItem next) {
-        super(HEADER_NAME, carrier.serialize(ContextCarrier.HeaderVersion.v3), next);
+        super(HEADER_NAME, null, next);
         this.carrier = carrier;
     }
 
+    /**
+     * The value is serialized at the first read, as the items are iterated for the extracting too.
+     */
+    @Override
+    public String getHeadValue() {
+        if (headValue == null) {
+            headValue = carrier.serialize(ContextCarrier.HeaderVersion.v3);
+        }
+        return headValue;
+    }
+
     @Override
     public void setHeadValue(String headValue) {
         carrier.deserialize(headValue, ContextCarrier.HeaderVersion.v3);
@@ -20,12 +20,24 @@ package org.apache.skywalking.apm.agent.core.context;
 public class SW8CorrelationCarrierItem extends CarrierItem {
     public static final String HEADER_NAME = "sw8-correlation";
     private final CorrelationContext correlationContext;
+    private String headValue;
 
     public SW8CorrelationCarrierItem(CorrelationContext correlationContext, CarrierItem next) {
-        super(HEADER_NAME, correlationContext.serialize(), next);
+        super(HEADER_NAME, null, next);
         this.correlationContext = correlationContext;
     }
 
+    /**
+     * The value is serialized at the first read, as the items are iterated for the extracting too.
+     */
+    @Override
+    public String getHeadValue() {
+        if (headValue == null) {
+            headValue = correlationContext.serialize();
+        }
+        return headValue;
+    }
+
     @Override
     public void setHeadValue(String headValue) {
         this.correlationContext.deserialize(headValue);
@@ -21,12 +21,24 @@ package org.apache.skywalking.apm.agent.core.context;
 public class SW8ExtensionCarrierItem extends CarrierItem {
     public static final String HEADER_NAME = "sw8-x";
     private final ExtensionContext extensionContext;
+    private String headValue;
 
     public SW8ExtensionCarrierItem(ExtensionContext extensionContext, CarrierItem next) {
-        super(HEADER_NAME, extensionContext.serialize(), next);
+        super(HEADER_NAME, null, next);
         this.extensionContext = extensionContext;
     }
 
+    /**
+     * The value is serialized at the first read, as the items are iterated for the extracting too.
+     */
+    @Override
+    public String getHeadValue() {
+        if (headValue == null) {
+            headValue = extensionContext.serialize();
+        }
+        return headValue;
+    }
+
     @Override
     public void setHeadValue(String headValue) {
         this.extensionContext.deserialize(headValue);
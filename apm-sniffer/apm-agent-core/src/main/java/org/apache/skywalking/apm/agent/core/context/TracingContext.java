@@ -61,6 +61,12 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Agent.CLUSTER;
  */
 public class TracingContext implements AbstractTracerContext {
     private static final ILog LOGGER = LogManager.getLogger(TracingContext.class);
+    /**
+     * The initial capacities of the span stack and the finished span list, bounded by the span limit. They grow when
+     * a deeper stack or a longer segment is traced.
+     */
+    private static final int INITIAL_STACK_DEPTH = 8;
+    private static final int INITIAL_SEGMENT_SPANS = 16;
     private long lastWarningTimestamp = 0;
 
     /**
@@ -74,11 +80,10 @@ public class TracingContext implements AbstractTracerContext {
     private TraceSegment segment;
 
     /**
-     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. This {@link LinkedList} is the in-memory
-     * storage-structure. <p> I use {@link LinkedList#removeLast()}, {@link LinkedList#addLast(Object)} and {@link
-     * LinkedList#getLast()} instead of {@link #pop()}, {@link #push(AbstractSpan)}, {@link #peek()}
+     * Active spans stored in a Stack, usually called 'ActiveSpanStack'. {@link ActiveSpanStack} is the in-memory
+     * storage-structure, accessed through {@link #pop()}, {@link #push(AbstractSpan)} and {@link #peek()}.
      */
-    private LinkedList<AbstractSpan> activeSpanStack = new LinkedList<>();
+    private final ActiveSpanStack activeSpanStack;
 
     /**
      * @since 8.10.0 replace the removed "firstSpan"(before 8.10.0) reference. see {@link PrimaryEndpoint} for more details.
@@ -120,7 +125,9 @@ public class TracingContext implements AbstractTracerContext {
      * Initialize all fields with default value.
      */
     TracingContext(String firstOPName, SpanLimitWatcher spanLimitWatcher) {
-        this.segment = new TraceSegment();
+        final int spanLimit = spanLimitWatcher.getSpanLimit();
+        this.segment = new TraceSegment(Math.max(Math.min(spanLimit, INITIAL_SEGMENT_SPANS), 1));
+        this.activeSpanStack = new ActiveSpanStack(Math.min(spanLimit, INITIAL_STACK_DEPTH));
         this.spanIdGenerator = 0;
         isRunningInAsyncMode = false;
         createTime = System.currentTimeMillis();
@@ -130,8 +137,7 @@ public class TracingContext implements AbstractTracerContext {
         if (PROFILE_TASK_EXECUTION_SERVICE == null) {
             PROFILE_TASK_EXECUTION_SERVICE = ServiceManager.INSTANCE.findService(ProfileTaskExecutionService.class);
         }
-        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(
-            this, segment.getTraceSegmentId(), firstOPName);
+        this.profileStatus = PROFILE_TASK_EXECUTION_SERVICE.addProfiling(this, firstOPName);
 
         this.correlationContext = new CorrelationContext();
         this.extensionContext = new ExtensionContext();
@@ -237,7 +243,7 @@ public class TracingContext implements AbstractTracerContext {
             this.extensionContext.continued(snapshot);
             this.extensionContext.handle(this.activeSpan());
             if (this.profileStatus.continued(snapshot)) {
-                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this, this.segment.getTraceSegmentId());
+                PROFILE_TASK_EXECUTION_SERVICE.continueProfiling(this);
             }
         }
     }
@@ -422,9 +428,7 @@ public class TracingContext implements AbstractTracerContext {
 
     @Override
     public AbstractTracerContext forceIgnoring() {
-        for (AbstractSpan span: activeSpanStack) {
-            span.forceIgnoring();
-        }
+        activeSpanStack.forEach(AbstractSpan::forceIgnoring);
         return new IgnoredTracerContext(activeSpanStack.size());
     }
 
@@ -440,7 +444,7 @@ public class TracingContext implements AbstractTracerContext {
             return;
         }
 
-        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, segment.getTraceSegmentId(), operationName);
+        PROFILE_TASK_EXECUTION_SERVICE.profilingRecheck(this, operationName);
     }
 
     /**
@@ -540,7 +544,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack', and remove it.
      */
     private AbstractSpan pop() {
-        return activeSpanStack.removeLast();
+        return activeSpanStack.pop();
     }
 
     /**
@@ -554,7 +558,7 @@ public class TracingContext implements AbstractTracerContext {
         } else {
             primaryEndpoint.set(span);
         }
-        activeSpanStack.addLast(span);
+        activeSpanStack.push(span);
         this.extensionContext.handle(span);
         return span;
     }
@@ -563,10 +567,7 @@ public class TracingContext implements AbstractTracerContext {
      * @return the top element of 'ActiveSpanStack' only.
      */
     private AbstractSpan peek() {
-        if (activeSpanStack.isEmpty()) {
-            return null;
-        }
-        return activeSpanStack.getLast();
+        return activeSpanStack.peek();
     }
 
     private boolean isLimitMechanismWorking() {
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+/**
+ * The id generated by {@link GlobalIdGenerator}, kept as the thread id and the sequence in that thread. The readable
+ * form, {@code PROCESS_ID.threadId.sequence}, is only rendered when it is read at the first time, such as sending the
+ * segment or propagating the context, so the ids of the dropped or ignored segments never become strings.
+ */
+public final class GlobalId {
+    private final long threadId;
+    private final long sequence;
+    /**
+     * The rendered id. Rendering it twice in a race is harmless, as the same immutable string is produced.
+     */
+    private String id;
+
+    GlobalId(long threadId, long sequence) {
+        this.threadId = threadId;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public String toString() {
+        String rendered = id;
+        if (rendered == null) {
+            // The process id, 2 dots, and at most 19 digits for each long.
+            rendered = new StringBuilder(GlobalIdGenerator.PROCESS_ID.length() + 40)
+                .append(GlobalIdGenerator.PROCESS_ID)
+                .append('.')
+                .append(threadId)
+                .append('.')
+                .append(sequence)
+                .toString();
+            id = rendered;
+        }
+        return rendered;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GlobalId)) {
+            return false;
+        }
+        GlobalId that = (GlobalId) o;
+        return threadId == that.threadId && sequence == that.sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(threadId) + Long.hashCode(sequence);
+    }
+}
@@ -22,7 +22,17 @@ package org.apache.skywalking.apm.agent.core.context.ids;
  * The <code>NewDistributedTraceId</code> is a {@link DistributedTraceId} with a new generated id.
  */
 public class NewDistributedTraceId extends DistributedTraceId {
+    private final GlobalId id;
+
     public NewDistributedTraceId() {
-        super(GlobalIdGenerator.generate());
+        this.id = GlobalIdGenerator.generateId();
+    }
+
+    /**
+     * @return the id, rendered at the first call.
+     */
+    @Override
+    public String getId() {
+        return id.toString();
     }
 }
@@ -22,7 +22,14 @@ package org.apache.skywalking.apm.agent.core.context.ids;
  * The <code>PropagatedTraceId</code> represents a {@link DistributedTraceId}, which is propagated from the peer.
  */
 public class PropagatedTraceId extends DistributedTraceId {
+    private final String id;
+
     public PropagatedTraceId(String id) {
-        super(id);
+        this.id = id;
+    }
+
+    @Override
+    public String getId() {
+        return id;
     }
 }
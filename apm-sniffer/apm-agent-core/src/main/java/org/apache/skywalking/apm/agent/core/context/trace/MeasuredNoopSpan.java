@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.IgnoredTracerContext;
+import org.apache.skywalking.apm.agent.core.context.status.StatusCheckService;
+
+/**
+ * The entry or exit span of the {@link IgnoredTracerContext}, which only keeps the name, the start time and the error
+ * status, for measuring the RED metrics of the ignored traces. Like the {@link StackBasedTracingSpan}, the nested
+ * entry or exit spans are merged into one, the span finishes when the outermost one stops.
+ */
+public class MeasuredNoopSpan extends NoopSpan {
+    private final boolean entry;
+    private final long startNanos;
+    private final MeasuredNoopSpan parent;
+    private String operationName;
+    private String peer;
+    private boolean errorOccurred = false;
+    /**
+     * The stack depth of the context, when this span is the active span.
+     */
+    private int depth;
+    private int nested = 1;
+
+    /**
+     * @param parent the measured span opened before this one, and not finished yet
+     */
+    public MeasuredNoopSpan(boolean entry, String operationName, String peer, int depth, MeasuredNoopSpan parent) {
+        this.entry = entry;
+        this.operationName = operationName;
+        this.peer = peer;
+        this.depth = depth;
+        this.parent = parent;
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Merge the nested span of the same type into this one.
+     */
+    public void nest(int depth) {
+        this.depth = depth;
+        nested++;
+    }
+
+    /**
+     * Stop the outermost one of the merged spans.
+     *
+     * @return true if all of them are stopped.
+     */
+    public boolean unnest() {
+        depth--;
+        return --nested == 0;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public MeasuredNoopSpan getParent() {
+        return parent;
+    }
+
+    public long durationMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public String getPeer() {
+        return peer;
+    }
+
+    public boolean isErrorOccurred() {
+        return errorOccurred;
+    }
+
+    @Override
+    public AbstractSpan log(Throwable t) {
+        if (!errorOccurred && ServiceManager.INSTANCE.findService(StatusCheckService.class).isError(t)) {
+            errorOccurred = true;
+        }
+        return this;
+    }
+
+    @Override
+    public AbstractSpan errorOccurred() {
+        errorOccurred = true;
+        return this;
+    }
+
+    @Override
+    public boolean isEntry() {
+        return entry;
+    }
+
+    @Override
+    public boolean isExit() {
+        return !entry;
+    }
+
+    @Override
+    public AbstractSpan setOperationName(String operationName) {
+        this.operationName = operationName;
+        return this;
+    }
+
+    @Override
+    public String getOperationName() {
+        return operationName;
+    }
+
+    @Override
+    public AbstractSpan setPeer(String remotePeer) {
+        this.peer = remotePeer;
+        return this;
+    }
+}
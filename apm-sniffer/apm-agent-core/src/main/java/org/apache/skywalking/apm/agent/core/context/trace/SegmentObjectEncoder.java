@@ -0,0 +1,274 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import java.io.IOException;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.Constants;
+import org.apache.skywalking.apm.agent.core.context.util.KeyValuePair;
+import org.apache.skywalking.apm.agent.core.context.util.TagValuePair;
+import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
+import org.apache.skywalking.apm.network.language.agent.v3.Log;
+import org.apache.skywalking.apm.network.language.agent.v3.RefType;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentReference;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
+import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Encode a {@link TraceSegment} into the wire format of {@link SegmentObject}, without building the intermediate
+ * protobuf messages of {@link TraceSegment#transform()}.
+ * <p>
+ * The sizes of all nested messages are computed first, then the fields are written in the field number order into an
+ * exactly sized array, the same as the generated code does. So the bytes are identical to the serialized result of
+ * {@link TraceSegment#transform()}. Fields holding the default value are skipped, as proto3 requires, and a null
+ * string is taken as an empty one.
+ */
+final class SegmentObjectEncoder {
+    private SegmentObjectEncoder() {
+    }
+
+    static byte[] encode(String traceId, String traceSegmentId, List<AbstractTracingSpan> spans,
+                         boolean isSizeLimited) {
+        final int[] spanSizes = new int[spans.size()];
+        int size = stringSize(SegmentObject.TRACEID_FIELD_NUMBER, traceId)
+            + stringSize(SegmentObject.TRACESEGMENTID_FIELD_NUMBER, traceSegmentId)
+            + stringSize(SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME)
+            + stringSize(SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME)
+            + boolSize(SegmentObject.ISSIZELIMITED_FIELD_NUMBER, isSizeLimited);
+        for (int i = 0; i < spanSizes.length; i++) {
+            spanSizes[i] = spanSize(spans.get(i));
+            size += messageSize(SegmentObject.SPANS_FIELD_NUMBER, spanSizes[i]);
+        }
+
+        final byte[] bytes = new byte[size];
+        final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            writeString(output, SegmentObject.TRACEID_FIELD_NUMBER, traceId);
+            writeString(output, SegmentObject.TRACESEGMENTID_FIELD_NUMBER, traceSegmentId);
+            for (int i = 0; i < spanSizes.length; i++) {
+                writeMessageHeader(output, SegmentObject.SPANS_FIELD_NUMBER, spanSizes[i]);
+                writeSpan(output, spans.get(i));
+            }
+            writeString(output, SegmentObject.SERVICE_FIELD_NUMBER, Config.Agent.SERVICE_NAME);
+            writeString(output, SegmentObject.SERVICEINSTANCE_FIELD_NUMBER, Config.Agent.INSTANCE_NAME);
+            writeBool(output, SegmentObject.ISSIZELIMITED_FIELD_NUMBER, isSizeLimited);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Only thrown when the computed size doesn't match the written bytes.
+            throw new IllegalStateException("Encode trace segment " + traceSegmentId + " fail.", e);
+        }
+        return bytes;
+    }
+
+    private static int spanSize(AbstractTracingSpan span) {
+        int size = int32Size(SpanObject.SPANID_FIELD_NUMBER, span.spanId)
+            + int32Size(SpanObject.PARENTSPANID_FIELD_NUMBER, span.parentSpanId)
+            + int64Size(SpanObject.STARTTIME_FIELD_NUMBER, span.startTime)
+            + int64Size(SpanObject.ENDTIME_FIELD_NUMBER, span.endTime)
+            + stringSize(SpanObject.OPERATIONNAME_FIELD_NUMBER, span.operationName)
+            + stringSize(SpanObject.PEER_FIELD_NUMBER, peerOf(span))
+            + int32Size(SpanObject.SPANTYPE_FIELD_NUMBER, spanTypeOf(span))
+            + int32Size(SpanObject.SPANLAYER_FIELD_NUMBER, span.layer == null ? 0 : span.layer.getCode())
+            + int32Size(SpanObject.COMPONENTID_FIELD_NUMBER, componentIdOf(span))
+            + boolSize(SpanObject.ISERROR_FIELD_NUMBER, span.errorOccurred)
+            + boolSize(SpanObject.SKIPANALYSIS_FIELD_NUMBER, span.skipAnalysis);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                size += messageSize(SpanObject.REFS_FIELD_NUMBER, refSize(ref));
+            }
+        }
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                size += messageSize(SpanObject.TAGS_FIELD_NUMBER, keyValueSize(tag.getKey().key(), tag.getValue()));
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                size += messageSize(SpanObject.LOGS_FIELD_NUMBER, logSize(log));
+            }
+        }
+        return size;
+    }
+
+    private static void writeSpan(CodedOutputStream output, AbstractTracingSpan span) throws IOException {
+        writeInt32(output, SpanObject.SPANID_FIELD_NUMBER, span.spanId);
+        writeInt32(output, SpanObject.PARENTSPANID_FIELD_NUMBER, span.parentSpanId);
+        writeInt64(output, SpanObject.STARTTIME_FIELD_NUMBER, span.startTime);
+        writeInt64(output, SpanObject.ENDTIME_FIELD_NUMBER, span.endTime);
+        if (span.refs != null) {
+            for (TraceSegmentRef ref : span.refs) {
+                writeMessageHeader(output, SpanObject.REFS_FIELD_NUMBER, refSize(ref));
+                writeRef(output, ref);
+            }
+        }
+        writeString(output, SpanObject.OPERATIONNAME_FIELD_NUMBER, span.operationName);
+        writeString(output, SpanObject.PEER_FIELD_NUMBER, peerOf(span));
+        writeInt32(output, SpanObject.SPANTYPE_FIELD_NUMBER, spanTypeOf(span));
+        writeInt32(output, SpanObject.SPANLAYER_FIELD_NUMBER, span.layer == null ? 0 : span.layer.getCode());
+        writeInt32(output, SpanObject.COMPONENTID_FIELD_NUMBER, componentIdOf(span));
+        writeBool(output, SpanObject.ISERROR_FIELD_NUMBER, span.errorOccurred);
+        if (span.tags != null) {
+            for (TagValuePair tag : span.tags) {
+                final String key = tag.getKey().key();
+                writeMessageHeader(output, SpanObject.TAGS_FIELD_NUMBER, keyValueSize(key, tag.getValue()));
+                writeKeyValue(output, key, tag.getValue());
+            }
+        }
+        if (span.logs != null) {
+            for (LogDataEntity log : span.logs) {
+                writeMessageHeader(output, SpanObject.LOGS_FIELD_NUMBER, logSize(log));
+                writeLog(output, log);
+            }
+        }
+        writeBool(output, SpanObject.SKIPANALYSIS_FIELD_NUMBER, span.skipAnalysis);
+    }
+
+    private static int refSize(TraceSegmentRef ref) {
+        return int32Size(SegmentReference.REFTYPE_FIELD_NUMBER, refTypeOf(ref))
+            + stringSize(SegmentReference.TRACEID_FIELD_NUMBER, ref.getTraceId())
+            + stringSize(SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, ref.getTraceSegmentId())
+            + int32Size(SegmentReference.PARENTSPANID_FIELD_NUMBER, ref.getSpanId())
+            + stringSize(SegmentReference.PARENTSERVICE_FIELD_NUMBER, ref.getParentService())
+            + stringSize(SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, ref.getParentServiceInstance())
+            + stringSize(SegmentReference.PARENTENDPOINT_FIELD_NUMBER, ref.getParentEndpoint())
+            + stringSize(SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, ref.getAddressUsedAtClient());
+    }
+
+    private static void writeRef(CodedOutputStream output, TraceSegmentRef ref) throws IOException {
+        writeInt32(output, SegmentReference.REFTYPE_FIELD_NUMBER, refTypeOf(ref));
+        writeString(output, SegmentReference.TRACEID_FIELD_NUMBER, ref.getTraceId());
+        writeString(output, SegmentReference.PARENTTRACESEGMENTID_FIELD_NUMBER, ref.getTraceSegmentId());
+        writeInt32(output, SegmentReference.PARENTSPANID_FIELD_NUMBER, ref.getSpanId());
+        writeString(output, SegmentReference.PARENTSERVICE_FIELD_NUMBER, ref.getParentService());
+        writeString(output, SegmentReference.PARENTSERVICEINSTANCE_FIELD_NUMBER, ref.getParentServiceInstance());
+        writeString(output, SegmentReference.PARENTENDPOINT_FIELD_NUMBER, ref.getParentEndpoint());
+        writeString(output, SegmentReference.NETWORKADDRESSUSEDATPEER_FIELD_NUMBER, ref.getAddressUsedAtClient());
+    }
+
+    private static int logSize(LogDataEntity log) {
+        int size = int64Size(Log.TIME_FIELD_NUMBER, log.getTimestamp());
+        for (KeyValuePair data : log.getLogs()) {
+            size += messageSize(Log.DATA_FIELD_NUMBER, keyValueSize(data.getKey(), data.getValue()));
+        }
+        return size;
+    }
+
+    private static void writeLog(CodedOutputStream output, LogDataEntity log) throws IOException {
+        writeInt64(output, Log.TIME_FIELD_NUMBER, log.getTimestamp());
+        for (KeyValuePair data : log.getLogs()) {
+            writeMessageHeader(output, Log.DATA_FIELD_NUMBER, keyValueSize(data.getKey(), data.getValue()));
+            writeKeyValue(output, data.getKey(), data.getValue());
+        }
+    }
+
+    private static int keyValueSize(String key, String value) {
+        return stringSize(KeyStringValuePair.KEY_FIELD_NUMBER, key)
+            + stringSize(KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
+
+    private static void writeKeyValue(CodedOutputStream output, String key, String value) throws IOException {
+        writeString(output, KeyStringValuePair.KEY_FIELD_NUMBER, key);
+        writeString(output, KeyStringValuePair.VALUE_FIELD_NUMBER, value);
+    }
+
+    /**
+     * The same conditions as {@link AbstractTracingSpan#transform()} and {@link StackBasedTracingSpan#transform()}.
+     */
+    private static String peerOf(AbstractTracingSpan span) {
+        if (span instanceof StackBasedTracingSpan) {
+            return ((StackBasedTracingSpan) span).peer;
+        }
+        return null;
+    }
+
+    private static int spanTypeOf(AbstractTracingSpan span) {
+        if (span.isEntry()) {
+            return SpanType.Entry_VALUE;
+        } else if (span.isExit()) {
+            return SpanType.Exit_VALUE;
+        }
+        return SpanType.Local_VALUE;
+    }
+
+    private static int componentIdOf(AbstractTracingSpan span) {
+        return span.componentId == Constants.NULL_VALUE ? 0 : span.componentId;
+    }
+
+    private static int refTypeOf(TraceSegmentRef ref) {
+        return TraceSegmentRef.SegmentRefType.CROSS_PROCESS.equals(ref.getType())
+            ? RefType.CrossProcess_VALUE : RefType.CrossThread_VALUE;
+    }
+
+    private static int messageSize(int fieldNumber, int size) {
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeUInt32SizeNoTag(size) + size;
+    }
+
+    private static int stringSize(int fieldNumber, String value) {
+        return StringUtil.isEmpty(value) ? 0 : CodedOutputStream.computeStringSize(fieldNumber, value);
+    }
+
+    private static int int32Size(int fieldNumber, int value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt32Size(fieldNumber, value);
+    }
+
+    private static int int64Size(int fieldNumber, long value) {
+        return value == 0 ? 0 : CodedOutputStream.computeInt64Size(fieldNumber, value);
+    }
+
+    private static int boolSize(int fieldNumber, boolean value) {
+        return value ? CodedOutputStream.computeBoolSize(fieldNumber, true) : 0;
+    }
+
+    private static void writeMessageHeader(CodedOutputStream output, int fieldNumber, int size) throws IOException {
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeUInt32NoTag(size);
+    }
+
+    private static void writeString(CodedOutputStream output, int fieldNumber, String value) throws IOException {
+        if (StringUtil.isNotEmpty(value)) {
+            output.writeString(fieldNumber, value);
+        }
+    }
+
+    /**
+     * Enums are written as int32 too, they share the same varint encoding.
+     */
+    private static void writeInt32(CodedOutputStream output, int fieldNumber, int value) throws IOException {
+        if (value != 0) {
+            output.writeInt32(fieldNumber, value);
+        }
+    }
+
+    private static void writeInt64(CodedOutputStream output, int fieldNumber, long value) throws IOException {
+        if (value != 0) {
+            output.writeInt64(fieldNumber, value);
+        }
+    }
+
+    private static void writeBool(CodedOutputStream output, int fieldNumber, boolean value) throws IOException {
+        if (value) {
+            output.writeBool(fieldNumber, true);
+        }
+    }
+}
@@ -18,10 +18,11 @@
 
 package org.apache.skywalking.apm.agent.core.context.trace;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.ids.DistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.ids.GlobalId;
 import org.apache.skywalking.apm.agent.core.context.ids.GlobalIdGenerator;
 import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
 import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
@@ -35,7 +36,7 @@ public class TraceSegment {
     /**
      * The id of this trace segment. Every segment has its unique-global-id.
      */
-    private String traceSegmentId;
+    private final GlobalId traceSegmentId;
 
     /**
      * The refs of parent trace segments, except the primary one. For most RPC call, {@link #ref} contains only one
@@ -69,8 +70,15 @@ public class TraceSegment {
      * Create a default/empty trace segment, with current time as start time, and generate a new segment id.
      */
     public TraceSegment() {
-        this.traceSegmentId = GlobalIdGenerator.generate();
-        this.spans = new LinkedList<>();
+        this(10);
+    }
+
+    /**
+     * Create a default/empty trace segment, with the expected count of spans as the initial capacity of span list.
+     */
+    public TraceSegment(int expectedSpanCount) {
+        this.traceSegmentId = GlobalIdGenerator.generateId();
+        this.spans = new ArrayList<>(expectedSpanCount);
         this.relatedGlobalTraceId = new NewDistributedTraceId();
         this.createTime = System.currentTimeMillis();
     }
@@ -111,8 +119,11 @@ public class TraceSegment {
         return this;
     }
 
+    /**
+     * @return the segment id, rendered at the first call.
+     */
     public String getTraceSegmentId() {
-        return traceSegmentId;
+        return traceSegmentId.toString();
     }
 
     /**
@@ -126,6 +137,13 @@ public class TraceSegment {
         return relatedGlobalTraceId;
     }
 
+    /**
+     * @return the finished spans, in the order of finishing. The list should only be read.
+     */
+    public List<AbstractTracingSpan> getSpans() {
+        return spans;
+    }
+
     public boolean isSingleSpanSegment() {
         return this.spans != null && this.spans.size() == 1;
     }
@@ -149,7 +167,7 @@ public class TraceSegment {
         /*
          * Trace Segment
          */
-        traceSegmentBuilder.setTraceSegmentId(this.traceSegmentId);
+        traceSegmentBuilder.setTraceSegmentId(getTraceSegmentId());
         // Don't serialize TraceSegmentReference
 
         // SpanObject
@@ -163,6 +181,17 @@ public class TraceSegment {
         return traceSegmentBuilder.build();
     }
 
+    /**
+     * Serialize this segment straight into the wire format of the {@link SegmentObject} returned by {@link
+     * #transform()}, skipping the intermediate protobuf builders and messages.
+     *
+     * @return the serialized bytes of the segment.
+     */
+    public byte[] encode() {
+        return SegmentObjectEncoder.encode(
+            getRelatedGlobalTrace().getId(), getTraceSegmentId(), this.spans, this.isSizeLimited);
+    }
+
     @Override
     public String toString() {
         return "TraceSegment{" + "traceSegmentId='" + traceSegmentId + '\'' + ", ref=" + ref + ", spans=" + spans + "}";
@@ -18,12 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.jvm;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.jvm.clazz.ClassProvider;
@@ -35,6 +32,8 @@ import org.apache.skywalking.apm.agent.core.jvm.thread.ThreadProvider;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.network.language.agent.v3.JVMMetric;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
@@ -45,8 +44,8 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 @DefaultImplementor
 public class JVMService implements BootService, Runnable {
     private static final ILog LOGGER = LogManager.getLogger(JVMService.class);
-    private volatile ScheduledFuture<?> collectMetricFuture;
-    private volatile ScheduledFuture<?> sendMetricFuture;
+    private volatile ScheduledTask collectMetricTask;
+    private volatile ScheduledTask sendMetricTask;
     private JVMMetricsSender sender;
     private volatile double cpuUsagePercent;
 
@@ -57,28 +56,25 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void boot() throws Throwable {
-        collectMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-produce"))
-                                       .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                           this,
-                                           new RunnableWithExceptionProtection.CallbackWhenException() {
-                                               @Override
-                                               public void handle(Throwable t) {
-                                                   LOGGER.error("JVMService produces metrics failure.", t);
-                                               }
-                                           }
-                                       ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
-        sendMetricFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("JVMService-consume"))
-                                    .scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                                        sender,
-                                        new RunnableWithExceptionProtection.CallbackWhenException() {
-                                            @Override
-                                            public void handle(Throwable t) {
-                                                LOGGER.error("JVMService consumes and upload failure.", t);
-                                            }
-                                        }
-                                    ), 0, 1, TimeUnit.SECONDS);
+        SchedulerService scheduler = ServiceManager.INSTANCE.findService(SchedulerService.class);
+        collectMetricTask = scheduler.scheduleInTimerAtFixedRate("JVMService-produce", new RunnableWithExceptionProtection(
+            this,
+            new RunnableWithExceptionProtection.CallbackWhenException() {
+                @Override
+                public void handle(Throwable t) {
+                    LOGGER.error("JVMService produces metrics failure.", t);
+                }
+            }
+        ), 0, Config.Jvm.METRICS_COLLECT_PERIOD, TimeUnit.SECONDS);
+        sendMetricTask = scheduler.scheduleAtFixedRate("JVMService-consume", new RunnableWithExceptionProtection(
+            sender,
+            new RunnableWithExceptionProtection.CallbackWhenException() {
+                @Override
+                public void handle(Throwable t) {
+                    LOGGER.error("JVMService consumes and upload failure.", t);
+                }
+            }
+        ), 0, 1, TimeUnit.SECONDS);
     }
 
     @Override
@@ -88,8 +84,8 @@ public class JVMService implements BootService, Runnable {
 
     @Override
     public void shutdown() throws Throwable {
-        collectMetricFuture.cancel(true);
-        sendMetricFuture.cancel(true);
+        collectMetricTask.cancel();
+        sendMetricTask.cancel();
     }
 
     @Override
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
+
+/**
+ * The base of {@link Histogram} and {@link StripedHistogram}. It holds the steps, the minimal value of every bucket,
+ * and reports the count of every bucket. How the values are counted is left to the implementations.
+ */
+public abstract class AbstractHistogram extends BaseMeter {
+    protected final double[] steps;
+
+    /**
+     * @param meterId as the unique id of this meter instance
+     * @param steps presents the minimal value of every step
+     */
+    protected AbstractHistogram(MeterId meterId, List<Double> steps) {
+        super(meterId);
+        this.steps = steps.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
+     */
+    public abstract void addValue(double value);
+
+    /**
+     * @return the count of the bucket [step(index), step(index+1))
+     */
+    protected abstract long count(int index);
+
+    @Override
+    public MeterData.Builder transform() {
+        final MeterHistogram.Builder histogram = MeterHistogram.newBuilder()
+                                                               .setName(getName())
+                                                               .addAllLabels(transformTags());
+        for (int i = 0; i < steps.length; i++) {
+            histogram.addValues(MeterBucketValue.newBuilder()
+                                                .setBucket(steps[i])
+                                                .setCount(count(i))
+                                                .build());
+        }
+        return MeterData.newBuilder().setHistogram(histogram.build());
+    }
+
+    /**
+     * Build the histograms sharing the steps settings.
+     */
+    public abstract static class Builder<BUILDER extends Builder, METER extends AbstractHistogram>
+        extends AbstractBuilder<BUILDER, METER> {
+        private double minValue = 0;
+        private List<Double> steps;
+
+        /**
+         * Build a new meter build, meter name is required
+         */
+        public Builder(String name) {
+            super(name);
+        }
+
+        /**
+         * Set bucket steps, the minimal values of every bucket besides the {@link #minValue}.
+         */
+        public BUILDER steps(List<Double> steps) {
+            this.steps = new ArrayList<>(steps);
+            return (BUILDER) this;
+        }
+
+        /**
+         * Set min value, default is zero
+         */
+        public BUILDER minValue(double minValue) {
+            this.minValue = minValue;
+            return (BUILDER) this;
+        }
+
+        @Override
+        protected MeterType getType() {
+            return MeterType.HISTOGRAM;
+        }
+
+        @Override
+        protected METER create(MeterId meterId) {
+            if (steps == null || steps.isEmpty()) {
+                throw new IllegalArgumentException("Missing steps setting");
+            }
+
+            // sort and distinct the steps
+            steps = steps.stream().distinct().sorted().collect(Collectors.toList());
+
+            // verify steps with except min value
+            if (steps.get(0) < minValue) {
+                throw new IllegalArgumentException("Step[0] must be bigger than min value");
+            } else if (steps.get(0) != minValue) {
+                // add the min value to the steps
+                steps.add(0, minValue);
+            }
+
+            return create(meterId, steps);
+        }
+
+        /**
+         * Create the histogram with the sorted steps, starting from the min value.
+         */
+        protected abstract METER create(MeterId meterId, List<Double> steps);
+    }
+}
@@ -18,22 +18,16 @@
 
 package org.apache.skywalking.apm.agent.core.meter;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
-import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
-import org.apache.skywalking.apm.network.language.agent.v3.MeterData;
-import org.apache.skywalking.apm.network.language.agent.v3.MeterHistogram;
 
 /**
  * Histogram represents the distribution of data. It includes the buckets representing continuous ranges of values, with
  * the num of collected values in every specific range. The ranges could start from any value(default 0) to positive
  * infinitive. They can be set through the constructor and immutable after that.
  */
-public class Histogram extends BaseMeter {
+public class Histogram extends AbstractHistogram {
     protected final Bucket[] buckets;
 
     /**
@@ -41,13 +35,11 @@ public class Histogram extends BaseMeter {
      * @param steps presents the minimal value of every step
      */
     public Histogram(MeterId meterId, List<Double> steps) {
-        super(meterId);
+        super(meterId, steps);
         this.buckets = initBuckets(steps);
     }
 
-    /**
-     * Add value into the histogram, automatic analyze what bucket count need to be increment [step1, step2)
-     */
+    @Override
     public void addValue(double value) {
         Bucket bucket = findBucket(value);
         if (bucket == null) {
@@ -85,24 +77,11 @@ public class Histogram extends BaseMeter {
     }
 
     @Override
-    public MeterData.Builder transform() {
-        final MeterData.Builder builder = MeterData.newBuilder();
-
-        // get all values
-        List<MeterBucketValue> values = Arrays.stream(buckets)
-                                              .map(Histogram.Bucket::transform).collect(Collectors.toList());
-
-        return builder.setHistogram(MeterHistogram.newBuilder()
-                                                  .setName(getName())
-                                                  .addAllLabels(transformTags())
-                                                  .addAllValues(values)
-                                                  .build());
+    protected long count(int index) {
+        return buckets[index].count.get();
     }
 
-    public static class Builder extends AbstractBuilder<Builder, Histogram> {
-        private double minValue = 0;
-        private List<Double> steps;
-
+    public static class Builder extends AbstractHistogram.Builder<Builder, Histogram> {
         /**
          * Build a new meter build, meter name is required
          */
@@ -110,44 +89,8 @@ public class Histogram extends BaseMeter {
             super(name);
         }
 
-        /**
-         * Set bucket steps, the minimal values of every bucket besides the {@link #minValue}.
-         */
-        public Builder steps(List<Double> steps) {
-            this.steps = new ArrayList<>(steps);
-            return this;
-        }
-
-        /**
-         * Set min value, default is zero
-         */
-        public Builder minValue(double minValue) {
-            this.minValue = minValue;
-            return this;
-        }
-
         @Override
-        protected MeterType getType() {
-            return MeterType.HISTOGRAM;
-        }
-
-        @Override
-        protected Histogram create(MeterId meterId) {
-            if (steps == null || steps.isEmpty()) {
-                throw new IllegalArgumentException("Missing steps setting");
-            }
-
-            // sort and distinct the steps
-            steps = steps.stream().distinct().sorted().collect(Collectors.toList());
-
-            // verify steps with except min value
-            if (steps.get(0) < minValue) {
-                throw new IllegalArgumentException("Step[0] must be bigger than min value");
-            } else if (steps.get(0) != minValue) {
-                // add the min value to the steps
-                steps.add(0, minValue);
-            }
-
+        protected Histogram create(MeterId meterId, List<Double> steps) {
             return new Histogram(meterId, steps);
         }
     }
@@ -167,13 +110,6 @@ public class Histogram extends BaseMeter {
             this.count.addAndGet(count);
         }
 
-        public MeterBucketValue transform() {
-            return MeterBucketValue.newBuilder()
-                                   .setBucket(bucket)
-                                   .setCount(count.get())
-                                   .build();
-        }
-
         @Override
         public boolean equals(Object o) {
             if (this == o)
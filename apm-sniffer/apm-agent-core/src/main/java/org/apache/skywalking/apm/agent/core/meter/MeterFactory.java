@@ -51,4 +51,12 @@ public class MeterFactory {
         return new Histogram.Builder(name);
     }
 
+    /**
+     * Create a {@link StripedHistogram} builder by given meter name, for the histograms updated by many threads.
+     * @param name meter name
+     */
+    public static StripedHistogram.Builder stripedHistogram(String name) {
+        return new StripedHistogram.Builder(name);
+    }
+
 }
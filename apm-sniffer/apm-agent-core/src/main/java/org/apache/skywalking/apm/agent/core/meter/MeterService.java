@@ -19,16 +19,15 @@
 package org.apache.skywalking.apm.agent.core.meter;
 
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
@@ -43,7 +42,7 @@ public class MeterService implements BootService, Runnable {
     private final ConcurrentHashMap<MeterId, BaseMeter> meterMap = new ConcurrentHashMap<>();
 
     // report meters
-    private volatile ScheduledFuture<?> reportMeterFuture;
+    private volatile ScheduledTask reportMeterTask;
 
     private MeterSender sender;
 
@@ -73,12 +72,11 @@ public class MeterService implements BootService, Runnable {
     @Override
     public void boot() {
         if (Config.Meter.ACTIVE) {
-            reportMeterFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("MeterReportService")
-            ).scheduleWithFixedDelay(new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("Report meters failure.", t)
-            ), 0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS);
+            reportMeterTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleWithFixedDelay(
+                "MeterReportService",
+                new RunnableWithExceptionProtection(this, t -> LOGGER.error("Report meters failure.", t)),
+                0, Config.Meter.REPORT_INTERVAL, TimeUnit.SECONDS
+            );
         }
     }
 
@@ -88,8 +86,8 @@ public class MeterService implements BootService, Runnable {
 
     @Override
     public void shutdown() {
-        if (reportMeterFuture != null) {
-            reportMeterFuture.cancel(true);
+        if (reportMeterTask != null) {
+            reportMeterTask.cancel();
         }
         // clear all of the meter report
         meterMap.clear();
@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram for the values added by many threads. The bucket counts are {@link LongAdder}s, which spread the
+ * concurrent increments over padded cells, rather than all the threads racing on the same {@code AtomicLong}. The
+ * bucket is located by index arithmetic when the steps are uniform, otherwise by binary search over a primitive
+ * array.
+ * <p>
+ * The reported data is the same as {@link Histogram}.
+ */
+public class StripedHistogram extends AbstractHistogram {
+    private final LongAdder[] counts;
+    /**
+     * The width of every step, or zero when the steps are not uniform.
+     */
+    private final double uniformWidth;
+
+    /**
+     * @param meterId as the unique id of this meter instance
+     * @param steps presents the minimal value of every step
+     */
+    public StripedHistogram(MeterId meterId, List<Double> steps) {
+        super(meterId, steps);
+        this.counts = new LongAdder[this.steps.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        this.uniformWidth = uniformWidth(this.steps);
+    }
+
+    @Override
+    public void addValue(double value) {
+        final int index = indexOf(value);
+        if (index < 0) {
+            return;
+        }
+        counts[index].increment();
+    }
+
+    /**
+     * @return the index of the bucket [step(n), step(n+1)) including the value, or -1 if the value is less than the
+     * min value.
+     */
+    int indexOf(double value) {
+        if (!(value >= steps[0])) {
+            return -1;
+        }
+        final int last = steps.length - 1;
+        if (uniformWidth > 0) {
+            final double offset = (value - steps[0]) / uniformWidth;
+            if (offset >= last) {
+                return last;
+            }
+            int index = (int) offset;
+            // Correct the rounding error around the step values.
+            if (steps[index] > value) {
+                index--;
+            } else if (index < last && steps[index + 1] <= value) {
+                index++;
+            }
+            return index;
+        }
+        final int found = Arrays.binarySearch(steps, value);
+        return found >= 0 ? found : -found - 2;
+    }
+
+    @Override
+    protected long count(int index) {
+        return counts[index].sum();
+    }
+
+    private static double uniformWidth(double[] bounds) {
+        if (bounds.length < 2) {
+            return 0;
+        }
+        final double width = bounds[1] - bounds[0];
+        for (int i = 2; i < bounds.length; i++) {
+            if (Math.abs(bounds[i] - bounds[i - 1] - width) > width * 1e-9) {
+                return 0;
+            }
+        }
+        return width;
+    }
+
+    public static class Builder extends AbstractHistogram.Builder<Builder, StripedHistogram> {
+        /**
+         * Build a new meter build, meter name is required
+         */
+        public Builder(String name) {
+            super(name);
+        }
+
+        @Override
+        protected StripedHistogram create(MeterId meterId, List<Double> steps) {
+            return new StripedHistogram(meterId, steps);
+        }
+    }
+}
@@ -79,6 +79,29 @@ public abstract class AbstractClassEnhancePluginDefine {
         }
 
         LOGGER.debug("prepare to enhance class {} by {}.", transformClassName, interceptorDefineClassName);
+        if (!isWitnessExist(transformClassName, classLoader)) {
+            return null;
+        }
+
+        /**
+         * find origin class source code for interceptor
+         */
+        DynamicType.Builder<?> newClassBuilder = this.enhance(typeDescription, builder, classLoader, context);
+
+        context.initializationStageCompleted();
+        LOGGER.debug("enhance class {} by {} completely.", transformClassName, interceptorDefineClassName);
+
+        return newClassBuilder;
+    }
+
+    /**
+     * Check the witness classes and methods of the plugin in the given classloader.
+     *
+     * @param transformClassName the class being enhanced, only for logging.
+     * @return true if all witness classes and methods exist, which means the plugin is activated.
+     */
+    public boolean isWitnessExist(String transformClassName, ClassLoader classLoader) {
+        String interceptorDefineClassName = this.getClass().getName();
         WitnessFinder finder = WitnessFinder.INSTANCE;
         /**
          * find witness classes for enhance class
@@ -88,7 +111,7 @@ public abstract class AbstractClassEnhancePluginDefine {
             for (String witnessClass : witnessClasses) {
                 if (!finder.exist(witnessClass, classLoader)) {
                     LOGGER.warn("enhance class {} by plugin {} is not activated. Witness class {} does not exist.", transformClassName, interceptorDefineClassName, witnessClass);
-                    return null;
+                    return false;
                 }
             }
         }
@@ -97,20 +120,11 @@ public abstract class AbstractClassEnhancePluginDefine {
             for (WitnessMethod witnessMethod : witnessMethods) {
                 if (!finder.exist(witnessMethod, classLoader)) {
                     LOGGER.warn("enhance class {} by plugin {} is not activated. Witness method {} does not exist.", transformClassName, interceptorDefineClassName, witnessMethod);
-                    return null;
+                    return false;
                 }
             }
         }
-
-        /**
-         * find origin class source code for interceptor
-         */
-        DynamicType.Builder<?> newClassBuilder = this.enhance(typeDescription, builder, classLoader, context);
-
-        context.initializationStageCompleted();
-        LOGGER.debug("enhance class {} by {} completely.", transformClassName, interceptorDefineClassName);
-
-        return newClassBuilder;
+        return true;
     }
 
     /**
@@ -122,7 +136,7 @@ public abstract class AbstractClassEnhancePluginDefine {
      */
     protected DynamicType.Builder<?> enhance(TypeDescription typeDescription, DynamicType.Builder<?> newClassBuilder,
                                              ClassLoader classLoader, EnhanceContext context) throws PluginException {
-        newClassBuilder = this.enhanceClass(typeDescription, newClassBuilder, classLoader);
+        newClassBuilder = this.enhanceClass(typeDescription, newClassBuilder, classLoader, context);
 
         newClassBuilder = this.enhanceInstance(typeDescription, newClassBuilder, classLoader, context);
 
@@ -148,7 +162,7 @@ public abstract class AbstractClassEnhancePluginDefine {
      * @return new byte-buddy's builder for further manipulation.
      */
     protected abstract DynamicType.Builder<?> enhanceClass(TypeDescription typeDescription, DynamicType.Builder<?> newClassBuilder,
-                                                  ClassLoader classLoader) throws PluginException;
+                                                  ClassLoader classLoader, EnhanceContext context) throws PluginException;
 
     /**
      * Define the {@link ClassMatch} for filtering class.
@@ -18,6 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.plugin.cache.DelegateField;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassEnhancePluginDefine;
 
 /**
@@ -32,6 +35,15 @@ public class EnhanceContext {
      * The object has already been enhanced or extended. e.g. added the new field, or implemented the new interface
      */
     private boolean objectExtended = false;
+    /**
+     * The static fields holding the delegates of the method delegations, see {@link DelegateField}.
+     */
+    private final List<DelegateField> delegateFields = new ArrayList<>();
+    /**
+     * False if the enhancement keeps any state not described by {@link #delegateFields}, which makes the enhanced class
+     * unable to be cached.
+     */
+    private boolean cacheable = true;
 
     public boolean isEnhanced() {
         return isEnhanced;
@@ -48,4 +60,20 @@ public class EnhanceContext {
     public void extendObjectCompleted() {
         objectExtended = true;
     }
+
+    public List<DelegateField> getDelegateFields() {
+        return delegateFields;
+    }
+
+    public void delegateFieldDefined(String name, DelegateField.Type type, String pluginName, String interceptor) {
+        delegateFields.add(new DelegateField(name, type, pluginName, interceptor));
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public void cacheUnsupported() {
+        cacheable = false;
+    }
 }
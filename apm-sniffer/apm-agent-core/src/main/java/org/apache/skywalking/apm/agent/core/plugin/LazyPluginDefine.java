@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.List;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+
+/**
+ * The placeholder of a plugin define in the lazy activation mode, which holds only the class match read from the
+ * {@link PluginIndex}. The plugin define is loaded when a class matched by it shows up, {@link PluginFinder} always
+ * hands over the loaded one.
+ * <p>
+ * The indexed match is recorded with the default plugin config when the plugin is built, so it only picks the
+ * candidates. The loaded plugin define decides by its own match, which could be narrowed by the config.
+ *
+ * @see org.apache.skywalking.apm.agent.core.conf.Config.Plugin#LAZY_ACTIVATION
+ */
+class LazyPluginDefine extends AbstractClassEnhancePluginDefine {
+    private static final ILog LOGGER = LogManager.getLogger(LazyPluginDefine.class);
+
+    private final PluginDefine pluginDefine;
+    private final ClassMatch match;
+    private volatile AbstractClassEnhancePluginDefine delegate;
+    /**
+     * The match of the loaded plugin define, set before the {@link #delegate}.
+     */
+    private volatile ClassMatch delegateMatch;
+    private volatile boolean failed;
+
+    LazyPluginDefine(PluginDefine pluginDefine, ClassMatch match) {
+        this.pluginDefine = pluginDefine;
+        this.match = match;
+        setPluginName(pluginDefine.getName());
+    }
+
+    String getDefineClass() {
+        return pluginDefine.getDefineClass();
+    }
+
+    boolean isResolved() {
+        return delegate != null;
+    }
+
+    /**
+     * @return the loaded plugin define, or null if failed to load it.
+     */
+    AbstractClassEnhancePluginDefine resolve() {
+        AbstractClassEnhancePluginDefine resolved = delegate;
+        if (resolved != null || failed) {
+            return resolved;
+        }
+        synchronized (this) {
+            if (delegate == null && !failed) {
+                try {
+                    LOGGER.debug("activating plugin class {}.", pluginDefine.getDefineClass());
+                    AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(
+                        pluginDefine.getDefineClass(), true, AgentClassLoader.getDefault()).newInstance();
+                    plugin.setPluginName(pluginDefine.getName());
+                    delegateMatch = plugin.enhanceClass();
+                    delegate = plugin;
+                } catch (Throwable t) {
+                    failed = true;
+                    LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+                }
+            }
+            return delegate;
+        }
+    }
+
+    /**
+     * @return true if the class is matched by the loaded plugin define itself, false if it is not loaded.
+     */
+    boolean isMatched(TypeDescription typeDescription) {
+        if (resolve() == null) {
+            return false;
+        }
+        ClassMatch match = delegateMatch;
+        if (match instanceof NameMatch) {
+            return ((NameMatch) match).getClassName().equals(typeDescription.getTypeName());
+        }
+        return match instanceof IndirectMatch && ((IndirectMatch) match).isMatch(typeDescription);
+    }
+
+    private AbstractClassEnhancePluginDefine resolved() {
+        AbstractClassEnhancePluginDefine resolved = resolve();
+        if (resolved == null) {
+            throw new PluginException("Plugin " + pluginDefine.getDefineClass() + " can't be loaded.");
+        }
+        return resolved;
+    }
+
+    @Override
+    public DynamicType.Builder<?> define(TypeDescription typeDescription, DynamicType.Builder<?> builder,
+        ClassLoader classLoader, EnhanceContext context) throws PluginException {
+        AbstractClassEnhancePluginDefine resolved = resolve();
+        return resolved == null ? null : resolved.define(typeDescription, builder, classLoader, context);
+    }
+
+    @Override
+    public boolean isWitnessExist(String transformClassName, ClassLoader classLoader) {
+        return resolved().isWitnessExist(transformClassName, classLoader);
+    }
+
+    @Override
+    protected DynamicType.Builder<?> enhanceInstance(TypeDescription typeDescription,
+        DynamicType.Builder<?> newClassBuilder, ClassLoader classLoader, EnhanceContext context) {
+        return resolved().enhanceInstance(typeDescription, newClassBuilder, classLoader, context);
+    }
+
+    @Override
+    protected DynamicType.Builder<?> enhanceClass(TypeDescription typeDescription,
+        DynamicType.Builder<?> newClassBuilder, ClassLoader classLoader, EnhanceContext context) {
+        return resolved().enhanceClass(typeDescription, newClassBuilder, classLoader, context);
+    }
+
+    @Override
+    protected ClassMatch enhanceClass() {
+        return match;
+    }
+
+    @Override
+    protected String[] witnessClasses() {
+        return resolved().witnessClasses();
+    }
+
+    @Override
+    protected List<WitnessMethod> witnessMethods() {
+        return resolved().witnessMethods();
+    }
+
+    @Override
+    public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+        return resolved().getConstructorsInterceptPoints();
+    }
+
+    @Override
+    public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+        return resolved().getInstanceMethodsInterceptPoints();
+    }
+
+    @Override
+    public InstanceMethodsInterceptV2Point[] getInstanceMethodsInterceptV2Points() {
+        return resolved().getInstanceMethodsInterceptV2Points();
+    }
+
+    @Override
+    public StaticMethodsInterceptPoint[] getStaticMethodsInterceptPoints() {
+        return resolved().getStaticMethodsInterceptPoints();
+    }
+
+    @Override
+    public StaticMethodsInterceptV2Point[] getStaticMethodsInterceptV2Points() {
+        return resolved().getStaticMethodsInterceptV2Points();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+
+/**
+ * Run the preparation of the plugins at the agent startup, such as loading the plugin defines and generating the
+ * bootstrap delegators, by a fork-join pool bounded by {@link Config.Plugin#BOOTSTRAP_PARALLELISM}. The results are
+ * always in the order of the inputs, so the plugins are prepared as same as in the premain thread.
+ */
+public class ParallelBootstrap {
+    private static final ForkJoinPool.ForkJoinWorkerThreadFactory WORKER_FACTORY = pool -> {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("SkywalkingAgent-bootstrap-" + worker.getPoolIndex());
+        worker.setDaemon(true);
+        return worker;
+    };
+
+    /**
+     * Apply the task to every input, in parallel when the parallelism is more than 1.
+     *
+     * @param task should handle its own failure, any exception fails all the inputs.
+     * @return the results in the order of the inputs.
+     */
+    public static <T, R> List<R> map(List<T> inputs, Function<T, R> task) {
+        int parallelism = Math.min(Config.Plugin.BOOTSTRAP_PARALLELISM, inputs.size());
+        if (parallelism <= 1) {
+            List<R> results = new ArrayList<>(inputs.size());
+            for (T input : inputs) {
+                results.add(task.apply(input));
+            }
+            return results;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism, WORKER_FACTORY, null, false);
+        try {
+            // The parallel stream runs in the pool which submits it, rather than the common pool.
+            return pool.submit(() -> inputs.parallelStream().map(task).collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PluginException("Parallel bootstrap is interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new PluginException("Parallel bootstrap failure.", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -18,10 +18,15 @@
 
 package org.apache.skywalking.apm.agent.core.plugin;
 
+import java.io.FileNotFoundException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
@@ -58,26 +63,25 @@ public class PluginBootstrap {
             return new ArrayList<AbstractClassEnhancePluginDefine>();
         }
 
+        Map<String, PluginIndex.DefineMetadata> indexedDefines = new HashMap<String, PluginIndex.DefineMetadata>();
         for (URL pluginUrl : resources) {
             try {
                 PluginCfg.INSTANCE.load(pluginUrl.openStream());
             } catch (Throwable t) {
                 LOGGER.error(t, "plugin file [{}] init failure.", pluginUrl);
             }
+            if (Config.Plugin.LAZY_ACTIVATION) {
+                loadIndex(pluginUrl, indexedDefines);
+            }
         }
 
         List<PluginDefine> pluginClassList = PluginCfg.INSTANCE.getPluginClassList();
 
         List<AbstractClassEnhancePluginDefine> plugins = new ArrayList<AbstractClassEnhancePluginDefine>();
-        for (PluginDefine pluginDefine : pluginClassList) {
-            try {
-                LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
-                AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
-                    .getDefault()).newInstance();
-                plugin.setPluginName(pluginDefine.getName());
+        for (AbstractClassEnhancePluginDefine plugin : ParallelBootstrap.map(
+            pluginClassList, pluginDefine -> loadPlugin(pluginDefine, indexedDefines.get(pluginDefine.getDefineClass())))) {
+            if (plugin != null) {
                 plugins.add(plugin);
-            } catch (Throwable t) {
-                LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
             }
         }
 
@@ -87,4 +91,39 @@ public class PluginBootstrap {
 
     }
 
+    /**
+     * Load the {@link PluginIndex} next to the plugin file, if it exists.
+     */
+    private void loadIndex(URL pluginUrl, Map<String, PluginIndex.DefineMetadata> indexedDefines) {
+        try (InputStream input = new URL(pluginUrl, PluginIndex.INDEX_FILE).openStream()) {
+            for (PluginIndex.DefineMetadata metadata : PluginIndex.readFrom(input).getDefines()) {
+                indexedDefines.put(metadata.getDefineClass(), metadata);
+            }
+        } catch (FileNotFoundException e) {
+            LOGGER.debug("plugin file [{}] is not indexed, load all plugins of it.", pluginUrl);
+        } catch (Throwable t) {
+            LOGGER.warn(t, "plugin index of [{}] init failure, load all plugins of it.", pluginUrl);
+        }
+    }
+
+    /**
+     * @param metadata of the plugin define in the {@link PluginIndex}, or null if it is not indexed.
+     * @return the instance of the plugin define, or null if failed.
+     */
+    private AbstractClassEnhancePluginDefine loadPlugin(PluginDefine pluginDefine, PluginIndex.DefineMetadata metadata) {
+        if (metadata != null && !metadata.isBootstrapInstrumentation() && metadata.toClassMatch() != null) {
+            return new LazyPluginDefine(pluginDefine, metadata.toClassMatch());
+        }
+        try {
+            LOGGER.debug("loading plugin class {}.", pluginDefine.getDefineClass());
+            AbstractClassEnhancePluginDefine plugin = (AbstractClassEnhancePluginDefine) Class.forName(pluginDefine.getDefineClass(), true, AgentClassLoader
+                .getDefault()).newInstance();
+            plugin.setPluginName(pluginDefine.getName());
+            return plugin;
+        } catch (Throwable t) {
+            LOGGER.error(t, "load plugin [{}] failure.", pluginDefine.getDefineClass());
+            return null;
+        }
+    }
+
 }
@@ -23,14 +23,19 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import net.bytebuddy.description.NamedElement;
 import net.bytebuddy.description.type.TypeDescription;
 import net.bytebuddy.matcher.ElementMatcher;
 import org.apache.skywalking.apm.agent.core.plugin.bytebuddy.AbstractJunction;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatchIndex;
 import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
 import org.apache.skywalking.apm.agent.core.plugin.match.ProtectiveShieldMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch;
 
 import static net.bytebuddy.matcher.ElementMatchers.isInterface;
 import static net.bytebuddy.matcher.ElementMatchers.not;
@@ -42,11 +47,20 @@ import static net.bytebuddy.matcher.ElementMatchers.not;
 public class PluginFinder {
     private final Map<String, LinkedList<AbstractClassEnhancePluginDefine>> nameMatchDefine = new HashMap<String, LinkedList<AbstractClassEnhancePluginDefine>>();
     private final List<AbstractClassEnhancePluginDefine> signatureMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    /**
+     * The index of the {@link IndirectMatch}es in {@link #signatureMatchDefine}, so that a loading class is not checked
+     * by every plugin define.
+     */
+    private final ClassMatchIndex<AbstractClassEnhancePluginDefine> indirectMatchIndex = new ClassMatchIndex<AbstractClassEnhancePluginDefine>();
     private final List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefine = new ArrayList<AbstractClassEnhancePluginDefine>();
+    private final Map<String, AbstractClassEnhancePluginDefine> allDefines = new HashMap<String, AbstractClassEnhancePluginDefine>();
     private static boolean IS_PLUGIN_INIT_COMPLETED = false;
 
     public PluginFinder(List<AbstractClassEnhancePluginDefine> plugins) {
         for (AbstractClassEnhancePluginDefine plugin : plugins) {
+            String defineClass = plugin instanceof LazyPluginDefine
+                ? ((LazyPluginDefine) plugin).getDefineClass() : plugin.getClass().getName();
+            allDefines.putIfAbsent(defineClass, plugin);
             ClassMatch match = plugin.enhanceClass();
 
             if (match == null) {
@@ -63,6 +77,9 @@ public class PluginFinder {
                 pluginDefines.add(plugin);
             } else {
                 signatureMatchDefine.add(plugin);
+                if (match instanceof IndirectMatch) {
+                    indirectMatchIndex.add(plugin, (IndirectMatch) match);
+                }
             }
 
             if (plugin.isBootstrapInstrumentation()) {
@@ -75,37 +92,70 @@ public class PluginFinder {
         List<AbstractClassEnhancePluginDefine> matchedPlugins = new LinkedList<AbstractClassEnhancePluginDefine>();
         String typeName = typeDescription.getTypeName();
         if (nameMatchDefine.containsKey(typeName)) {
-            matchedPlugins.addAll(nameMatchDefine.get(typeName));
+            for (AbstractClassEnhancePluginDefine pluginDefine : nameMatchDefine.get(typeName)) {
+                addActivated(matchedPlugins, pluginDefine, typeDescription);
+            }
         }
 
-        for (AbstractClassEnhancePluginDefine pluginDefine : signatureMatchDefine) {
-            IndirectMatch match = (IndirectMatch) pluginDefine.enhanceClass();
-            if (match.isMatch(typeDescription)) {
-                matchedPlugins.add(pluginDefine);
-            }
+        for (AbstractClassEnhancePluginDefine pluginDefine : indirectMatchIndex.find(typeDescription)) {
+            addActivated(matchedPlugins, pluginDefine, typeDescription);
         }
 
         return matchedPlugins;
     }
 
+    /**
+     * Add the plugin define, the lazy one is loaded now as the class matched by it shows up, and added only if its own
+     * match, rather than the indexed one, matches the class too.
+     */
+    private static void addActivated(List<AbstractClassEnhancePluginDefine> matchedPlugins,
+                                     AbstractClassEnhancePluginDefine pluginDefine, TypeDescription typeDescription) {
+        if (pluginDefine instanceof LazyPluginDefine) {
+            LazyPluginDefine lazyPluginDefine = (LazyPluginDefine) pluginDefine;
+            pluginDefine = lazyPluginDefine.isMatched(typeDescription) ? lazyPluginDefine.resolve() : null;
+        }
+        if (pluginDefine != null) {
+            matchedPlugins.add(pluginDefine);
+        }
+    }
+
     public ElementMatcher<? super TypeDescription> buildMatch() {
-        ElementMatcher.Junction judge = new AbstractJunction<NamedElement>() {
+        ElementMatcher.Junction judge = new AbstractJunction<TypeDescription>() {
             @Override
-            public boolean matches(NamedElement target) {
-                return nameMatchDefine.containsKey(target.getActualName());
+            public boolean matches(TypeDescription target) {
+                return nameMatchDefine.containsKey(target.getActualName()) || indirectMatchIndex.matches(target);
             }
         };
-        for (AbstractClassEnhancePluginDefine define : signatureMatchDefine) {
-            ClassMatch match = define.enhanceClass();
-            if (match instanceof IndirectMatch) {
-                judge = judge.or(((IndirectMatch) match).buildJunction());
-            }
-        }
         // Filter out all matchers returns to exclude pure interface types.
         judge = not(isInterface()).and(judge);
         return new ProtectiveShieldMatcher(judge);
     }
 
+    /**
+     * @return the plugin define of the given class name, or null if it is not loaded.
+     */
+    public AbstractClassEnhancePluginDefine getPluginDefine(String defineClassName) {
+        AbstractClassEnhancePluginDefine pluginDefine = allDefines.get(defineClassName);
+        if (pluginDefine instanceof LazyPluginDefine) {
+            return ((LazyPluginDefine) pluginDefine).resolve();
+        }
+        return pluginDefine;
+    }
+
+    /**
+     * @return true if the define matches the classes only by their names or their own class files, rather than their
+     * super types, which are loaded from other class files.
+     */
+    public static boolean isMatchedByClassFile(AbstractClassEnhancePluginDefine define) {
+        ClassMatch match = define.enhanceClass();
+        return match instanceof NameMatch
+            || match instanceof MultiClassNameMatch
+            || match instanceof PrefixMatch
+            || match instanceof RegexMatch
+            || match instanceof ClassAnnotationMatch
+            || match instanceof MethodAnnotationMatch;
+    }
+
     public List<AbstractClassEnhancePluginDefine> getBootstrapClassMatchDefine() {
         return bootstrapClassMatchDefine;
     }
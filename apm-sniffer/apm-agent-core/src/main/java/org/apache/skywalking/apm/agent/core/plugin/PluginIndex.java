@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+
+/**
+ * The metadata of the plugin defines in a plugin jar, generated when the plugin is built, so that the plugin defines
+ * could be found without loading them. It is kept in {@link #INDEX_FILE} next to skywalking-plugin.def.
+ * <p>
+ * Besides the class matches, the witness classes and the intercept points are indexed too, so that the plugins of two
+ * releases could be compared by {@link PluginIndexGenerator}. The index has no timestamp, and the defines are kept in
+ * the order of skywalking-plugin.def, the same plugin always generates the same index.
+ */
+public class PluginIndex {
+    public static final String INDEX_FILE = "skywalking-plugin.idx";
+
+    private static final int MAGIC = 0x53575049;
+    private static final int FORMAT_VERSION = 2;
+
+    private final Map<String, DefineMetadata> defines = new LinkedHashMap<>();
+
+    /**
+     * Build the index of the loaded plugin defines.
+     */
+    public static PluginIndex of(List<AbstractClassEnhancePluginDefine> pluginDefines) {
+        return of(pluginDefines, false);
+    }
+
+    /**
+     * Build the index of the loaded plugin defines.
+     *
+     * @param configurable true if the plugin has its config, then the class annotation and hierarchy matches are
+     *                     indexed as {@link MatchKind#OTHER}, as the config could change them at the agent startup.
+     */
+    public static PluginIndex of(List<AbstractClassEnhancePluginDefine> pluginDefines, boolean configurable) {
+        PluginIndex index = new PluginIndex();
+        for (AbstractClassEnhancePluginDefine pluginDefine : pluginDefines) {
+            DefineMetadata metadata = DefineMetadata.of(pluginDefine, configurable);
+            index.defines.put(metadata.getDefineClass(), metadata);
+        }
+        return index;
+    }
+
+    /**
+     * @return the metadata of the plugin define, or null if it is not indexed.
+     */
+    public DefineMetadata get(String defineClass) {
+        return defines.get(defineClass);
+    }
+
+    public Collection<DefineMetadata> getDefines() {
+        return defines.values();
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(defines.size());
+        for (DefineMetadata metadata : defines.values()) {
+            out.writeUTF(metadata.defineClass);
+            out.writeByte(metadata.matchKind.ordinal());
+            writeStrings(out, metadata.matchNames);
+            out.writeBoolean(metadata.bootstrapInstrumentation);
+            writeStrings(out, metadata.witnessClasses);
+            out.writeInt(metadata.interceptPoints.size());
+            for (InterceptPointMetadata point : metadata.interceptPoints) {
+                out.writeByte(point.kind.ordinal());
+                out.writeUTF(point.matcher);
+                out.writeUTF(point.interceptor);
+                out.writeBoolean(point.overrideArgs);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * @throws IOException if the index is broken, or generated by another format version.
+     */
+    public static PluginIndex readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown format of plugin index.");
+        }
+        PluginIndex index = new PluginIndex();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            String defineClass = in.readUTF();
+            MatchKind matchKind = readEnum(in, MatchKind.values(), defineClass);
+            String[] matchNames = readStrings(in);
+            boolean bootstrapInstrumentation = in.readBoolean();
+            String[] witnessClasses = readStrings(in);
+            int pointSize = in.readInt();
+            List<InterceptPointMetadata> interceptPoints = new ArrayList<>(pointSize);
+            for (int j = 0; j < pointSize; j++) {
+                interceptPoints.add(new InterceptPointMetadata(
+                    readEnum(in, InterceptKind.values(), defineClass), in.readUTF(), in.readUTF(), in.readBoolean()));
+            }
+            index.defines.put(defineClass, new DefineMetadata(
+                defineClass, matchKind, matchNames, bootstrapInstrumentation, witnessClasses, interceptPoints));
+        }
+        return index;
+    }
+
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    private static <T extends Enum<T>> T readEnum(DataInputStream in, T[] values,
+                                                  String defineClass) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        if (ordinal >= values.length) {
+            throw new IOException("Unknown " + values[0].getDeclaringClass().getSimpleName() + " " + ordinal
+                                      + " of " + defineClass);
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * The kinds of the class matches, which can be rebuilt from the index.
+     */
+    public enum MatchKind {
+        NAME, MULTI_CLASS_NAME, PREFIX, CLASS_ANNOTATION, HIERARCHY,
+        /**
+         * Any other match, which is known only after the plugin define is loaded.
+         */
+        OTHER
+    }
+
+    /**
+     * The kinds of the intercept points.
+     */
+    public enum InterceptKind {
+        CONSTRUCTOR, INSTANCE_METHODS, STATIC_METHODS, INSTANCE_METHODS_V2, STATIC_METHODS_V2
+    }
+
+    /**
+     * The metadata of a plugin define.
+     */
+    public static class DefineMetadata {
+        private final String defineClass;
+        private final MatchKind matchKind;
+        private final String[] matchNames;
+        private final boolean bootstrapInstrumentation;
+        private final String[] witnessClasses;
+        private final List<InterceptPointMetadata> interceptPoints;
+
+        DefineMetadata(String defineClass, MatchKind matchKind, String[] matchNames,
+                       boolean bootstrapInstrumentation, String[] witnessClasses,
+                       List<InterceptPointMetadata> interceptPoints) {
+            this.defineClass = defineClass;
+            this.matchKind = matchKind;
+            this.matchNames = matchNames;
+            this.bootstrapInstrumentation = bootstrapInstrumentation;
+            this.witnessClasses = witnessClasses;
+            this.interceptPoints = interceptPoints;
+        }
+
+        static DefineMetadata of(AbstractClassEnhancePluginDefine pluginDefine, boolean configurable) {
+            ClassMatch match = pluginDefine.enhanceClass();
+            MatchKind matchKind = MatchKind.OTHER;
+            String[] matchNames = new String[0];
+            if (match instanceof NameMatch) {
+                matchKind = MatchKind.NAME;
+                matchNames = new String[] {((NameMatch) match).getClassName()};
+            } else if (match instanceof MultiClassNameMatch) {
+                matchKind = MatchKind.MULTI_CLASS_NAME;
+                matchNames = ((MultiClassNameMatch) match).getMatchClassNames().toArray(new String[0]);
+            } else if (match instanceof PrefixMatch) {
+                matchKind = MatchKind.PREFIX;
+                matchNames = ((PrefixMatch) match).getPrefixes();
+            } else if (configurable) {
+                // The indirect matches of a configurable plugin are known only after the plugin define is loaded.
+                matchKind = MatchKind.OTHER;
+            } else if (match instanceof ClassAnnotationMatch) {
+                matchKind = MatchKind.CLASS_ANNOTATION;
+                matchNames = ((ClassAnnotationMatch) match).getAnnotations();
+            } else if (match instanceof HierarchyMatch) {
+                matchKind = MatchKind.HIERARCHY;
+                matchNames = ((HierarchyMatch) match).getParentTypes();
+            }
+            String[] witnessClasses = pluginDefine.witnessClasses();
+            return new DefineMetadata(
+                pluginDefine.getClass().getName(), matchKind, matchNames, pluginDefine.isBootstrapInstrumentation(),
+                witnessClasses == null ? new String[0] : witnessClasses, InterceptPointMetadata.of(pluginDefine)
+            );
+        }
+
+        public String getDefineClass() {
+            return defineClass;
+        }
+
+        public MatchKind getMatchKind() {
+            return matchKind;
+        }
+
+        public List<String> getMatchNames() {
+            return Arrays.asList(matchNames);
+        }
+
+        public boolean isBootstrapInstrumentation() {
+            return bootstrapInstrumentation;
+        }
+
+        public List<String> getWitnessClasses() {
+            return Arrays.asList(witnessClasses);
+        }
+
+        public List<InterceptPointMetadata> getInterceptPoints() {
+            return interceptPoints;
+        }
+
+        /**
+         * @return the class match of the plugin define, or null if it can't be rebuilt from the index.
+         */
+        public ClassMatch toClassMatch() {
+            switch (matchKind) {
+                case NAME:
+                    return NameMatch.byName(matchNames[0]);
+                case MULTI_CLASS_NAME:
+                    return MultiClassNameMatch.byMultiClassMatch(matchNames);
+                case PREFIX:
+                    return PrefixMatch.nameStartsWith(matchNames);
+                case CLASS_ANNOTATION:
+                    return ClassAnnotationMatch.byClassAnnotationMatch(matchNames);
+                case HIERARCHY:
+                    return HierarchyMatch.byHierarchyMatch(matchNames);
+                default:
+                    return null;
+            }
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(defineClass).append('\n')
+                .append("  match: ").append(matchKind).append(' ').append(Arrays.toString(matchNames)).append('\n');
+            if (bootstrapInstrumentation) {
+                text.append("  bootstrap instrumentation\n");
+            }
+            if (witnessClasses.length > 0) {
+                text.append("  witness classes: ").append(Arrays.toString(witnessClasses)).append('\n');
+            }
+            for (InterceptPointMetadata point : interceptPoints) {
+                text.append("  ").append(point).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    /**
+     * The metadata of an intercept point, only for reading.
+     */
+    public static class InterceptPointMetadata {
+        /**
+         * The identity hash code printed by the matchers without their own toString, and the address in the names of
+         * the lambdas, which change in every build.
+         */
+        private static final Pattern IDENTITY_HASH_CODE = Pattern.compile(
+            "(?<=[\\w$])(/(0x)?\\p{XDigit}+)?@\\p{XDigit}+\\b");
+
+        private final InterceptKind kind;
+        private final String matcher;
+        private final String interceptor;
+        private final boolean overrideArgs;
+
+        InterceptPointMetadata(InterceptKind kind, String matcher, String interceptor, boolean overrideArgs) {
+            this.kind = kind;
+            this.matcher = matcher;
+            this.interceptor = interceptor;
+            this.overrideArgs = overrideArgs;
+        }
+
+        static List<InterceptPointMetadata> of(AbstractClassEnhancePluginDefine pluginDefine) {
+            List<InterceptPointMetadata> points = new ArrayList<>();
+            ConstructorInterceptPoint[] constructorPoints = pluginDefine.getConstructorsInterceptPoints();
+            if (constructorPoints != null) {
+                for (ConstructorInterceptPoint point : constructorPoints) {
+                    points.add(new InterceptPointMetadata(InterceptKind.CONSTRUCTOR, describe(
+                        point.getConstructorMatcher()), point.getConstructorInterceptor(), false));
+                }
+            }
+            InstanceMethodsInterceptPoint[] instancePoints = pluginDefine.getInstanceMethodsInterceptPoints();
+            if (instancePoints != null) {
+                for (InstanceMethodsInterceptPoint point : instancePoints) {
+                    points.add(new InterceptPointMetadata(InterceptKind.INSTANCE_METHODS, describe(
+                        point.getMethodsMatcher()), point.getMethodsInterceptor(), point.isOverrideArgs()));
+                }
+            }
+            StaticMethodsInterceptPoint[] staticPoints = pluginDefine.getStaticMethodsInterceptPoints();
+            if (staticPoints != null) {
+                for (StaticMethodsInterceptPoint point : staticPoints) {
+                    points.add(new InterceptPointMetadata(InterceptKind.STATIC_METHODS, describe(
+                        point.getMethodsMatcher()), point.getMethodsInterceptor(), point.isOverrideArgs()));
+                }
+            }
+            InstanceMethodsInterceptV2Point[] instanceV2Points = pluginDefine.getInstanceMethodsInterceptV2Points();
+            if (instanceV2Points != null) {
+                for (InstanceMethodsInterceptV2Point point : instanceV2Points) {
+                    points.add(new InterceptPointMetadata(InterceptKind.INSTANCE_METHODS_V2, describe(
+                        point.getMethodsMatcher()), point.getMethodsInterceptorV2(), point.isOverrideArgs()));
+                }
+            }
+            StaticMethodsInterceptV2Point[] staticV2Points = pluginDefine.getStaticMethodsInterceptV2Points();
+            if (staticV2Points != null) {
+                for (StaticMethodsInterceptV2Point point : staticV2Points) {
+                    points.add(new InterceptPointMetadata(InterceptKind.STATIC_METHODS_V2, describe(
+                        point.getMethodsMatcher()), point.getMethodsInterceptorV2(), point.isOverrideArgs()));
+                }
+            }
+            return points;
+        }
+
+        private static String describe(ElementMatcher<?> matcher) {
+            return matcher == null ? "" : IDENTITY_HASH_CODE.matcher(matcher.toString()).replaceAll("");
+        }
+
+        public InterceptKind getKind() {
+            return kind;
+        }
+
+        public String getMatcher() {
+            return matcher;
+        }
+
+        public String getInterceptor() {
+            return interceptor;
+        }
+
+        public boolean isOverrideArgs() {
+            return overrideArgs;
+        }
+
+        @Override
+        public String toString() {
+            return kind + " " + matcher + " -> " + interceptor + (overrideArgs ? " (override args)" : "");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
+import org.apache.skywalking.apm.agent.core.plugin.exception.IllegalPluginDefineException;
+
+/**
+ * Generate the {@link PluginIndex} of a plugin when it is built, by loading the plugin defines listed in the
+ * skywalking-plugin.def of the plugin classes folder.
+ * <p>
+ * Usage: {@code PluginIndexGenerator <plugin classes folder>}, with the plugin and the agent core in the classpath. It
+ * is run in the process-classes phase of the plugin modules. The plugin defines which can't be loaded when building
+ * are left out of the index, and loaded at the agent startup as usual. The class annotation and hierarchy matches of a
+ * plugin with its own {@link PluginConfig} are not indexed either, as the config could change them at the agent
+ * startup.
+ * <p>
+ * {@code PluginIndexGenerator --print <plugin jar>} prints the index of a plugin jar as text, to compare the plugins
+ * of two releases.
+ */
+public class PluginIndexGenerator {
+    private static final String PLUGIN_FILE = "skywalking-plugin.def";
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && "--print".equals(args[0])) {
+            print(new File(args[1]));
+            return;
+        }
+        if (args.length != 1) {
+            throw new IllegalArgumentException(
+                "Usage: PluginIndexGenerator <plugin classes folder> | --print <plugin jar>");
+        }
+        File classesFolder = new File(args[0]);
+        File pluginFile = new File(classesFolder, PLUGIN_FILE);
+        if (!pluginFile.isFile()) {
+            return;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        PluginIndex index = generate(pluginFile, isConfigurable(classesFolder, classLoader), classLoader);
+        try (OutputStream out = new FileOutputStream(new File(classesFolder, PluginIndex.INDEX_FILE))) {
+            index.writeTo(out);
+        }
+    }
+
+    static PluginIndex generate(File pluginFile, boolean configurable,
+                                ClassLoader classLoader) throws IOException, IllegalPluginDefineException {
+        List<AbstractClassEnhancePluginDefine> pluginDefines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(new FileInputStream(pluginFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().length() == 0 || line.startsWith("#")) {
+                    continue;
+                }
+                PluginDefine pluginDefine = PluginDefine.build(line);
+                try {
+                    pluginDefines.add((AbstractClassEnhancePluginDefine) Class.forName(
+                        pluginDefine.getDefineClass(), true, classLoader).newInstance());
+                } catch (ReflectiveOperationException | LinkageError e) {
+                    System.err.println("[WARNING] " + pluginDefine.getDefineClass() + " is not indexed: " + e);
+                }
+            }
+        }
+        return PluginIndex.of(pluginDefines, configurable);
+    }
+
+    /**
+     * @return true if any class of the plugin is annotated by {@link PluginConfig}.
+     */
+    static boolean isConfigurable(File classesFolder, ClassLoader classLoader) throws IOException {
+        final Path root = classesFolder.toPath();
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.map(root::relativize)
+                        .map(Path::toString)
+                        .filter(file -> file.endsWith(CLASS_FILE_SUFFIX))
+                        .anyMatch(file -> isPluginConfig(file, classLoader));
+        }
+    }
+
+    private static boolean isPluginConfig(String classFile, ClassLoader classLoader) {
+        String className = classFile.substring(0, classFile.length() - CLASS_FILE_SUFFIX.length())
+                                    .replace(File.separatorChar, '.');
+        try {
+            return Class.forName(className, false, classLoader).isAnnotationPresent(PluginConfig.class);
+        } catch (ClassNotFoundException | LinkageError e) {
+            // The classes depending on the libraries not in the classpath are not the config.
+            return false;
+        }
+    }
+
+    private static void print(File pluginJar) throws IOException {
+        try (JarFile jar = new JarFile(pluginJar)) {
+            ZipEntry entry = jar.getEntry(PluginIndex.INDEX_FILE);
+            if (entry == null) {
+                throw new IOException(pluginJar + " has no " + PluginIndex.INDEX_FILE);
+            }
+            try (InputStream input = jar.getInputStream(entry)) {
+                for (PluginIndex.DefineMetadata metadata : PluginIndex.readFrom(input).getDefines()) {
+                    System.out.print(metadata);
+                }
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.instrument.Instrumentation;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +39,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
 import org.apache.skywalking.apm.agent.core.plugin.ByteBuddyCoreClasses;
 import org.apache.skywalking.apm.agent.core.plugin.InstrumentDebuggingClass;
+import org.apache.skywalking.apm.agent.core.plugin.ParallelBootstrap;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
@@ -66,6 +68,8 @@ public class BootstrapInstrumentBoost {
         "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance",
         "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.OverrideCallable",
         "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult",
+        "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite",
+        "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSites",
 
         // interceptor v2
         "org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2",
@@ -90,15 +94,23 @@ public class BootstrapInstrumentBoost {
     public static AgentBuilder inject(PluginFinder pluginFinder, Instrumentation instrumentation,
         AgentBuilder agentBuilder, JDK9ModuleExporter.EdgeClasses edgeClasses) throws PluginException {
         Map<String, byte[]> classesTypeMap = new LinkedHashMap<>();
+        List<Delegator> delegators = new ArrayList<>();
 
-        if (!prepareJREInstrumentation(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentation(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
-        if (!prepareJREInstrumentationV2(pluginFinder, classesTypeMap)) {
+        if (!prepareJREInstrumentationV2(pluginFinder, delegators)) {
             return agentBuilder;
         }
 
+        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+        List<byte[]> delegatorClasses = ParallelBootstrap.map(
+            delegators, delegator -> generateDelegator(typePool, delegator));
+        for (int i = 0; i < delegators.size(); i++) {
+            classesTypeMap.put(delegators.get(i).internalInterceptorName(), delegatorClasses.get(i));
+        }
+
         for (String highPriorityClass : HIGH_PRIORITY_CLASSES) {
             loadHighPriorityClass(classesTypeMap, highPriorityClass);
         }
@@ -151,26 +163,25 @@ public class BootstrapInstrumentBoost {
     /**
      * Generate dynamic delegate for ByteBuddy
      *
-     * @param pluginFinder   gets the whole plugin list.
-     * @param classesTypeMap hosts the class binary.
+     * @param pluginFinder gets the whole plugin list.
+     * @param delegators   hosts the delegators to generate.
      * @return true if have JRE instrumentation requirement.
      * @throws PluginException when generate failure.
      */
     private static boolean prepareJREInstrumentation(PluginFinder pluginFinder,
-        Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+        List<Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptPoints())) {
                 for (InstanceMethodsInterceptPoint point : define.getInstanceMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     }
@@ -179,8 +190,8 @@ public class BootstrapInstrumentBoost {
 
             if (Objects.nonNull(define.getConstructorsInterceptPoints())) {
                 for (ConstructorInterceptPoint point : define.getConstructorsInterceptPoints()) {
-                    generateDelegator(
-                        classesTypeMap, typePool, define.getPluginName(),
+                    addDelegator(
+                        delegators, define.getPluginName(),
                         CONSTRUCTOR_DELEGATE_TEMPLATE, point.getConstructorInterceptor()
                     );
                 }
@@ -189,13 +200,13 @@ public class BootstrapInstrumentBoost {
             if (Objects.nonNull(define.getStaticMethodsInterceptPoints())) {
                 for (StaticMethodsInterceptPoint point : define.getStaticMethodsInterceptPoints()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_DELEGATE_TEMPLATE, point.getMethodsInterceptor()
                         );
                     }
@@ -206,20 +217,19 @@ public class BootstrapInstrumentBoost {
     }
 
     private static boolean prepareJREInstrumentationV2(PluginFinder pluginFinder,
-                                                       Map<String, byte[]> classesTypeMap) throws PluginException {
-        TypePool typePool = TypePool.Default.of(BootstrapInstrumentBoost.class.getClassLoader());
+                                                       List<Delegator> delegators) throws PluginException {
         List<AbstractClassEnhancePluginDefine> bootstrapClassMatchDefines = pluginFinder.getBootstrapClassMatchDefine();
         for (AbstractClassEnhancePluginDefine define : bootstrapClassMatchDefines) {
             if (Objects.nonNull(define.getInstanceMethodsInterceptV2Points())) {
                 for (InstanceMethodsInterceptV2Point point : define.getInstanceMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             INSTANCE_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     }
@@ -229,13 +239,13 @@ public class BootstrapInstrumentBoost {
             if (Objects.nonNull(define.getStaticMethodsInterceptV2Points())) {
                 for (StaticMethodsInterceptV2Point point : define.getStaticMethodsInterceptV2Points()) {
                     if (point.isOverrideArgs()) {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_V2_WITH_OVERRIDE_ARGS_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     } else {
-                        generateDelegator(
-                            classesTypeMap, typePool, define.getPluginName(),
+                        addDelegator(
+                            delegators, define.getPluginName(),
                             STATIC_METHOD_V2_DELEGATE_TEMPLATE, point.getMethodsInterceptorV2()
                         );
                     }
@@ -245,21 +255,33 @@ public class BootstrapInstrumentBoost {
         return bootstrapClassMatchDefines.size() > 0;
     }
 
+    /**
+     * Add the delegator to generate for the interceptor.
+     *
+     * @param delegators        hosts the delegators to generate
+     * @param templateClassName represents the class as template in this generation process. The templates are
+     *                          pre-defined in SkyWalking agent core.
+     */
+    private static void addDelegator(List<Delegator> delegators, String pluginName, String templateClassName,
+        String methodsInterceptor) {
+        delegators.add(new Delegator(pluginName, templateClassName, methodsInterceptor));
+    }
+
     /**
      * Generate the delegator class based on given template class. This is preparation stage level code generation.
      * <p>
      * One key step to avoid class confliction between AppClassLoader and BootstrapClassLoader
      *
-     * @param classesTypeMap    hosts injected binary of generated class
-     * @param typePool          to generate new class
-     * @param templateClassName represents the class as template in this generation process. The templates are
-     *                          pre-defined in SkyWalking agent core.
+     * @param typePool  to generate new class, shared by the delegators generated in parallel
+     * @param delegator to generate
+     * @return the binary of generated class
      */
-    private static void generateDelegator(Map<String, byte[]> classesTypeMap, TypePool typePool,
-        String pluginName, String templateClassName, String methodsInterceptor) {
-        String internalInterceptorName = internalDelegate(methodsInterceptor);
+    private static byte[] generateDelegator(TypePool typePool, Delegator delegator) {
+        String internalInterceptorName = delegator.internalInterceptorName();
+        String pluginName = delegator.pluginName;
+        String methodsInterceptor = delegator.methodsInterceptor;
         try {
-            TypeDescription templateTypeDescription = typePool.describe(templateClassName).resolve();
+            TypeDescription templateTypeDescription = typePool.describe(delegator.templateClassName).resolve();
 
             DynamicType.Unloaded interceptorType = new ByteBuddy().redefine(templateTypeDescription, ClassFileLocator.ForClassLoader
                 .of(BootstrapInstrumentBoost.class.getClassLoader()))
@@ -270,9 +292,9 @@ public class BootstrapInstrumentBoost {
                                                                   .value(methodsInterceptor)
                                                                   .make();
 
-            classesTypeMap.put(internalInterceptorName, interceptorType.getBytes());
-
             InstrumentDebuggingClass.INSTANCE.log(interceptorType);
+
+            return interceptorType.getBytes();
         } catch (Exception e) {
             throw new PluginException("Generate Dynamic plugin failure", e);
         }
@@ -314,4 +336,23 @@ public class BootstrapInstrumentBoost {
 
         loadedTypeMap.put(className, enhancedInstanceClassFile);
     }
+
+    /**
+     * The delegator class of an interceptor, generated from a template.
+     */
+    private static class Delegator {
+        private final String pluginName;
+        private final String templateClassName;
+        private final String methodsInterceptor;
+
+        private Delegator(String pluginName, String templateClassName, String methodsInterceptor) {
+            this.pluginName = pluginName;
+            this.templateClassName = templateClassName;
+            this.methodsInterceptor = methodsInterceptor;
+        }
+
+        private String internalInterceptorName() {
+            return internalDelegate(methodsInterceptor);
+        }
+    }
 }
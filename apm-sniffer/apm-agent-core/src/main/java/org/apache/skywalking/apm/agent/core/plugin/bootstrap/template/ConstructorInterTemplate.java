@@ -23,6 +23,7 @@ import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.IBootstrapLog;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.BootstrapInterRuntimeAssist;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceConstructorInterceptor;
 import org.apache.skywalking.apm.agent.core.so11y.bootstrap.BootstrapPluginSo11y;
@@ -61,8 +62,9 @@ public class ConstructorInterTemplate {
      */
     @RuntimeType
     public static void intercept(@This Object obj, @AllArguments Object[] allArguments) {
+        boolean sampled = InterceptSite.isTimeCostSampled();
         long interceptorTimeCost = 0L;
-        long startTime = System.nanoTime();
+        long startTime = InterceptSite.nanoTime(sampled);
         try {
             prepare();
 
@@ -76,8 +78,10 @@ public class ConstructorInterTemplate {
             LOGGER.error("ConstructorInter failure.", t);
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTime;
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
+        interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTime;
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
+        }
     }
 
     /**
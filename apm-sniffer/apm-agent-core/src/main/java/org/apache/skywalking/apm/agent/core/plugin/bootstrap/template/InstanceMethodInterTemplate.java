@@ -27,6 +27,8 @@ import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.IBootstrapLog;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.BootstrapInterRuntimeAssist;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSites;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
@@ -57,6 +59,7 @@ public class InstanceMethodInterTemplate {
     private static InstanceMethodsAroundInterceptor INTERCEPTOR;
     private static IBootstrapLog LOGGER;
     private static BootstrapPluginSo11y PLUGIN_SO11Y;
+    private static InterceptSites SITES;
 
     /**
      * Intercept the target instance method.
@@ -76,12 +79,14 @@ public class InstanceMethodInterTemplate {
 
         prepare();
 
+        InterceptSite site = SITES.get(method);
+        boolean sampled = InterceptSite.isTimeCostSampled();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = InterceptSite.nanoTime(sampled);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), result);
+                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, site.getParameterTypes(), result);
             }
         } catch (Throwable t) {
             if (LOGGER != null) {
@@ -89,7 +94,7 @@ public class InstanceMethodInterTemplate {
             }
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -99,10 +104,10 @@ public class InstanceMethodInterTemplate {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t);
+                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, site.getParameterTypes(), t);
                 }
             } catch (Throwable t2) {
                 if (LOGGER != null) {
@@ -110,13 +115,13 @@ public class InstanceMethodInterTemplate {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodHandleExceptionInter;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret);
+                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, site.getParameterTypes(), ret);
                 }
             } catch (Throwable t) {
                 if (LOGGER != null) {
@@ -124,9 +129,11 @@ public class InstanceMethodInterTemplate {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodAfterInter;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
@@ -135,6 +142,9 @@ public class InstanceMethodInterTemplate {
      * Prepare the context. Link to the agent core in AppClassLoader.
      */
     private static void prepare() {
+        if (SITES == null) {
+            SITES = new InterceptSites();
+        }
         if (INTERCEPTOR == null) {
             ClassLoader loader = BootstrapInterRuntimeAssist.getAgentClassLoader();
 
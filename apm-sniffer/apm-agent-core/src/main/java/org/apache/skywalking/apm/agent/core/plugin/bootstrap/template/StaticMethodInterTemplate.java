@@ -26,6 +26,8 @@ import net.bytebuddy.implementation.bind.annotation.RuntimeType;
 import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.IBootstrapLog;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.BootstrapInterRuntimeAssist;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSites;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.StaticMethodsAroundInterceptor;
 import org.apache.skywalking.apm.agent.core.so11y.bootstrap.BootstrapPluginSo11y;
@@ -55,6 +57,7 @@ public class StaticMethodInterTemplate {
     private static StaticMethodsAroundInterceptor INTERCEPTOR;
     private static IBootstrapLog LOGGER;
     private static BootstrapPluginSo11y PLUGIN_SO11Y;
+    private static InterceptSites SITES;
 
     /**
      * Intercept the target static method.
@@ -72,18 +75,20 @@ public class StaticMethodInterTemplate {
         @SuperCall Callable<?> zuper) throws Throwable {
         prepare();
 
+        InterceptSite site = SITES.get(method);
+        boolean sampled = InterceptSite.isTimeCostSampled();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = InterceptSite.nanoTime(sampled);
         MethodInterceptResult result = new MethodInterceptResult();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(clazz, method, allArguments, method.getParameterTypes(), result);
+                INTERCEPTOR.beforeMethod(clazz, method, allArguments, site.getParameterTypes(), result);
             }
         } catch (Throwable t) {
             LOGGER.error(t, "class[{}] before static method[{}] intercept failure", clazz, method.getName());
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -93,30 +98,32 @@ public class StaticMethodInterTemplate {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(clazz, method, allArguments, method.getParameterTypes(), t);
+                    INTERCEPTOR.handleMethodException(clazz, method, allArguments, site.getParameterTypes(), t);
                 }
             } catch (Throwable t2) {
                 LOGGER.error(t2, "class[{}] handle static method[{}] exception failure", clazz, method.getName(), t2.getMessage());
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodHandleExceptionInter;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(clazz, method, allArguments, method.getParameterTypes(), ret);
+                    ret = INTERCEPTOR.afterMethod(clazz, method, allArguments, site.getParameterTypes(), ret);
                 }
             } catch (Throwable t) {
                 LOGGER.error(t, "class[{}] after static method[{}] intercept failure:{}", clazz, method.getName(), t.getMessage());
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodAfterInter;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
@@ -125,6 +132,9 @@ public class StaticMethodInterTemplate {
      * Prepare the context. Link to the agent core in AppClassLoader.
      */
     private static void prepare() {
+        if (SITES == null) {
+            SITES = new InterceptSites();
+        }
         if (INTERCEPTOR == null) {
             ClassLoader loader = BootstrapInterRuntimeAssist.getAgentClassLoader();
 
@@ -26,6 +26,8 @@ import net.bytebuddy.implementation.bind.annotation.SuperCall;
 import net.bytebuddy.implementation.bind.annotation.This;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.IBootstrapLog;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.BootstrapInterRuntimeAssist;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSites;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
@@ -49,6 +51,7 @@ public class InstanceMethodInterV2Template {
     private static InstanceMethodsAroundInterceptorV2 INTERCEPTOR;
     private static IBootstrapLog LOGGER;
     private static BootstrapPluginSo11y PLUGIN_SO11Y;
+    private static InterceptSites SITES;
 
     /**
      * Intercept the target instance method.
@@ -68,12 +71,14 @@ public class InstanceMethodInterV2Template {
 
         prepare();
 
+        InterceptSite site = SITES.get(method);
+        boolean sampled = InterceptSite.isTimeCostSampled();
         long interceptorTimeCost = 0L;
-        long startTimeOfMethodBeforeInter = System.nanoTime();
+        long startTimeOfMethodBeforeInter = InterceptSite.nanoTime(sampled);
         MethodInvocationContext context = new MethodInvocationContext();
         try {
             if (INTERCEPTOR != null) {
-                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, method.getParameterTypes(), context);
+                INTERCEPTOR.beforeMethod(targetObject, method, allArguments, site.getParameterTypes(), context);
             }
         } catch (Throwable t) {
             if (LOGGER != null) {
@@ -81,7 +86,7 @@ public class InstanceMethodInterV2Template {
             }
             PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
         }
-        interceptorTimeCost += System.nanoTime() - startTimeOfMethodBeforeInter;
+        interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodBeforeInter;
 
         Object ret = null;
         try {
@@ -91,10 +96,10 @@ public class InstanceMethodInterV2Template {
                 ret = zuper.call();
             }
         } catch (Throwable t) {
-            long startTimeOfMethodHandleExceptionInter = System.nanoTime();
+            long startTimeOfMethodHandleExceptionInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, method.getParameterTypes(), t, context);
+                    INTERCEPTOR.handleMethodException(targetObject, method, allArguments, site.getParameterTypes(), t, context);
                 }
             } catch (Throwable t2) {
                 if (LOGGER != null) {
@@ -102,13 +107,13 @@ public class InstanceMethodInterV2Template {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodHandleExceptionInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodHandleExceptionInter;
             throw t;
         } finally {
-            long startTimeOfMethodAfterInter = System.nanoTime();
+            long startTimeOfMethodAfterInter = InterceptSite.nanoTime(sampled);
             try {
                 if (INTERCEPTOR != null) {
-                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, method.getParameterTypes(), ret, context);
+                    ret = INTERCEPTOR.afterMethod(targetObject, method, allArguments, site.getParameterTypes(), ret, context);
                 }
             } catch (Throwable t) {
                 if (LOGGER != null) {
@@ -116,9 +121,11 @@ public class InstanceMethodInterV2Template {
                 }
                 PLUGIN_SO11Y.error(PLUGIN_NAME, INTERCEPTOR_TYPE);
             }
-            interceptorTimeCost += System.nanoTime() - startTimeOfMethodAfterInter;
+            interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTimeOfMethodAfterInter;
+        }
+        if (sampled) {
+            PLUGIN_SO11Y.duration(interceptorTimeCost);
         }
-        PLUGIN_SO11Y.duration(interceptorTimeCost);
 
         return ret;
     }
@@ -127,6 +134,9 @@ public class InstanceMethodInterV2Template {
      * Prepare the context. Link to the agent core in AppClassLoader.
      */
     private static void prepare() {
+        if (SITES == null) {
+            SITES = new InterceptSites();
+        }
         if (INTERCEPTOR == null) {
             ClassLoader loader = BootstrapInterRuntimeAssist.getAgentClassLoader();
 
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.security.ProtectionDomain;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.NexusAccessor;
+
+/**
+ * The default initialization strategy of byte-buddy, writing the enhanced class into the {@link EnhancedClassCache}
+ * when its static state is registered.
+ */
+class CachingInitializationStrategy extends AgentBuilder.InitializationStrategy.SelfInjection.Split {
+    private final EnhancedClassCache cache;
+
+    CachingInitializationStrategy(EnhancedClassCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    protected AgentBuilder.InitializationStrategy.Dispatcher dispatcher(int identification) {
+        return new CachingDispatcher(nexusAccessor, identification, cache);
+    }
+
+    private static class CachingDispatcher extends Split.Dispatcher {
+        private final EnhancedClassCache cache;
+
+        private CachingDispatcher(NexusAccessor nexusAccessor, int identification, EnhancedClassCache cache) {
+            super(nexusAccessor, identification);
+            this.cache = cache;
+        }
+
+        @Override
+        public void register(DynamicType dynamicType,
+                             ClassLoader classLoader,
+                             ProtectionDomain protectionDomain,
+                             AgentBuilder.InjectionStrategy injectionStrategy) {
+            super.register(dynamicType, classLoader, protectionDomain, injectionStrategy);
+            cache.store(dynamicType, classLoader, identification);
+        }
+    }
+}
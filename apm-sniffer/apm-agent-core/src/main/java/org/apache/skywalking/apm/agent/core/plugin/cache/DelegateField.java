@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ConstructorInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstMethodsInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstMethodsInterWithOverrideArgs;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.StaticMethodsInter;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.StaticMethodsInterWithOverrideArgs;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstMethodsInterV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstMethodsInterV2WithOverrideArgs;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.StaticMethodsInterV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.StaticMethodsInterV2WithOverrideArgs;
+
+/**
+ * A static field of the enhanced class, holding the delegate of the method delegation, such as {@link
+ * InstMethodsInter}. The delegate is set by byte-buddy after the class is loaded, so it has to be created again when the
+ * class is loaded from the {@link EnhancedClassCache}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class DelegateField {
+    private final String name;
+    private final Type type;
+    private final String pluginName;
+    private final String interceptor;
+
+    Object newDelegate(ClassLoader classLoader) {
+        return type.newDelegate(pluginName, interceptor, classLoader);
+    }
+
+    public enum Type {
+        CONSTRUCTOR {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new ConstructorInter(pluginName, interceptor, classLoader);
+            }
+        },
+        INST {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new InstMethodsInter(pluginName, interceptor, classLoader);
+            }
+        },
+        INST_OVERRIDE_ARGS {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new InstMethodsInterWithOverrideArgs(pluginName, interceptor, classLoader);
+            }
+        },
+        STATIC {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new StaticMethodsInter(pluginName, interceptor);
+            }
+        },
+        STATIC_OVERRIDE_ARGS {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new StaticMethodsInterWithOverrideArgs(pluginName, interceptor);
+            }
+        },
+        INST_V2 {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new InstMethodsInterV2(pluginName, interceptor, classLoader);
+            }
+        },
+        INST_V2_OVERRIDE_ARGS {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new InstMethodsInterV2WithOverrideArgs(pluginName, interceptor, classLoader);
+            }
+        },
+        STATIC_V2 {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new StaticMethodsInterV2(pluginName, interceptor);
+            }
+        },
+        STATIC_V2_OVERRIDE_ARGS {
+            @Override
+            Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader) {
+                return new StaticMethodsInterV2WithOverrideArgs(pluginName, interceptor);
+            }
+        };
+
+        abstract Object newDelegate(String pluginName, String interceptor, ClassLoader classLoader);
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * An entry of the {@link EnhancedClassCache}, which holds everything to load an enhanced class without enhancing it
+ * again.
+ */
+@Getter
+@RequiredArgsConstructor
+class EnhancedClass {
+    private static final int MAGIC = 0x53574543;
+    private static final int FORMAT_VERSION = 1;
+
+    private final String className;
+    /**
+     * The digest of the class file before enhanced.
+     */
+    private final String originDigest;
+    /**
+     * The id used by the type initializer of the enhanced class to find its {@link net.bytebuddy.dynamic.Nexus}
+     * registration.
+     */
+    private final int identification;
+    /**
+     * The plugin defines matching the class, to whether their witness classes and methods existed.
+     */
+    private final Map<String, Boolean> matchedDefines;
+    private final List<DelegateField> delegateFields;
+    /**
+     * The auxiliary types injected before the enhanced class is loaded.
+     */
+    private final Map<String, byte[]> auxiliaryTypes;
+    /**
+     * The auxiliary types injected after the enhanced class is loaded, as they refer to the signature of it.
+     */
+    private final Map<String, byte[]> dependentAuxiliaryTypes;
+    private final byte[] bytes;
+
+    void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(className);
+        out.writeUTF(originDigest);
+        out.writeInt(identification);
+        out.writeInt(matchedDefines.size());
+        for (Map.Entry<String, Boolean> define : matchedDefines.entrySet()) {
+            out.writeUTF(define.getKey());
+            out.writeBoolean(define.getValue());
+        }
+        out.writeInt(delegateFields.size());
+        for (DelegateField field : delegateFields) {
+            out.writeUTF(field.getName());
+            out.writeUTF(field.getType().name());
+            out.writeUTF(field.getPluginName());
+            out.writeUTF(field.getInterceptor());
+        }
+        writeTypes(out, auxiliaryTypes);
+        writeTypes(out, dependentAuxiliaryTypes);
+        writeBytes(out, bytes);
+        out.flush();
+    }
+
+    /**
+     * @throws IOException if the entry is broken, or written by another format version.
+     */
+    static EnhancedClass readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unknown format of enhanced class cache.");
+        }
+        String className = in.readUTF();
+        String originDigest = in.readUTF();
+        int identification = in.readInt();
+        int size = in.readInt();
+        Map<String, Boolean> matchedDefines = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            matchedDefines.put(in.readUTF(), in.readBoolean());
+        }
+        size = in.readInt();
+        List<DelegateField> delegateFields = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String name = in.readUTF();
+            DelegateField.Type type;
+            try {
+                type = DelegateField.Type.valueOf(in.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown delegate field type.", e);
+            }
+            delegateFields.add(new DelegateField(name, type, in.readUTF(), in.readUTF()));
+        }
+        Map<String, byte[]> auxiliaryTypes = readTypes(in);
+        Map<String, byte[]> dependentAuxiliaryTypes = readTypes(in);
+        byte[] bytes = readBytes(in);
+        return new EnhancedClass(
+            className, originDigest, identification, matchedDefines, delegateFields, auxiliaryTypes,
+            dependentAuxiliaryTypes, bytes
+        );
+    }
+
+    private static void writeTypes(DataOutputStream out, Map<String, byte[]> types) throws IOException {
+        out.writeInt(types.size());
+        for (Map.Entry<String, byte[]> type : types.entrySet()) {
+            out.writeUTF(type.getKey());
+            writeBytes(out, type.getValue());
+        }
+    }
+
+    private static Map<String, byte[]> readTypes(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<String, byte[]> types = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            types.put(in.readUTF(), readBytes(in));
+        }
+        return types;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Illegal length " + length + " in enhanced class cache.");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return bytes;
+    }
+}
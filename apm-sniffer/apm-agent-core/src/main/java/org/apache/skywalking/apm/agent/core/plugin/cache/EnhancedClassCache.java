@@ -0,0 +1,516 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.ProtectionDomain;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.NexusAccessor;
+import net.bytebuddy.dynamic.loading.ClassInjector;
+import net.bytebuddy.implementation.LoadedTypeInitializer;
+import net.bytebuddy.implementation.auxiliary.AuxiliaryType;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackageNotFoundException;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.SnifferConfigInitializer;
+import org.apache.skywalking.apm.agent.core.jvm.LoadedLibraryCollector;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.ClassEnhancePluginDefineV2;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The cache of the enhanced classes on the disk. Enhancing a class costs much more than loading it, the cache keeps
+ * the enhanced bytes with the static state they rely on, so the classes are loaded without enhancing again after the
+ * application restarts.
+ * <p>
+ * The cache works as a class file transformer registered ahead of the byte-buddy one. When the origin bytes of a
+ * loading class are found in the cache, the cached bytes are returned, and byte-buddy is told to ignore the class by
+ * {@link #servedClasses()}. Otherwise, the class is enhanced by byte-buddy as usual, then {@link #prepare} and {@link
+ * #store} write the result into the cache.
+ * <p>
+ * Only the classes matched by their names or annotations, and enhanced through the method delegation, are cached. The
+ * cache is kept in a sub folder named by the fingerprint of the agent version, the plugin jars and the plugin settings,
+ * so any change of them invalidates the whole cache.
+ */
+public class EnhancedClassCache implements ClassFileTransformer {
+    private static final ILog LOGGER = LogManager.getLogger(EnhancedClassCache.class);
+
+    private static final String FILE_SUFFIX = ".swc";
+    private static final char DIGEST_SEPARATOR = '@';
+    private static final int MAX_CLASS_NAME_LENGTH = 160;
+    /**
+     * The classes loading in a thread at the same time, more than one when a class is loaded during the enhancement of
+     * another class.
+     */
+    private static final int MAX_LOADING_CLASSES = 8;
+
+    private final File directory;
+    private final PluginFinder pluginFinder;
+    private final NexusAccessor nexusAccessor = new NexusAccessor();
+    /**
+     * The class names to the digests of their cached origin bytes.
+     */
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<>();
+    private final Map<ClassLoader, Set<String>> servedClasses = new WeakHashMap<>();
+    private final ThreadLocal<Deque<LoadingClass>> loadingClasses = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    EnhancedClassCache(File root, String fingerprint, PluginFinder pluginFinder) throws IOException {
+        this.directory = new File(root, fingerprint);
+        this.pluginFinder = pluginFinder;
+        File[] staleDirectories = root.listFiles(file -> file.isDirectory() && !file.getName().equals(fingerprint));
+        if (staleDirectories != null) {
+            for (File staleDirectory : staleDirectories) {
+                delete(staleDirectory);
+            }
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create the enhanced class cache folder " + directory);
+        }
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                int separator = name.lastIndexOf(DIGEST_SEPARATOR);
+                if (separator > 0) {
+                    digestsOf(name.substring(0, separator))
+                        .add(name.substring(separator + 1, name.length() - FILE_SUFFIX.length()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Open the cache configured by {@link Config.Plugin#ENHANCED_CLASS_CACHE_PATH}.
+     *
+     * @return the cache, or null if the cache is disabled.
+     */
+    public static EnhancedClassCache open(PluginFinder pluginFinder) throws AgentPackageNotFoundException, IOException {
+        if (StringUtil.isEmpty(Config.Plugin.ENHANCED_CLASS_CACHE_PATH)) {
+            return null;
+        }
+        File agentDirectory = AgentPackagePath.getPath();
+        File root = new File(Config.Plugin.ENHANCED_CLASS_CACHE_PATH);
+        if (!root.isAbsolute()) {
+            root = new File(agentDirectory, Config.Plugin.ENHANCED_CLASS_CACHE_PATH);
+        }
+
+        List<File> jars = new ArrayList<>(listJars(agentDirectory));
+        for (String mountFolder : Config.Plugin.MOUNT) {
+            jars.addAll(listJars(new File(agentDirectory, mountFolder)));
+        }
+        EnhancedClassCache cache = new EnhancedClassCache(
+            root, fingerprint(Config.Agent.VERSION, jars, SnifferConfigInitializer.getSettings("plugin.")),
+            pluginFinder
+        );
+        LOGGER.info("Enhanced class cache {} is opened, {} classes cached.", cache.directory, cache.index.size());
+        return cache;
+    }
+
+    /**
+     * @return the digest of everything deciding how the classes are enhanced.
+     */
+    static String fingerprint(String agentVersion, List<File> jars, Map<String, String> settings) {
+        StringBuilder content = new StringBuilder(agentVersion).append('\n');
+        for (File jar : jars) {
+            content.append(jar.getName()).append(':').append(jar.length()).append(':')
+                   .append(jar.lastModified()).append('\n');
+        }
+        for (Map.Entry<String, String> setting : settings.entrySet()) {
+            content.append(setting.getKey()).append('=').append(setting.getValue()).append('\n');
+        }
+        return digestOf(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Load the class from the cache if the origin bytes are cached, otherwise remember the origin bytes to cache the
+     * class after enhanced.
+     *
+     * @return the enhanced bytes, or null to keep the class as it is.
+     */
+    @Override
+    public byte[] transform(ClassLoader classLoader,
+                            String internalName,
+                            Class<?> classBeingRedefined,
+                            ProtectionDomain protectionDomain,
+                            byte[] classfileBuffer) {
+        if (classLoader == null || classBeingRedefined != null || internalName == null) {
+            return null;
+        }
+        String className = internalName.replace('/', '.');
+        try {
+            byte[] cached = load(className, classLoader, protectionDomain, classfileBuffer);
+            if (cached != null) {
+                return cached;
+            }
+            Deque<LoadingClass> loading = loadingClasses.get();
+            if (loading.size() == MAX_LOADING_CLASSES) {
+                loading.removeLast();
+            }
+            loading.push(new LoadingClass(className, classLoader, classfileBuffer));
+        } catch (Throwable t) {
+            LOGGER.warn(t, "Load class {} from the enhanced class cache failure.", className);
+        }
+        return null;
+    }
+
+    /**
+     * Decide whether the class is cacheable, called after the plugin defines enhanced the class.
+     *
+     * @param matchedDefines the plugin defines matching the class
+     * @param appliedDefines the plugin defines enhancing the class, whose witness classes and methods exist
+     */
+    public void prepare(String className,
+                        ClassLoader classLoader,
+                        List<AbstractClassEnhancePluginDefine> matchedDefines,
+                        List<AbstractClassEnhancePluginDefine> appliedDefines,
+                        EnhanceContext context) {
+        LoadingClass loadingClass = findLoadingClass(className, classLoader);
+        if (loadingClass == null) {
+            return;
+        }
+        if (!context.isCacheable() || className.length() > MAX_CLASS_NAME_LENGTH) {
+            loadingClasses.get().remove(loadingClass);
+            return;
+        }
+        Map<String, Boolean> defines = new LinkedHashMap<>();
+        for (AbstractClassEnhancePluginDefine define : matchedDefines) {
+            boolean delegated = define instanceof ClassEnhancePluginDefine
+                || define instanceof ClassEnhancePluginDefineV2;
+            if (!delegated || define.isBootstrapInstrumentation() || !PluginFinder.isMatchedByClassFile(define)) {
+                loadingClasses.get().remove(loadingClass);
+                return;
+            }
+            defines.put(define.getClass().getName(), appliedDefines.contains(define));
+        }
+        loadingClass.matchedDefines = defines;
+        loadingClass.delegateFields = context.getDelegateFields();
+    }
+
+    /**
+     * Write the enhanced class into the cache, called when byte-buddy registers the static state of the class.
+     *
+     * @param identification the id of the {@link net.bytebuddy.dynamic.Nexus} registration of the class
+     */
+    void store(DynamicType dynamicType, ClassLoader classLoader, int identification) {
+        TypeDescription type = dynamicType.getTypeDescription();
+        LoadingClass loadingClass = findLoadingClass(type.getName(), classLoader);
+        if (loadingClass == null) {
+            return;
+        }
+        loadingClasses.get().remove(loadingClass);
+        if (loadingClass.matchedDefines == null) {
+            return;
+        }
+
+        Map<TypeDescription, LoadedTypeInitializer> initializers = dynamicType.getLoadedTypeInitializers();
+        // Any static state unknown by the delegate fields can't be restored.
+        if (initializers.get(type).isAlive() == loadingClass.delegateFields.isEmpty()) {
+            return;
+        }
+        Map<String, byte[]> auxiliaryTypes = new LinkedHashMap<>();
+        Map<String, byte[]> dependentAuxiliaryTypes = new LinkedHashMap<>();
+        for (Map.Entry<TypeDescription, byte[]> auxiliaryType : dynamicType.getAuxiliaryTypes().entrySet()) {
+            if (initializers.get(auxiliaryType.getKey()).isAlive()) {
+                return;
+            }
+            if (auxiliaryType.getKey().getDeclaredAnnotations().isAnnotationPresent(AuxiliaryType.SignatureRelevant.class)) {
+                dependentAuxiliaryTypes.put(auxiliaryType.getKey().getName(), auxiliaryType.getValue());
+            } else {
+                auxiliaryTypes.put(auxiliaryType.getKey().getName(), auxiliaryType.getValue());
+            }
+        }
+
+        String digest = digestOf(loadingClass.bytes);
+        EnhancedClass enhancedClass = new EnhancedClass(
+            type.getName(), digest, identification, loadingClass.matchedDefines, loadingClass.delegateFields,
+            auxiliaryTypes, dependentAuxiliaryTypes, dynamicType.getBytes()
+        );
+        File file = fileOf(type.getName(), digest);
+        File temp = null;
+        try {
+            temp = File.createTempFile(type.getName(), ".tmp", directory);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temp))) {
+                enhancedClass.writeTo(out);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            digestsOf(type.getName()).add(digest);
+            stores.incrementAndGet();
+        } catch (IOException e) {
+            LOGGER.warn(e, "Write class {} into the enhanced class cache failure.", type.getName());
+            if (temp != null && temp.exists() && !temp.delete()) {
+                LOGGER.warn("Can't delete the temp file {}.", temp);
+            }
+        }
+    }
+
+    /**
+     * @return the matcher of the classes loaded from the cache, which must not be enhanced again.
+     */
+    public AgentBuilder.RawMatcher servedClasses() {
+        return (typeDescription, classLoader, module, classBeingRedefined, protectionDomain) -> {
+            if (classLoader == null) {
+                return false;
+            }
+            synchronized (servedClasses) {
+                Set<String> classes = servedClasses.get(classLoader);
+                return classes != null && classes.contains(typeDescription.getName());
+            }
+        };
+    }
+
+    /**
+     * @return the initialization strategy writing the enhanced classes into the cache.
+     */
+    public AgentBuilder.InitializationStrategy initializationStrategy() {
+        return new CachingInitializationStrategy(this);
+    }
+
+    /**
+     * Report the cache status through the agent self observability meters.
+     */
+    public void registerMeters() {
+        MeterFactory.gauge("enhanced_class_cache_classes", () -> (double) hits.get()).tag("result", "hit").build();
+        MeterFactory.gauge("enhanced_class_cache_classes", () -> (double) stores.get()).tag("result", "stored").build();
+        MeterFactory.gauge("enhanced_class_cache_classes", () -> (double) invalidations.get())
+                    .tag("result", "invalid").build();
+    }
+
+    private byte[] load(String className, ClassLoader classLoader, ProtectionDomain protectionDomain, byte[] bytes) {
+        Set<String> digests = index.get(className);
+        if (digests == null) {
+            return null;
+        }
+        String digest = digestOf(bytes);
+        if (!digests.contains(digest)) {
+            return null;
+        }
+        File file = fileOf(className, digest);
+        EnhancedClass enhancedClass;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            enhancedClass = EnhancedClass.readFrom(in);
+        } catch (IOException e) {
+            LOGGER.warn(e, "Read class {} from the enhanced class cache failure.", className);
+            invalidate(className, digest);
+            return null;
+        }
+        if (!className.equals(enhancedClass.getClassName()) || !digest.equals(enhancedClass.getOriginDigest())) {
+            invalidate(className, digest);
+            return null;
+        }
+        for (Map.Entry<String, Boolean> define : enhancedClass.getMatchedDefines().entrySet()) {
+            AbstractClassEnhancePluginDefine pluginDefine = pluginFinder.getPluginDefine(define.getKey());
+            if (pluginDefine == null) {
+                invalidate(className, digest);
+                return null;
+            }
+            if (pluginDefine.isWitnessExist(className, classLoader) != define.getValue()) {
+                // The class is enhanced differently in this class loader.
+                return null;
+            }
+        }
+
+        Map<String, Object> delegates = new LinkedHashMap<>();
+        for (DelegateField field : enhancedClass.getDelegateFields()) {
+            delegates.put(field.getName(), field.newDelegate(classLoader));
+        }
+        ClassInjector injector = AgentBuilder.InjectionStrategy.UsingReflection.INSTANCE.resolve(
+            classLoader, protectionDomain);
+        if (!enhancedClass.getAuxiliaryTypes().isEmpty()) {
+            injector.injectRaw(enhancedClass.getAuxiliaryTypes());
+        }
+        LoadedTypeInitializer initializer = new CachedTypeInitializer(
+            delegates, enhancedClass.getDependentAuxiliaryTypes(), injector);
+        if (initializer.isAlive()) {
+            nexusAccessor.register(className, classLoader, enhancedClass.getIdentification(), initializer);
+        }
+
+        LoadedLibraryCollector.registerURLClassLoader(classLoader);
+        synchronized (servedClasses) {
+            servedClasses.computeIfAbsent(classLoader, key -> new HashSet<>()).add(className);
+        }
+        hits.incrementAndGet();
+        return enhancedClass.getBytes();
+    }
+
+    private LoadingClass findLoadingClass(String className, ClassLoader classLoader) {
+        for (LoadingClass loadingClass : loadingClasses.get()) {
+            if (loadingClass.className.equals(className) && loadingClass.classLoader.get() == classLoader) {
+                return loadingClass;
+            }
+        }
+        return null;
+    }
+
+    private void invalidate(String className, String digest) {
+        digestsOf(className).remove(digest);
+        File file = fileOf(className, digest);
+        if (file.exists() && !file.delete()) {
+            LOGGER.warn("Can't delete the invalid enhanced class cache {}.", file);
+        }
+        invalidations.incrementAndGet();
+    }
+
+    private Set<String> digestsOf(String className) {
+        return index.computeIfAbsent(className, key -> ConcurrentHashMap.newKeySet());
+    }
+
+    private File fileOf(String className, String digest) {
+        return new File(directory, className + DIGEST_SEPARATOR + digest + FILE_SUFFIX);
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getStores() {
+        return stores.get();
+    }
+
+    long getInvalidations() {
+        return invalidations.get();
+    }
+
+    private static String digestOf(byte[] bytes) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] digest = messageDigest.digest(bytes);
+        StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static List<File> listJars(File folder) {
+        File[] jars = folder.listFiles((dir, name) -> name.endsWith(".jar"));
+        if (jars == null) {
+            return Collections.emptyList();
+        }
+        List<File> sorted = new ArrayList<>();
+        Collections.addAll(sorted, jars);
+        sorted.sort((a, b) -> a.getName().compareTo(b.getName()));
+        return sorted;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        if (!file.delete()) {
+            LOGGER.warn("Can't delete the stale enhanced class cache {}.", file);
+        }
+    }
+
+    /**
+     * A class whose origin bytes are not found in the cache, and may be enhanced soon.
+     */
+    private static class LoadingClass {
+        private final String className;
+        private final WeakReference<ClassLoader> classLoader;
+        private final byte[] bytes;
+        /**
+         * Set only when the class is cacheable.
+         */
+        private Map<String, Boolean> matchedDefines;
+        private List<DelegateField> delegateFields;
+
+        private LoadingClass(String className, ClassLoader classLoader, byte[] bytes) {
+            this.className = className;
+            this.classLoader = new WeakReference<>(classLoader);
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Restore the static state of the class loaded from the cache, as byte-buddy does for the enhanced class.
+     */
+    private static class CachedTypeInitializer implements LoadedTypeInitializer {
+        private final Map<String, Object> delegates;
+        private final Map<String, byte[]> dependentAuxiliaryTypes;
+        private final ClassInjector injector;
+
+        private CachedTypeInitializer(Map<String, Object> delegates,
+                                      Map<String, byte[]> dependentAuxiliaryTypes,
+                                      ClassInjector injector) {
+            this.delegates = delegates;
+            this.dependentAuxiliaryTypes = dependentAuxiliaryTypes;
+            this.injector = injector;
+        }
+
+        @Override
+        public void onLoad(Class<?> type) {
+            if (!dependentAuxiliaryTypes.isEmpty()) {
+                injector.injectRaw(dependentAuxiliaryTypes);
+            }
+            for (Map.Entry<String, Object> delegate : delegates.entrySet()) {
+                new LoadedTypeInitializer.ForStaticField(delegate.getKey(), delegate.getValue()).onLoad(type);
+            }
+        }
+
+        @Override
+        public boolean isAlive() {
+            return !delegates.isEmpty() || !dependentAuxiliaryTypes.isEmpty();
+        }
+    }
+}
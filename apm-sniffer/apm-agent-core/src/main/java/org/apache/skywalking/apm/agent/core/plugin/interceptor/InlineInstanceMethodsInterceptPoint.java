@@ -0,0 +1,31 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor;
+
+/**
+ * The instance methods intercept point enhanced by the inlined advice, rather than the method delegation. The
+ * interceptor is called without the allocation of the super call, and the {@link java.lang.reflect.Method} and the
+ * parameter types are resolved once per method. The interceptor contract is not changed.
+ * <p>
+ * The advice can only be inlined into the methods declared by the enhanced class. When the matcher matches any
+ * inherited method, the whole point falls back to the method delegation, with a warning in the logs.
+ * The points overriding arguments and the bootstrap instrumentation still use the method delegation.
+ */
+public interface InlineInstanceMethodsInterceptPoint extends InstanceMethodsInterceptPoint {
+}
@@ -34,9 +34,11 @@ import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDef
 import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
+import org.apache.skywalking.apm.agent.core.plugin.cache.DelegateField;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.DeclaredInstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.EnhanceException;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InlineInstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
@@ -126,10 +128,12 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                     .to(BootstrapInstrumentBoost
                                             .forInternalDelegateClass(constructorInterceptor))));
                 } else {
+                    String delegateFieldName = delegateNamingResolver.resolve(constructorInterceptPoint);
                     newClassBuilder = newClassBuilder.constructor(constructorInterceptPoint.getConstructorMatcher())
                             .intercept(SuperMethodCall.INSTANCE.andThen(MethodDelegation.withDefaultConfiguration()
                                     .to(new ConstructorInter(getPluginName(), constructorInterceptor, classLoader),
-                                            delegateNamingResolver.resolve(constructorInterceptPoint))));
+                                            delegateFieldName)));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.CONSTRUCTOR, getPluginName(), constructorInterceptor);
                 }
             }
         }
@@ -154,20 +158,33 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                     .withBinders(Morph.Binder.install(OverrideCallable.class))
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
+                        String delegateFieldName = delegateNamingResolver.resolve(instanceMethodsInterceptPoint);
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                    .to(new InstMethodsInterWithOverrideArgs(getPluginName(), interceptor, classLoader), delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
+                                                                                    .to(new InstMethodsInterWithOverrideArgs(getPluginName(), interceptor, classLoader), delegateFieldName));
+                        context.delegateFieldDefined(delegateFieldName, DelegateField.Type.INST_OVERRIDE_ARGS, getPluginName(), interceptor);
                     }
                 } else {
                     if (isBootstrapInstrumentation()) {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
+                    } else if (instanceMethodsInterceptPoint instanceof InlineInstanceMethodsInterceptPoint
+                        && InstMethodsAdvice.canInline(typeDescription, junction)) {
+                        String siteTableFieldName = delegateNamingResolver.resolve(instanceMethodsInterceptPoint);
+                        newClassBuilder = InstMethodsAdvice.enhance(
+                            newClassBuilder, siteTableFieldName, junction,
+                            new InstMethodsInlineInter(getPluginName(), interceptor, classLoader)
+                        );
+                        // The inline intercept sites are created in the transformation only.
+                        context.cacheUnsupported();
                     } else {
+                        String delegateFieldName = delegateNamingResolver.resolve(instanceMethodsInterceptPoint);
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .to(new InstMethodsInter(getPluginName(), interceptor, classLoader), delegateNamingResolver.resolve(instanceMethodsInterceptPoint)));
+                                                                                    .to(new InstMethodsInter(getPluginName(), interceptor, classLoader), delegateFieldName));
+                        context.delegateFieldDefined(delegateFieldName, DelegateField.Type.INST, getPluginName(), interceptor);
                     }
                 }
             }
@@ -185,7 +202,7 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
      */
     @Override
     protected DynamicType.Builder<?> enhanceClass(TypeDescription typeDescription, DynamicType.Builder<?> newClassBuilder,
-        ClassLoader classLoader) throws PluginException {
+        ClassLoader classLoader, EnhanceContext context) throws PluginException {
         StaticMethodsInterceptPoint[] staticMethodsInterceptPoints = getStaticMethodsInterceptPoints();
         String enhanceOriginClassName = typeDescription.getTypeName();
         if (staticMethodsInterceptPoints == null || staticMethodsInterceptPoints.length == 0) {
@@ -206,10 +223,12 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                                                 .withBinders(Morph.Binder.install(OverrideCallable.class))
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
+                    String delegateFieldName = delegateNamingResolver.resolve(staticMethodsInterceptPoint);
                     newClassBuilder = newClassBuilder.method(isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()))
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                 .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                .to(new StaticMethodsInterWithOverrideArgs(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
+                                                                                .to(new StaticMethodsInterWithOverrideArgs(getPluginName(), interceptor), delegateFieldName));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.STATIC_OVERRIDE_ARGS, getPluginName(), interceptor);
                 }
             } else {
                 if (isBootstrapInstrumentation()) {
@@ -217,9 +236,11 @@ public abstract class ClassEnhancePluginDefine extends AbstractClassEnhancePlugi
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
+                    String delegateFieldName = delegateNamingResolver.resolve(staticMethodsInterceptPoint);
                     newClassBuilder = newClassBuilder.method(isStatic().and(staticMethodsInterceptPoint.getMethodsMatcher()))
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .to(new StaticMethodsInter(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptPoint)));
+                                                                                .to(new StaticMethodsInter(getPluginName(), interceptor), delegateFieldName));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.STATIC, getPluginName(), interceptor);
                 }
             }
 
@@ -25,7 +25,7 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
-import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.agent.core.so11y.InterceptorSo11y;
 
 /**
  * The actual byte-buddy's interceptor to intercept constructor methods. In this class, it provides a bridge between
@@ -37,6 +37,7 @@ public class ConstructorInter {
     private static final String INTERCEPTOR_TYPE = "constructor";
 
     private String pluginName;
+    private final InterceptorSo11y so11y;
     /**
      * An {@link InstanceConstructorInterceptor} This name should only stay in {@link String}, the real {@link Class}
      * type will trigger classloader failure. If you want to know more, please check on books about Classloader or
@@ -49,6 +50,7 @@ public class ConstructorInter {
      */
     public ConstructorInter(String pluginName, String constructorInterceptorClassName, ClassLoader classLoader) throws PluginException {
         this.pluginName = pluginName;
+        this.so11y = new InterceptorSo11y(pluginName, INTERCEPTOR_TYPE);
         try {
             interceptor = InterceptorInstanceLoader.load(constructorInterceptorClassName, classLoader);
         } catch (Throwable t) {
@@ -64,17 +66,20 @@ public class ConstructorInter {
      */
     @RuntimeType
     public void intercept(@This Object obj, @AllArguments Object[] allArguments) {
+        boolean sampled = InterceptSite.isTimeCostSampled();
         long interceptorTimeCost = 0L;
-        long startTime = System.nanoTime();
+        long startTime = InterceptSite.nanoTime(sampled);
         try {
             EnhancedInstance targetObject = (EnhancedInstance) obj;
 
             interceptor.onConstruct(targetObject, allArguments);
         } catch (Throwable t) {
             LOGGER.error("ConstructorInter failure.", t);
-            AgentSo11y.errorOfPlugin(pluginName, INTERCEPTOR_TYPE);
+            so11y.error();
+        }
+        interceptorTimeCost += InterceptSite.nanoTime(sampled) - startTime;
+        if (sampled) {
+            so11y.duration(interceptorTimeCost);
         }
-        interceptorTimeCost += System.nanoTime() - startTime;
-        AgentSo11y.durationOfInterceptor(interceptorTimeCost);
     }
 }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import net.bytebuddy.description.method.MethodDescription;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * One method enhanced by {@link InstMethodsAdvice}. The sites of an intercept point are kept in a {@link Table}, which
+ * is set into a static field of the enhanced class, and the inlined advice finds the site by the id written in the
+ * bytecode. So the sites are only referenced by the enhanced class, and are collected with its classloader.
+ * <p>
+ * The {@link Method} and its parameter types are resolved on the first call and shared by all the later calls, so the
+ * interceptors should not change the parameter types array.
+ */
+public final class InlineInterceptSite {
+    private static final ILog LOGGER = LogManager.getLogger(InlineInterceptSite.class);
+
+    private static final String INTERCEPTOR_TYPE = "inst";
+
+    private final InlineInterceptor interceptor;
+    private final String methodName;
+    private final String methodDescriptor;
+    private volatile ResolvedMethod resolvedMethod;
+
+    InlineInterceptSite(InlineInterceptor interceptor, MethodDescription instrumentedMethod) {
+        this.interceptor = interceptor;
+        this.methodName = instrumentedMethod.getInternalName();
+        this.methodDescriptor = instrumentedMethod.getDescriptor();
+    }
+
+    public MethodInterceptResult newResult() {
+        return interceptor.newResult();
+    }
+
+    /**
+     * @return the time cost of the interceptor, or -1 if the call is not sampled to measure it.
+     */
+    public long beforeMethod(Object obj, Class<?> clazz, Object[] allArguments, MethodInterceptResult result) {
+        boolean sampled = InterceptSite.isTimeCostSampled();
+        long startTime = InterceptSite.nanoTime(sampled);
+        ResolvedMethod resolved = resolve(clazz);
+        try {
+            interceptor.beforeMethod(
+                (EnhancedInstance) obj, resolved.method, allArguments, resolved.parameterTypes, result);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] before method[{}] intercept failure", obj.getClass(), methodName);
+            AgentSo11y.errorOfPlugin(interceptor.getPluginName(), INTERCEPTOR_TYPE);
+        }
+        return sampled ? System.nanoTime() - startTime : -1L;
+    }
+
+    /**
+     * @param ret    the return value of the origin method, ignored if the method has been truncated by the interceptor.
+     * @param thrown the exception thrown by the origin method, or null.
+     * @return the return value of the method.
+     */
+    public Object afterMethod(Object obj, Class<?> clazz, Object[] allArguments, MethodInterceptResult result,
+                              Object ret, Throwable thrown, long interceptorTimeCost) {
+        EnhancedInstance targetObject = (EnhancedInstance) obj;
+        ResolvedMethod resolved = resolve(clazz);
+        if (!result.isContinue()) {
+            ret = result._ret();
+        }
+        if (thrown != null) {
+            try {
+                interceptor.handleMethodException(
+                    targetObject, resolved.method, allArguments, resolved.parameterTypes, thrown, result);
+            } catch (Throwable t2) {
+                LOGGER.error(t2, "class[{}] handle method[{}] exception failure", obj.getClass(), methodName);
+                AgentSo11y.errorOfPlugin(interceptor.getPluginName(), INTERCEPTOR_TYPE);
+            }
+            ret = null;
+        }
+        boolean sampled = interceptorTimeCost >= 0;
+        long startTimeOfMethodAfterInter = InterceptSite.nanoTime(sampled);
+        try {
+            ret = interceptor.afterMethod(
+                targetObject, resolved.method, allArguments, resolved.parameterTypes, ret, result);
+        } catch (Throwable t) {
+            LOGGER.error(t, "class[{}] after method[{}] intercept failure", obj.getClass(), methodName);
+            AgentSo11y.errorOfPlugin(interceptor.getPluginName(), INTERCEPTOR_TYPE);
+        }
+        if (thrown == null && sampled) {
+            AgentSo11y.durationOfInterceptor(interceptorTimeCost + System.nanoTime() - startTimeOfMethodAfterInter);
+        }
+        return ret;
+    }
+
+    private ResolvedMethod resolve(Class<?> clazz) {
+        ResolvedMethod resolved = resolvedMethod;
+        if (resolved == null) {
+            resolved = new ResolvedMethod(findMethod(clazz));
+            resolvedMethod = resolved;
+        }
+        return resolved;
+    }
+
+    private Method findMethod(Class<?> clazz) {
+        for (Method method : clazz.getDeclaredMethods()) {
+            if (method.getName().equals(methodName)
+                && new MethodDescription.ForLoadedMethod(method).getDescriptor().equals(methodDescriptor)) {
+                return method;
+            }
+        }
+        throw new IllegalStateException("Can't find method " + methodName + methodDescriptor + " in " + clazz);
+    }
+
+    private static class ResolvedMethod {
+        private final Method method;
+        private final Class<?>[] parameterTypes;
+
+        private ResolvedMethod(Method method) {
+            this.method = method;
+            this.parameterTypes = method.getParameterTypes();
+        }
+    }
+
+    /**
+     * The sites of the methods enhanced by one intercept point in one class.
+     */
+    public static final class Table {
+        private final InlineInterceptor interceptor;
+        private volatile InlineInterceptSite[] sites = new InlineInterceptSite[0];
+
+        Table(InlineInterceptor interceptor) {
+            this.interceptor = interceptor;
+        }
+
+        /**
+         * @return the id of the site, used by {@link #get(int)}.
+         */
+        synchronized int register(MethodDescription instrumentedMethod) {
+            InlineInterceptSite[] registered = Arrays.copyOf(sites, sites.length + 1);
+            registered[sites.length] = new InlineInterceptSite(interceptor, instrumentedMethod);
+            sites = registered;
+            return sites.length - 1;
+        }
+
+        public InlineInterceptSite get(int id) {
+            return sites[id];
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+
+/**
+ * The bridge between the inlined {@link InstMethodsAdvice} and the interceptor of one intercept point. It only forwards
+ * the calls, the error handling and the time cost are done by {@link InlineInterceptSite}.
+ */
+public abstract class InlineInterceptor {
+    private final String pluginName;
+
+    protected InlineInterceptor(String pluginName) {
+        this.pluginName = pluginName;
+    }
+
+    public String getPluginName() {
+        return pluginName;
+    }
+
+    /**
+     * @return the result passed to the interceptor, and kept until the method exits.
+     */
+    protected MethodInterceptResult newResult() {
+        return new MethodInterceptResult();
+    }
+
+    protected abstract void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                         Class<?>[] argumentsTypes, MethodInterceptResult result) throws Throwable;
+
+    protected abstract Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Object ret,
+                                          MethodInterceptResult result) throws Throwable;
+
+    protected abstract void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                                  Class<?>[] argumentsTypes, Throwable t, MethodInterceptResult result);
+}
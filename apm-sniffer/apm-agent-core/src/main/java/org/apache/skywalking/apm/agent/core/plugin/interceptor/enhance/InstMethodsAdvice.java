@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.HashMap;
+import java.util.Map;
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.field.FieldDescription;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.method.MethodList;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.scaffold.MethodGraph;
+import net.bytebuddy.implementation.LoadedTypeInitializer;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+import net.bytebuddy.implementation.bytecode.constant.IntegerConstant;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+import static net.bytebuddy.jar.asm.Opcodes.ACC_PRIVATE;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_STATIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_SYNTHETIC;
+import static net.bytebuddy.jar.asm.Opcodes.ACC_VOLATILE;
+import static net.bytebuddy.matcher.ElementMatchers.isDeclaredBy;
+import static net.bytebuddy.matcher.ElementMatchers.isMethod;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * The advice inlined into the enhanced instance methods, as the alternative of {@link InstMethodsInter}. Comparing with
+ * the method delegation, no super call object is created, and the {@link java.lang.reflect.Method} is not looked up
+ * per call. The advice code only finds the {@link InlineInterceptSite} of the method, the real work is done there.
+ * <p>
+ * The advice is inlined into the methods declared by the enhanced class only, the inherited methods can't be enhanced
+ * in this way.
+ */
+public class InstMethodsAdvice {
+    private static final ILog LOGGER = LogManager.getLogger(InstMethodsAdvice.class);
+
+    /**
+     * @return false if the matcher matches any inherited method of the type, which should be enhanced by the method
+     * delegation instead.
+     */
+    public static boolean canInline(TypeDescription typeDescription,
+                                    ElementMatcher<? super MethodDescription> methodsMatcher) {
+        MethodList<?> inherited = MethodGraph.Compiler.DEFAULT.compile(typeDescription)
+                                                              .listNodes()
+                                                              .asMethodList()
+                                                              .filter(isMethod().and(methodsMatcher)
+                                                                                .and(not(isDeclaredBy(typeDescription))));
+        if (inherited.isEmpty()) {
+            return true;
+        }
+        LOGGER.warn(
+            "The inherited methods {} of class {} can't be inlined, they are enhanced by the method delegation.",
+            inherited, typeDescription.getTypeName()
+        );
+        return false;
+    }
+
+    /**
+     * Enhance the methods declared by the class, and set the sites of them into the static field of the class.
+     *
+     * @param fieldName      the name of the static field holding the {@link InlineInterceptSite.Table}
+     * @param methodsMatcher the matcher of the intercept point
+     * @param interceptor    the interceptor of the intercept point
+     */
+    public static DynamicType.Builder<?> enhance(DynamicType.Builder<?> newClassBuilder, String fieldName,
+                                                 ElementMatcher<? super MethodDescription> methodsMatcher,
+                                                 InlineInterceptor interceptor) {
+        InlineInterceptSite.Table table = new InlineInterceptSite.Table(interceptor);
+        return newClassBuilder.defineField(
+                                  fieldName, InlineInterceptSite.Table.class,
+                                  ACC_PRIVATE | ACC_STATIC | ACC_VOLATILE | ACC_SYNTHETIC
+                              )
+                              .initializer(new LoadedTypeInitializer.ForStaticField(fieldName, table))
+                              .visit(Advice.withCustomMapping()
+                                           .bind(SiteTable.class, new SiteTableMapping(fieldName))
+                                           .bind(SiteId.class, new SiteIdMapping(table))
+                                           .to(InstMethodsAdvice.class)
+                                           .on(isMethod().and(methodsMatcher)));
+    }
+
+    @Advice.OnMethodEnter(skipOn = Advice.OnNonDefaultValue.class)
+    public static boolean enter(@SiteTable InlineInterceptSite.Table table,
+                                @SiteId int siteId,
+                                @Advice.This Object obj,
+                                @Advice.Origin Class<?> clazz,
+                                @Advice.AllArguments Object[] allArguments,
+                                @Advice.Local("arguments") Object[] arguments,
+                                @Advice.Local("result") MethodInterceptResult result,
+                                @Advice.Local("timeCost") long timeCost) {
+        InlineInterceptSite site = table.get(siteId);
+        arguments = allArguments;
+        result = site.newResult();
+        timeCost = site.beforeMethod(obj, clazz, arguments, result);
+        return !result.isContinue();
+    }
+
+    @Advice.OnMethodExit(onThrowable = Throwable.class)
+    public static void exit(@SiteTable InlineInterceptSite.Table table,
+                            @SiteId int siteId,
+                            @Advice.This Object obj,
+                            @Advice.Origin Class<?> clazz,
+                            @Advice.Local("arguments") Object[] arguments,
+                            @Advice.Local("result") MethodInterceptResult result,
+                            @Advice.Local("timeCost") long timeCost,
+                            @Advice.Return(readOnly = false, typing = Assigner.Typing.DYNAMIC) Object returned,
+                            @Advice.Thrown Throwable thrown) {
+        returned = table.get(siteId).afterMethod(obj, clazz, arguments, result, returned, thrown, timeCost);
+    }
+
+    /**
+     * The {@link InlineInterceptSite.Table} in the static field of the enhanced class.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface SiteTable {
+    }
+
+    /**
+     * The id of the {@link InlineInterceptSite} of the enhanced method in the table.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.PARAMETER)
+    public @interface SiteId {
+    }
+
+    /**
+     * Read the static field holding the table.
+     */
+    private static class SiteTableMapping implements Advice.OffsetMapping {
+        private final String fieldName;
+
+        private SiteTableMapping(String fieldName) {
+            this.fieldName = fieldName;
+        }
+
+        @Override
+        public Target resolve(TypeDescription instrumentedType, MethodDescription instrumentedMethod,
+                              Assigner assigner, Advice.ArgumentHandler argumentHandler, Sort sort) {
+            FieldDescription field = instrumentedType.getDeclaredFields().filter(named(fieldName)).getOnly();
+            return new Target.ForField.ReadOnly(field);
+        }
+    }
+
+    /**
+     * Register a site for every enhanced method, and write its id as a constant.
+     */
+    private static class SiteIdMapping implements Advice.OffsetMapping {
+        private final InlineInterceptSite.Table table;
+        private final Map<MethodDescription, Integer> siteIds = new HashMap<>();
+
+        private SiteIdMapping(InlineInterceptSite.Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public Target resolve(TypeDescription instrumentedType, MethodDescription instrumentedMethod,
+                              Assigner assigner, Advice.ArgumentHandler argumentHandler, Sort sort) {
+            Integer siteId;
+            synchronized (siteIds) {
+                // Resolved for both the enter and the exit advice of the method.
+                siteId = siteIds.computeIfAbsent(instrumentedMethod.asDefined(), table::register);
+            }
+            return new Target.ForStackManipulation(IntegerConstant.forValue(siteId));
+        }
+    }
+}
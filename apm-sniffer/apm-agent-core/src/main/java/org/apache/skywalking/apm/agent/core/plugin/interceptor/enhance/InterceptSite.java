@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One method intercepted by the method delegation, created on its first call by {@link InterceptSites}. The parameter
+ * types are shared by all the later calls, so the interceptors should not change the parameter types array.
+ * <p>
+ * This class is injected into the bootstrap classloader for the bootstrap templates, it should only depend on JDK.
+ */
+public final class InterceptSite {
+    /**
+     * One of how many calls measures the time cost of the interceptors.
+     */
+    private static int TIME_COST_SAMPLE_INTERVAL = 1;
+
+    private final Method method;
+    private final Class<?>[] parameterTypes;
+
+    InterceptSite(Method method) {
+        this.method = method;
+        this.parameterTypes = method.getParameterTypes();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public Class<?>[] getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public static void setTimeCostSampleInterval(int interval) {
+        TIME_COST_SAMPLE_INTERVAL = Math.max(interval, 1);
+    }
+
+    /**
+     * @return true if the time cost of the interceptors should be measured in this call.
+     */
+    public static boolean isTimeCostSampled() {
+        int interval = TIME_COST_SAMPLE_INTERVAL;
+        return interval == 1 || ThreadLocalRandom.current().nextInt(interval) == 0;
+    }
+
+    /**
+     * @return the current nano time if the call is sampled, or 0, so no time is spent in the calls not sampled.
+     */
+    public static long nanoTime(boolean sampled) {
+        return sampled ? System.nanoTime() : 0L;
+    }
+}
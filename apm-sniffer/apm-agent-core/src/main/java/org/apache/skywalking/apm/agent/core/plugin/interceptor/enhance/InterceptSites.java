@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@link InterceptSite}s of the methods delegated to one interceptor. Most interceptors intercept only one method,
+ * the first site is checked by the identity of the {@link Method}, which is cached by byte-buddy in the enhanced class.
+ * <p>
+ * This class is injected into the bootstrap classloader for the bootstrap templates, it should only depend on JDK.
+ */
+public final class InterceptSites {
+    private volatile InterceptSite firstSite;
+    private final Map<Method, InterceptSite> sites = new ConcurrentHashMap<>();
+
+    public InterceptSite get(Method method) {
+        InterceptSite site = firstSite;
+        if (site != null && site.getMethod() == method) {
+            return site;
+        }
+        site = sites.get(method);
+        if (site == null) {
+            site = new InterceptSite(method);
+            InterceptSite existing = sites.putIfAbsent(method, site);
+            if (existing != null) {
+                site = existing;
+            }
+            if (firstSite == null) {
+                firstSite = site;
+            }
+        }
+        return site;
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDef
 import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
+import org.apache.skywalking.apm.agent.core.plugin.cache.DelegateField;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.EnhanceException;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
@@ -38,9 +39,11 @@ import org.apache.skywalking.apm.agent.core.plugin.interceptor.StaticMethodsInte
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ConstructorInter;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstMethodsAdvice;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.OverrideCallable;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.ConstructorInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.DeclaredInstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InlineInstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.StaticMethodsInterceptV2Point;
 import org.apache.skywalking.apm.util.StringUtil;
@@ -61,7 +64,7 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
     @Override
     protected DynamicType.Builder<?> enhanceClass(TypeDescription typeDescription,
                                                   DynamicType.Builder<?> newClassBuilder,
-                                                  ClassLoader classLoader) throws PluginException {
+                                                  ClassLoader classLoader, EnhanceContext context) throws PluginException {
         StaticMethodsInterceptV2Point[] staticMethodsInterceptV2Points = getStaticMethodsInterceptV2Points();
         String enhanceOriginClassName = typeDescription.getTypeName();
         if (staticMethodsInterceptV2Points == null || staticMethodsInterceptV2Points.length == 0) {
@@ -84,11 +87,13 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                 .withBinders(Morph.Binder.install(OverrideCallable.class))
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
+                    String delegateFieldName = delegateNamingResolver.resolve(staticMethodsInterceptV2Point);
                     newClassBuilder = newClassBuilder.method(
                         isStatic().and(staticMethodsInterceptV2Point.getMethodsMatcher()))
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                 .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                .to(new StaticMethodsInterV2WithOverrideArgs(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
+                                                                                .to(new StaticMethodsInterV2WithOverrideArgs(getPluginName(), interceptor), delegateFieldName));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.STATIC_V2_OVERRIDE_ARGS, getPluginName(), interceptor);
                 }
             } else {
                 if (isBootstrapInstrumentation()) {
@@ -97,10 +102,12 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                 .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                 } else {
+                    String delegateFieldName = delegateNamingResolver.resolve(staticMethodsInterceptV2Point);
                     newClassBuilder = newClassBuilder.method(
                         isStatic().and(staticMethodsInterceptV2Point.getMethodsMatcher()))
                                                      .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                .to(new StaticMethodsInterV2(getPluginName(), interceptor), delegateNamingResolver.resolve(staticMethodsInterceptV2Point)));
+                                                                                .to(new StaticMethodsInterV2(getPluginName(), interceptor), delegateFieldName));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.STATIC_V2, getPluginName(), interceptor);
                 }
             }
 
@@ -153,10 +160,12 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                                                          .forInternalDelegateClass(constructorInterceptPoint
                                                                                                                                                        .getConstructorInterceptor()))));
                 } else {
+                    String delegateFieldName = fieldNamingResolver.resolve(constructorInterceptPoint);
                     newClassBuilder = newClassBuilder.constructor(constructorInterceptPoint.getConstructorMatcher())
                                                      .intercept(SuperMethodCall.INSTANCE.andThen(MethodDelegation.withDefaultConfiguration()
                                                                                                                  .to(new ConstructorInter(getPluginName(), constructorInterceptPoint
-                                                                                                                                              .getConstructorInterceptor(), classLoader), fieldNamingResolver.resolve(constructorInterceptPoint))));
+                                                                                                                                              .getConstructorInterceptor(), classLoader), delegateFieldName)));
+                    context.delegateFieldDefined(delegateFieldName, DelegateField.Type.CONSTRUCTOR, getPluginName(), constructorInterceptPoint.getConstructorInterceptor());
                 }
             }
         }
@@ -180,20 +189,33 @@ public abstract class ClassEnhancePluginDefineV2 extends AbstractClassEnhancePlu
                                                                                     .withBinders(Morph.Binder.install(OverrideCallable.class))
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
                     } else {
+                        String delegateFieldName = fieldNamingResolver.resolve(instanceMethodsInterceptV2Point);
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .withBinders(Morph.Binder.install(OverrideCallable.class))
-                                                                                    .to(new InstMethodsInterV2WithOverrideArgs(getPluginName(), interceptor, classLoader), fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
+                                                                                    .to(new InstMethodsInterV2WithOverrideArgs(getPluginName(), interceptor, classLoader), delegateFieldName));
+                        context.delegateFieldDefined(delegateFieldName, DelegateField.Type.INST_V2_OVERRIDE_ARGS, getPluginName(), interceptor);
                     }
                 } else {
                     if (isBootstrapInstrumentation()) {
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
                                                                                     .to(BootstrapInstrumentBoost.forInternalDelegateClass(interceptor)));
+                    } else if (instanceMethodsInterceptV2Point instanceof InlineInstanceMethodsInterceptV2Point
+                        && InstMethodsAdvice.canInline(typeDescription, junction)) {
+                        String siteTableFieldName = fieldNamingResolver.resolve(instanceMethodsInterceptV2Point);
+                        newClassBuilder = InstMethodsAdvice.enhance(
+                            newClassBuilder, siteTableFieldName, junction,
+                            new InstMethodsInlineInterV2(getPluginName(), interceptor, classLoader)
+                        );
+                        // The inline intercept sites are created in the transformation only.
+                        context.cacheUnsupported();
                     } else {
+                        String delegateFieldName = fieldNamingResolver.resolve(instanceMethodsInterceptV2Point);
                         newClassBuilder = newClassBuilder.method(junction)
                                                          .intercept(MethodDelegation.withDefaultConfiguration()
-                                                                                    .to(new InstMethodsInterV2(getPluginName(), interceptor, classLoader), fieldNamingResolver.resolve(instanceMethodsInterceptV2Point)));
+                                                                                    .to(new InstMethodsInterV2(getPluginName(), interceptor, classLoader), delegateFieldName));
+                        context.delegateFieldDefined(delegateFieldName, DelegateField.Type.INST_V2, getPluginName(), interceptor);
                     }
                 }
             }
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2;
+
+import java.lang.reflect.Method;
+import org.apache.skywalking.apm.agent.core.plugin.PluginException;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InlineInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.apache.skywalking.apm.agent.core.plugin.loader.InterceptorInstanceLoader;
+
+/**
+ * The {@link InlineInterceptor} of {@link InstanceMethodsAroundInterceptorV2}.
+ */
+public class InstMethodsInlineInterV2 extends InlineInterceptor {
+    private final InstanceMethodsAroundInterceptorV2 interceptor;
+
+    public InstMethodsInlineInterV2(String pluginName, String instanceMethodsAroundInterceptorClassName,
+                                    ClassLoader classLoader) {
+        super(pluginName);
+        try {
+            interceptor = InterceptorInstanceLoader.load(instanceMethodsAroundInterceptorClassName, classLoader);
+        } catch (Throwable t) {
+            throw new PluginException("Can't create InstanceMethodsAroundInterceptor.", t);
+        }
+    }
+
+    @Override
+    protected MethodInterceptResult newResult() {
+        return new MethodInvocationContext();
+    }
+
+    @Override
+    protected void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                Class<?>[] argumentsTypes, MethodInterceptResult result) throws Throwable {
+        interceptor.beforeMethod(objInst, method, allArguments, argumentsTypes, (MethodInvocationContext) result);
+    }
+
+    @Override
+    protected Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, Object ret, MethodInterceptResult result) throws Throwable {
+        return interceptor.afterMethod(
+            objInst, method, allArguments, argumentsTypes, ret, (MethodInvocationContext) result);
+    }
+
+    @Override
+    protected void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                         Class<?>[] argumentsTypes, Throwable t, MethodInterceptResult result) {
+        interceptor.handleMethodException(
+            objInst, method, allArguments, argumentsTypes, t, (MethodInvocationContext) result);
+    }
+}
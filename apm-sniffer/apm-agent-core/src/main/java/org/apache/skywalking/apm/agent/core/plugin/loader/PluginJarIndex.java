@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import lombok.RequiredArgsConstructor;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+
+/**
+ * The index of the plugin jars, shared by all the {@link AgentClassLoader}s with the same classpath. The jars are opened
+ * once in the process, and the directories of their entries are indexed, so a lookup only reads the jars holding the
+ * package of the class or resource, in the order of the classpath.
+ * <p>
+ * The bytes of the classes are cached after the first read, as the same interceptors are defined again by the agent
+ * classloader of every application classloader.
+ */
+class PluginJarIndex {
+    private static final ILog LOGGER = LogManager.getLogger(PluginJarIndex.class);
+
+    private static final Map<List<File>, PluginJarIndex> SHARED_INDEXES = new ConcurrentHashMap<>();
+
+    /**
+     * The directory of the entries, e.g. <code>org/apache/skywalking/apm/plugin/jdbc</code>, to the jars holding them.
+     */
+    private final Map<String, Jar[]> jarsOfDirectory = new HashMap<>();
+    private final List<Jar> jars = new ArrayList<>();
+    private final Map<String, byte[]> classBytes = new ConcurrentHashMap<>();
+
+    /**
+     * @return the index of the classpath, built at the first time.
+     */
+    static PluginJarIndex of(List<File> classpath) {
+        return SHARED_INDEXES.computeIfAbsent(classpath, PluginJarIndex::new);
+    }
+
+    PluginJarIndex(List<File> classpath) {
+        Map<String, List<Jar>> directories = new HashMap<>();
+        for (File path : classpath) {
+            if (path.exists() && path.isDirectory()) {
+                String[] jarFileNames = path.list((dir, name) -> name.endsWith(".jar"));
+                for (String fileName : jarFileNames) {
+                    try {
+                        File file = new File(path, fileName);
+                        Jar jar = new Jar(new JarFile(file), file);
+                        jars.add(jar);
+                        index(jar, directories);
+                        LOGGER.info("{} loaded.", file.toString());
+                    } catch (IOException e) {
+                        LOGGER.error(e, "{} jar file can't be resolved", fileName);
+                    }
+                }
+            }
+        }
+        directories.forEach((directory, jarList) -> jarsOfDirectory.put(directory, jarList.toArray(new Jar[0])));
+    }
+
+    private static void index(Jar jar, Map<String, List<Jar>> directories) {
+        Enumeration<JarEntry> entries = jar.jarFile.entries();
+        while (entries.hasMoreElements()) {
+            JarEntry entry = entries.nextElement();
+            if (entry.isDirectory()) {
+                continue;
+            }
+            List<Jar> jarList = directories.computeIfAbsent(directoryOf(entry.getName()), key -> new ArrayList<>(1));
+            if (jarList.isEmpty() || jarList.get(jarList.size() - 1) != jar) {
+                jarList.add(jar);
+            }
+        }
+    }
+
+    private static String directoryOf(String entryName) {
+        int index = entryName.lastIndexOf('/');
+        return index < 0 ? "" : entryName.substring(0, index);
+    }
+
+    /**
+     * @return the bytes of the class in the first jar holding it, or null if not found.
+     */
+    byte[] findClassBytes(String className) throws IOException {
+        byte[] bytes = classBytes.get(className);
+        if (bytes != null) {
+            return bytes;
+        }
+        String path = className.replace('.', '/').concat(".class");
+        for (Jar jar : jarsOf(path)) {
+            JarEntry entry = jar.jarFile.getJarEntry(path);
+            if (entry == null) {
+                continue;
+            }
+            try (InputStream is = jar.jarFile.getInputStream(entry)) {
+                bytes = readFully(is, entry.getSize());
+            }
+            byte[] previous = classBytes.putIfAbsent(className, bytes);
+            return previous == null ? bytes : previous;
+        }
+        return null;
+    }
+
+    /**
+     * @return the url of the resource in the first jar holding it, or null if not found.
+     */
+    URL findResource(String name) {
+        for (Jar jar : jarsOf(name)) {
+            if (jar.jarFile.getJarEntry(name) != null) {
+                try {
+                    return jar.urlOf(name);
+                } catch (MalformedURLException ignored) {
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the urls of the resource in all the jars holding it.
+     */
+    List<URL> findResources(String name) throws IOException {
+        List<URL> allResources = new LinkedList<>();
+        for (Jar jar : jarsOf(name)) {
+            if (jar.jarFile.getJarEntry(name) != null) {
+                allResources.add(jar.urlOf(name));
+            }
+        }
+        return allResources;
+    }
+
+    /**
+     * Close the jars of the index not shared by {@link #of(List)}, the shared ones are open until the process exits.
+     */
+    void close() {
+        for (Jar jar : jars) {
+            try {
+                jar.jarFile.close();
+            } catch (IOException e) {
+                LOGGER.warn(e, "{} jar file can't be closed", jar.sourceFile);
+            }
+        }
+    }
+
+    private List<Jar> jarsOf(String entryName) {
+        Jar[] jarArray = jarsOfDirectory.get(directoryOf(entryName));
+        return jarArray == null ? Collections.emptyList() : Arrays.asList(jarArray);
+    }
+
+    private static byte[] readFully(InputStream is, long size) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(size > 0 ? (int) size : 4096);
+        byte[] buffer = new byte[4096];
+        int length;
+        while ((length = is.read(buffer)) != -1) {
+            baos.write(buffer, 0, length);
+        }
+        return baos.toByteArray();
+    }
+
+    @RequiredArgsConstructor
+    private static class Jar {
+        private final JarFile jarFile;
+        private final File sourceFile;
+
+        private URL urlOf(String name) throws MalformedURLException {
+            return new URL("jar:file:" + sourceFile.getAbsolutePath() + "!/" + name);
+        }
+    }
+}
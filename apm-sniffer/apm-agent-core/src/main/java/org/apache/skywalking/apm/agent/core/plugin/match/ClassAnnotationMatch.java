@@ -44,6 +44,10 @@ public class ClassAnnotationMatch implements IndirectMatch {
         this.annotations = annotations;
     }
 
+    public String[] getAnnotations() {
+        return annotations;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.type.TypeDefinition;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+
+/**
+ * The index of the {@link IndirectMatch}es, to find the matches of a class without checking all of them one by one.
+ * The {@link MultiClassNameMatch}es are indexed by the class names, the {@link PrefixMatch}es by a trie of the
+ * prefixes, the {@link ClassAnnotationMatch}es by the annotations and the {@link HierarchyMatch}es by the super types.
+ * Any other match is checked one by one as before.
+ *
+ * @param <T> the target of the matches, such as the plugin define.
+ */
+@SuppressWarnings("rawtypes")
+public class ClassMatchIndex<T> {
+    private final List<Entry<T>> entries = new ArrayList<>();
+    private final Map<String, List<Entry<T>>> classNames = new HashMap<>();
+    private final PrefixNode<T> prefixes = new PrefixNode<>();
+    private final Map<String, List<Entry<T>>> annotations = new HashMap<>();
+    private final Map<String, List<Entry<T>>> superTypes = new HashMap<>();
+    private final List<Entry<T>> others = new ArrayList<>();
+
+    public void add(T target, IndirectMatch match) {
+        Entry<T> entry = new Entry<>(entries.size(), target, match);
+        entries.add(entry);
+        if (match instanceof MultiClassNameMatch) {
+            for (String className : ((MultiClassNameMatch) match).getMatchClassNames()) {
+                bucketOf(classNames, className).add(entry);
+            }
+        } else if (match instanceof PrefixMatch) {
+            for (String prefix : ((PrefixMatch) match).getPrefixes()) {
+                prefixes.add(prefix, entry);
+            }
+        } else if (match instanceof ClassAnnotationMatch) {
+            // All the annotations are required, so the class must be annotated with the first one.
+            bucketOf(annotations, ((ClassAnnotationMatch) match).getAnnotations()[0]).add(entry);
+        } else if (match instanceof HierarchyMatch) {
+            entry.superTypes = Arrays.asList(((HierarchyMatch) match).getParentTypes());
+            bucketOf(superTypes, entry.superTypes.get(0)).add(entry);
+        } else {
+            others.add(entry);
+        }
+    }
+
+    /**
+     * @return true if any junction built by the matches matches the type.
+     */
+    public boolean matches(TypeDescription typeDescription) {
+        String name = typeDescription.getActualName();
+        if (classNames.containsKey(name) || prefixes.matches(name)) {
+            return true;
+        }
+        if (!annotations.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                List<Entry<T>> bucket = annotations.get(annotation.getAnnotationType().getActualName());
+                if (bucket != null) {
+                    for (Entry<T> entry : bucket) {
+                        if (entry.junction.matches(typeDescription)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        if (!superTypes.isEmpty()) {
+            Set<String> superTypeNames = superTypeNamesOf(typeDescription);
+            // The junction of the hierarchy match takes the type itself as a super type.
+            superTypeNames.add(typeDescription.getTypeName());
+            for (String superTypeName : superTypeNames) {
+                List<Entry<T>> bucket = superTypes.get(superTypeName);
+                if (bucket != null) {
+                    for (Entry<T> entry : bucket) {
+                        if (superTypeNames.containsAll(entry.superTypes)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        for (Entry<T> entry : others) {
+            if (entry.junction.matches(typeDescription)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the targets whose matches match the type by {@link IndirectMatch#isMatch(TypeDescription)}, in the
+     * order they are added.
+     */
+    public List<T> find(TypeDescription typeDescription) {
+        BitSet matched = new BitSet(entries.size());
+        BitSet candidates = new BitSet(entries.size());
+        List<Entry<T>> bucket = classNames.get(typeDescription.getTypeName());
+        if (bucket != null) {
+            for (Entry<T> entry : bucket) {
+                matched.set(entry.order);
+            }
+        }
+        prefixes.collect(typeDescription.getName(), matched);
+        if (!annotations.isEmpty()) {
+            for (AnnotationDescription annotation : typeDescription.getDeclaredAnnotations()) {
+                bucket = annotations.get(annotation.getAnnotationType().getActualName());
+                if (bucket != null) {
+                    for (Entry<T> entry : bucket) {
+                        candidates.set(entry.order);
+                    }
+                }
+            }
+        }
+        if (!superTypes.isEmpty()) {
+            Set<String> superTypeNames = superTypeNamesOf(typeDescription);
+            for (String superTypeName : superTypeNames) {
+                bucket = superTypes.get(superTypeName);
+                if (bucket != null) {
+                    for (Entry<T> entry : bucket) {
+                        if (superTypeNames.containsAll(entry.superTypes)) {
+                            matched.set(entry.order);
+                        }
+                    }
+                }
+            }
+        }
+        for (Entry<T> entry : others) {
+            candidates.set(entry.order);
+        }
+
+        List<T> targets = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (matched.get(i)) {
+                targets.add(entries.get(i).target);
+            } else if (candidates.get(i) && entries.get(i).match.isMatch(typeDescription)) {
+                targets.add(entries.get(i).target);
+            }
+        }
+        return targets;
+    }
+
+    /**
+     * @return the names of all super classes and interfaces of the type, resolved once for all hierarchy matches.
+     */
+    private static Set<String> superTypeNamesOf(TypeDefinition type) {
+        Set<String> names = new HashSet<>();
+        collectSuperTypeNames(type, names);
+        return names;
+    }
+
+    private static void collectSuperTypeNames(TypeDefinition type, Set<String> names) {
+        for (TypeDescription.Generic superInterface : type.getInterfaces()) {
+            if (names.add(superInterface.asRawType().getTypeName())) {
+                collectSuperTypeNames(superInterface, names);
+            }
+        }
+        TypeDescription.Generic superClass = type.getSuperClass();
+        if (superClass != null && names.add(superClass.asRawType().getTypeName())) {
+            collectSuperTypeNames(superClass, names);
+        }
+    }
+
+    private static <T> List<Entry<T>> bucketOf(Map<String, List<Entry<T>>> buckets, String key) {
+        return buckets.computeIfAbsent(key, k -> new ArrayList<>(1));
+    }
+
+    private static class Entry<T> {
+        private final int order;
+        private final T target;
+        private final IndirectMatch match;
+        private final ElementMatcher.Junction junction;
+        private List<String> superTypes;
+
+        private Entry(int order, T target, IndirectMatch match) {
+            this.order = order;
+            this.target = target;
+            this.match = match;
+            this.junction = match.buildJunction();
+        }
+    }
+
+    /**
+     * A node of the trie of the class name prefixes.
+     */
+    private static class PrefixNode<T> {
+        private final Map<Character, PrefixNode<T>> children = new HashMap<>();
+        private final List<Entry<T>> entries = new ArrayList<>(0);
+
+        private void add(String prefix, Entry<T> entry) {
+            PrefixNode<T> node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                node = node.children.computeIfAbsent(prefix.charAt(i), c -> new PrefixNode<>());
+            }
+            node.entries.add(entry);
+        }
+
+        private boolean matches(String name) {
+            PrefixNode<T> node = this;
+            for (int i = 0; node != null; i++) {
+                if (!node.entries.isEmpty()) {
+                    return true;
+                }
+                if (i == name.length()) {
+                    return false;
+                }
+                node = node.children.get(name.charAt(i));
+            }
+            return false;
+        }
+
+        private void collect(String name, BitSet matched) {
+            PrefixNode<T> node = this;
+            for (int i = 0; node != null; i++) {
+                for (Entry<T> entry : node.entries) {
+                    matched.set(entry.order);
+                }
+                if (i == name.length()) {
+                    return;
+                }
+                node = node.children.get(name.charAt(i));
+            }
+        }
+    }
+}
@@ -36,6 +36,10 @@ public class PrefixMatch implements IndirectMatch {
         this.prefixes = prefixes;
     }
 
+    public String[] getPrefixes() {
+        return prefixes;
+    }
+
     @Override
     public ElementMatcher.Junction buildJunction() {
         ElementMatcher.Junction junction = null;
@@ -23,7 +23,6 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
@@ -34,6 +33,7 @@ import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingThreadListener;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.network.constants.ProfileConstants;
 import org.apache.skywalking.apm.util.StringUtil;
 
@@ -45,10 +45,6 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
 
     private static final ILog LOGGER = LogManager.getLogger(ProfileTaskExecutionService.class);
 
-    // add a schedule while waiting for the task to start or finish
-    private final static ScheduledExecutorService PROFILE_TASK_SCHEDULE = Executors.newSingleThreadScheduledExecutor(
-        new DefaultNamedThreadFactory("PROFILE-TASK-SCHEDULE"));
-
     // last command create time, use to next query task list
     private volatile long lastCommandCreateTime = -1;
 
@@ -84,14 +80,15 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
 
         // schedule to start task
         long timeToProcessMills = task.getStartTime() - System.currentTimeMillis();
-        PROFILE_TASK_SCHEDULE.schedule(() -> processProfileTask(task), timeToProcessMills, TimeUnit.MILLISECONDS);
+        // add a schedule while waiting for the task to start or finish
+        ServiceManager.INSTANCE.findService(SchedulerService.class).schedule(
+            "PROFILE-TASK-SCHEDULE", () -> processProfileTask(task), timeToProcessMills, TimeUnit.MILLISECONDS);
     }
 
     /**
-     * check and add {@link TracingContext} profiling
+     * check and add {@link TracingContext} profiling. The segment id is only read when a task is running.
      */
     public ProfileStatusContext addProfiling(TracingContext tracingContext,
-                                             String traceSegmentId,
                                              String firstSpanOPName) {
         // get current profiling task, check need profiling
         final ProfileTaskExecutionContext executionContext = taskExecutionContext.get();
@@ -99,32 +96,32 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
             return ProfileStatusContext.createWithNone();
         }
 
-        return executionContext.attemptProfiling(tracingContext, traceSegmentId, firstSpanOPName);
+        return executionContext.attemptProfiling(tracingContext, tracingContext.getSegmentId(), firstSpanOPName);
     }
 
     /**
      * continue profiling task when cross-thread
      */
-    public void continueProfiling(TracingContext tracingContext, String traceSegmentId) {
+    public void continueProfiling(TracingContext tracingContext) {
         final ProfileTaskExecutionContext executionContext = taskExecutionContext.get();
         if (executionContext == null) {
             return;
         }
 
-        executionContext.continueProfiling(tracingContext, traceSegmentId);
+        executionContext.continueProfiling(tracingContext, tracingContext.getSegmentId());
     }
 
     /**
      * Re-check current trace need profiling, in case that third-party plugins change the operation name.
      */
-    public void profilingRecheck(TracingContext tracingContext, String traceSegmentId, String firstSpanOPName) {
+    public void profilingRecheck(TracingContext tracingContext, String firstSpanOPName) {
         // get current profiling task, check need profiling
         final ProfileTaskExecutionContext executionContext = taskExecutionContext.get();
         if (executionContext == null) {
             return;
         }
 
-        executionContext.profilingRecheck(tracingContext, traceSegmentId, firstSpanOPName);
+        executionContext.profilingRecheck(tracingContext, tracingContext.getSegmentId(), firstSpanOPName);
     }
 
     /**
@@ -141,8 +138,10 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
         // start profiling this task
         currentStartedTaskContext.startProfiling(PROFILE_EXECUTOR);
 
-        PROFILE_TASK_SCHEDULE.schedule(
-            () -> stopCurrentProfileTask(currentStartedTaskContext), task.getDuration(), TimeUnit.MINUTES);
+        ServiceManager.INSTANCE.findService(SchedulerService.class).schedule(
+            "PROFILE-TASK-SCHEDULE", () -> stopCurrentProfileTask(currentStartedTaskContext), task.getDuration(),
+            TimeUnit.MINUTES
+        );
     }
 
     /**
@@ -184,8 +183,6 @@ public class ProfileTaskExecutionService implements BootService, TracingThreadLi
         // remove trace listener
         TracingContext.TracingThreadListenerManager.remove(this);
 
-        PROFILE_TASK_SCHEDULE.shutdown();
-
         PROFILE_EXECUTOR.shutdown();
     }
 
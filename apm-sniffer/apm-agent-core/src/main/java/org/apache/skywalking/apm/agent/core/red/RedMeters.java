@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.red;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.CounterMode;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterTag;
+import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
+
+/**
+ * The calls, errors and duration meters of the endpoints or the peers. The number of the keys measured separately is
+ * limited, the keys out of the limit share the meters of {@link #OTHERS}.
+ */
+class RedMeters {
+    static final String OTHERS = "_others";
+
+    private static final List<Double> DURATION_STEPS = Arrays.asList(
+        0d, 10d, 25d, 50d, 100d, 250d, 500d, 1000d, 2500d, 5000d, 10000d);
+
+    private final String namePrefix;
+    private final String label;
+    private final int maxKeys;
+    private final Map<MeterId, BaseMeter> reportedMeters;
+    private final ConcurrentHashMap<String, KeyMeters> keyMeters = new ConcurrentHashMap<>();
+
+    /**
+     * @param namePrefix     the prefix of the meter names, such as {@code red_endpoint}
+     * @param label          the label name of the key
+     * @param maxKeys        the max number of keys measured separately
+     * @param reportedMeters the meters to report, the created meters are added into it
+     */
+    RedMeters(String namePrefix, String label, int maxKeys, Map<MeterId, BaseMeter> reportedMeters) {
+        this.namePrefix = namePrefix;
+        this.label = label;
+        this.maxKeys = maxKeys;
+        this.reportedMeters = reportedMeters;
+    }
+
+    void record(String key, long durationMillis, boolean error) {
+        KeyMeters meters = keyMeters.get(key);
+        if (meters == null) {
+            // The size is checked without the lock, a few more keys may be measured when they come concurrently.
+            meters = keyMeters.computeIfAbsent(keyMeters.size() < maxKeys ? key : OTHERS, this::create);
+        }
+        meters.calls.increment(1);
+        if (error) {
+            meters.errors.increment(1);
+        }
+        meters.duration.addValue(durationMillis);
+    }
+
+    int size() {
+        return keyMeters.size();
+    }
+
+    private KeyMeters create(String key) {
+        final List<MeterTag> tags = Collections.singletonList(new MeterTag(label, key));
+        final KeyMeters meters = new KeyMeters(
+            new Counter(new MeterId(namePrefix + "_calls_counter", MeterType.COUNTER, tags), CounterMode.INCREMENT),
+            new Counter(new MeterId(namePrefix + "_errors_counter", MeterType.COUNTER, tags), CounterMode.INCREMENT),
+            new StripedHistogram(new MeterId(namePrefix + "_duration", MeterType.HISTOGRAM, tags), DURATION_STEPS)
+        );
+        reportedMeters.put(meters.calls.getId(), meters.calls);
+        reportedMeters.put(meters.errors.getId(), meters.errors);
+        reportedMeters.put(meters.duration.getId(), meters.duration);
+        return meters;
+    }
+
+    private static class KeyMeters {
+        private final Counter calls;
+        private final Counter errors;
+        private final StripedHistogram duration;
+
+        private KeyMeters(Counter calls, Counter errors, StripedHistogram duration) {
+            this.calls = calls;
+            this.errors = errors;
+            this.duration = duration;
+        }
+    }
+}
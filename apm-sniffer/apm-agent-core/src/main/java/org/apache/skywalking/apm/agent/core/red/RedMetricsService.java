@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.red;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.IgnoredTracerContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContext;
+import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitTypeSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterSender;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * Aggregate the rate, errors and duration(RED) of the endpoints and the downstream peers, from the entry and exit
+ * spans of the sampled segments, and of the {@link IgnoredTracerContext}s created by the sampler. The meters are held
+ * here rather than in the {@link MeterService}, and reported every {@link Config.Red#FLUSH_INTERVAL} seconds by the
+ * {@link MeterSender}.
+ */
+@DefaultImplementor
+public class RedMetricsService implements BootService, TracingContextListener, Runnable {
+    private static final ILog LOGGER = LogManager.getLogger(RedMetricsService.class);
+
+    private final ConcurrentHashMap<MeterId, BaseMeter> meters = new ConcurrentHashMap<>();
+    private final RedMeters endpoints = new RedMeters("red_endpoint", "endpoint", Config.Red.MAX_ENDPOINTS, meters);
+    private final RedMeters peers = new RedMeters("red_peer", "peer", Config.Red.MAX_PEERS, meters);
+
+    private volatile ScheduledTask flushTask;
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public void boot() {
+        if (Config.Red.ACTIVE) {
+            TracingContext.ListenerManager.add(this);
+            flushTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleWithFixedDelay(
+                "RedMetricsFlushService",
+                new RunnableWithExceptionProtection(this, t -> LOGGER.error("Report RED meters failure.", t)),
+                Config.Red.FLUSH_INTERVAL, Config.Red.FLUSH_INTERVAL, TimeUnit.SECONDS
+            );
+        }
+    }
+
+    @Override
+    public void onComplete() {
+    }
+
+    @Override
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+        }
+        TracingContext.ListenerManager.remove(this);
+    }
+
+    /**
+     * Record a finished entry span.
+     *
+     * @param endpoint the operation name of the span
+     */
+    public void recordEndpoint(String endpoint, long durationMillis, boolean error) {
+        endpoints.record(endpoint == null ? "" : endpoint, durationMillis, error);
+    }
+
+    /**
+     * Record a finished exit span, the span without peer is not measured.
+     *
+     * @param peer the remote peer of the span
+     */
+    public void recordPeer(String peer, long durationMillis, boolean error) {
+        if (StringUtil.isEmpty(peer)) {
+            return;
+        }
+        peers.record(peer, durationMillis, error);
+    }
+
+    @Override
+    public void afterFinished(TraceSegment traceSegment) {
+        for (AbstractTracingSpan span : traceSegment.getSpans()) {
+            if (span.isEntry()) {
+                recordEndpoint(
+                    span.getOperationName(), span.getEndTime() - span.getStartTime(), span.isErrorOccurred());
+            } else if (span instanceof ExitTypeSpan) {
+                recordPeer(
+                    ((ExitTypeSpan) span).getPeer(), span.getEndTime() - span.getStartTime(), span.isErrorOccurred());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        if (meters.isEmpty()) {
+            return;
+        }
+        ServiceManager.INSTANCE.findService(MeterSender.class)
+                               .send(meters, ServiceManager.INSTANCE.findService(MeterService.class));
+    }
+
+    RedMeters getEndpoints() {
+        return endpoints;
+    }
+
+    RedMeters getPeers() {
+        return peers;
+    }
+
+    ConcurrentHashMap<MeterId, BaseMeter> getMeters() {
+        return meters;
+    }
+}
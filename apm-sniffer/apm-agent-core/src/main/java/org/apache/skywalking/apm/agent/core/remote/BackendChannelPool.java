@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.CallOptions;
+import io.grpc.Channel;
+import io.grpc.ClientCall;
+import io.grpc.ForwardingClientCall;
+import io.grpc.ForwardingClientCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The channel spreading the calls over the channels of several backends, by the {@link BackendPoolStrategy}. Every
+ * call, such as the stream of a batch of segments, goes to one healthy backend. The backend is unhealthy once a call
+ * to it fails with a network error, and is skipped until {@link #check(List)} finds it connected again, or replaces
+ * it with a backend out of the pool.
+ * <p>
+ * The members are a copy-on-write snapshot, the calls read it without a lock, while {@link #check(List)} and
+ * {@link #shutdownNow()} are synchronized to replace it one at a time.
+ */
+class BackendChannelPool extends Channel {
+    private static final ILog LOGGER = LogManager.getLogger(BackendChannelPool.class);
+
+    private final BackendPoolStrategy strategy;
+    private final ChannelFactory channelFactory;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private volatile Member[] members;
+
+    /**
+     * @param servers the backends of the pool
+     */
+    BackendChannelPool(BackendPoolStrategy strategy, List<String> servers,
+                       ChannelFactory channelFactory) throws Exception {
+        this.strategy = strategy;
+        this.channelFactory = channelFactory;
+        final List<Member> created = new ArrayList<>(servers.size());
+        try {
+            for (String server : servers) {
+                created.add(new Member(server, channelFactory.create(server)));
+            }
+        } catch (Exception e) {
+            created.forEach(member -> member.channel.shutdownNow());
+            throw e;
+        }
+        this.members = created.toArray(new Member[0]);
+    }
+
+    @Override
+    public <REQ, RESP> ClientCall<REQ, RESP> newCall(MethodDescriptor<REQ, RESP> methodDescriptor,
+                                                     CallOptions callOptions) {
+        final Member member = select();
+        return new PooledCall<>(member, member.channel.getChannel().newCall(methodDescriptor, callOptions));
+    }
+
+    /**
+     * @return the authority of the backend the next call goes to.
+     */
+    @Override
+    public String authority() {
+        return select(nextIndex.get()).channel.getChannel().authority();
+    }
+
+    /**
+     * @return the healthy backend picked by the strategy, or any one if all of them are unhealthy, whose call fails
+     * and triggers the reconnection.
+     */
+    Member select() {
+        return select(nextIndex.getAndIncrement());
+    }
+
+    private Member select(int index) {
+        final Member[] current = members;
+        final int start = (index & Integer.MAX_VALUE) % current.length;
+        Member selected = null;
+        for (int i = 0; i < current.length; i++) {
+            final Member member = current[(start + i) % current.length];
+            if (!member.healthy) {
+                continue;
+            }
+            if (strategy == BackendPoolStrategy.ROUND_ROBIN) {
+                return member;
+            }
+            if (selected == null || member.outstanding.get() < selected.outstanding.get()) {
+                selected = member;
+            }
+        }
+        return selected == null ? current[start] : selected;
+    }
+
+    /**
+     * Check the unhealthy backends. The connected ones are healthy again, the others are replaced by the servers out
+     * of the pool, if there are any.
+     *
+     * @param servers all the available backends
+     * @return the number of the healthy backends.
+     */
+    synchronized int check(List<String> servers) {
+        final Member[] current = members.clone();
+        final List<Member> replaced = new ArrayList<>();
+        final Set<String> spareServers = new HashSet<>(servers);
+        for (Member member : current) {
+            spareServers.remove(member.server);
+        }
+        int healthy = 0;
+        for (int i = 0; i < current.length; i++) {
+            final Member member = current[i];
+            if (!member.healthy && member.channel.isConnected(true)) {
+                LOGGER.info("Backend {} is connected again.", member.server);
+                member.healthy = true;
+            }
+            if (!member.healthy && !spareServers.isEmpty()) {
+                final String server = spareServers.iterator().next();
+                spareServers.remove(server);
+                try {
+                    current[i] = new Member(server, channelFactory.create(server));
+                    replaced.add(member);
+                    LOGGER.info("Backend {} is unhealthy, replaced by {}.", member.server, server);
+                } catch (Throwable t) {
+                    LOGGER.error(t, "Create channel to {} fail.", server);
+                }
+            }
+            if (current[i].healthy) {
+                healthy++;
+            }
+        }
+        members = current;
+        // Shut down after the new snapshot is published, a call still selecting from the former one fails as unhealthy.
+        replaced.forEach(member -> member.channel.shutdownNow());
+        return healthy;
+    }
+
+    int healthyCount() {
+        int healthy = 0;
+        for (Member member : members) {
+            if (member.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    synchronized void shutdownNow() {
+        for (Member member : members) {
+            member.channel.shutdownNow();
+        }
+    }
+
+    interface ChannelFactory {
+        GRPCChannel create(String server) throws Exception;
+    }
+
+    static final class Member {
+        private final String server;
+        private final GRPCChannel channel;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Member(String server, GRPCChannel channel) {
+            this.server = server;
+            this.channel = channel;
+        }
+
+        String getServer() {
+            return server;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+
+        int getOutstanding() {
+            return outstanding.get();
+        }
+    }
+
+    /**
+     * Count the calls in flight and the messages of the backend, and mark it unhealthy if the call fails with a
+     * network error.
+     */
+    private static final class PooledCall<REQ, RESP> extends ForwardingClientCall.SimpleForwardingClientCall<REQ, RESP> {
+        private final Member member;
+
+        private PooledCall(Member member, ClientCall<REQ, RESP> delegate) {
+            super(delegate);
+            this.member = member;
+        }
+
+        @Override
+        public void start(Listener<RESP> responseListener, Metadata headers) {
+            member.outstanding.incrementAndGet();
+            super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<RESP>(responseListener) {
+                @Override
+                public void onClose(Status status, Metadata trailers) {
+                    member.outstanding.decrementAndGet();
+                    if (!status.isOk() && status.getCode() != Status.Code.CANCELLED) {
+                        AgentSo11y.measureBackendError(member.server);
+                        if (GRPCChannelManager.isNetworkError(status) && member.healthy) {
+                            member.healthy = false;
+                            LOGGER.warn("Backend {} is unhealthy, cause by {}.", member.server, status);
+                        }
+                    }
+                    super.onClose(status, trailers);
+                }
+            }, headers);
+        }
+
+        @Override
+        public void sendMessage(REQ message) {
+            AgentSo11y.measureBackendMessage(member.server);
+            super.sendMessage(message);
+        }
+    }
+}
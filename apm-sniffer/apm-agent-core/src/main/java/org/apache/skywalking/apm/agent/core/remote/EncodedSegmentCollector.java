@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.Drainable;
+import io.grpc.KnownLength;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.stub.AbstractStub;
+import io.grpc.stub.ClientCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * The client stream of {@link TraceSegmentReportServiceGrpc#getCollectMethod()}, sending the segments encoded by
+ * {@link TraceSegment#encode()} as they are. The collector receives the same SegmentObject messages.
+ */
+final class EncodedSegmentCollector {
+    static final MethodDescriptor<byte[], Commands> COLLECT_METHOD =
+        TraceSegmentReportServiceGrpc.getCollectMethod().toBuilder(
+            new BytesMarshaller(),
+            TraceSegmentReportServiceGrpc.getCollectMethod().getResponseMarshaller()
+        ).build();
+
+    private EncodedSegmentCollector() {
+    }
+
+    /**
+     * Start the client stream with the channel and call options, such as the deadline, of the given stub.
+     */
+    static StreamObserver<byte[]> collect(AbstractStub<?> stub, StreamObserver<Commands> responseObserver) {
+        return ClientCalls.asyncClientStreamingCall(
+            stub.getChannel().newCall(COLLECT_METHOD, stub.getCallOptions()), responseObserver);
+    }
+
+    private static class BytesMarshaller implements MethodDescriptor.Marshaller<byte[]> {
+        @Override
+        public InputStream stream(byte[] value) {
+            return new BytesInputStream(value);
+        }
+
+        @Override
+        public byte[] parse(InputStream stream) {
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int length;
+                while ((length = stream.read(buffer)) != -1) {
+                    output.write(buffer, 0, length);
+                }
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw Status.INTERNAL.withDescription("Read the message fail.").withCause(e).asRuntimeException();
+            }
+        }
+    }
+
+    /**
+     * The gRPC framer takes the length from {@link KnownLength}, and copies the array in one go through {@link
+     * Drainable}, rather than reading it in chunks.
+     */
+    private static class BytesInputStream extends ByteArrayInputStream implements KnownLength, Drainable {
+        BytesInputStream(byte[] bytes) {
+            super(bytes);
+        }
+
+        @Override
+        public int drainTo(OutputStream target) throws IOException {
+            int length = count - pos;
+            target.write(buf, pos, length);
+            pos = count;
+            return length;
+        }
+    }
+}
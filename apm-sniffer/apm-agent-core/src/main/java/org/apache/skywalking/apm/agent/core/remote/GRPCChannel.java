@@ -37,15 +37,14 @@ public class GRPCChannel {
 
     private GRPCChannel(String host, int port, List<ChannelBuilder> channelBuilders,
                         List<ChannelDecorator> decorators) throws Exception {
-        ManagedChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port);
-
-        NameResolverRegistry.getDefaultRegistry().register(new DnsNameResolverProvider());
-
-        for (ChannelBuilder builder : channelBuilders) {
-            channelBuilder = builder.build(channelBuilder);
-        }
+        this(buildChannel(host, port, channelBuilders), decorators);
+    }
 
-        this.originChannel = channelBuilder.build();
+    /**
+     * Wrap the given channel, such as an in-process one.
+     */
+    GRPCChannel(ManagedChannel originChannel, List<ChannelDecorator> decorators) {
+        this.originChannel = originChannel;
 
         Channel channel = originChannel;
         for (ChannelDecorator decorator : decorators) {
@@ -55,6 +54,19 @@ public class GRPCChannel {
         channelWithDecorators = channel;
     }
 
+    private static ManagedChannel buildChannel(String host, int port,
+                                               List<ChannelBuilder> channelBuilders) throws Exception {
+        ManagedChannelBuilder channelBuilder = NettyChannelBuilder.forAddress(host, port);
+
+        NameResolverRegistry.getDefaultRegistry().register(new DnsNameResolverProvider());
+
+        for (ChannelBuilder builder : channelBuilders) {
+            channelBuilder = builder.build(channelBuilder);
+        }
+
+        return channelBuilder.build();
+    }
+
     public static Builder newBuilder(String host, int port) {
         return new Builder(host, port);
     }
@@ -23,34 +23,43 @@ import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 
 import java.net.InetAddress;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Collector.IS_RESOLVE_DNS_PERIODICALLY;
 
+/**
+ * Keep the channel to the backends of {@link Config.Collector#BACKEND_SERVICE}, and notify the {@link
+ * GRPCChannelListener}s when it is connected or disconnected. By default, all the data is sent to one randomly selected
+ * backend, and another one is selected after a network error. If {@link Config.Collector#BACKEND_POOL_SIZE} is larger
+ * than 1, the channel is a {@link BackendChannelPool} spreading the calls over that many backends, and it is
+ * disconnected only when none of them is healthy.
+ */
 @DefaultImplementor
 public class GRPCChannelManager implements BootService, Runnable {
     private static final ILog LOGGER = LogManager.getLogger(GRPCChannelManager.class);
 
     private volatile GRPCChannel managedChannel = null;
-    private volatile ScheduledFuture<?> connectCheckFuture;
+    private volatile BackendChannelPool channelPool = null;
+    private volatile ScheduledTask connectCheckTask;
     private volatile boolean reconnect = true;
     private final Random random = new Random();
     private final List<GRPCChannelListener> listeners = Collections.synchronizedList(new LinkedList<>());
@@ -71,9 +80,8 @@ public class GRPCChannelManager implements BootService, Runnable {
             return;
         }
         grpcServers = Arrays.asList(Config.Collector.BACKEND_SERVICE.split(","));
-        connectCheckFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("GRPCChannelManager")
-        ).scheduleAtFixedRate(
+        connectCheckTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+            "GRPCChannelManager",
             new RunnableWithExceptionProtection(
                 this,
                 t -> LOGGER.error("unexpected exception.", t)
@@ -88,12 +96,15 @@ public class GRPCChannelManager implements BootService, Runnable {
 
     @Override
     public void shutdown() {
-        if (connectCheckFuture != null) {
-            connectCheckFuture.cancel(true);
+        if (connectCheckTask != null) {
+            connectCheckTask.cancel();
         }
         if (managedChannel != null) {
             managedChannel.shutdownNow();
         }
+        if (channelPool != null) {
+            channelPool.shutdownNow();
+        }
         LOGGER.debug("Selected collector grpc service shutdown.");
     }
 
@@ -125,6 +136,11 @@ public class GRPCChannelManager implements BootService, Runnable {
                     .collect(Collectors.toList());
         }
 
+        if (Config.Collector.BACKEND_POOL_SIZE > 1) {
+            checkChannelPool();
+            return;
+        }
+
         if (reconnect) {
             if (grpcServers.size() > 0) {
                 String server = "";
@@ -134,18 +150,12 @@ public class GRPCChannelManager implements BootService, Runnable {
                         selectedIdx = index;
 
                         server = grpcServers.get(index);
-                        String[] ipAndPort = server.split(":");
 
                         if (managedChannel != null) {
                             managedChannel.shutdownNow();
                         }
 
-                        managedChannel = GRPCChannel.newBuilder(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
-                                                    .addManagedChannelBuilder(new StandardChannelBuilder())
-                                                    .addManagedChannelBuilder(new TLSChannelBuilder())
-                                                    .addChannelDecorator(new AgentIDDecorator())
-                                                    .addChannelDecorator(new AuthenticationDecorator())
-                                                    .build();
+                        managedChannel = newChannel(server);
                         reconnectCount = 0;
                         reconnect = false;
                         notify(GRPCChannelStatus.CONNECTED);
@@ -171,19 +181,73 @@ public class GRPCChannelManager implements BootService, Runnable {
         }
     }
 
+    /**
+     * Create the pool of randomly selected backends, check the unhealthy ones of it, and notify the listeners when
+     * the pool turns connected.
+     */
+    private void checkChannelPool() {
+        if (channelPool == null) {
+            if (grpcServers.isEmpty()) {
+                return;
+            }
+            List<String> servers = new ArrayList<>(grpcServers);
+            Collections.shuffle(servers, random);
+            servers = servers.subList(0, Math.min(Config.Collector.BACKEND_POOL_SIZE, servers.size()));
+            try {
+                channelPool = new BackendChannelPool(
+                    Config.Collector.BACKEND_POOL_STRATEGY, servers, GRPCChannelManager::newChannel);
+            } catch (Throwable t) {
+                LOGGER.error(t, "Create channels to {} fail.", servers);
+                return;
+            }
+            reconnect = false;
+            notify(GRPCChannelStatus.CONNECTED);
+            return;
+        }
+
+        final int healthy = channelPool.check(grpcServers);
+        if (reconnect && healthy > 0) {
+            reconnect = false;
+            notify(GRPCChannelStatus.CONNECTED);
+        } else if (reconnect) {
+            LOGGER.debug(
+                "None of the collector grpc services is available. Wait {} seconds to retry",
+                Config.Collector.GRPC_CHANNEL_CHECK_INTERVAL
+            );
+        }
+    }
+
+    private static GRPCChannel newChannel(String server) throws Exception {
+        String[] ipAndPort = server.split(":");
+        return GRPCChannel.newBuilder(ipAndPort[0], Integer.parseInt(ipAndPort[1]))
+                          .addManagedChannelBuilder(new StandardChannelBuilder())
+                          .addManagedChannelBuilder(new TLSChannelBuilder())
+                          .addChannelDecorator(new AgentIDDecorator())
+                          .addChannelDecorator(new AuthenticationDecorator())
+                          .build();
+    }
+
     public void addChannelListener(GRPCChannelListener listener) {
         listeners.add(listener);
     }
 
     public Channel getChannel() {
+        if (channelPool != null) {
+            return channelPool;
+        }
         return managedChannel.getChannel();
     }
 
     /**
-     * If the given exception is triggered by network problem, connect in background.
+     * If the given exception is triggered by network problem, connect in background. The channel pool is disconnected
+     * only when none of the backends is healthy.
      */
     public void reportError(Throwable throwable) {
         if (isNetworkError(throwable)) {
+            final BackendChannelPool pool = channelPool;
+            if (pool != null && pool.healthyCount() > 0) {
+                return;
+            }
             reconnect = true;
             notify(GRPCChannelStatus.DISCONNECT);
         }
@@ -202,15 +266,19 @@ public class GRPCChannelManager implements BootService, Runnable {
     private boolean isNetworkError(Throwable throwable) {
         if (throwable instanceof StatusRuntimeException) {
             StatusRuntimeException statusRuntimeException = (StatusRuntimeException) throwable;
-            return statusEquals(
-                statusRuntimeException.getStatus(), Status.UNAVAILABLE, Status.PERMISSION_DENIED,
-                Status.UNAUTHENTICATED, Status.RESOURCE_EXHAUSTED, Status.UNKNOWN
-            );
+            return isNetworkError(statusRuntimeException.getStatus());
         }
         return false;
     }
 
-    private boolean statusEquals(Status sourceStatus, Status... potentialStatus) {
+    static boolean isNetworkError(Status status) {
+        return statusEquals(
+            status, Status.UNAVAILABLE, Status.PERMISSION_DENIED,
+            Status.UNAUTHENTICATED, Status.RESOURCE_EXHAUSTED, Status.UNKNOWN
+        );
+    }
+
+    private static boolean statusEquals(Status sourceStatus, Status... potentialStatus) {
         for (Status status : potentialStatus) {
             if (sourceStatus.getCode() == status.getCode()) {
                 return true;
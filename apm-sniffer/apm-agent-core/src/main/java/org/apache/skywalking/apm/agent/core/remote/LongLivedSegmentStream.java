@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.commands.CommandService;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+
+/**
+ * A client stream of trace segments kept open across many batches.
+ * <p>
+ * The sender doesn't wait for the collector to complete the stream. It writes as long as the stream is ready, and
+ * only waits for the onReady notification of gRPC flow control when the transport buffer is full. The stream is
+ * completed and replaced after {@link #maxAgeMillis}, or dropped once the collector reports an error.
+ */
+class LongLivedSegmentStream {
+    private static final ILog LOGGER = LogManager.getLogger(LongLivedSegmentStream.class);
+
+    private final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub;
+    private final long createTime;
+    private final long maxAgeMillis;
+    private final Object readyLock = new Object();
+    private volatile ClientCallStreamObserver<byte[]> requestStream;
+    private volatile boolean broken;
+
+    private LongLivedSegmentStream(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub,
+                                   long maxAgeMillis) {
+        this.stub = stub;
+        this.createTime = System.currentTimeMillis();
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Open a new stream on the given stub.
+     *
+     * @param maxAgeSeconds   the stream is rotated after this age.
+     * @param timeoutSeconds  how long the collector could take to complete the stream after the max age.
+     */
+    static LongLivedSegmentStream open(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub,
+                                       long maxAgeSeconds,
+                                       long timeoutSeconds) {
+        LongLivedSegmentStream stream = new LongLivedSegmentStream(stub, TimeUnit.SECONDS.toMillis(maxAgeSeconds));
+        EncodedSegmentCollector.collect(
+            stub.withDeadlineAfter(maxAgeSeconds + timeoutSeconds, TimeUnit.SECONDS), stream.new ResponseObserver());
+        return stream;
+    }
+
+    /**
+     * @return true if the stream is healthy, opened on the given stub, and not older than the max age.
+     */
+    boolean isUsable(TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub currentStub) {
+        return !broken && stub == currentStub && System.currentTimeMillis() - createTime < maxAgeMillis;
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Send the segment, encoded by {@link TraceSegment#encode()}, once the stream is ready.
+     *
+     * @param readyTimeoutMillis how long to wait for the stream becoming ready.
+     * @return false if the stream is broken, or not ready in time. The segment is not sent.
+     */
+    boolean send(byte[] segment, long readyTimeoutMillis) throws InterruptedException {
+        if (!awaitReady(readyTimeoutMillis)) {
+            return false;
+        }
+        requestStream.onNext(segment);
+        return true;
+    }
+
+    /**
+     * Half close the stream. The commands responded by the collector are still handled asynchronously.
+     */
+    void complete() {
+        if (broken) {
+            return;
+        }
+        broken = true;
+        try {
+            requestStream.onCompleted();
+        } catch (Throwable t) {
+            LOGGER.warn(t, "Complete the segment stream fail.");
+        }
+        wakeUp();
+    }
+
+    private boolean awaitReady(long readyTimeoutMillis) throws InterruptedException {
+        if (broken) {
+            return false;
+        }
+        if (requestStream.isReady()) {
+            return true;
+        }
+        long deadline = System.currentTimeMillis() + readyTimeoutMillis;
+        synchronized (readyLock) {
+            while (!broken && !requestStream.isReady()) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                readyLock.wait(remaining);
+            }
+        }
+        return !broken;
+    }
+
+    private void wakeUp() {
+        synchronized (readyLock) {
+            readyLock.notifyAll();
+        }
+    }
+
+    private class ResponseObserver implements ClientResponseObserver<byte[], Commands> {
+        @Override
+        public void beforeStart(ClientCallStreamObserver<byte[]> stream) {
+            requestStream = stream;
+            stream.setOnReadyHandler(LongLivedSegmentStream.this::wakeUp);
+        }
+
+        @Override
+        public void onNext(Commands commands) {
+            ServiceManager.INSTANCE.findService(CommandService.class).receiveCommand(commands);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            broken = true;
+            wakeUp();
+            if (LOGGER.isErrorEnable()) {
+                LOGGER.error(throwable, "Send UpstreamSegment to collector fail with a grpc internal exception.");
+            }
+            ServiceManager.INSTANCE.findService(GRPCChannelManager.class).reportError(throwable);
+        }
+
+        @Override
+        public void onCompleted() {
+            broken = true;
+            wakeUp();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The stage between the DataCarrier consumer thread and the sender of a segment reporter, turning {@link
+ * TraceSegment}s into the payloads to send.
+ * <p>
+ * With 0 thread, the segments are serialized one by one on the consumer thread. Otherwise, a batch is serialized on
+ * the worker threads in parallel, and the payloads are handed to the sender on the consumer thread, in the order of
+ * the batch when ordered, or as soon as each of them is ready when unordered.
+ * <p>
+ * The time spent in serializing and sending is reported through {@link AgentSo11y#durationOfSegmentReport}.
+ */
+public class SegmentSerializeStage<R> {
+    private static final ILog LOGGER = LogManager.getLogger(SegmentSerializeStage.class);
+
+    private final ExecutorService executor;
+    private final boolean ordered;
+    private final Function<TraceSegment, R> serializer;
+
+    /**
+     * @param name       of the worker threads.
+     * @param threads    the number of worker threads, 0 means serializing on the consumer thread.
+     * @param ordered    whether the payloads are handed to the sender in the order of the batch.
+     * @param serializer turns a segment into the payload.
+     */
+    public SegmentSerializeStage(String name, int threads, boolean ordered, Function<TraceSegment, R> serializer) {
+        this.executor = threads > 0
+            ? Executors.newFixedThreadPool(threads, new DefaultNamedThreadFactory(name))
+            : null;
+        this.ordered = ordered;
+        this.serializer = serializer;
+    }
+
+    /**
+     * Serialize the segments, and hand the payloads to the sender on the current thread. A segment failing to
+     * serialize is skipped.
+     */
+    public void process(List<TraceSegment> segments, Consumer<R> sender) {
+        final LongAdder serializeNanos = new LongAdder();
+        long sendNanos = 0;
+        if (executor == null || segments.size() < 2) {
+            for (TraceSegment segment : segments) {
+                R payload = serialize(segment, serializeNanos);
+                if (payload != null) {
+                    long startTime = System.nanoTime();
+                    sender.accept(payload);
+                    sendNanos += System.nanoTime() - startTime;
+                }
+            }
+        } else if (ordered) {
+            List<Future<R>> futures = new ArrayList<>(segments.size());
+            for (TraceSegment segment : segments) {
+                futures.add(executor.submit(() -> serialize(segment, serializeNanos)));
+            }
+            for (Future<R> future : futures) {
+                sendNanos += send(future, sender);
+            }
+        } else {
+            CompletionService<R> completionService = new ExecutorCompletionService<>(executor);
+            for (TraceSegment segment : segments) {
+                completionService.submit(() -> serialize(segment, serializeNanos));
+            }
+            for (int i = 0; i < segments.size(); i++) {
+                try {
+                    sendNanos += send(completionService.take(), sender);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        AgentSo11y.durationOfSegmentReport("serialize", serializeNanos.sum());
+        AgentSo11y.durationOfSegmentReport("send", sendNanos);
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    private R serialize(TraceSegment segment, LongAdder serializeNanos) {
+        long startTime = System.nanoTime();
+        try {
+            return serializer.apply(segment);
+        } catch (Throwable t) {
+            LOGGER.error(t, "Serialize trace segment {} fail.", segment.getTraceSegmentId());
+            return null;
+        } finally {
+            serializeNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * @return the time spent in the sender.
+     */
+    private long send(Future<R> future, Consumer<R> sender) {
+        R payload;
+        try {
+            payload = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (ExecutionException e) {
+            LOGGER.error(e.getCause(), "Serialize trace segment fail.");
+            return 0;
+        }
+        if (payload == null) {
+            return 0;
+        }
+        long startTime = System.nanoTime();
+        sender.accept(payload);
+        return System.nanoTime() - startTime;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The write-ahead spool of the encoded segments, kept while the collector is not connected, and replayed after that.
+ * The segments are appended to a bounded number of memory-mapped files of the same size, the oldest file is dropped
+ * to make room for the new one.
+ * <p>
+ * A file starts with the header: the magic number and the position of the first not replayed record. Every record is
+ * framed as [length][crc32][timestamp][segment bytes], the length is written at last, so the torn record of a crashed
+ * process is either invisible or fails the crc check, and the file is read up to there. The records are replayed at
+ * least once, the ones being sent when the process crashed are replayed again.
+ * <p>
+ * Accessed by the consumer thread of the {@link TraceSegmentServiceClient}, and committed by the gRPC thread completing
+ * the replayed segments, so the methods are synchronized.
+ */
+final class SegmentSpool {
+    private static final ILog LOGGER = LogManager.getLogger(SegmentSpool.class);
+
+    static final String FILE_PREFIX = "segments-";
+    static final String FILE_SUFFIX = ".spool";
+    private static final String LOCK_FILE = "spool.lock";
+    private static final int MAGIC = 0x53575350;
+    /**
+     * magic(int) + read position(int)
+     */
+    static final int HEADER_SIZE = 8;
+    /**
+     * length(int) + crc32(int) + timestamp(long)
+     */
+    static final int RECORD_HEADER_SIZE = 16;
+
+    private final File directory;
+    private final int fileSize;
+    private final int maxFiles;
+    private final long maxAgeMillis;
+    private final FileLock lock;
+    private final ArrayDeque<SpoolFile> files = new ArrayDeque<>();
+    private final CRC32 crc32 = new CRC32();
+    private long nextSequence;
+    /**
+     * The read position of the oldest file after the records returned by {@link #peek(int)}.
+     */
+    private int peekedPosition = -1;
+
+    private SegmentSpool(File directory, int fileSize, int maxFiles, long maxAgeMillis,
+                         FileLock lock) throws IOException {
+        this.directory = directory;
+        this.fileSize = fileSize;
+        this.maxFiles = maxFiles;
+        this.maxAgeMillis = maxAgeMillis;
+        this.lock = lock;
+
+        File[] existing = directory.listFiles(
+            (dir, name) -> name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX));
+        if (existing != null) {
+            Arrays.sort(existing);
+            for (File file : existing) {
+                try {
+                    SpoolFile spoolFile = SpoolFile.open(file, sequenceOf(file));
+                    files.addLast(spoolFile);
+                    nextSequence = spoolFile.sequence + 1;
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.warn(e, "Spooled segments file {} is broken, delete it.", file);
+                    if (!file.delete()) {
+                        LOGGER.warn("Fail to delete {}.", file);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Open the spool in the directory, and load the segments spooled by the previous process.
+     *
+     * @return the spool, or null if the directory is used by another process.
+     */
+    static SegmentSpool open(File directory, int fileSize, int maxFiles, long maxAgeMillis) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Fail to create the directory " + directory);
+        }
+        FileChannel lockChannel = new RandomAccessFile(new File(directory, LOCK_FILE), "rw").getChannel();
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // Locked by this process.
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            return null;
+        }
+        return new SegmentSpool(directory, fileSize, maxFiles, maxAgeMillis, lock);
+    }
+
+    /**
+     * Append the encoded segment, the oldest file is dropped if the spool is full.
+     *
+     * @return false if the segment is larger than a file and dropped.
+     */
+    synchronized boolean append(byte[] segment) throws IOException {
+        final int recordSize = RECORD_HEADER_SIZE + segment.length;
+        if (recordSize > fileSize - HEADER_SIZE) {
+            AgentSo11y.measureSegmentSpool("dropped", 1);
+            return false;
+        }
+        SpoolFile writing = files.peekLast();
+        if (writing == null || writing.sealed || writing.limit + recordSize > fileSize) {
+            if (writing != null) {
+                writing.seal();
+            }
+            writing = createFile();
+        }
+
+        final MappedByteBuffer buffer = writing.buffer;
+        final int position = writing.limit;
+        crc32.reset();
+        crc32.update(segment, 0, segment.length);
+        buffer.putInt(position + 4, (int) crc32.getValue());
+        buffer.putLong(position + 8, System.currentTimeMillis());
+        buffer.position(position + RECORD_HEADER_SIZE);
+        buffer.put(segment);
+        // The length commits the record.
+        buffer.putInt(position, segment.length);
+        writing.limit = position + recordSize;
+        AgentSo11y.measureSegmentSpool("spooled", 1);
+        return true;
+    }
+
+    /**
+     * Read the oldest segments not replayed yet, without moving the read position. The expired ones are dropped.
+     *
+     * @param max the max number of the segments
+     * @return the segments of the oldest file, empty if nothing is spooled.
+     */
+    synchronized List<byte[]> peek(int max) {
+        final List<byte[]> segments = new ArrayList<>();
+        SpoolFile oldest = files.peekFirst();
+        while (oldest != null && oldest.readPosition >= oldest.limit && oldest.sealed) {
+            removeOldest();
+            oldest = files.peekFirst();
+        }
+        if (oldest == null) {
+            peekedPosition = -1;
+            return segments;
+        }
+
+        final long expiredTime = System.currentTimeMillis() - maxAgeMillis;
+        final MappedByteBuffer buffer = oldest.buffer;
+        int position = oldest.readPosition;
+        int expired = 0;
+        while (segments.size() < max && position < oldest.limit) {
+            final int length = buffer.getInt(position);
+            if (buffer.getLong(position + 8) >= expiredTime) {
+                byte[] segment = new byte[length];
+                buffer.position(position + RECORD_HEADER_SIZE);
+                buffer.get(segment);
+                segments.add(segment);
+            } else {
+                expired++;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+        if (expired > 0) {
+            AgentSo11y.measureSegmentSpool("dropped", expired);
+        }
+        peekedPosition = position;
+        if (segments.isEmpty() && position > oldest.readPosition) {
+            // All of them are expired, move on.
+            commit();
+            return peek(max);
+        }
+        return segments;
+    }
+
+    /**
+     * Move the read position after the segments returned by the last {@link #peek(int)}, as they are replayed.
+     */
+    synchronized void commit() {
+        final SpoolFile oldest = files.peekFirst();
+        if (oldest == null || peekedPosition < 0) {
+            return;
+        }
+        oldest.setReadPosition(peekedPosition);
+        peekedPosition = -1;
+        if (oldest.readPosition >= oldest.limit && oldest.sealed) {
+            removeOldest();
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        for (SpoolFile file : files) {
+            if (file.readPosition < file.limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized int fileCount() {
+        return files.size();
+    }
+
+    synchronized void close() {
+        for (SpoolFile file : files) {
+            file.buffer.force();
+            file.close();
+        }
+        files.clear();
+        try {
+            lock.release();
+            lock.channel().close();
+        } catch (IOException e) {
+            LOGGER.warn(e, "Fail to release the lock of {}.", directory);
+        }
+    }
+
+    private SpoolFile createFile() throws IOException {
+        while (files.size() >= maxFiles) {
+            final SpoolFile oldest = files.peekFirst();
+            final int dropped = oldest.countRecords(oldest.readPosition);
+            if (dropped > 0) {
+                AgentSo11y.measureSegmentSpool("dropped", dropped);
+            }
+            removeOldest();
+        }
+        final File file = new File(directory, String.format("%s%020d%s", FILE_PREFIX, nextSequence, FILE_SUFFIX));
+        final SpoolFile spoolFile = SpoolFile.create(file, nextSequence++, fileSize);
+        files.addLast(spoolFile);
+        return spoolFile;
+    }
+
+    private void removeOldest() {
+        final SpoolFile oldest = files.pollFirst();
+        peekedPosition = -1;
+        oldest.close();
+        if (!oldest.file.delete()) {
+            LOGGER.warn("Fail to delete the spooled segments file {}.", oldest.file);
+        }
+    }
+
+    private static long sequenceOf(File file) {
+        final String name = file.getName();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()));
+    }
+
+    private static final class SpoolFile {
+        private final File file;
+        private final long sequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int readPosition;
+        /**
+         * The end of the valid records.
+         */
+        private int limit;
+        /**
+         * No more record is appended to the sealed file, the files of the previous process are always sealed.
+         */
+        private boolean sealed;
+
+        private SpoolFile(File file, long sequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.sequence = sequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static SpoolFile create(File file, long sequence, int fileSize) throws IOException {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                randomAccessFile.setLength(fileSize);
+            }
+            final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            final SpoolFile spoolFile = new SpoolFile(
+                file, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize));
+            spoolFile.buffer.putInt(0, MAGIC);
+            spoolFile.setReadPosition(HEADER_SIZE);
+            spoolFile.limit = HEADER_SIZE;
+            return spoolFile;
+        }
+
+        private static SpoolFile open(File file, long sequence) throws IOException {
+            final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            final SpoolFile spoolFile;
+            try {
+                spoolFile = new SpoolFile(
+                    file, sequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            final MappedByteBuffer buffer = spoolFile.buffer;
+            final int readPosition = buffer.capacity() >= HEADER_SIZE ? buffer.getInt(4) : -1;
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+                || readPosition < HEADER_SIZE || readPosition > buffer.capacity()) {
+                spoolFile.close();
+                throw new IllegalArgumentException("Not a spooled segments file.");
+            }
+            spoolFile.readPosition = readPosition;
+            spoolFile.limit = spoolFile.scanLimit();
+            spoolFile.sealed = true;
+            return spoolFile;
+        }
+
+        /**
+         * @return the end of the intact records, the torn record of a crashed process is the end.
+         */
+        private int scanLimit() {
+            final CRC32 crc32 = new CRC32();
+            int position = HEADER_SIZE;
+            while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+                final int length = buffer.getInt(position);
+                if (length <= 0 || length > buffer.capacity() - position - RECORD_HEADER_SIZE) {
+                    break;
+                }
+                final byte[] segment = new byte[length];
+                buffer.position(position + RECORD_HEADER_SIZE);
+                buffer.get(segment);
+                crc32.reset();
+                crc32.update(segment, 0, length);
+                if ((int) crc32.getValue() != buffer.getInt(position + 4)) {
+                    break;
+                }
+                position += RECORD_HEADER_SIZE + length;
+            }
+            return position;
+        }
+
+        private int countRecords(int from) {
+            int count = 0;
+            for (int position = from; position < limit; position += RECORD_HEADER_SIZE + buffer.getInt(position)) {
+                count++;
+            }
+            return count;
+        }
+
+        private void setReadPosition(int readPosition) {
+            this.readPosition = readPosition;
+            buffer.putInt(4, readPosition);
+        }
+
+        private void seal() {
+            sealed = true;
+            buffer.force();
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.warn(e, "Fail to close the spooled segments file {}.", file);
+            }
+        }
+    }
+}
@@ -20,9 +20,13 @@ package org.apache.skywalking.apm.agent.core.remote;
 
 import io.grpc.Channel;
 import io.grpc.stub.StreamObserver;
+import java.io.File;
+import java.io.IOException;
 import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
@@ -33,12 +37,14 @@ import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.sampling.TailSamplingService;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
 import org.apache.skywalking.apm.network.common.v3.Commands;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
+import org.apache.skywalking.apm.util.StringUtil;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -51,9 +57,32 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     private long lastLogTime;
     private long segmentUplinkedCounter;
     private long segmentAbandonedCounter;
+    private long segmentSpooledCounter;
     private volatile DataCarrier<TraceSegment> carrier;
     private volatile TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub serviceStub;
     private volatile GRPCChannelStatus status = GRPCChannelStatus.DISCONNECT;
+    private TailSamplingService tailSamplingService;
+    /**
+     * The stream kept across batches, only accessed by the consumer thread.
+     */
+    private LongLivedSegmentStream longLivedStream;
+    /**
+     * The spool of the segments while the collector is not connected, or null if it is disabled. Only accessed by
+     * the consumer thread, besides the commit of the replayed segments.
+     */
+    private SegmentSpool spool;
+    private long lastReplayTime;
+    /**
+     * True while the replayed segments are not completed by the collector, the next replay waits for that.
+     */
+    private final AtomicBoolean replaying = new AtomicBoolean();
+    /**
+     * The worker threads are created on the first batch, nothing is started if this service is overridden.
+     */
+    private final SegmentSerializeStage<byte[]> serializeStage = new SegmentSerializeStage<>(
+        "TraceSegmentSerializer", Config.Collector.SEGMENT_SERIALIZE_THREADS,
+        Config.Collector.SEGMENT_SERIALIZE_ORDERED, TraceSegment::encode
+    );
 
     @Override
     public void prepare() {
@@ -65,8 +94,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         lastLogTime = System.currentTimeMillis();
         segmentUplinkedCounter = 0;
         segmentAbandonedCounter = 0;
+        segmentSpooledCounter = 0;
+        spool = openSpool();
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
+        tailSamplingService = ServiceManager.INSTANCE.findService(TailSamplingService.class);
     }
 
     @Override
@@ -78,6 +110,30 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
     public void shutdown() {
         TracingContext.ListenerManager.remove(this);
         carrier.shutdownConsumers();
+        serializeStage.shutdown();
+    }
+
+    private static SegmentSpool openSpool() {
+        if (StringUtil.isEmpty(Config.Collector.SEGMENT_SPOOL_PATH)) {
+            return null;
+        }
+        try {
+            File directory = new File(Config.Collector.SEGMENT_SPOOL_PATH);
+            if (!directory.isAbsolute()) {
+                directory = new File(AgentPackagePath.getPath(), Config.Collector.SEGMENT_SPOOL_PATH);
+            }
+            SegmentSpool spool = SegmentSpool.open(
+                directory, Config.Collector.SEGMENT_SPOOL_FILE_SIZE, Config.Collector.SEGMENT_SPOOL_MAX_FILES,
+                TimeUnit.SECONDS.toMillis(Config.Collector.SEGMENT_SPOOL_MAX_AGE)
+            );
+            if (spool == null) {
+                LOGGER.warn("Segment spool {} is used by another process, it is disabled.", directory);
+            }
+            return spool;
+        } catch (Throwable t) {
+            LOGGER.error(t, "Fail to open the segment spool, it is disabled.");
+            return null;
+        }
     }
 
     @Override
@@ -87,11 +143,53 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void consume(List<TraceSegment> data) {
-        if (CONNECTED.equals(status)) {
+        if (CONNECTED.equals(status) && Config.Collector.SEGMENT_STREAM_LONG_LIVED) {
+            sendThroughLongLivedStream(data);
+        } else if (CONNECTED.equals(status)) {
             final GRPCStreamServiceStatus status = new GRPCStreamServiceStatus(false);
-            StreamObserver<SegmentObject> upstreamSegmentStreamObserver = serviceStub.withDeadlineAfter(
-                Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS
-            ).collect(new StreamObserver<Commands>() {
+            StreamObserver<byte[]> upstreamSegmentStreamObserver = openStream(new AtomicBoolean(), status::finished);
+
+            try {
+                serializeStage.process(data, upstreamSegmentStreamObserver::onNext);
+            } catch (Throwable t) {
+                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+            }
+
+            upstreamSegmentStreamObserver.onCompleted();
+
+            status.wait4Finish();
+            segmentUplinkedCounter += data.size();
+        } else if (spool != null) {
+            final int[] spooled = new int[] {0};
+            try {
+                serializeStage.process(data, upstreamSegment -> {
+                    if (spool(upstreamSegment)) {
+                        spooled[0]++;
+                    }
+                });
+            } catch (Throwable t) {
+                LOGGER.error(t, "Transform and spool UpstreamSegment fail.");
+            }
+            segmentSpooledCounter += spooled[0];
+            segmentAbandonedCounter += data.size() - spooled[0];
+        } else {
+            segmentAbandonedCounter += data.size();
+        }
+
+        replaySpool();
+        printUplinkStatus();
+    }
+
+    /**
+     * Open a stream, which is completed by the collector after all segments are sent.
+     *
+     * @param failed   set to true if the stream fails
+     * @param finished called by the gRPC thread once the stream is completed or failed
+     */
+    private StreamObserver<byte[]> openStream(final AtomicBoolean failed, final Runnable finished) {
+        return EncodedSegmentCollector.collect(
+            serviceStub.withDeadlineAfter(Config.Collector.GRPC_UPSTREAM_TIMEOUT, TimeUnit.SECONDS),
+            new StreamObserver<Commands>() {
                 @Override
                 public void onNext(Commands commands) {
                     ServiceManager.INSTANCE.findService(CommandService.class)
@@ -101,7 +199,8 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 @Override
                 public void onError(
                     Throwable throwable) {
-                    status.finished();
+                    failed.set(true);
+                    finished.run();
                     if (LOGGER.isErrorEnable()) {
                         LOGGER.error(
                             throwable,
@@ -115,28 +214,145 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
                 @Override
                 public void onCompleted() {
-                    status.finished();
+                    finished.run();
                 }
             });
+    }
 
-            try {
-                for (TraceSegment segment : data) {
-                    SegmentObject upstreamSegment = segment.transform();
-                    upstreamSegmentStreamObserver.onNext(upstreamSegment);
-                }
-            } catch (Throwable t) {
-                LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
-            }
+    /**
+     * @return true if the segment is spooled.
+     */
+    private boolean spool(byte[] upstreamSegment) {
+        try {
+            return spool.append(upstreamSegment);
+        } catch (IOException e) {
+            LOGGER.error(e, "Spool UpstreamSegment fail.");
+            return false;
+        }
+    }
+
+    /**
+     * Replay the spooled segments through a new stream once connected, no more than {@link
+     * Config.Collector#SEGMENT_SPOOL_REPLAY_RATE} per second. They stay in the spool until the collector completes
+     * the stream, the consumer thread doesn't wait for that.
+     */
+    private void replaySpool() {
+        if (spool == null || replaying.get() || !CONNECTED.equals(status) || spool.isEmpty()) {
+            return;
+        }
+        final long currentTimeMillis = System.currentTimeMillis();
+        final int permits = (int) Math.min(
+            Config.Collector.SEGMENT_SPOOL_REPLAY_RATE,
+            (currentTimeMillis - lastReplayTime) * Config.Collector.SEGMENT_SPOOL_REPLAY_RATE / 1000
+        );
+        if (permits < 1) {
+            return;
+        }
+        lastReplayTime = currentTimeMillis;
 
+        try {
+            final List<byte[]> segments = spool.peek(permits);
+            if (segments.isEmpty()) {
+                return;
+            }
+            final SegmentSpool replayedSpool = spool;
+            final AtomicBoolean failed = new AtomicBoolean();
+            replaying.set(true);
+            final StreamObserver<byte[]> upstreamSegmentStreamObserver = openStream(
+                failed, () -> finishReplay(replayedSpool, segments.size(), failed.get()));
+            for (byte[] upstreamSegment : segments) {
+                upstreamSegmentStreamObserver.onNext(upstreamSegment);
+            }
             upstreamSegmentStreamObserver.onCompleted();
+        } catch (Throwable t) {
+            replaying.set(false);
+            LOGGER.error(t, "Replay the spooled UpstreamSegment fail.");
+        }
+    }
 
-            status.wait4Finish();
-            segmentUplinkedCounter += data.size();
-        } else {
-            segmentAbandonedCounter += data.size();
+    /**
+     * Move the read position of the spool once the collector completes the replayed segments, the failed ones are
+     * replayed again.
+     */
+    private void finishReplay(SegmentSpool replayedSpool, int replayed, boolean failed) {
+        try {
+            if (!failed) {
+                replayedSpool.commit();
+                AgentSo11y.measureSegmentSpool("replayed", replayed);
+            }
+        } finally {
+            replaying.set(false);
         }
+    }
 
-        printUplinkStatus();
+    private void sendThroughLongLivedStream(List<TraceSegment> data) {
+        final long readyTimeoutMillis = TimeUnit.SECONDS.toMillis(Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+        final int[] sent = new int[] {0};
+        final int[] spooled = new int[] {0};
+        final boolean[] failed = new boolean[] {false};
+        try {
+            serializeStage.process(data, upstreamSegment -> {
+                if (failed[0]) {
+                    if (spool != null && spool(upstreamSegment)) {
+                        spooled[0]++;
+                    }
+                    return;
+                }
+                LongLivedSegmentStream stream = currentStream();
+                try {
+                    if (stream.send(upstreamSegment, readyTimeoutMillis)) {
+                        sent[0]++;
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (!stream.isBroken()) {
+                    LOGGER.warn("Collector traceSegment service is not ready in {} seconds.",
+                                Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+                    stream.complete();
+                }
+                failed[0] = true;
+                if (spool != null && spool(upstreamSegment)) {
+                    spooled[0]++;
+                }
+            });
+        } catch (Throwable t) {
+            LOGGER.error(t, "Transform and send UpstreamSegment to collector fail.");
+        }
+        segmentUplinkedCounter += sent[0];
+        segmentSpooledCounter += spooled[0];
+        segmentAbandonedCounter += data.size() - sent[0] - spooled[0];
+    }
+
+    /**
+     * @return the stream to send segments, a new one replaces the current one when it is broken, expired or opened
+     * on a previous channel.
+     */
+    private LongLivedSegmentStream currentStream() {
+        final TraceSegmentReportServiceGrpc.TraceSegmentReportServiceStub stub = serviceStub;
+        if (longLivedStream == null || !longLivedStream.isUsable(stub)) {
+            completeLongLivedStream();
+            longLivedStream = LongLivedSegmentStream.open(
+                stub, Config.Collector.SEGMENT_STREAM_MAX_AGE, Config.Collector.GRPC_UPSTREAM_TIMEOUT);
+        }
+        return longLivedStream;
+    }
+
+    private void completeLongLivedStream() {
+        if (longLivedStream != null) {
+            longLivedStream.complete();
+            longLivedStream = null;
+        }
+    }
+
+    @Override
+    public void nothingToConsume() {
+        // Rotate an idle stream before the deadline, rather than waiting for the next batch.
+        if (longLivedStream != null && !longLivedStream.isUsable(serviceStub)) {
+            completeLongLivedStream();
+        }
+        replaySpool();
     }
 
     private void printUplinkStatus() {
@@ -147,6 +363,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
                 LOGGER.debug("{} trace segments have been sent to collector.", segmentUplinkedCounter);
                 segmentUplinkedCounter = 0;
             }
+            if (segmentSpooledCounter > 0) {
+                LOGGER.debug(
+                    "{} trace segments have been spooled, cause by no available channel.", segmentSpooledCounter);
+                segmentSpooledCounter = 0;
+            }
             if (segmentAbandonedCounter > 0) {
                 LOGGER.debug(
                     "{} trace segments have been abandoned, cause by no available channel.", segmentAbandonedCounter);
@@ -162,7 +383,11 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
 
     @Override
     public void onExit() {
-
+        completeLongLivedStream();
+        if (spool != null) {
+            spool.close();
+            spool = null;
+        }
     }
 
     @Override
@@ -170,6 +395,10 @@ public class TraceSegmentServiceClient implements BootService, IConsumer<TraceSe
         if (traceSegment.isIgnore()) {
             return;
         }
+        tailSamplingService.afterFinished(traceSegment, this::produce);
+    }
+
+    private void produce(TraceSegment traceSegment) {
         if (!carrier.produce(traceSegment)) {
             if (LOGGER.isDebugEnable()) {
                 LOGGER.debug("One trace segment has been abandoned, cause by buffer is full.");
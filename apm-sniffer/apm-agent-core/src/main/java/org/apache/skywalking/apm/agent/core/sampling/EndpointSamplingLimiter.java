@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Split the sampling limit of a window among the endpoints, the operation names of the first spans. Every endpoint has
+ * a token bucket refilled with the same share at the beginning of a window. The share is the max-min fair share of the
+ * requests in the last window, so the endpoints asking for less than the share keep all they asked for, and the
+ * endpoints asking for more are lowered to the share. When the requests of the last window fit in the limit, the share
+ * is the whole limit.
+ * <p>
+ * The buckets are looked up without a lock. The recency of a bucket is counted in windows by {@link #reset(int)}, and
+ * once a new endpoint makes the buckets exceed the max endpoints, the least recently used quarter is evicted, so the
+ * sampling path only pays for the eviction when it inserts.
+ */
+class EndpointSamplingLimiter {
+    private final int maxEndpoints;
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private volatile int share;
+
+    EndpointSamplingLimiter(int maxEndpoints, int limit) {
+        this.maxEndpoints = Math.max(1, maxEndpoints);
+        this.share = limit;
+    }
+
+    /**
+     * @return true if the endpoint has tokens left in the current window, and the sampled count is increased.
+     */
+    boolean trySampling(String endpoint, StripedSamplingCounter counter, int limit) {
+        final Bucket bucket = bucketOf(endpoint == null ? "" : endpoint);
+        bucket.requests.increment();
+        if (!bucket.tryAcquire()) {
+            return false;
+        }
+        if (counter.tryIncrement(limit)) {
+            return true;
+        }
+        bucket.tokens.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Calculate the share from the requests of the last window, and refill all buckets with it.
+     */
+    void reset(int limit) {
+        final List<Long> demands = new ArrayList<>();
+        for (Bucket bucket : buckets.values()) {
+            long requests = bucket.requests.sumThenReset();
+            if (requests > 0) {
+                demands.add(requests);
+                bucket.idleWindows = 0;
+            } else {
+                bucket.idleWindows++;
+            }
+        }
+        final int newShare = fairShare(demands, limit);
+        share = newShare;
+        for (Bucket bucket : buckets.values()) {
+            bucket.tokens.set(newShare);
+        }
+    }
+
+    int getShare() {
+        return share;
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    boolean contains(String endpoint) {
+        return buckets.containsKey(endpoint);
+    }
+
+    /**
+     * Max-min fairness, fill the demands from the smallest one, every demand takes no more than an equal split of the
+     * left limit.
+     */
+    static int fairShare(List<Long> demands, int limit) {
+        final long[] sorted = new long[demands.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = demands.get(i);
+        }
+        Arrays.sort(sorted);
+        long left = limit;
+        for (int i = 0; i < sorted.length; i++) {
+            long equalSplit = left / (sorted.length - i);
+            if (sorted[i] > equalSplit) {
+                return (int) Math.max(1, equalSplit);
+            }
+            left -= sorted[i];
+        }
+        return limit;
+    }
+
+    private Bucket bucketOf(String endpoint) {
+        Bucket bucket = buckets.get(endpoint);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(endpoint, key -> new Bucket(share));
+            if (buckets.size() > maxEndpoints) {
+                evict(bucket);
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Evict down to three quarters of the max endpoints, so the eviction is amortized over the following inserts. The
+     * inserting threads don't wait for each other, a few more endpoints may be kept when they come concurrently.
+     */
+    private void evict(Bucket inserted) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // The requests keep changing, sort a snapshot of them.
+            final List<Candidate> candidates = new ArrayList<>(buckets.size());
+            for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                if (entry.getValue() != inserted) {
+                    candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+                }
+            }
+            candidates.sort(Candidate.EVICTION_ORDER);
+            int toEvict = buckets.size() - maxEndpoints * 3 / 4;
+            for (Candidate candidate : candidates) {
+                if (toEvict <= 0) {
+                    break;
+                }
+                if (buckets.remove(candidate.endpoint, candidate.bucket)) {
+                    toEvict--;
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static class Candidate {
+        /**
+         * The least recently used first, then the least requested in the current window.
+         */
+        private static final Comparator<Candidate> EVICTION_ORDER = Comparator
+            .comparingInt((Candidate candidate) -> -candidate.idleWindows)
+            .thenComparingLong(candidate -> candidate.requests);
+
+        private final String endpoint;
+        private final Bucket bucket;
+        private final int idleWindows;
+        private final long requests;
+
+        private Candidate(String endpoint, Bucket bucket) {
+            this.endpoint = endpoint;
+            this.bucket = bucket;
+            this.idleWindows = bucket.idleWindows;
+            this.requests = bucket.requests.sum();
+        }
+    }
+
+    private static class Bucket {
+        private final AtomicInteger tokens;
+        private final LongAdder requests = new LongAdder();
+        /**
+         * The windows passed since the last request, only updated by {@link #reset(int)}.
+         */
+        private volatile int idleWindows;
+
+        private Bucket(int tokens) {
+            this.tokens = new AtomicInteger(tokens);
+        }
+
+        private boolean tryAcquire() {
+            while (true) {
+                int left = tokens.get();
+                if (left <= 0) {
+                    return false;
+                }
+                if (tokens.compareAndSet(left, left - 1)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
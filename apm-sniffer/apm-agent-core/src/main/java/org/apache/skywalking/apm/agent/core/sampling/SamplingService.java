@@ -18,14 +18,9 @@
 
 package org.apache.skywalking.apm.agent.core.sampling;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
@@ -33,6 +28,8 @@ import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SamplingRateWat
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
 
 /**
@@ -41,17 +38,21 @@ import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
  * send all of them to collector, if SAMPLING is on.
  * <p>
  * By default, SAMPLING is on, and  {@link Config.Agent#SAMPLE_N_PER_3_SECS }
+ * <p>
+ * If {@link Config.Agent#SAMPLE_ENDPOINT_FAIRNESS} is true, the limit is also shared among the endpoints, see {@link
+ * EndpointSamplingLimiter}.
  */
 @DefaultImplementor
 public class SamplingService implements BootService {
     private static final ILog LOGGER = LogManager.getLogger(SamplingService.class);
 
     private volatile boolean on = false;
-    private volatile AtomicInteger samplingFactorHolder;
-    private volatile ScheduledFuture<?> scheduledFuture;
+    private final StripedSamplingCounter samplingCounter = new StripedSamplingCounter();
+    private volatile EndpointSamplingLimiter endpointLimiter;
+    private volatile ScheduledTask scheduledTask;
 
     private SamplingRateWatcher samplingRateWatcher;
-    private ScheduledExecutorService service;
+    private SchedulerService scheduler;
 
     @Override
     public void prepare() {
@@ -59,8 +60,7 @@ public class SamplingService implements BootService {
 
     @Override
     public void boot() {
-        service = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("SamplingService"));
+        scheduler = ServiceManager.INSTANCE.findService(SchedulerService.class);
         samplingRateWatcher = new SamplingRateWatcher("agent.sample_n_per_3_secs", this);
         ServiceManager.INSTANCE.findService(ConfigurationDiscoveryService.class)
                                .registerAgentConfigChangeWatcher(samplingRateWatcher);
@@ -75,8 +75,8 @@ public class SamplingService implements BootService {
 
     @Override
     public void shutdown() {
-        if (scheduledFuture != null) {
-            scheduledFuture.cancel(true);
+        if (scheduledTask != null) {
+            scheduledTask.cancel();
         }
     }
 
@@ -89,28 +89,43 @@ public class SamplingService implements BootService {
      */
     public boolean trySampling(String operationName) {
         if (on) {
-            int factor = samplingFactorHolder.get();
-            if (factor < samplingRateWatcher.getSamplingRate()) {
-                return samplingFactorHolder.compareAndSet(factor, factor + 1);
-            } else {
-                return false;
+            final int samplingRate = samplingRateWatcher.getSamplingRate();
+            final EndpointSamplingLimiter limiter = endpointLimiter;
+            if (limiter != null) {
+                return limiter.trySampling(operationName, samplingCounter, samplingRate);
             }
+            return samplingCounter.tryIncrement(samplingRate);
         }
         return true;
     }
 
+    /**
+     * The ignored operations are neither traced nor measured, such as the health checks, while the operations not
+     * sampled by {@link #trySampling(String)} are still measured by the RED metrics.
+     *
+     * @param operationName The first operation name of the new tracing context.
+     * @return true if the trace of this operation should be ignored.
+     */
+    public boolean isIgnored(String operationName) {
+        return false;
+    }
+
     /**
      * Increase the sampling factor by force, to avoid sampling too many traces. If many distributed traces require
      * sampled, the trace beginning at local, has less chance to be sampled.
      */
     public void forceSampled() {
         if (on) {
-            samplingFactorHolder.incrementAndGet();
+            samplingCounter.increment();
         }
     }
 
     private void resetSamplingFactor() {
-        samplingFactorHolder = new AtomicInteger(0);
+        final EndpointSamplingLimiter limiter = endpointLimiter;
+        if (limiter != null) {
+            limiter.reset(samplingRateWatcher.getSamplingRate());
+        }
+        samplingCounter.reset();
     }
 
     /**
@@ -119,10 +134,15 @@ public class SamplingService implements BootService {
     public void handleSamplingRateChanged() {
         if (samplingRateWatcher.getSamplingRate() > 0) {
             if (!on) {
+                if (Config.Agent.SAMPLE_ENDPOINT_FAIRNESS) {
+                    endpointLimiter = new EndpointSamplingLimiter(
+                        Config.Agent.SAMPLE_MAX_ENDPOINTS, samplingRateWatcher.getSamplingRate());
+                }
                 on = true;
                 this.resetSamplingFactor();
-                scheduledFuture = service.scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                    this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
+                scheduledTask = scheduler.scheduleInTimerAtFixedRate(
+                    "SamplingService", new RunnableWithExceptionProtection(
+                        this::resetSamplingFactor, t -> LOGGER.error("unexpected exception.", t)), 0, 3, TimeUnit.SECONDS);
                 LOGGER.debug(
                     "Agent sampling mechanism started. Sample {} traces in 3 seconds.",
                     samplingRateWatcher.getSamplingRate()
@@ -130,10 +150,11 @@ public class SamplingService implements BootService {
             }
         } else {
             if (on) {
-                if (scheduledFuture != null) {
-                    scheduledFuture.cancel(true);
+                if (scheduledTask != null) {
+                    scheduledTask.cancel();
                 }
                 on = false;
+                endpointLimiter = null;
             }
         }
     }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * The sampled count in the current window, split into stripes to avoid all the threads racing on one counter. Every
+ * stripe owns a part of the limit, a thread takes from its own stripe first, and from the others once its stripe runs
+ * out, so the total never exceeds the limit.
+ */
+class StripedSamplingCounter {
+    /**
+     * The stripes are 64 bytes apart, to keep them in different cache lines.
+     */
+    private static final int PADDING = 16;
+    private static final int MAX_STRIPES = 16;
+
+    private final int stripes;
+    private final int mask;
+    private final AtomicIntegerArray counts;
+
+    StripedSamplingCounter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    StripedSamplingCounter(int expectedConcurrency) {
+        this.stripes = Integer.highestOneBit(Math.max(1, Math.min(expectedConcurrency, MAX_STRIPES)));
+        this.mask = stripes - 1;
+        this.counts = new AtomicIntegerArray(stripes * PADDING);
+    }
+
+    /**
+     * @return true if the sampled count is below the limit, and it has been increased.
+     */
+    boolean tryIncrement(int limit) {
+        final int start = probe();
+        final int quota = limit / stripes;
+        final int remainder = limit % stripes;
+        for (int i = 0; i < stripes; i++) {
+            final int stripe = (start + i) & mask;
+            final int stripeLimit = stripe < remainder ? quota + 1 : quota;
+            final int index = stripe * PADDING;
+            while (true) {
+                int count = counts.get(index);
+                if (count >= stripeLimit) {
+                    break;
+                }
+                if (counts.compareAndSet(index, count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Increase the sampled count by force, the limit is ignored.
+     */
+    void increment() {
+        counts.incrementAndGet((probe() & mask) * PADDING);
+    }
+
+    int sum() {
+        int sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += counts.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    void reset() {
+        for (int i = 0; i < stripes; i++) {
+            counts.set(i * PADDING, 0);
+        }
+    }
+
+    private static int probe() {
+        long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32);
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.ConfigurationDiscoveryService;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.TailSamplingPolicyWatcher;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractTracingSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
+import org.apache.skywalking.apm.util.StringUtil;
+
+/**
+ * The <code>TailSamplingService</code> holds the finished {@link TraceSegment}s of one trace in memory, and decides
+ * whether to report them once the trace is quiet, see {@link Config.TailSampling#DECISION_WAIT}. The traces with error
+ * or slow spans are always kept, the others are kept up to {@link Config.TailSampling#SAMPLE_N_PER_3_SECS}.
+ * <p>
+ * The decision only covers the segments finished in this agent, the segments of the same trace in other services are
+ * decided by their own agents.
+ */
+@DefaultImplementor
+public class TailSamplingService implements BootService {
+    private static final ILog LOGGER = LogManager.getLogger(TailSamplingService.class);
+
+    static final String DECISION_ERROR = "error";
+    static final String DECISION_SLOW = "slow";
+    static final String DECISION_SAMPLED = "sampled";
+    static final String DECISION_DROPPED = "dropped";
+
+    private static final long CHECK_INTERVAL_MILLIS = 100;
+    private static final int MAX_WAIT_FACTOR = 10;
+
+    private final Map<String, TraceWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedSpans = new AtomicInteger(0);
+    private final AtomicInteger sampledTraces = new AtomicInteger(0);
+
+    private volatile boolean active = false;
+    private volatile Policy policy = new Policy(
+        Config.TailSampling.LATENCY_THRESHOLD, Collections.emptyMap(), Config.TailSampling.SAMPLE_N_PER_3_SECS);
+
+    private TailSamplingPolicyWatcher latencyThresholdWatcher;
+    private TailSamplingPolicyWatcher endpointLatencyThresholdsWatcher;
+    private TailSamplingPolicyWatcher sampleRateWatcher;
+    private ScheduledTask resetTask;
+    private ScheduledTask checkTask;
+
+    @Override
+    public void prepare() {
+    }
+
+    @Override
+    public void boot() {
+        if (!Config.TailSampling.ACTIVE) {
+            return;
+        }
+        latencyThresholdWatcher = new TailSamplingPolicyWatcher(
+            "tail_sampling.latency_threshold", String.valueOf(Config.TailSampling.LATENCY_THRESHOLD), this);
+        endpointLatencyThresholdsWatcher = new TailSamplingPolicyWatcher(
+            "tail_sampling.endpoint_latency_thresholds", Config.TailSampling.ENDPOINT_LATENCY_THRESHOLDS, this);
+        sampleRateWatcher = new TailSamplingPolicyWatcher(
+            "tail_sampling.sample_n_per_3_secs", String.valueOf(Config.TailSampling.SAMPLE_N_PER_3_SECS), this);
+        ConfigurationDiscoveryService configurationDiscoveryService = ServiceManager.INSTANCE.findService(
+            ConfigurationDiscoveryService.class);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(latencyThresholdWatcher);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(endpointLatencyThresholdsWatcher);
+        configurationDiscoveryService.registerAgentConfigChangeWatcher(sampleRateWatcher);
+        handlePolicyChanged();
+
+        SchedulerService scheduler = ServiceManager.INSTANCE.findService(SchedulerService.class);
+        // Both tasks only touch the memory, they run in the timer thread.
+        resetTask = scheduler.scheduleInTimerAtFixedRate(
+            "TailSamplingService-reset", new RunnableWithExceptionProtection(
+                () -> sampledTraces.set(0), t -> LOGGER.error("unexpected exception.", t)), 3, 3, TimeUnit.SECONDS);
+        checkTask = scheduler.scheduleInTimerWithFixedDelay(
+            "TailSamplingService-check", new RunnableWithExceptionProtection(
+                () -> decideQuietTraces(System.currentTimeMillis()), t -> LOGGER.error("unexpected exception.", t)),
+            CHECK_INTERVAL_MILLIS, CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS
+        );
+        active = true;
+    }
+
+    @Override
+    public void onComplete() {
+        if (active) {
+            MeterFactory.gauge("tail_sampling_buffered_spans", () -> (double) bufferedSpans.get()).build();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (resetTask != null) {
+            resetTask.cancel();
+            checkTask.cancel();
+        }
+        active = false;
+        for (String traceId : new ArrayList<>(windows.keySet())) {
+            TraceWindow window = windows.remove(traceId);
+            if (window != null) {
+                decide(window);
+            }
+        }
+    }
+
+    /**
+     * Booted after and shut down before the reporters of the default priority, so the segments held at the shutdown are
+     * still handed to the running reporters.
+     */
+    @Override
+    public int priority() {
+        return 1;
+    }
+
+    /**
+     * Hold the finished segment until its trace is decided, then hand it to the reporter if the trace is kept. The
+     * segment is handed to the reporter immediately when the tail sampling is not active.
+     *
+     * @param segment  the finished segment
+     * @param reporter the reporter of the segment, which may be called in the tail sampling thread
+     */
+    public void afterFinished(TraceSegment segment, Consumer<TraceSegment> reporter) {
+        if (!active) {
+            reporter.accept(segment);
+            return;
+        }
+        final String traceId = segment.getRelatedGlobalTrace().getId();
+        final int spans = segment.getSpans().size();
+        final boolean error = hasError(segment);
+        final boolean slow = isSlow(segment, policy);
+        final long now = System.currentTimeMillis();
+
+        if (bufferedSpans.addAndGet(spans) > Config.TailSampling.MAX_BUFFERED_SPANS) {
+            bufferedSpans.addAndGet(-spans);
+            TraceWindow window = windows.remove(traceId);
+            if (window == null || !window.add(segment, reporter, 0, error, slow, now)) {
+                window = new TraceWindow(now);
+                window.add(segment, reporter, 0, error, slow, now);
+            }
+            AgentSo11y.measureTailSamplingEviction();
+            decide(window);
+            return;
+        }
+        while (true) {
+            TraceWindow window = windows.computeIfAbsent(traceId, key -> new TraceWindow(now));
+            if (window.add(segment, reporter, spans, error, slow, now)) {
+                return;
+            }
+            // The window has been decided by another thread, start a new one for the late segment.
+            windows.remove(traceId, window);
+        }
+    }
+
+    /**
+     * Decide the traces without new finished segments in {@link Config.TailSampling#DECISION_WAIT}, or held longer
+     * than {@link #MAX_WAIT_FACTOR} times of it.
+     */
+    void decideQuietTraces(long now) {
+        final long wait = Config.TailSampling.DECISION_WAIT;
+        Iterator<Map.Entry<String, TraceWindow>> iterator = windows.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, TraceWindow> entry = iterator.next();
+            TraceWindow window = entry.getValue();
+            if (now - window.lastFinishTime >= wait || now - window.firstFinishTime >= wait * MAX_WAIT_FACTOR) {
+                if (windows.remove(entry.getKey(), window)) {
+                    decide(window);
+                }
+            }
+        }
+    }
+
+    int getBufferedSpans() {
+        return bufferedSpans.get();
+    }
+
+    private void decide(TraceWindow window) {
+        final List<PendingSegment> pendingSegments = window.close();
+        bufferedSpans.addAndGet(-window.spans);
+
+        final String decision;
+        if (window.error) {
+            decision = DECISION_ERROR;
+        } else if (window.slow) {
+            decision = DECISION_SLOW;
+        } else if (trySampling()) {
+            decision = DECISION_SAMPLED;
+        } else {
+            decision = DECISION_DROPPED;
+        }
+        if (!DECISION_DROPPED.equals(decision)) {
+            for (PendingSegment pendingSegment : pendingSegments) {
+                pendingSegment.reporter.accept(pendingSegment.segment);
+            }
+        }
+        AgentSo11y.measureTailSamplingDecision(decision, pendingSegments.size());
+    }
+
+    private boolean trySampling() {
+        final int limit = policy.sampleNPer3Secs;
+        if (limit < 0) {
+            return true;
+        }
+        while (true) {
+            int sampled = sampledTraces.get();
+            if (sampled >= limit) {
+                return false;
+            }
+            if (sampledTraces.compareAndSet(sampled, sampled + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private static boolean hasError(TraceSegment segment) {
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            if (span.isErrorOccurred()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isSlow(TraceSegment segment, Policy policy) {
+        for (AbstractTracingSpan span : segment.getSpans()) {
+            if (span.getSpanId() == 0) {
+                long threshold = policy.endpointLatencyThresholds.getOrDefault(
+                    span.getOperationName(), policy.latencyThreshold);
+                return threshold > 0 && span.getEndTime() - span.getStartTime() >= threshold;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Rebuild the policy from the dynamic settings. The current policy is kept if any setting is illegal.
+     */
+    public void handlePolicyChanged() {
+        try {
+            long latencyThreshold = Long.parseLong(latencyThresholdWatcher.value().trim());
+            int sampleNPer3Secs = Integer.parseInt(sampleRateWatcher.value().trim());
+            Map<String, Long> endpointLatencyThresholds = new HashMap<>();
+            String endpoints = endpointLatencyThresholdsWatcher.value();
+            if (StringUtil.isNotBlank(endpoints)) {
+                for (String item : endpoints.split(",")) {
+                    if (StringUtil.isBlank(item)) {
+                        continue;
+                    }
+                    int split = item.lastIndexOf('=');
+                    if (split <= 0) {
+                        throw new IllegalArgumentException("Illegal endpoint latency threshold: " + item);
+                    }
+                    endpointLatencyThresholds.put(
+                        item.substring(0, split).trim(), Long.parseLong(item.substring(split + 1).trim()));
+                }
+            }
+            policy = new Policy(latencyThreshold, endpointLatencyThresholds, sampleNPer3Secs);
+        } catch (Exception e) {
+            LOGGER.error(e, "Illegal tail sampling setting, keep using the current policy.");
+        }
+    }
+
+    private static class Policy {
+        private final long latencyThreshold;
+        private final Map<String, Long> endpointLatencyThresholds;
+        private final int sampleNPer3Secs;
+
+        private Policy(long latencyThreshold, Map<String, Long> endpointLatencyThresholds, int sampleNPer3Secs) {
+            this.latencyThreshold = latencyThreshold;
+            this.endpointLatencyThresholds = endpointLatencyThresholds;
+            this.sampleNPer3Secs = sampleNPer3Secs;
+        }
+    }
+
+    private static class PendingSegment {
+        private final TraceSegment segment;
+        private final Consumer<TraceSegment> reporter;
+
+        private PendingSegment(TraceSegment segment, Consumer<TraceSegment> reporter) {
+            this.segment = segment;
+            this.reporter = reporter;
+        }
+    }
+
+    /**
+     * The finished segments of one trace waiting for the decision.
+     */
+    private static class TraceWindow {
+        private final List<PendingSegment> segments = new ArrayList<>(2);
+        private final long firstFinishTime;
+        private volatile long lastFinishTime;
+        private int spans;
+        private boolean error;
+        private boolean slow;
+        private boolean closed;
+
+        private TraceWindow(long now) {
+            this.firstFinishTime = now;
+            this.lastFinishTime = now;
+        }
+
+        private synchronized boolean add(TraceSegment segment, Consumer<TraceSegment> reporter, int spans,
+                                         boolean error, boolean slow, long now) {
+            if (closed) {
+                return false;
+            }
+            segments.add(new PendingSegment(segment, reporter));
+            this.spans += spans;
+            this.error |= error;
+            this.slow |= slow;
+            this.lastFinishTime = now;
+            return true;
+        }
+
+        private synchronized List<PendingSegment> close() {
+            closed = true;
+            return segments;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.scheduler;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A task registered in the {@link SchedulerService}. A periodic task runs once at a time, the runs due while the
+ * previous one is still running are skipped.
+ */
+public final class ScheduledTask {
+    private final String name;
+    private final Runnable runnable;
+    /**
+     * The period in nanoseconds, 0 for the one-shot task.
+     */
+    private final long period;
+    private final boolean fixedRate;
+    /**
+     * Run in the timer thread rather than the workers, only for the short in-memory tasks.
+     */
+    private final boolean inTimer;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile boolean cancelled = false;
+    /**
+     * The {@link System#nanoTime()} when the next run is due.
+     */
+    private volatile long deadline;
+    private volatile ScheduledFuture<?> timeout;
+
+    ScheduledTask(String name, Runnable runnable, long period, boolean fixedRate, boolean inTimer) {
+        this.name = name;
+        this.runnable = runnable;
+        this.period = period;
+        this.fixedRate = fixedRate;
+        this.inTimer = inTimer;
+    }
+
+    /**
+     * Stop the next runs of the task, the running one is not interrupted.
+     */
+    public void cancel() {
+        cancelled = true;
+        ScheduledFuture<?> timeout = this.timeout;
+        if (timeout != null) {
+            timeout.cancel(false);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    Runnable getRunnable() {
+        return runnable;
+    }
+
+    long getPeriod() {
+        return period;
+    }
+
+    boolean isFixedRate() {
+        return fixedRate;
+    }
+
+    boolean isInTimer() {
+        return inTimer;
+    }
+
+    AtomicBoolean getRunning() {
+        return running;
+    }
+
+    long getDeadline() {
+        return deadline;
+    }
+
+    void setDeadline(long deadline) {
+        this.deadline = deadline;
+    }
+
+    void setTimeout(ScheduledFuture<?> timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.scheduler;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
+import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.so11y.AgentSo11y;
+
+/**
+ * The shared scheduler of the periodic and delayed tasks of the {@link BootService}s, rather than a scheduled executor
+ * per service. One timer thread sleeps until the next task is due and hands it to the worker threads, which are
+ * limited by {@link Config.Agent#SCHEDULER_WORKER_THREADS} and stopped when idle. The workers run the tasks which may
+ * block, such as the calls to the backend, while the short in-memory tasks run in the timer thread, so they are not
+ * queued behind a slow backend.
+ * <p>
+ * A periodic task never runs concurrently with itself. When it is due again while the previous run is still running
+ * or waiting for a worker, this run is skipped and counted as an overrun. The time between the due time and the
+ * start of every run is measured as the lateness of the task.
+ */
+@DefaultImplementor
+public class SchedulerService implements BootService {
+    private static final ILog LOGGER = LogManager.getLogger(SchedulerService.class);
+
+    private volatile ScheduledThreadPoolExecutor timer;
+    private volatile ThreadPoolExecutor workers;
+
+    @Override
+    public void prepare() {
+        timer = new ScheduledThreadPoolExecutor(1, new DefaultNamedThreadFactory("Scheduler"));
+        timer.setRemoveOnCancelPolicy(true);
+        int threads = Math.max(1, Config.Agent.SCHEDULER_WORKER_THREADS);
+        workers = new ThreadPoolExecutor(
+            threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+            new DefaultNamedThreadFactory("SchedulerWorker")
+        );
+        workers.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void boot() {
+
+    }
+
+    @Override
+    public void onComplete() {
+
+    }
+
+    @Override
+    public void shutdown() {
+        timer.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Booted before and shut down after the services scheduling their tasks.
+     */
+    @Override
+    public int priority() {
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Run the task once after the delay.
+     *
+     * @param name the name of the task, used in the logs and the meters.
+     */
+    public ScheduledTask schedule(String name, Runnable runnable, long delay, TimeUnit unit) {
+        return start(new ScheduledTask(name, runnable, 0, false, false), unit.toNanos(delay));
+    }
+
+    /**
+     * Run the task periodically, the next run is due one period after the due time of the previous one.
+     *
+     * @param name the name of the task, used in the logs and the meters.
+     */
+    public ScheduledTask scheduleAtFixedRate(String name, Runnable runnable, long initialDelay, long period,
+                                             TimeUnit unit) {
+        return start(
+            new ScheduledTask(name, runnable, unit.toNanos(period), true, false), unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Run the short in-memory task periodically in the timer thread, the next run is due one period after the due time
+     * of the previous one. The task must never block, it delays all the other tasks while running.
+     *
+     * @param name the name of the task, used in the logs and the meters.
+     */
+    public ScheduledTask scheduleInTimerAtFixedRate(String name, Runnable runnable, long initialDelay, long period,
+                                                    TimeUnit unit) {
+        return start(
+            new ScheduledTask(name, runnable, unit.toNanos(period), true, true), unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Run the task periodically, the next run is due one delay after the previous one finished.
+     *
+     * @param name the name of the task, used in the logs and the meters.
+     */
+    public ScheduledTask scheduleWithFixedDelay(String name, Runnable runnable, long initialDelay, long delay,
+                                                TimeUnit unit) {
+        return start(
+            new ScheduledTask(name, runnable, unit.toNanos(delay), false, false), unit.toNanos(initialDelay));
+    }
+
+    /**
+     * Run the short in-memory task periodically in the timer thread, the next run is due one delay after the previous
+     * one finished. The task must never block, it delays all the other tasks while running.
+     *
+     * @param name the name of the task, used in the logs and the meters.
+     */
+    public ScheduledTask scheduleInTimerWithFixedDelay(String name, Runnable runnable, long initialDelay, long delay,
+                                                       TimeUnit unit) {
+        return start(
+            new ScheduledTask(name, runnable, unit.toNanos(delay), false, true), unit.toNanos(initialDelay));
+    }
+
+    private ScheduledTask start(ScheduledTask task, long delayNanos) {
+        task.setDeadline(System.nanoTime() + delayNanos);
+        arm(task);
+        return task;
+    }
+
+    private void arm(ScheduledTask task) {
+        if (task.isCancelled()) {
+            return;
+        }
+        try {
+            task.setTimeout(
+                timer.schedule(() -> dispatch(task), task.getDeadline() - System.nanoTime(), TimeUnit.NANOSECONDS));
+        } catch (RejectedExecutionException ignored) {
+            // The scheduler is shut down.
+        }
+    }
+
+    /**
+     * Run in the timer thread, hand the task to the workers or run it here, and arm the next run of the fixed rate
+     * task.
+     */
+    private void dispatch(ScheduledTask task) {
+        if (task.isCancelled()) {
+            return;
+        }
+        long deadline = task.getDeadline();
+        if (task.isFixedRate()) {
+            // Skip the runs already missed, rather than running them one by one to catch up.
+            long now = System.nanoTime();
+            long next = deadline + task.getPeriod();
+            if (next - now <= 0) {
+                next += ((now - next) / task.getPeriod() + 1) * task.getPeriod();
+            }
+            task.setDeadline(next);
+            arm(task);
+        }
+        if (!task.getRunning().compareAndSet(false, true)) {
+            LOGGER.debug("Scheduled task {} is skipped, as the previous run is not finished.", task.getName());
+            try {
+                AgentSo11y.measureScheduledTaskOverrun(task.getName());
+            } catch (Throwable t) {
+                LOGGER.debug(t, "Fail to measure the overrun of scheduled task {}.", task.getName());
+            }
+            return;
+        }
+        if (task.isInTimer()) {
+            run(task, deadline);
+            return;
+        }
+        try {
+            workers.execute(() -> run(task, deadline));
+        } catch (RejectedExecutionException ignored) {
+            // The scheduler is shut down.
+            task.getRunning().set(false);
+        }
+    }
+
+    private void run(ScheduledTask task, long deadline) {
+        try {
+            AgentSo11y.durationOfScheduledTaskLateness(task.getName(), System.nanoTime() - deadline);
+        } catch (Throwable t) {
+            // The meter should never stop the task from running.
+            LOGGER.debug(t, "Fail to measure the lateness of scheduled task {}.", task.getName());
+        }
+        try {
+            task.getRunnable().run();
+        } catch (Throwable t) {
+            LOGGER.error(t, "Scheduled task {} failure.", task.getName());
+        } finally {
+            task.getRunning().set(false);
+            if (task.getPeriod() > 0 && !task.isFixedRate()) {
+                task.setDeadline(System.nanoTime() + task.getPeriod());
+                arm(task);
+            }
+        }
+    }
+}
@@ -22,10 +22,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.meter.Counter;
 import org.apache.skywalking.apm.agent.core.meter.Histogram;
 import org.apache.skywalking.apm.agent.core.meter.MeterFactory;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.apache.skywalking.apm.agent.core.meter.StripedHistogram;
 
 /**
  * Agent self-observability meters collect through skywalking native protocols
@@ -35,6 +38,28 @@ public class AgentSo11y {
     // A map to cache meter obj(s) for plugins. The key is the plugin name.
     private static final Map<String, Counter> ERROR_COUNTER_CACHE = new ConcurrentHashMap<>();
 
+    // A map to cache meter obj(s) for segment reporting. The key is the reporting stage.
+    private static final Map<String, Counter> SEGMENT_REPORT_TIME_CACHE = new ConcurrentHashMap<>();
+
+    // A map to cache meter obj(s) for tail sampling. The key is the decision.
+    private static final Map<String, Counter> TAIL_SAMPLING_DECISION_CACHE = new ConcurrentHashMap<>();
+
+    // A map to cache meter obj(s) for segment spool. The key is the result.
+    private static final Map<String, Counter> SEGMENT_SPOOL_CACHE = new ConcurrentHashMap<>();
+
+    // A map to cache meter obj(s) for the backends of the channel pool. The key is the backend address.
+    private static final Map<String, Counter> BACKEND_MESSAGE_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Counter> BACKEND_ERROR_CACHE = new ConcurrentHashMap<>();
+
+    // A map to cache meter obj(s) for scheduled tasks. The key is the task name.
+    private static final Map<String, Counter> SCHEDULED_TASK_OVERRUN_CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> SCHEDULED_TASK_LATENESS_CACHE = new ConcurrentHashMap<>();
+
+    // Steps of scheduled task lateness histogram, in milliseconds
+    private static final List<Double> LATENESS_HISTOGRAM_STEPS = Arrays.asList(
+        10d, 50d, 100d, 500d, 1000d, 5000d, 10000d, 30000d
+    );
+
     // Steps of interceptor time cost histogram
     private static final List<Double> TIME_COST_HISTOGRAM_STEPS = Arrays.asList(
         1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
@@ -55,8 +80,11 @@ public class AgentSo11y {
     private static Counter LEAKED_CONTEXT_COUNTER;
     private static Counter LEAKED_IGNORE_CONTEXT_COUNTER;
 
+    // tail sampling evicted trace counter
+    private static Counter TAIL_SAMPLING_EVICTED_COUNTER;
+
     // context perf histogram
-    private static Histogram INTERCEPTOR_TIME_COST;
+    private static StripedHistogram INTERCEPTOR_TIME_COST;
 
     public static void measureTracingContextCreation(boolean forceSampling, boolean ignoredTracingContext) {
         if (!ServiceManager.INSTANCE.isBooted()) {
@@ -159,7 +187,7 @@ public class AgentSo11y {
         }
         if (INTERCEPTOR_TIME_COST == null) {
             INTERCEPTOR_TIME_COST = MeterFactory
-                .histogram("tracing_context_performance")
+                .stripedHistogram("tracing_context_performance")
                 .steps(TIME_COST_HISTOGRAM_STEPS)
                 .build();
         }
@@ -167,18 +195,149 @@ public class AgentSo11y {
     }
 
     public static void errorOfPlugin(String pluginName, String interType) {
+        Counter counter = errorCounterOf(pluginName, interType);
+        if (counter != null) {
+            counter.increment(1);
+        }
+    }
+
+    /**
+     * @return the error counter of the plugin, or null if the services are not booted yet.
+     */
+    static Counter errorCounterOf(String pluginName, String interType) {
         if (!ServiceManager.INSTANCE.isBooted()) {
             // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
             // transfer initialization.
             // Skip when the services are not ready to avoid MeterService status is not initialized.
-            return;
+            return null;
         }
-        Counter counter = ERROR_COUNTER_CACHE.computeIfAbsent(pluginName + interType, key -> MeterFactory
+        return ERROR_COUNTER_CACHE.computeIfAbsent(pluginName + interType, key -> MeterFactory
             .counter("interceptor_error_counter")
             .tag("plugin_name", pluginName)
             .tag("inter_type", interType)
             .build()
         );
-        counter.increment(1);
+    }
+
+    public static void durationOfSegmentReport(String stage, double timeCostInNanos) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        Counter counter = SEGMENT_REPORT_TIME_CACHE.computeIfAbsent(stage, key -> MeterFactory
+            .counter("segment_report_time_cost_counter")
+            .tag("stage", stage)
+            .build()
+        );
+        counter.increment(timeCostInNanos);
+    }
+
+    public static void measureTailSamplingDecision(String decision, int segments) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        Counter counter = TAIL_SAMPLING_DECISION_CACHE.computeIfAbsent(decision, key -> MeterFactory
+            .counter("tail_sampling_segments_counter")
+            .tag("decision", decision)
+            .build()
+        );
+        counter.increment(segments);
+    }
+
+    public static void measureTailSamplingEviction() {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        if (TAIL_SAMPLING_EVICTED_COUNTER == null) {
+            TAIL_SAMPLING_EVICTED_COUNTER = MeterFactory.counter("tail_sampling_evicted_traces_counter").build();
+        }
+        TAIL_SAMPLING_EVICTED_COUNTER.increment(1);
+    }
+
+    public static void measureSegmentSpool(String result, int segments) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        SEGMENT_SPOOL_CACHE.computeIfAbsent(result, key -> MeterFactory
+            .counter("segment_spool_counter")
+            .tag("result", result)
+            .build()
+        ).increment(segments);
+    }
+
+    public static void measureBackendMessage(String backend) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        BACKEND_MESSAGE_CACHE.computeIfAbsent(backend, key -> MeterFactory
+            .counter("grpc_backend_messages_counter")
+            .tag("backend", backend)
+            .build()
+        ).increment(1);
+    }
+
+    public static void measureBackendError(String backend) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        BACKEND_ERROR_CACHE.computeIfAbsent(backend, key -> MeterFactory
+            .counter("grpc_backend_errors_counter")
+            .tag("backend", backend)
+            .build()
+        ).increment(1);
+    }
+
+    public static void measureScheduledTaskOverrun(String taskName) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        if (ServiceManager.INSTANCE.findService(MeterService.class) == null) {
+            // The scheduler runs the tasks of the other services, and could be booted without MeterService.
+            return;
+        }
+        SCHEDULED_TASK_OVERRUN_CACHE.computeIfAbsent(taskName, key -> MeterFactory
+            .counter("scheduled_task_overrun_counter")
+            .tag("task", taskName)
+            .build()
+        ).increment(1);
+    }
+
+    public static void durationOfScheduledTaskLateness(String taskName, long latenessInNanos) {
+        if (!ServiceManager.INSTANCE.isBooted()) {
+            // Agent kernel services could be not-booted-yet as ServiceManager#INSTANCE#boot executed after agent
+            // transfer initialization.
+            // Skip when the services are not ready to avoid MeterService status is not initialized.
+            return;
+        }
+        if (ServiceManager.INSTANCE.findService(MeterService.class) == null) {
+            // The scheduler runs the tasks of the other services, and could be booted without MeterService.
+            return;
+        }
+        SCHEDULED_TASK_LATENESS_CACHE.computeIfAbsent(taskName, key -> MeterFactory
+            .histogram("scheduled_task_lateness")
+            .tag("task", taskName)
+            .steps(LATENESS_HISTOGRAM_STEPS)
+            .build()
+        ).addValue(Math.max(0, TimeUnit.NANOSECONDS.toMillis(latenessInNanos)));
     }
 }
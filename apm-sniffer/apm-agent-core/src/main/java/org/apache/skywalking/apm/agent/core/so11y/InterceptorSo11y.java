@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.so11y;
+
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+
+/**
+ * The so11y meters of an interceptor, which keeps the error counter of the plugin once it is created, rather than
+ * looking it up in every error.
+ */
+public final class InterceptorSo11y {
+    private final String pluginName;
+    private final String interType;
+    private volatile Counter errorCounter;
+
+    public InterceptorSo11y(String pluginName, String interType) {
+        this.pluginName = pluginName;
+        this.interType = interType;
+    }
+
+    public void error() {
+        Counter counter = errorCounter;
+        if (counter == null) {
+            counter = AgentSo11y.errorCounterOf(pluginName, interType);
+            if (counter == null) {
+                return;
+            }
+            errorCounter = counter;
+        }
+        counter.increment(1);
+    }
+
+    public void duration(long timeCostInNanos) {
+        AgentSo11y.durationOfInterceptor(timeCostInNanos);
+    }
+}
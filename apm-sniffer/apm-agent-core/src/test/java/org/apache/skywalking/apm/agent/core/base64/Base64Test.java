@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent.core.base64;
 
 import static org.junit.Assert.assertEquals;
 
+import java.nio.charset.StandardCharsets;
 import org.junit.Test;
 
 public class Base64Test {
@@ -33,4 +34,34 @@ public class Base64Test {
     public void testEncode() {
         assertEquals(Base64.encode("SkyWalking"), "U2t5V2Fsa2luZw==");
     }
+
+    @Test
+    public void testEncodeIntoChars() {
+        for (String text : new String[] {
+            "", "S", "Sk", "Sky", "SkyWalking", "\u00e9\u4e2d\u6587", "\ud83d\ude00", "a\ud83db", "\ude00"
+        }) {
+            String expected = java.util.Base64.getEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+            char[] chars = new char[Base64.encodedLength(text) + 2];
+            assertEquals(expected.length() + 1, Base64.encode(text, chars, 1));
+            assertEquals(expected, new String(chars, 1, expected.length()));
+        }
+    }
+
+    @Test
+    public void testDecodeRange() {
+        assertEquals("SkyWalking", Base64.decode2UTFString("-U2t5V2Fsa2luZw==-", 1, 17));
+        assertEquals("SkyWalking", Base64.decode2UTFString("U2t5V2Fsa2luZw", 0, 14));
+        assertEquals("\ud83d\ude00", Base64.decode2UTFString("8J+YgA==", 0, 8));
+        assertEquals("", Base64.decode2UTFString("", 0, 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalChar() {
+        Base64.decode2UTFString("U2t5-2Fs", 0, 8);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecodeIllegalPadding() {
+        Base64.decode2UTFString("U2t5V2Fsa2luZw=", 0, 15);
+    }
 }
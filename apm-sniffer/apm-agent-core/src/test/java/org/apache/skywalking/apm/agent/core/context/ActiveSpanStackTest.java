@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ActiveSpanStackTest {
+
+    @Test
+    public void testPushBeyondInitialCapacity() {
+        ActiveSpanStack stack = new ActiveSpanStack(2);
+        List<AbstractSpan> spans = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AbstractSpan span = new NoopSpan();
+            spans.add(span);
+            stack.push(span);
+            assertThat(stack.peek(), sameInstance(span));
+        }
+        assertThat(stack.size(), is(5));
+
+        List<AbstractSpan> iterated = new ArrayList<>();
+        stack.forEach(iterated::add);
+        assertThat(iterated, is(spans));
+
+        for (int i = 4; i >= 0; i--) {
+            assertThat(stack.pop(), sameInstance(spans.get(i)));
+        }
+        assertThat(stack.isEmpty(), is(true));
+        assertThat(stack.peek(), nullValue());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPopEmptyStack() {
+        new ActiveSpanStack(0).pop();
+    }
+}
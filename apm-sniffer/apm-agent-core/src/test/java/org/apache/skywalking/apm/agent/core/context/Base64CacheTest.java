@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class Base64CacheTest {
+
+    @Test
+    public void testDecodeManyUpstreamServices() {
+        Base64Cache cache = new Base64Cache();
+        String[] headers = new String[8];
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = "1-" + Base64.encode("service-" + i) + "-0";
+        }
+        String[] decoded = new String[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            decoded[i] = decode(cache, headers[i]);
+            assertThat(decoded[i], is("service-" + i));
+        }
+        // Not only the last one, these services are kept in different slots.
+        int hits = 0;
+        for (int i = 0; i < headers.length; i++) {
+            String value = decode(cache, new String(headers[i]));
+            assertThat(value, is("service-" + i));
+            hits += value == decoded[i] ? 1 : 0;
+        }
+        assertThat(hits, is(headers.length));
+    }
+
+    @Test
+    public void testEncodeLastValue() {
+        Base64Cache cache = new Base64Cache();
+        char[] chars = cache.encode("service");
+        assertThat(new String(chars), is(Base64.encode("service")));
+        assertThat(cache.encode("service"), sameInstance(chars));
+    }
+
+    private static String decode(Base64Cache cache, String header) {
+        return cache.decode(header, 2, header.length() - 2);
+    }
+}
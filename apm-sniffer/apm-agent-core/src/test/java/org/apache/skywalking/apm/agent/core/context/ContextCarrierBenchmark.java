@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.base64.Base64;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Inject and extract the sw8 header, comparing with the previous implementation based on the split and joined strings.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextCarrierBenchmark {
+    private ContextCarrier carrier;
+    private String header;
+
+    @Setup
+    public void setup() {
+        carrier = new ContextCarrier();
+        carrier.setTraceId("2a6ac2e1b4d84a6f9e1b3a52bde0e7b1.127.16872341256770001");
+        carrier.setTraceSegmentId("9f3c1e0a7b2d4c5e8f6a1b3c5d7e9f01.128.16872341256780002");
+        carrier.setSpanId(3);
+        carrier.setParentService("order-service");
+        carrier.setParentServiceInstance("7c1d2e3f4a5b6c7d@10.0.12.34");
+        carrier.setParentEndpoint("POST:/api/v1/orders/{orderId}/items");
+        carrier.setAddressUsedAtClient("inventory-service.svc.cluster.local:8080");
+        header = carrier.serialize(ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public String inject() {
+        return carrier.serialize(ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public String injectLegacy() {
+        return StringUtil.join(
+            '-',
+            "1",
+            Base64.encode(carrier.getTraceId()),
+            Base64.encode(carrier.getTraceSegmentId()),
+            carrier.getSpanId() + "",
+            Base64.encode(carrier.getParentService()),
+            Base64.encode(carrier.getParentServiceInstance()),
+            Base64.encode(carrier.getParentEndpoint()),
+            Base64.encode(carrier.getAddressUsedAtClient())
+        );
+    }
+
+    @Benchmark
+    public ContextCarrier extract() {
+        return new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+    }
+
+    @Benchmark
+    public ContextCarrier extractLegacy() {
+        ContextCarrier extracted = new ContextCarrier();
+        String[] parts = header.split("-", 8);
+        extracted.setTraceId(Base64.decode2UTFString(parts[1]));
+        extracted.setTraceSegmentId(Base64.decode2UTFString(parts[2]));
+        extracted.setSpanId(Integer.parseInt(parts[3]));
+        extracted.setParentService(Base64.decode2UTFString(parts[4]));
+        extracted.setParentServiceInstance(Base64.decode2UTFString(parts[5]));
+        extracted.setParentEndpoint(Base64.decode2UTFString(parts[6]));
+        extracted.setAddressUsedAtClient(Base64.decode2UTFString(parts[7]));
+        return extracted;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(ContextCarrierBenchmark.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+        new Runner(opt).run();
+    }
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 3 iterations, 3 s each
+     * # Measurement: 5 iterations, 3 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                                  Mode  Cnt     Score     Error   Units
+     * ContextCarrierBenchmark.extract                            avgt    5   582.253 ± 328.233   ns/op
+     * ContextCarrierBenchmark.extract:·gc.alloc.rate.norm        avgt    5   808.712 ±   0.007    B/op
+     * ContextCarrierBenchmark.extractLegacy                      avgt    5   611.758 ± 353.590   ns/op
+     * ContextCarrierBenchmark.extractLegacy:·gc.alloc.rate.norm  avgt    5  2153.865 ±   0.053    B/op
+     * ContextCarrierBenchmark.inject                             avgt    5   367.090 ± 179.752   ns/op
+     * ContextCarrierBenchmark.inject:·gc.alloc.rate.norm         avgt    5  1008.878 ±   0.028    B/op
+     * ContextCarrierBenchmark.injectLegacy                       avgt    5   470.235 ± 739.301   ns/op
+     * ContextCarrierBenchmark.injectLegacy:·gc.alloc.rate.norm   avgt    5  2089.797 ±   0.027    B/op
+     */
+}
@@ -162,4 +162,38 @@ public class ContextCarrierV3HeaderTest {
         Assert.assertEquals(contextCarrier.getCorrelationContext(), contextCarrier2.getCorrelationContext());
         Assert.assertEquals(contextCarrier.getExtensionContext(), contextCarrier2.getExtensionContext());
     }
+
+    @Test
+    public void testSerializeNonAsciiV3Header() {
+        ContextCarrier contextCarrier = new ContextCarrier();
+        contextCarrier.setTraceSegmentId("1.2.3");
+        contextCarrier.setTraceId("3.4.5");
+        contextCarrier.setSpanId(1234567890);
+        contextCarrier.setParentService("\u670d\u52a1");
+        contextCarrier.setParentServiceInstance("instance\ud83d\ude00");
+        contextCarrier.setAddressUsedAtClient("127.0.0.1:8080");
+        contextCarrier.setParentEndpoint("/\u00e9");
+
+        String header = contextCarrier.serialize(ContextCarrier.HeaderVersion.v3);
+        Assert.assertEquals("1-My40LjU=-MS4yLjM=-1234567890-5pyN5Yqh-aW5zdGFuY2Xwn5iA-L8Op-MTI3LjAuMC4xOjgwODA=", header);
+
+        ContextCarrier contextCarrier2 = new ContextCarrier().deserialize(header, ContextCarrier.HeaderVersion.v3);
+        Assert.assertTrue(contextCarrier2.isValid());
+        Assert.assertEquals(1234567890, contextCarrier2.getSpanId());
+        Assert.assertEquals("\u670d\u52a1", contextCarrier2.getParentService());
+        Assert.assertEquals("instance\ud83d\ude00", contextCarrier2.getParentServiceInstance());
+        Assert.assertEquals("/\u00e9", contextCarrier2.getParentEndpoint());
+    }
+
+    @Test
+    public void testDeserializeIllegalV3Header() {
+        Assert.assertFalse(new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==", ContextCarrier.HeaderVersion.v3).isValid());
+        Assert.assertFalse(new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-x-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=",
+            ContextCarrier.HeaderVersion.v3
+        ).isValid());
+        Assert.assertFalse(new ContextCarrier().deserialize(
+            "1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=-", ContextCarrier.HeaderVersion.v3).isValid());
+    }
 }
@@ -18,11 +18,18 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
 import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
@@ -50,6 +57,40 @@ public class ContextManagerBenchmark {
         bh.consume(Map.class.isAssignableFrom(HashMap.class));
     }
 
+    /**
+     * Trace a segment with an entry span and its local span children, as a typical request does.
+     */
+    @Benchmark
+    @Fork(value = 1, warmups = 1)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @BenchmarkMode(Mode.Throughput)
+    public void traceSegment(TracingState state, Blackhole bh) {
+        bh.consume(ContextManager.createEntrySpan("/entry", null));
+        for (int i = 1; i < state.spanCount; i++) {
+            bh.consume(ContextManager.createLocalSpan("/local"));
+            ContextManager.stopSpan();
+        }
+        ContextManager.stopSpan();
+    }
+
+    @State(Scope.Benchmark)
+    public static class TracingState {
+        @Param({"5", "50"})
+        private int spanCount;
+
+        @Setup
+        public void setup() {
+            // Keep tracing without a connected backend.
+            Config.Agent.KEEP_TRACING = true;
+            ServiceManager.INSTANCE.boot();
+        }
+
+        @TearDown
+        public void tearDown() {
+            ServiceManager.INSTANCE.shutdown();
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         Options opt = new OptionsBuilder().include(ContextManagerBenchmark.class.getSimpleName())
                 .addProfiler(GCProfiler.class)
@@ -94,4 +135,18 @@ public class ContextManagerBenchmark {
      * ContextManagerBenchmark.isAssignableFrom:·gc.alloc.rate.norm                 sample        5      ≈ 10⁻⁴             B/op
      * ContextManagerBenchmark.isAssignableFrom:·gc.count                           sample        5         ≈ 0           counts
      */
+
+    /**
+     * traceSegment, JDK 17, the span stack and span list of LinkedList (before) and arrays (after).
+     *
+     * Benchmark                                             (spanCount)   Mode  Cnt     Score   Units
+     * before ContextManagerBenchmark.traceSegment                     5  thrpt    3   126.250  ops/ms
+     * before ContextManagerBenchmark.traceSegment:·gc.alloc.rate.norm 5  thrpt    3  3161.816    B/op
+     * before ContextManagerBenchmark.traceSegment                    50  thrpt    3    62.710  ops/ms
+     * before ContextManagerBenchmark.traceSegment:·gc.alloc.rate.norm 50 thrpt    3  7498.198    B/op
+     * after  ContextManagerBenchmark.traceSegment                     5  thrpt    3   121.275  ops/ms
+     * after  ContextManagerBenchmark.traceSegment:·gc.alloc.rate.norm 5  thrpt    3  2930.062    B/op
+     * after  ContextManagerBenchmark.traceSegment                    50  thrpt    3    67.814  ops/ms
+     * after  ContextManagerBenchmark.traceSegment:·gc.alloc.rate.norm 50 thrpt    3  5571.927    B/op
+     */
 }
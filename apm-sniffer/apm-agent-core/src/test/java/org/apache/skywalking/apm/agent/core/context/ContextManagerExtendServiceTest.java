@@ -18,8 +18,15 @@
 
 package org.apache.skywalking.apm.agent.core.context;
 
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.red.RedMetricsService;
+import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -56,4 +63,40 @@ public class ContextManagerExtendServiceTest {
         Assert.assertNotEquals("Ignored_Trace", traceId);
     }
 
+    @Test
+    public void testIgnoredPathNotMeasured() throws Exception {
+        Field servicesField = ServiceManager.class.getDeclaredField("bootedServices");
+        servicesField.setAccessible(true);
+        Map<Class, BootService> services = (Map<Class, BootService>) servicesField.get(ServiceManager.INSTANCE);
+        services.put(SamplingService.class, new SamplingService() {
+            @Override
+            public boolean trySampling(String operationName) {
+                return false;
+            }
+
+            @Override
+            public boolean isIgnored(String operationName) {
+                return "/health".equals(operationName);
+            }
+        });
+        List<String> measured = new ArrayList<>();
+        ContextManagerExtendService extendService = ServiceManager.INSTANCE.findService(ContextManagerExtendService.class);
+        Field redField = ContextManagerExtendService.class.getDeclaredField("redMetricsService");
+        redField.setAccessible(true);
+        redField.set(extendService, new RedMetricsService() {
+            @Override
+            public void recordEndpoint(String endpoint, long durationMillis, boolean error) {
+                measured.add(endpoint);
+            }
+        });
+
+        for (String operationName : new String[] {"/health", "/not-sampled"}) {
+            AbstractTracerContext tracerContext = extendService.createTraceContext(operationName, false);
+            Assert.assertEquals("Ignored_Trace", tracerContext.getReadablePrimaryTraceId());
+            tracerContext.stopSpan(tracerContext.createEntrySpan(operationName));
+        }
+
+        Assert.assertEquals(1, measured.size());
+        Assert.assertEquals("/not-sampled", measured.get(0));
+    }
 }
@@ -90,6 +90,11 @@ public class CorrelationContextTest {
         context.put("test2", "t2");
         Assert.assertEquals("dGVzdDE=:dDE=,dGVzdDI=:dDI=", context.serialize());
 
+        // non-ascii
+        context = new CorrelationContext();
+        context.put("\u00e9", "\u4e2d\ud83d\ude00");
+        Assert.assertEquals("w6k=:5Lit8J+YgA==", context.serialize());
+
         // empty value
         context = new CorrelationContext();
         context.put("test1", null);
@@ -113,6 +118,12 @@ public class CorrelationContextTest {
         context.deserialize("dGVzdDE=:");
         Assert.assertFalse(context.get("test1").isPresent());
 
+        // illegal elements are skipped
+        context = new CorrelationContext();
+        context.deserialize("dGVzdDE=::dDE=,,dGVzdDI=:dDI=,");
+        Assert.assertFalse(context.get("test1").isPresent());
+        Assert.assertEquals("t2", context.get("test2").get());
+
         // empty string
         context = new CorrelationContext();
         context.deserialize("");
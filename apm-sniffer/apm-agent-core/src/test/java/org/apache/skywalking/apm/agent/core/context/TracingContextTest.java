@@ -20,8 +20,10 @@ package org.apache.skywalking.apm.agent.core.context;
 
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
 import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.SpanLimitWatcher;
 import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
 import org.junit.AfterClass;
@@ -80,4 +82,17 @@ public class TracingContextTest {
         }
     }
 
+    @Test
+    public void testNonPositiveSpanLimit() {
+        SpanLimitWatcher watcher = new SpanLimitWatcher("agent.span_limit_per_segment");
+        for (String limit : new String[] {"0", "-1"}) {
+            watcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+                limit, AgentConfigChangeWatcher.EventType.MODIFY));
+            TracingContext tracingContext = new TracingContext("/url", watcher);
+            AbstractSpan span = tracingContext.createEntrySpan("/url");
+            Assert.assertTrue(span instanceof NoopSpan);
+            tracingContext.stopSpan(span);
+        }
+    }
+
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.util.StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the string joined id of the previous generator, with the {@link GlobalId} kept as primitives, rendered or
+ * not.
+ */
+@State(Scope.Thread)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class GlobalIdGeneratorBenchmark {
+    private short threadSeq;
+
+    /**
+     * The id generation before {@link GlobalId}, joining the parts into a new string every time.
+     */
+    @Benchmark
+    public String joinedString() {
+        if (threadSeq == 10000) {
+            threadSeq = 0;
+        }
+        return StringUtil.join(
+            '.',
+            GlobalIdGenerator.PROCESS_ID,
+            String.valueOf(Thread.currentThread().getId()),
+            String.valueOf(System.currentTimeMillis() * 10000 + threadSeq++)
+        );
+    }
+
+    @Benchmark
+    public GlobalId generateId() {
+        return GlobalIdGenerator.generateId();
+    }
+
+    @Benchmark
+    public String generateIdAndRender() {
+        return GlobalIdGenerator.generateId().toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(GlobalIdGeneratorBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.37
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     *
+     * Benchmark                                                          Mode  Cnt    Score    Error  Units
+     * GlobalIdGeneratorBenchmark.generateId                              avgt    3   66.043 ± 60.764  ns/op
+     * GlobalIdGeneratorBenchmark.generateId:·gc.alloc.rate.norm          avgt    3   32.031 ±  0.008   B/op
+     * GlobalIdGeneratorBenchmark.generateIdAndRender                     avgt    3  170.065 ± 88.502  ns/op
+     * GlobalIdGeneratorBenchmark.generateIdAndRender:·gc.alloc.rate.norm avgt    3  240.213 ±  0.043   B/op
+     * GlobalIdGeneratorBenchmark.joinedString                            avgt    3  196.030 ± 34.659  ns/op
+     * GlobalIdGeneratorBenchmark.joinedString:·gc.alloc.rate.norm        avgt    3  312.277 ±  0.059   B/op
+     */
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.ids;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class GlobalIdGeneratorTest {
+
+    @Test
+    public void testRenderedFormat() {
+        GlobalId id = GlobalIdGenerator.generateId();
+        String[] parts = id.toString().split("\\.");
+
+        assertThat(parts.length, is(3));
+        assertThat(parts[0], is(GlobalIdGenerator.PROCESS_ID));
+        assertThat(Long.parseLong(parts[1]), is(Thread.currentThread().getId()));
+        assertThat(id.toString(), sameInstance(id.toString()));
+    }
+
+    @Test
+    public void testUniqueIds() {
+        Set<String> ids = new HashSet<>();
+        Set<GlobalId> globalIds = new HashSet<>();
+        for (int i = 0; i < 20000; i++) {
+            GlobalId id = GlobalIdGenerator.generateId();
+            globalIds.add(id);
+            ids.add(id.toString());
+        }
+        assertThat(ids.size(), is(20000));
+        assertThat(globalIds.size(), is(20000));
+    }
+
+    @Test
+    public void testTraceIdEquality() {
+        NewDistributedTraceId newId = new NewDistributedTraceId();
+        PropagatedTraceId propagatedId = new PropagatedTraceId(newId.getId());
+
+        assertThat(propagatedId, is((DistributedTraceId) newId));
+        assertThat(propagatedId.hashCode(), is(newId.hashCode()));
+        assertThat(new NewDistributedTraceId(), not((DistributedTraceId) newId));
+    }
+}
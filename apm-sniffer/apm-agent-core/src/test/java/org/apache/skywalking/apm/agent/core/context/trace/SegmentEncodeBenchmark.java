@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.SW8CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ids.NewDistributedTraceId;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the time and allocation per segment of {@link TraceSegment#transform()} + toByteArray, and {@link
+ * TraceSegment#encode()}. The segment has an entry span with a ref, 3 local spans with tags and an error log, and an
+ * exit span.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SegmentEncodeBenchmark {
+    private TraceSegment segment;
+
+    @Setup
+    public void setup() {
+        segment = new TraceSegment();
+        segment.relatedGlobalTrace(new NewDistributedTraceId());
+        ContextCarrier carrier = carrierOf("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=");
+
+        EntrySpan entrySpan = new EntrySpan(0, -1, "/benchmark/entry", null);
+        entrySpan.start();
+        entrySpan.ref(new TraceSegmentRef(carrier));
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.URL.set(entrySpan, "http://127.0.0.1:8080/benchmark/entry");
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        SpanLayer.asHttp(entrySpan);
+        for (int i = 1; i <= 3; i++) {
+            LocalSpan localSpan = new LocalSpan(i, 0, "/benchmark/local/" + i, null);
+            localSpan.start();
+            localSpan.tag(Tags.ofKey("index"), String.valueOf(i));
+            Map<String, String> event = new HashMap<>();
+            event.put("event", "error");
+            event.put("error.kind", RuntimeException.class.getName());
+            event.put("message", "benchmark");
+            localSpan.log(System.currentTimeMillis(), event);
+            localSpan.errorOccurred();
+            localSpan.finish(segment);
+        }
+        ExitSpan exitSpan = new ExitSpan(4, 0, "/benchmark/exit", "127.0.0.1:3306", null);
+        exitSpan.start();
+        exitSpan.setComponent(ComponentsDefine.MYSQL_JDBC_DRIVER);
+        Tags.DB_STATEMENT.set(exitSpan, "select * from benchmark where id = ?");
+        SpanLayer.asDB(exitSpan);
+        exitSpan.finish(segment);
+        entrySpan.finish(segment);
+        segment.finish(false);
+    }
+
+    @Benchmark
+    public byte[] transform() {
+        return segment.transform().toByteArray();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return segment.encode();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(SegmentEncodeBenchmark.class.getSimpleName())
+                                          .addProfiler(GCProfiler.class)
+                                          .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.37
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 3 iterations, 2 s each
+     *
+     * Benchmark                                            Mode  Cnt     Score   Error  Units
+     * SegmentEncodeBenchmark.encode                        avgt    3  3944.536 ± 4051.702  ns/op
+     * SegmentEncodeBenchmark.encode:·gc.alloc.rate.norm    avgt    3  1313.332 ±    0.668   B/op
+     * SegmentEncodeBenchmark.transform                     avgt    3  4607.325 ± 28942.344  ns/op
+     * SegmentEncodeBenchmark.transform:·gc.alloc.rate.norm avgt    3  3971.748 ±    2.840   B/op
+     */
+
+    private static ContextCarrier carrierOf(String sw8) {
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (SW8CarrierItem.HEADER_NAME.equals(next.getHeadKey())) {
+                next.setHeadValue(sw8);
+            }
+        }
+        return carrier;
+    }
+}
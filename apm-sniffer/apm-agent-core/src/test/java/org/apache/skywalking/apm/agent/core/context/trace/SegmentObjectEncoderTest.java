@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.context.trace;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.ContextCarrier;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.ContextSnapshot;
+import org.apache.skywalking.apm.agent.core.context.SW8CarrierItem;
+import org.apache.skywalking.apm.agent.core.context.tag.Tags;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
+import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
+import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
+import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * The golden test of {@link TraceSegment#encode()}, the bytes must be identical to the serialized {@link
+ * TraceSegment#transform()}.
+ */
+@RunWith(TracingSegmentRunner.class)
+public class SegmentObjectEncoderTest {
+
+    @SegmentStoragePoint
+    private SegmentStorage tracingData;
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Test
+    public void testEncodeSingleLocalSpan() throws Exception {
+        ContextManager.createLocalSpan("/local");
+        ContextManager.stopSpan();
+
+        assertGolden(tracingData.getTraceSegments().get(0));
+    }
+
+    @Test
+    public void testEncodeFullSegment() throws Exception {
+        ContextCarrier contextCarrier = carrierOf("1-My40LjU=-MS4yLjM=-4-c2VydmljZQ==-aW5zdGFuY2U=-L2FwcA==-MTI3LjAuMC4xOjgwODA=");
+        AbstractSpan entrySpan = ContextManager.createEntrySpan("/entry/\u4e2d\u6587", contextCarrier);
+        entrySpan.setComponent(ComponentsDefine.TOMCAT);
+        Tags.HTTP.METHOD.set(entrySpan, "GET");
+        Tags.URL.set(entrySpan, "127.0.0.1:8080");
+        entrySpan.tag(Tags.ofKey("empty"), "");
+        SpanLayer.asHttp(entrySpan);
+
+        AbstractSpan localSpan = ContextManager.createLocalSpan("/local");
+        localSpan.log(new RuntimeException("error with emoji \ud83d\ude00"));
+        Map<String, Object> event = new HashMap<>();
+        event.put("event", "done");
+        localSpan.log(System.currentTimeMillis(), event);
+        localSpan.skipAnalysis();
+
+        AbstractSpan exitSpan = ContextManager.createExitSpan("/exit", new ContextCarrier(), "127.0.0.1:3306");
+        exitSpan.setComponent(ComponentsDefine.MYSQL_JDBC_DRIVER);
+        SpanLayer.asDB(exitSpan);
+        exitSpan.errorOccurred();
+        ContextManager.stopSpan();
+
+        ContextManager.stopSpan();
+        ContextManager.stopSpan();
+
+        assertGolden(tracingData.getTraceSegments().get(0));
+    }
+
+    @Test
+    public void testEncodeCrossThreadRef() throws Exception {
+        ContextManager.createLocalSpan("/parent");
+        ContextSnapshot snapshot = ContextManager.capture();
+        ContextManager.stopSpan();
+
+        Thread thread = new Thread(() -> {
+            ContextManager.createLocalSpan("/child");
+            ContextManager.continued(snapshot);
+            ContextManager.stopSpan();
+        });
+        thread.start();
+        thread.join();
+
+        assertThat(tracingData.getTraceSegments().size(), is(2));
+        for (TraceSegment segment : tracingData.getTraceSegments()) {
+            assertGolden(segment);
+        }
+    }
+
+    private static void assertGolden(TraceSegment segment) throws Exception {
+        SegmentObject expected = segment.transform();
+        byte[] encoded = segment.encode();
+
+        assertThat(encoded, is(expected.toByteArray()));
+        assertThat(SegmentObject.parseFrom(encoded), is(expected));
+    }
+
+    private static ContextCarrier carrierOf(String sw8) {
+        ContextCarrier carrier = new ContextCarrier();
+        CarrierItem next = carrier.items();
+        while (next.hasNext()) {
+            next = next.next();
+            if (SW8CarrierItem.HEADER_NAME.equals(next.getHeadKey())) {
+                next.setHeadValue(sw8);
+            }
+        }
+        return carrier;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare {@link Histogram} with {@link StripedHistogram}, shared by 1, 8 and 32 writer threads, using the steps of
+ * the interceptor time cost histogram of the agent self-observability.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HistogramBenchmark {
+    private static final List<Double> STEPS = Arrays.asList(
+        0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+        1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
+    );
+    private static final MeterId METER_ID = new MeterId("benchmark", MeterType.HISTOGRAM, Collections.emptyList());
+
+    private final Histogram histogram = new Histogram(METER_ID, STEPS);
+    private final StripedHistogram stripedHistogram = new StripedHistogram(METER_ID, STEPS);
+
+    @Benchmark
+    public void histogram() {
+        histogram.addValue(ThreadLocalRandom.current().nextInt(200000));
+    }
+
+    @Benchmark
+    public void stripedHistogram() {
+        stripedHistogram.addValue(ThreadLocalRandom.current().nextInt(200000));
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int threads : new int[] {1, 8, 32}) {
+            Options opt = new OptionsBuilder().include(HistogramBenchmark.class.getSimpleName())
+                                              .threads(threads)
+                                              .build();
+            new Runner(opt).run();
+        }
+    }
+
+    /*
+     * # JMH version: 1.37
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     * # Run on 1 CPU, the writer threads are time-sliced rather than racing, so the contention is understated.
+     *
+     * Threads  Benchmark                            Mode  Cnt     Score      Error  Units
+     *       1  HistogramBenchmark.histogram         avgt    3    36.444 ±   16.802  ns/op
+     *       1  HistogramBenchmark.stripedHistogram  avgt    3    37.273 ±   40.327  ns/op
+     *       8  HistogramBenchmark.histogram         avgt    3   313.808 ±  255.698  ns/op
+     *       8  HistogramBenchmark.stripedHistogram  avgt    3   307.659 ±   16.445  ns/op
+     *      32  HistogramBenchmark.histogram         avgt    3  1065.617 ± 3629.045  ns/op
+     *      32  HistogramBenchmark.stripedHistogram  avgt    3   878.970 ±  792.954  ns/op
+     */
+}
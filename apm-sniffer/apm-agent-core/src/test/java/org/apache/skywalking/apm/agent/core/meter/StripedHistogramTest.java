@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.meter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.network.language.agent.v3.Label;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class StripedHistogramTest {
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    @AfterClass
+    public static void afterClass() {
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @After
+    public void after() throws IllegalAccessException, NoSuchFieldException {
+        final MeterService meterService = ServiceManager.INSTANCE.findService(MeterService.class);
+        ((ConcurrentHashMap<MeterId, BaseMeter>) FieldGetter.getValue(meterService, "meterMap")).clear();
+    }
+
+    @Test
+    public void testTransform() {
+        final List<Label> labels = Arrays.asList(Label.newBuilder().setName("k1").setValue("v1").build());
+
+        final StripedHistogram histogram = MeterFactory.stripedHistogram("test")
+                                                       .steps(Arrays.asList(2d, 5d))
+                                                       .minValue(1d)
+                                                       .tag("k1", "v1")
+                                                       .build();
+        histogram.addValue(0);
+        histogram.addValue(1);
+        histogram.addValue(3);
+        histogram.addValue(3);
+        histogram.addValue(7);
+        HistogramTest.verifyHistogram(
+            "test", labels, Arrays.asList(1d, 2d, 5d), Arrays.asList(1L, 2L, 1L), histogram.transform());
+    }
+
+    @Test
+    public void testSameAsHistogramWithUniformSteps() {
+        verifySameAsHistogram(Arrays.asList(0d, 0.1d, 0.2d, 0.3d, 0.4d, 0.5d, 0.6d, 0.7d), 1d);
+        verifySameAsHistogram(Arrays.asList(0d, 10d, 20d, 30d, 40d), 50d);
+    }
+
+    @Test
+    public void testSameAsHistogramWithSteps() {
+        verifySameAsHistogram(Arrays.asList(
+            0d, 1000d, 10000d, 50000d, 100000d, 300000d, 500000d,
+            1000000d, 5000000d, 10000000d, 20000000d, 50000000d, 100000000d
+        ), 120000000d);
+    }
+
+    private void verifySameAsHistogram(List<Double> steps, double maxValue) {
+        final MeterId meterId = new MeterId("test", MeterType.HISTOGRAM, Collections.emptyList());
+        final Histogram histogram = new Histogram(meterId, steps);
+        final StripedHistogram stripedHistogram = new StripedHistogram(meterId, steps);
+
+        final Random random = new Random(7);
+        for (int i = 0; i < 10000; i++) {
+            double value = random.nextDouble() * maxValue;
+            histogram.addValue(value);
+            stripedHistogram.addValue(value);
+        }
+        for (Double step : steps) {
+            histogram.addValue(step);
+            stripedHistogram.addValue(step);
+        }
+        Assert.assertEquals(histogram.transform().build(), stripedHistogram.transform().build());
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ParallelBootstrapTest {
+    private final List<Integer> inputs = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+    @After
+    public void tearDown() {
+        Config.Plugin.BOOTSTRAP_PARALLELISM = 0;
+    }
+
+    @Test
+    public void testMapInPremainThread() {
+        Thread premainThread = Thread.currentThread();
+        List<Boolean> inPremainThread = ParallelBootstrap.map(inputs, i -> Thread.currentThread() == premainThread);
+        assertThat(inPremainThread.contains(false), is(false));
+    }
+
+    @Test
+    public void testMapInOrder() {
+        Config.Plugin.BOOTSTRAP_PARALLELISM = 4;
+        List<String> threads = new ArrayList<>();
+        List<Integer> results = ParallelBootstrap.map(inputs, i -> {
+            synchronized (threads) {
+                threads.add(Thread.currentThread().getName());
+            }
+            return i * 2;
+        });
+        assertThat(results, is(inputs.stream().map(i -> i * 2).collect(Collectors.toList())));
+        assertThat(threads.get(0), startsWith("SkywalkingAgent-bootstrap-"));
+    }
+
+    @Test(expected = PluginException.class)
+    public void testFailure() {
+        Config.Plugin.BOOTSTRAP_PARALLELISM = 4;
+        ParallelBootstrap.map(inputs, i -> {
+            if (i == 50) {
+                throw new IllegalStateException();
+            }
+            return i;
+        });
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.IndirectMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MethodAnnotationMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import static net.bytebuddy.matcher.ElementMatchers.isInterface;
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static net.bytebuddy.matcher.ElementMatchers.not;
+
+/**
+ * Measure matching the loading classes against a plugin set as large as the full distribution, 400 plugin defines, of
+ * which 120 are indirect matches. Every operation matches 40 classes, most of them are not enhanced at all.
+ * <p>
+ * {@code orChainMatch} and {@code oneByOneFind} are how {@link PluginFinder#buildMatch()} and {@link
+ * PluginFinder#find(TypeDescription)} worked before the indexed matches: the junctions of all the indirect matches are
+ * or-chained, and the indirect matches are checked one by one.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PluginFinderBenchmark {
+    private static final int NAME_MATCHES = 280;
+    private static final int MULTI_CLASS_NAME_MATCHES = 30;
+    private static final int PREFIX_MATCHES = 20;
+    private static final int CLASS_ANNOTATION_MATCHES = 20;
+    private static final int HIERARCHY_MATCHES = 40;
+    private static final int METHOD_ANNOTATION_MATCHES = 10;
+
+    private static final List<Class<?>> LOADING_CLASSES = Arrays.asList(
+        java.util.ArrayList.class, java.util.HashMap.class, java.util.LinkedHashMap.class, java.util.TreeMap.class,
+        java.util.concurrent.ConcurrentHashMap.class, java.util.concurrent.ThreadPoolExecutor.class,
+        java.util.concurrent.ForkJoinPool.class, java.util.concurrent.FutureTask.class, java.lang.Thread.class,
+        java.lang.StringBuilder.class, java.io.BufferedReader.class, java.io.ByteArrayOutputStream.class,
+        java.io.FileInputStream.class, java.io.PrintStream.class, java.net.Socket.class, java.net.URL.class,
+        java.net.URLClassLoader.class, java.nio.ByteBuffer.class, java.nio.channels.SocketChannel.class,
+        java.text.SimpleDateFormat.class, java.time.LocalDateTime.class, java.util.Random.class,
+        java.util.regex.Pattern.class, java.util.logging.Logger.class, java.util.zip.ZipFile.class,
+        java.util.jar.JarFile.class, java.lang.ref.WeakReference.class, java.security.MessageDigest.class,
+        java.sql.Timestamp.class, java.util.Timer.class, java.util.PriorityQueue.class, java.util.ArrayDeque.class,
+        java.util.BitSet.class, java.util.EnumMap.class, java.util.IdentityHashMap.class, java.util.Properties.class,
+        java.util.Scanner.class, java.util.StringJoiner.class, java.util.UUID.class, java.lang.ProcessBuilder.class
+    );
+
+    private PluginFinder pluginFinder;
+    private ElementMatcher<? super TypeDescription> indexedMatcher;
+    private ElementMatcher<? super TypeDescription> orChainMatcher;
+    private List<AbstractClassEnhancePluginDefine> nameMatchDefines;
+    private List<AbstractClassEnhancePluginDefine> indirectMatchDefines;
+    private final List<TypeDescription> types = new ArrayList<>();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        nameMatchDefines = new ArrayList<>();
+        indirectMatchDefines = new ArrayList<>();
+        for (int i = 0; i < NAME_MATCHES; i++) {
+            nameMatchDefines.add(new MatchDefine(NameMatch.byName("org.example.lib" + i + ".Client")));
+        }
+        // One match of each kind hits a loading class, as the plugins of the libraries in use.
+        nameMatchDefines.add(new MatchDefine(NameMatch.byName("java.util.concurrent.ThreadPoolExecutor")));
+        for (int i = 0; i < MULTI_CLASS_NAME_MATCHES; i++) {
+            indirectMatchDefines.add(new MatchDefine(MultiClassNameMatch.byMultiClassMatch(
+                "org.example.multi" + i + ".Client", "org.example.multi" + i + ".Server",
+                i == 0 ? "java.util.Timer" : "org.example.multi" + i + ".Handler")));
+        }
+        for (int i = 0; i < PREFIX_MATCHES; i++) {
+            indirectMatchDefines.add(new MatchDefine(PrefixMatch.nameStartsWith(
+                i == 0 ? "java.sql." : "org.example.prefix" + i + ".", "com.example.prefix" + i + ".")));
+        }
+        for (int i = 0; i < CLASS_ANNOTATION_MATCHES; i++) {
+            indirectMatchDefines.add(new MatchDefine(ClassAnnotationMatch.byClassAnnotationMatch(
+                i == 0 ? FunctionalInterface.class.getName() : "org.example.annotation" + i + ".Component")));
+        }
+        for (int i = 0; i < HIERARCHY_MATCHES; i++) {
+            indirectMatchDefines.add(new MatchDefine(HierarchyMatch.byHierarchyMatch(
+                i == 0 ? "java.util.concurrent.ExecutorService" : "org.example.hierarchy" + i + ".Handler")));
+        }
+        for (int i = 0; i < METHOD_ANNOTATION_MATCHES; i++) {
+            indirectMatchDefines.add(new MatchDefine(MethodAnnotationMatch.byMethodAnnotationMatch(
+                "org.example.trace" + i + ".Trace")));
+        }
+
+        List<AbstractClassEnhancePluginDefine> defines = new ArrayList<>(nameMatchDefines);
+        defines.addAll(indirectMatchDefines);
+        pluginFinder = new PluginFinder(defines);
+        indexedMatcher = pluginFinder.buildMatch();
+
+        ElementMatcher.Junction judge = named("org.example.lib0.Client");
+        for (AbstractClassEnhancePluginDefine define : nameMatchDefines) {
+            judge = judge.or(named(((NameMatch) define.enhanceClass()).getClassName()));
+        }
+        for (AbstractClassEnhancePluginDefine define : indirectMatchDefines) {
+            judge = judge.or(((IndirectMatch) define.enhanceClass()).buildJunction());
+        }
+        orChainMatcher = not(isInterface()).and(judge);
+
+        for (Class<?> type : LOADING_CLASSES) {
+            types.add(TypeDescription.ForLoadedType.of(type));
+        }
+    }
+
+    @Benchmark
+    public void orChainMatch(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(orChainMatcher.matches(type));
+        }
+    }
+
+    @Benchmark
+    public void indexedMatch(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(indexedMatcher.matches(type));
+        }
+    }
+
+    @Benchmark
+    public void oneByOneFind(Blackhole bh) {
+        for (TypeDescription type : types) {
+            List<AbstractClassEnhancePluginDefine> matched = new LinkedList<>();
+            for (AbstractClassEnhancePluginDefine define : nameMatchDefines) {
+                if (((NameMatch) define.enhanceClass()).getClassName().equals(type.getTypeName())) {
+                    matched.add(define);
+                }
+            }
+            for (AbstractClassEnhancePluginDefine define : indirectMatchDefines) {
+                if (((IndirectMatch) define.enhanceClass()).isMatch(type)) {
+                    matched.add(define);
+                }
+            }
+            bh.consume(matched);
+        }
+    }
+
+    @Benchmark
+    public void indexedFind(Blackhole bh) {
+        for (TypeDescription type : types) {
+            bh.consume(pluginFinder.find(type));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginFinderBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.37
+     * # VM version: JDK 17, OpenJDK 64-Bit Server VM
+     *
+     * Benchmark                           Mode  Cnt     Score     Error  Units
+     * PluginFinderBenchmark.indexedFind   avgt    5  1037.262 ± 755.389  us/op
+     * PluginFinderBenchmark.indexedMatch  avgt    5   555.926 ± 381.575  us/op
+     * PluginFinderBenchmark.oneByOneFind  avgt    5  3616.552 ± 516.621  us/op
+     * PluginFinderBenchmark.orChainMatch  avgt    5  3671.446 ± 479.007  us/op
+     *
+     * Most of the indexed time is spent by the 10 method annotation matches, which still read the annotations of all
+     * methods of every loading class.
+     */
+
+    private static class MatchDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final ClassMatch match;
+
+        private MatchDefine(ClassMatch match) {
+            this.match = match;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return match;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[0];
+        }
+    }
+}
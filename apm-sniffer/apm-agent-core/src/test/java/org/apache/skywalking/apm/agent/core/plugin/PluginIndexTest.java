@@ -0,0 +1,309 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.boot.PluginConfig;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PluginIndexTest {
+    private static final AtomicInteger INSTANCES = new AtomicInteger();
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws Exception {
+        AgentClassLoader.initDefaultLoader();
+        INSTANCES.set(0);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        PluginIndex index = PluginIndex.readFrom(new ByteArrayInputStream(toBytes(
+            Arrays.asList(new NameMatchDefine(), new PrefixMatchDefine(), new HierarchyMatchDefine()))));
+
+        PluginIndex.DefineMetadata nameMatch = index.get(NameMatchDefine.class.getName());
+        assertThat(nameMatch.getMatchKind(), is(PluginIndex.MatchKind.NAME));
+        assertThat(nameMatch.getMatchNames(), is(Collections.singletonList(String.class.getName())));
+        assertThat(nameMatch.toClassMatch(), instanceOf(NameMatch.class));
+        assertThat(nameMatch.getWitnessClasses(), is(Collections.singletonList("java.lang.StringBuilder")));
+        assertThat(nameMatch.getInterceptPoints().size(), is(1));
+        PluginIndex.InterceptPointMetadata point = nameMatch.getInterceptPoints().get(0);
+        assertThat(point.getKind(), is(PluginIndex.InterceptKind.INSTANCE_METHODS));
+        assertThat(point.getMatcher(), is("name(equals(trim))"));
+        assertThat(point.getInterceptor(), is("org.example.TrimInterceptor"));
+        assertThat(point.isOverrideArgs(), is(true));
+        PluginIndex.DefineMetadata prefixMatch = index.get(PrefixMatchDefine.class.getName());
+        assertThat(prefixMatch.getMatchKind(), is(PluginIndex.MatchKind.PREFIX));
+        assertThat(prefixMatch.getMatchNames(), is(Arrays.asList("java.util.Hash", "java.util.Tree")));
+        assertThat(prefixMatch.toClassMatch(), instanceOf(PrefixMatch.class));
+        PluginIndex.DefineMetadata hierarchyMatch = index.get(HierarchyMatchDefine.class.getName());
+        assertThat(hierarchyMatch.getMatchKind(), is(PluginIndex.MatchKind.HIERARCHY));
+        assertThat(((HierarchyMatch) hierarchyMatch.toClassMatch()).getParentTypes(), is(new String[] {CharSequence.class.getName()}));
+        String matcher = hierarchyMatch.getInterceptPoints().get(0).getMatcher();
+        assertThat(matcher, startsWith(HierarchyMatchDefine.class.getName() + "$1$$Lambda$"));
+        assertThat(matcher.matches(".*[@/].*"), is(false));
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        File classesFolder = folder.newFolder();
+        Files.write(new File(classesFolder, "skywalking-plugin.def").toPath(), Arrays.asList(
+            "# test plugin",
+            "test=" + NameMatchDefine.class.getName(),
+            "test=org.example.MissingDefine",
+            "test=" + PrefixMatchDefine.class.getName()
+        ), StandardCharsets.UTF_8);
+        PluginIndexGenerator.main(new String[] {classesFolder.getPath()});
+
+        byte[] bytes = Files.readAllBytes(new File(classesFolder, PluginIndex.INDEX_FILE).toPath());
+        PluginIndex index = PluginIndex.readFrom(new ByteArrayInputStream(bytes));
+        assertThat(index.getDefines().size(), is(2));
+        assertThat(index.get("org.example.MissingDefine"), nullValue());
+        assertThat(bytes, is(toBytes(Arrays.asList(new NameMatchDefine(), new PrefixMatchDefine()))));
+    }
+
+    @Test
+    public void testGenerateConfigurable() throws Exception {
+        File classesFolder = folder.newFolder();
+        Files.write(new File(classesFolder, "skywalking-plugin.def").toPath(), Arrays.asList(
+            "test=" + NameMatchDefine.class.getName(),
+            "test=" + HierarchyMatchDefine.class.getName()
+        ), StandardCharsets.UTF_8);
+        String configClassFile = TestPluginConfig.class.getName().replace('.', '/') + ".class";
+        File copiedConfigClass = new File(classesFolder, configClassFile);
+        assertThat(copiedConfigClass.getParentFile().mkdirs(), is(true));
+        try (InputStream input = PluginIndexTest.class.getClassLoader().getResourceAsStream(configClassFile)) {
+            Files.copy(input, copiedConfigClass.toPath());
+        }
+        PluginIndexGenerator.main(new String[] {classesFolder.getPath()});
+
+        PluginIndex index = PluginIndex.readFrom(new ByteArrayInputStream(
+            Files.readAllBytes(new File(classesFolder, PluginIndex.INDEX_FILE).toPath())));
+        assertThat(index.get(NameMatchDefine.class.getName()).getMatchKind(), is(PluginIndex.MatchKind.NAME));
+        PluginIndex.DefineMetadata hierarchyMatch = index.get(HierarchyMatchDefine.class.getName());
+        assertThat(hierarchyMatch.getMatchKind(), is(PluginIndex.MatchKind.OTHER));
+        assertThat(hierarchyMatch.toClassMatch(), nullValue());
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownFormat() throws IOException {
+        byte[] bytes = toBytes(Collections.singletonList(new NameMatchDefine()));
+        bytes[7]++;
+        PluginIndex.readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    @Test
+    public void testLazyActivation() throws Exception {
+        PluginIndex index = PluginIndex.of(Arrays.asList(new NameMatchDefine(), new PrefixMatchDefine()));
+        INSTANCES.set(0);
+        LazyPluginDefine nameMatch = lazy(index, NameMatchDefine.class);
+        LazyPluginDefine prefixMatch = lazy(index, PrefixMatchDefine.class);
+        PluginFinder finder = new PluginFinder(Arrays.asList(nameMatch, prefixMatch));
+
+        assertThat(finder.find(TypeDescription.ForLoadedType.of(Integer.class)).isEmpty(), is(true));
+        assertThat(INSTANCES.get(), is(0));
+
+        List<AbstractClassEnhancePluginDefine> found = finder.find(TypeDescription.ForLoadedType.of(String.class));
+        assertThat(found.size(), is(1));
+        assertThat(found.get(0), instanceOf(NameMatchDefine.class));
+        assertThat(INSTANCES.get(), is(1));
+        assertThat(prefixMatch.isResolved(), is(false));
+
+        found = finder.find(TypeDescription.ForLoadedType.of(String.class));
+        assertThat(found.get(0), sameInstance(nameMatch.resolve()));
+        assertThat(INSTANCES.get(), is(1));
+        assertThat(finder.getPluginDefine(PrefixMatchDefine.class.getName()), instanceOf(PrefixMatchDefine.class));
+        assertThat(INSTANCES.get(), is(2));
+    }
+
+    @Test
+    public void testLazyActivationByConfiguredMatch() throws Exception {
+        PluginIndex index = PluginIndex.of(Collections.singletonList(new ConfigurableMatchDefine()));
+        ConfigurableMatchDefine.CLASSNAME_MATCH_REGEX = "java\\.util\\.HashMap";
+        try {
+            PluginFinder finder = new PluginFinder(
+                Collections.singletonList(lazy(index, ConfigurableMatchDefine.class)));
+
+            assertThat(finder.find(TypeDescription.ForLoadedType.of(HashSet.class)).isEmpty(), is(true));
+            List<AbstractClassEnhancePluginDefine> found = finder.find(TypeDescription.ForLoadedType.of(HashMap.class));
+            assertThat(found.size(), is(1));
+            assertThat(found.get(0), instanceOf(ConfigurableMatchDefine.class));
+        } finally {
+            ConfigurableMatchDefine.CLASSNAME_MATCH_REGEX = null;
+        }
+    }
+
+    @Test
+    public void testActivationFailure() throws Exception {
+        LazyPluginDefine missing = new LazyPluginDefine(
+            PluginDefine.build("test=org.example.MissingDefine"), NameMatch.byName(String.class.getName()));
+        PluginFinder finder = new PluginFinder(Collections.singletonList(missing));
+
+        assertThat(finder.find(TypeDescription.ForLoadedType.of(String.class)).isEmpty(), is(true));
+        assertThat(finder.getPluginDefine("org.example.MissingDefine"), nullValue());
+    }
+
+    private static LazyPluginDefine lazy(PluginIndex index, Class<?> defineClass) throws Exception {
+        PluginDefine pluginDefine = PluginDefine.build("test=" + defineClass.getName());
+        return new LazyPluginDefine(pluginDefine, index.get(defineClass.getName()).toClassMatch());
+    }
+
+    private static byte[] toBytes(List<AbstractClassEnhancePluginDefine> pluginDefines) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PluginIndex.of(pluginDefines).writeTo(out);
+        return out.toByteArray();
+    }
+
+    @PluginConfig(root = PluginIndexTest.class)
+    public static class TestPluginConfig {
+    }
+
+    public static class NameMatchDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        public NameMatchDefine() {
+            INSTANCES.incrementAndGet();
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return NameMatch.byName(String.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        protected String[] witnessClasses() {
+            return new String[] {"java.lang.StringBuilder"};
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("trim");
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return "org.example.TrimInterceptor";
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return true;
+                    }
+                }
+            };
+        }
+    }
+
+    public static class PrefixMatchDefine extends NameMatchDefine {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return PrefixMatch.nameStartsWith("java.util.Hash", "java.util.Tree");
+        }
+    }
+
+    /**
+     * The match is narrowed by the config, as the spring annotation plugin does.
+     */
+    public static class ConfigurableMatchDefine extends NameMatchDefine {
+        private static String CLASSNAME_MATCH_REGEX = null;
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            PrefixMatch prefixMatch = PrefixMatch.nameStartsWith("java.util.Hash");
+            if (CLASSNAME_MATCH_REGEX == null) {
+                return prefixMatch;
+            }
+            return LogicalMatchOperation.and(prefixMatch, RegexMatch.byRegexMatch(CLASSNAME_MATCH_REGEX));
+        }
+    }
+
+    public static class HierarchyMatchDefine extends NameMatchDefine {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return HierarchyMatch.byHierarchyMatch(CharSequence.class.getName());
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return target -> true;
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return "org.example.LengthInterceptor";
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.cache;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.ClassFileLocator;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassInjector;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.ClassInstanceMethodsEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.EnhancedInstance;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InstanceMethodsAroundInterceptor;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.MethodInterceptResult;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.apache.skywalking.apm.agent.core.plugin.match.NameMatch;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EnhancedClassCacheTest {
+    private static final String INTERNAL_NAME = Target.class.getName().replace('.', '/');
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private PluginFinder pluginFinder;
+    private byte[] origin;
+
+    @Before
+    public void setUp() {
+        pluginFinder = new PluginFinder(Collections.singletonList(new TargetInstrumentation()));
+        origin = ClassFileLocator.ForClassLoader.read(Target.class);
+        TargetInterceptor.CALLS.set(0);
+    }
+
+    @Test
+    public void testLoadEnhancedClass() throws Exception {
+        EnhancedClassCache cache = new EnhancedClassCache(temporaryFolder.getRoot(), "fingerprint", pluginFinder);
+        ClassLoader enhancedLoader = newClassLoader();
+        assertThat(cache.transform(enhancedLoader, INTERNAL_NAME, null, null, origin), nullValue());
+        inject(enhancedLoader, enhance(cache, enhancedLoader));
+        assertThat(greet(enhancedLoader), is("hello world"));
+        assertThat(TargetInterceptor.CALLS.get(), is(1));
+        assertThat(cache.getStores(), is(1L));
+
+        // Reopen the cache as the application restarts.
+        cache = new EnhancedClassCache(temporaryFolder.getRoot(), "fingerprint", pluginFinder);
+        ClassLoader cachedLoader = newClassLoader();
+        byte[] cached = cache.transform(cachedLoader, INTERNAL_NAME, null, null, origin);
+        assertThat(cached, notNullValue());
+        inject(cachedLoader, cached);
+        assertThat(greet(cachedLoader), is("hello world"));
+        assertThat(TargetInterceptor.CALLS.get(), is(2));
+        assertThat(cache.getHits(), is(1L));
+        assertThat(isServed(cache, cachedLoader), is(true));
+        assertThat(isServed(cache, enhancedLoader), is(false));
+    }
+
+    @Test
+    public void testMissWhenOriginChanged() throws Exception {
+        EnhancedClassCache cache = new EnhancedClassCache(temporaryFolder.getRoot(), "fingerprint", pluginFinder);
+        ClassLoader classLoader = newClassLoader();
+        cache.transform(classLoader, INTERNAL_NAME, null, null, origin);
+        enhance(cache, classLoader);
+
+        byte[] changed = origin.clone();
+        changed[changed.length - 1]++;
+        assertThat(cache.transform(newClassLoader(), INTERNAL_NAME, null, null, changed), nullValue());
+        assertThat(cache.getHits(), is(0L));
+    }
+
+    @Test
+    public void testInvalidateBrokenEntry() throws Exception {
+        EnhancedClassCache cache = new EnhancedClassCache(temporaryFolder.getRoot(), "fingerprint", pluginFinder);
+        ClassLoader classLoader = newClassLoader();
+        cache.transform(classLoader, INTERNAL_NAME, null, null, origin);
+        enhance(cache, classLoader);
+
+        File[] entries = new File(temporaryFolder.getRoot(), "fingerprint").listFiles();
+        assertThat(entries.length, is(1));
+        try (OutputStream out = new FileOutputStream(entries[0])) {
+            out.write(new byte[] {1, 2, 3});
+        }
+        assertThat(cache.transform(newClassLoader(), INTERNAL_NAME, null, null, origin), nullValue());
+        assertThat(cache.getInvalidations(), is(1L));
+        assertThat(entries[0].exists(), is(false));
+    }
+
+    @Test
+    public void testRemoveStaleFingerprint() throws IOException {
+        File stale = temporaryFolder.newFolder("stale");
+        assertThat(new File(stale, "a.swc").createNewFile(), is(true));
+        new EnhancedClassCache(temporaryFolder.getRoot(), "fingerprint", pluginFinder);
+        assertThat(stale.exists(), is(false));
+        assertThat(new File(temporaryFolder.getRoot(), "fingerprint").isDirectory(), is(true));
+    }
+
+    /**
+     * Enhance the class as the agent does, and write it into the cache.
+     */
+    private byte[] enhance(EnhancedClassCache cache, ClassLoader classLoader) {
+        TypeDescription typeDescription = TypeDescription.ForLoadedType.of(Target.class);
+        AbstractClassEnhancePluginDefine define = pluginFinder.getPluginDefine(TargetInstrumentation.class.getName());
+        EnhanceContext context = new EnhanceContext();
+        DynamicType.Builder<?> builder = define.define(
+            typeDescription,
+            new ByteBuddy().rebase(typeDescription, ClassFileLocator.Simple.of(Target.class.getName(), origin)),
+            classLoader, context
+        );
+        List<AbstractClassEnhancePluginDefine> defines = Collections.singletonList(define);
+        cache.prepare(Target.class.getName(), classLoader, defines, defines, context);
+
+        AgentBuilder.InitializationStrategy.Dispatcher dispatcher = cache.initializationStrategy().dispatcher();
+        DynamicType.Unloaded<?> dynamicType = dispatcher.apply(builder).make();
+        dispatcher.register(dynamicType, classLoader, null, AgentBuilder.InjectionStrategy.UsingReflection.INSTANCE);
+        return dynamicType.getBytes();
+    }
+
+    private static ClassLoader newClassLoader() {
+        return new URLClassLoader(new URL[0], EnhancedClassCacheTest.class.getClassLoader());
+    }
+
+    private static void inject(ClassLoader classLoader, byte[] bytes) {
+        new ClassInjector.UsingReflection(classLoader).injectRaw(Collections.singletonMap(Target.class.getName(), bytes));
+    }
+
+    private static String greet(ClassLoader classLoader) throws Exception {
+        Class<?> type = Class.forName(Target.class.getName(), true, classLoader);
+        Method greet = type.getMethod("greet", String.class);
+        return (String) greet.invoke(type.newInstance(), "world");
+    }
+
+    private static boolean isServed(EnhancedClassCache cache, ClassLoader classLoader) {
+        return cache.servedClasses()
+                    .matches(TypeDescription.ForLoadedType.of(Target.class), classLoader, null, null, null);
+    }
+
+    public static class Target {
+        public String greet(String name) {
+            return "hello " + name;
+        }
+    }
+
+    public static class TargetInterceptor implements InstanceMethodsAroundInterceptor {
+        static final AtomicInteger CALLS = new AtomicInteger();
+
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+            CALLS.incrementAndGet();
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            return ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+        }
+    }
+
+    public static class TargetInstrumentation extends ClassInstanceMethodsEnhancePluginDefine {
+        public TargetInstrumentation() {
+            setPluginName("test");
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return NameMatch.byName(Target.class.getName());
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return named("greet");
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return TargetInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+}
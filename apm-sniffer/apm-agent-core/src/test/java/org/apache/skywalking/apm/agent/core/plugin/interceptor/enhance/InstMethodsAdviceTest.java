@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.method.MethodDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.matcher.ElementMatcher;
+import org.apache.skywalking.apm.agent.core.plugin.AbstractClassEnhancePluginDefine;
+import org.apache.skywalking.apm.agent.core.plugin.EnhanceContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.ConstructorInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InlineInstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.InstanceMethodsInterceptPoint;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.ClassInstanceMethodsEnhancePluginDefineV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.InstanceMethodsAroundInterceptorV2;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.v2.MethodInvocationContext;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InlineInstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.v2.InstanceMethodsInterceptV2Point;
+import org.apache.skywalking.apm.agent.core.plugin.match.ClassMatch;
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.bytebuddy.matcher.ElementMatchers.named;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.fail;
+
+public class InstMethodsAdviceTest {
+    private static final ElementMatcher<MethodDescription> METHODS = named("greet").or(named("add")).or(named("fail"));
+    public static final List<String> EVENTS = new ArrayList<>();
+    public static final List<Class<?>[]> ARGUMENTS_TYPES = new ArrayList<>();
+
+    private static int ENHANCED_CLASSES = 0;
+
+    @Before
+    public void setUp() {
+        EVENTS.clear();
+        ARGUMENTS_TYPES.clear();
+    }
+
+    @Test
+    public void testInlineSameAsDelegation() throws Exception {
+        for (boolean inline : new boolean[] {true, false}) {
+            EVENTS.clear();
+            Greeter target = newEnhanced(new TargetDefine(inline));
+            assertThat(target, instanceOf(EnhancedInstance.class));
+
+            assertThat(target.greet("sw"), is("hello sw!"));
+            assertThat(target.greet("skip"), is("skipped!"));
+            assertThat(target.add(1, 2), is(3));
+            try {
+                target.fail();
+                fail();
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage(), is("failed"));
+            }
+            assertThat(EVENTS.toString(), is(
+                "[before greet [sw], origin greet, after greet hello sw, "
+                    + "before greet [skip], after greet skipped, "
+                    + "before add [1, 2], after add 3, "
+                    + "before fail [], exception fail failed, after fail null]"));
+        }
+    }
+
+    @Test
+    public void testParameterTypesResolvedOnce() throws Exception {
+        Greeter target = newEnhanced(new TargetDefine(true));
+        target.greet("a");
+        target.greet("b");
+        assertThat(ARGUMENTS_TYPES.size(), is(2));
+        assertThat(ARGUMENTS_TYPES.get(0), sameInstance(ARGUMENTS_TYPES.get(1)));
+        assertThat(ARGUMENTS_TYPES.get(0)[0], sameInstance((Object) String.class));
+    }
+
+    @Test
+    public void testSiteTableHeldByEnhancedClass() throws Exception {
+        Greeter target = newEnhanced(new TargetDefine(true));
+        InlineInterceptSite.Table table = null;
+        for (Field field : target.getClass().getDeclaredFields()) {
+            if (field.getType() == InlineInterceptSite.Table.class) {
+                assertThat(Modifier.isStatic(field.getModifiers()), is(true));
+                field.setAccessible(true);
+                table = (InlineInterceptSite.Table) field.get(null);
+            }
+        }
+        assertThat(table, instanceOf(InlineInterceptSite.Table.class));
+        assertThat(table.get(0), instanceOf(InlineInterceptSite.class));
+    }
+
+    @Test
+    public void testInheritedMethodsFallbackToDelegation() throws Exception {
+        DynamicType.Builder<?> builder = new ByteBuddy().subclass(Target.class)
+                                                      .name(Target.class.getName() + "$Sub" + ENHANCED_CLASSES++);
+        ClassLoader classLoader = Target.class.getClassLoader();
+        builder = new TargetDefine(true).define(builder.toTypeDescription(), builder, classLoader, new EnhanceContext());
+        Greeter target = (Greeter) builder.make()
+                                          .load(classLoader, ClassLoadingStrategy.Default.WRAPPER)
+                                          .getLoaded()
+                                          .getDeclaredConstructor()
+                                          .newInstance();
+
+        assertThat(target.greet("sw"), is("hello sw!"));
+        assertThat(EVENTS.toString(), is("[before greet [sw], origin greet, after greet hello sw]"));
+        for (Field field : target.getClass().getDeclaredFields()) {
+            assertThat(field.getType() == InlineInterceptSite.Table.class, is(false));
+        }
+    }
+
+    @Test
+    public void testInlineV2PropagatesContext() throws Exception {
+        Greeter target = newEnhanced(new TargetDefineV2());
+        assertThat(target.greet("sw"), is("hello sw context"));
+        assertThat(target.add(1, 2), is(3));
+        assertThat(target.greet(null), nullValue());
+    }
+
+    private static Greeter newEnhanced(AbstractClassEnhancePluginDefine define) throws Exception {
+        DynamicType.Builder<?> builder = new ByteBuddy().rebase(Target.class)
+                                                      .name(Target.class.getName() + "$Enhanced" + ENHANCED_CLASSES++);
+        ClassLoader classLoader = Target.class.getClassLoader();
+        builder = define.define(builder.toTypeDescription(), builder, classLoader, new EnhanceContext());
+        return (Greeter) builder.make()
+                               .load(classLoader, ClassLoadingStrategy.Default.WRAPPER)
+                               .getLoaded()
+                               .getDeclaredConstructor()
+                               .newInstance();
+    }
+
+    public interface Greeter {
+        String greet(String name);
+
+        int add(int a, int b);
+
+        void fail();
+    }
+
+    public static class Target implements Greeter {
+        @Override
+        public String greet(String name) {
+            EVENTS.add("origin greet");
+            return name == null ? null : "hello " + name;
+        }
+
+        @Override
+        public int add(int a, int b) {
+            return a + b;
+        }
+
+        @Override
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    public static class RecordingInterceptor implements InstanceMethodsAroundInterceptor {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInterceptResult result) {
+            EVENTS.add("before " + method.getName() + " " + Arrays.toString(allArguments));
+            ARGUMENTS_TYPES.add(argumentsTypes);
+            if ("skip".equals(allArguments.length > 0 ? allArguments[0] : null)) {
+                result.defineReturnValue("skipped");
+            }
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret) {
+            EVENTS.add("after " + method.getName() + " " + ret);
+            return ret instanceof String ? ret + "!" : ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t) {
+            EVENTS.add("exception " + method.getName() + " " + t.getMessage());
+        }
+    }
+
+    public static class ContextInterceptor implements InstanceMethodsAroundInterceptorV2 {
+        @Override
+        public void beforeMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                 Class<?>[] argumentsTypes, MethodInvocationContext context) {
+            context.setContext(" context");
+        }
+
+        @Override
+        public Object afterMethod(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                  Class<?>[] argumentsTypes, Object ret, MethodInvocationContext context) {
+            return ret instanceof String ? ret + (String) context.getContext() : ret;
+        }
+
+        @Override
+        public void handleMethodException(EnhancedInstance objInst, Method method, Object[] allArguments,
+                                          Class<?>[] argumentsTypes, Throwable t, MethodInvocationContext context) {
+        }
+    }
+
+    public static class TargetDefine extends ClassInstanceMethodsEnhancePluginDefine {
+        private final boolean inline;
+
+        public TargetDefine(boolean inline) {
+            this.inline = inline;
+        }
+
+        @Override
+        protected ClassMatch enhanceClass() {
+            return null;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptPoint[] getInstanceMethodsInterceptPoints() {
+            if (inline) {
+                return new InstanceMethodsInterceptPoint[] {
+                    new InlineInstanceMethodsInterceptPoint() {
+                        @Override
+                        public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                            return METHODS;
+                        }
+
+                        @Override
+                        public String getMethodsInterceptor() {
+                            return RecordingInterceptor.class.getName();
+                        }
+
+                        @Override
+                        public boolean isOverrideArgs() {
+                            return false;
+                        }
+                    }
+                };
+            }
+            return new InstanceMethodsInterceptPoint[] {
+                new InstanceMethodsInterceptPoint() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return METHODS;
+                    }
+
+                    @Override
+                    public String getMethodsInterceptor() {
+                        return RecordingInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+
+    public static class TargetDefineV2 extends ClassInstanceMethodsEnhancePluginDefineV2 {
+        @Override
+        protected ClassMatch enhanceClass() {
+            return null;
+        }
+
+        @Override
+        public ConstructorInterceptPoint[] getConstructorsInterceptPoints() {
+            return new ConstructorInterceptPoint[0];
+        }
+
+        @Override
+        public InstanceMethodsInterceptV2Point[] getInstanceMethodsInterceptV2Points() {
+            return new InstanceMethodsInterceptV2Point[] {
+                new InlineInstanceMethodsInterceptV2Point() {
+                    @Override
+                    public ElementMatcher<MethodDescription> getMethodsMatcher() {
+                        return METHODS;
+                    }
+
+                    @Override
+                    public String getMethodsInterceptorV2() {
+                        return ContextInterceptor.class.getName();
+                    }
+
+                    @Override
+                    public boolean isOverrideArgs() {
+                        return false;
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance;
+
+import java.lang.reflect.Method;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class InterceptSitesTest {
+    @After
+    public void tearDown() {
+        InterceptSite.setTimeCostSampleInterval(1);
+    }
+
+    @Test
+    public void testSitePerMethod() throws Exception {
+        Method trim = String.class.getMethod("trim");
+        Method indexOf = String.class.getMethod("indexOf", String.class, int.class);
+        InterceptSites sites = new InterceptSites();
+
+        InterceptSite site = sites.get(trim);
+        assertThat(sites.get(trim), sameInstance(site));
+        assertThat(sites.get(String.class.getMethod("trim")), sameInstance(site));
+        assertThat(site.getParameterTypes().length, is(0));
+
+        InterceptSite otherSite = sites.get(indexOf);
+        assertThat(otherSite, not(sameInstance(site)));
+        assertThat(sites.get(indexOf), sameInstance(otherSite));
+        assertThat(otherSite.getParameterTypes(), is(new Class<?>[] {String.class, int.class}));
+        assertThat(otherSite.getParameterTypes(), sameInstance(sites.get(indexOf).getParameterTypes()));
+    }
+
+    @Test
+    public void testTimeCostSampling() {
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sampled += InterceptSite.isTimeCostSampled() ? 1 : 0;
+        }
+        assertThat(sampled, is(100_000));
+        assertThat(InterceptSite.nanoTime(false), is(0L));
+
+        InterceptSite.setTimeCostSampleInterval(100);
+        sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            sampled += InterceptSite.isTimeCostSampled() ? 1 : 0;
+        }
+        assertThat(sampled > 500 && sampled < 1500, is(true));
+    }
+}
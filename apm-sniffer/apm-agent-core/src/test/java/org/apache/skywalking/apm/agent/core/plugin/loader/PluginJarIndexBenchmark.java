@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import net.bytebuddy.ByteBuddy;
+import org.apache.skywalking.apm.agent.core.boot.AgentPackagePath;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.core.LogLevel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the plugin class loading of an agent, which creates an agent classloader for each of 10 application
+ * classloaders holding enhanced classes, and every agent classloader defines 10 interceptors from a plugin folder of
+ * 100 jars.
+ * <p>
+ * {@code scanJars} is how every agent classloader worked before {@link PluginJarIndex}: open all the jars, and scan them
+ * one by one for every class. {@code sharedIndex} builds the index once, and defines the classes through fresh
+ * {@link AgentClassLoader}s sharing it. Both define the classes, so the index saves the repeated jar opening and
+ * scanning, rather than the whole loading.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PluginJarIndexBenchmark {
+    private static final int JARS = 100;
+    private static final int CLASSES_PER_JAR = 50;
+    private static final int LOADED_CLASSES = 10;
+    private static final int AGENT_CLASSLOADERS = 10;
+
+    private List<File> classpath;
+    private final List<String> interceptors = new ArrayList<>();
+    private Field jarIndexField;
+
+    @Setup
+    public void setup() throws Exception {
+        File agent = Files.createTempDirectory("agent").toFile();
+        agent.deleteOnExit();
+        File plugins = new File(agent, "plugins");
+        plugins.mkdir();
+        plugins.deleteOnExit();
+        for (int i = 0; i < JARS; i++) {
+            File file = new File(plugins, "plugin-" + i + ".jar");
+            file.deleteOnExit();
+            try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file))) {
+                for (int j = 0; j < CLASSES_PER_JAR; j++) {
+                    String className = "org.example.plugin" + i + ".Interceptor" + j;
+                    jar.putNextEntry(new JarEntry(className.replace('.', '/') + ".class"));
+                    jar.write(new ByteBuddy().subclass(Object.class).name(className).make().getBytes());
+                    jar.closeEntry();
+                }
+            }
+        }
+        for (int i = 0; i < LOADED_CLASSES; i++) {
+            interceptors.add("org.example.plugin" + (i * JARS / LOADED_CLASSES) + ".Interceptor" + i);
+        }
+        classpath = Collections.singletonList(plugins);
+
+        Field agentPackagePath = AgentPackagePath.class.getDeclaredField("AGENT_PACKAGE_PATH");
+        agentPackagePath.setAccessible(true);
+        agentPackagePath.set(null, agent);
+        Config.Plugin.MOUNT = Collections.singletonList("plugins");
+        // Not to measure the log of every opened jar.
+        Config.Logging.LEVEL = LogLevel.WARN;
+        jarIndexField = AgentClassLoader.class.getDeclaredField("jarIndex");
+        jarIndexField.setAccessible(true);
+    }
+
+    @Benchmark
+    public int scanJars() throws Exception {
+        int loaded = 0;
+        for (int i = 0; i < AGENT_CLASSLOADERS; i++) {
+            ScanningClassLoader classLoader = new ScanningClassLoader(classpath);
+            try {
+                for (String interceptor : interceptors) {
+                    loaded += classLoader.loadClass(interceptor) != null ? 1 : 0;
+                }
+            } finally {
+                classLoader.close();
+            }
+        }
+        return loaded;
+    }
+
+    @Benchmark
+    public int sharedIndex() throws Exception {
+        // Not the index shared by PluginJarIndex.of, so it is built in every run.
+        PluginJarIndex index = new PluginJarIndex(classpath);
+        int loaded = 0;
+        try {
+            for (int i = 0; i < AGENT_CLASSLOADERS; i++) {
+                AgentClassLoader classLoader = new AgentClassLoader(PluginJarIndexBenchmark.class.getClassLoader());
+                jarIndexField.set(classLoader, index);
+                for (String interceptor : interceptors) {
+                    loaded += classLoader.loadClass(interceptor) != null ? 1 : 0;
+                }
+            }
+        } finally {
+            index.close();
+        }
+        return loaded;
+    }
+
+    /**
+     * The agent classloader before {@link PluginJarIndex}.
+     */
+    private static class ScanningClassLoader extends ClassLoader {
+        private final List<File> jarFiles = new ArrayList<>();
+        private final List<JarFile> jars = new ArrayList<>();
+
+        private ScanningClassLoader(List<File> classpath) throws IOException {
+            super(PluginJarIndexBenchmark.class.getClassLoader());
+            for (File path : classpath) {
+                for (String fileName : path.list((dir, name) -> name.endsWith(".jar"))) {
+                    File file = new File(path, fileName);
+                    jarFiles.add(file);
+                    jars.add(new JarFile(file));
+                }
+            }
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            String path = name.replace('.', '/').concat(".class");
+            for (int i = 0; i < jars.size(); i++) {
+                if (jars.get(i).getJarEntry(path) == null) {
+                    continue;
+                }
+                try {
+                    URL classFileUrl = new URL("jar:file:" + jarFiles.get(i).getAbsolutePath() + "!/" + path);
+                    byte[] data;
+                    try (InputStream is = new BufferedInputStream(classFileUrl.openStream());
+                         ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+                        int ch;
+                        while ((ch = is.read()) != -1) {
+                            baos.write(ch);
+                        }
+                        data = baos.toByteArray();
+                    }
+                    return defineClass(name, data, 0, data.length);
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+            throw new ClassNotFoundException(name);
+        }
+
+        private void close() throws IOException {
+            for (JarFile jar : jars) {
+                jar.close();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder().include(PluginJarIndexBenchmark.class.getSimpleName()).build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM
+     *
+     * Benchmark                            Mode  Cnt      Score      Error  Units
+     * PluginJarIndexBenchmark.scanJars     avgt    5  24442.731 +- 4844.616  us/op
+     * PluginJarIndexBenchmark.sharedIndex  avgt    5   6032.066 +- 1737.455  us/op
+     */
+}
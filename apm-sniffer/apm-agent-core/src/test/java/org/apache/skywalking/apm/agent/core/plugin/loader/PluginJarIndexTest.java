@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.loader;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class PluginJarIndexTest {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private List<File> classpath;
+
+    @Before
+    public void setUp() throws IOException {
+        File plugins = temporaryFolder.newFolder("plugins");
+        File activations = temporaryFolder.newFolder("activations");
+        writeJar(new File(plugins, "a.jar"), "org/example/a/AInterceptor.class", "a",
+                 "org/example/Shared.class", "shared-a", "skywalking-plugin.def", "a=org.example.a.ADefine");
+        writeJar(new File(plugins, "b.jar"), "org/example/b/BInterceptor.class", "b",
+                 "org/example/Shared.class", "shared-b", "skywalking-plugin.def", "b=org.example.b.BDefine");
+        writeJar(new File(activations, "c.jar"), "org/example/c/CActivation.class", "c");
+        classpath = Arrays.asList(plugins, activations, new File(temporaryFolder.getRoot(), "absent"));
+    }
+
+    @Test
+    public void testFindClassBytes() throws IOException {
+        PluginJarIndex index = new PluginJarIndex(classpath);
+        assertThat(new String(index.findClassBytes("org.example.a.AInterceptor"), StandardCharsets.UTF_8), is("a"));
+        assertThat(new String(index.findClassBytes("org.example.b.BInterceptor"), StandardCharsets.UTF_8), is("b"));
+        assertThat(new String(index.findClassBytes("org.example.c.CActivation"), StandardCharsets.UTF_8), is("c"));
+        assertThat(index.findClassBytes("org.example.a.Absent"), nullValue());
+        assertThat(index.findClassBytes("org.absent.AInterceptor"), nullValue());
+
+        // The first jar of the classpath wins, and the bytes are read once.
+        byte[] shared = index.findClassBytes("org.example.Shared");
+        assertThat(new String(shared, StandardCharsets.UTF_8), is(firstJar("shared-a", "shared-b")));
+        assertThat(index.findClassBytes("org.example.Shared"), sameInstance(shared));
+    }
+
+    @Test
+    public void testFindResources() throws IOException {
+        PluginJarIndex index = new PluginJarIndex(classpath);
+        List<URL> definitions = index.findResources("skywalking-plugin.def");
+        assertThat(definitions.size(), is(2));
+        assertThat(definitions.get(0).toString(), endsWith(firstJar("a.jar", "b.jar") + "!/skywalking-plugin.def"));
+        assertThat(index.findResource("skywalking-plugin.def"), is(definitions.get(0)));
+        assertThat(index.findResource("org/example/c/CActivation.class").toString(), endsWith("c.jar!/org/example/c/CActivation.class"));
+        assertThat(index.findResource("absent.def"), nullValue());
+        assertThat(index.findResources("absent.def"), is(Collections.<URL>emptyList()));
+    }
+
+    @Test
+    public void testSharedByClasspath() {
+        assertThat(PluginJarIndex.of(classpath), sameInstance(PluginJarIndex.of(Arrays.asList(classpath.toArray(new File[0])))));
+    }
+
+    /**
+     * The jars of a folder are indexed in the order of {@link File#list()}, which is up to the file system.
+     */
+    private String firstJar(String ofA, String ofB) {
+        String[] jars = classpath.get(0).list();
+        return jars[0].equals("a.jar") ? ofA : ofB;
+    }
+
+    private static void writeJar(File file, String... entries) throws IOException {
+        try (JarOutputStream jar = new JarOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < entries.length; i += 2) {
+                jar.putNextEntry(new JarEntry(entries[i]));
+                jar.write(entries[i + 1].getBytes(StandardCharsets.UTF_8));
+                jar.closeEntry();
+            }
+        }
+    }
+}
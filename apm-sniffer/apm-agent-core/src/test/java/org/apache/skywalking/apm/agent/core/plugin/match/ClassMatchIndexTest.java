@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.plugin.match;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import net.bytebuddy.description.type.TypeDescription;
+import org.apache.skywalking.apm.agent.core.plugin.match.logical.LogicalMatchOperation;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.apache.skywalking.apm.agent.core.plugin.match.ClassAnnotationMatch.byClassAnnotationMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.HierarchyMatch.byHierarchyMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.MultiClassNameMatch.byMultiClassMatch;
+import static org.apache.skywalking.apm.agent.core.plugin.match.PrefixMatch.nameStartsWith;
+import static org.apache.skywalking.apm.agent.core.plugin.match.RegexMatch.byRegexMatch;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class ClassMatchIndexTest {
+    private static final List<Class<?>> TYPES = Arrays.asList(
+        MatchTest.TestService.class, MatchTest.TestDao.class, MatchTest.TestRepository.class, ArrayList.class,
+        HashMap.class, ConcurrentHashMap.class, String.class, Task.class, ClassMatchIndexTest.class
+    );
+
+    private final Map<String, IndirectMatch> matches = new LinkedHashMap<>();
+    private final ClassMatchIndex<String> index = new ClassMatchIndex<>();
+
+    @Before
+    public void setUp() {
+        matches.put("multi", byMultiClassMatch(ArrayList.class.getName(), String.class.getName()));
+        matches.put("prefix", nameStartsWith("java.util.concurrent.", MatchTest.class.getName() + "$TestD"));
+        matches.put("shorterPrefix", nameStartsWith("java.util."));
+        matches.put("annotation", byClassAnnotationMatch(MatchTestAnnotation.class.getName()));
+        matches.put("hierarchy", byHierarchyMatch(List.class.getName(), java.util.RandomAccess.class.getName()));
+        matches.put("superClass", byHierarchyMatch(java.util.AbstractMap.class.getName()));
+        matches.put("interfaces", byHierarchyMatch(Runnable.class.getName(), Serializable.class.getName()));
+        matches.put("regex", byRegexMatch(".*Service.*"));
+        matches.put("logical", LogicalMatchOperation.and(
+            byRegexMatch(".*Repository.*"), byClassAnnotationMatch(MatchTestAnnotation.class.getName())));
+        for (Map.Entry<String, IndirectMatch> match : matches.entrySet()) {
+            index.add(match.getKey(), match.getValue());
+        }
+    }
+
+    @Test
+    public void testFindAsCheckingOneByOne() {
+        for (Class<?> type : TYPES) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            List<String> expected = new ArrayList<>();
+            for (Map.Entry<String, IndirectMatch> match : matches.entrySet()) {
+                if (match.getValue().isMatch(typeDescription)) {
+                    expected.add(match.getKey());
+                }
+            }
+            assertThat(type.getName(), index.find(typeDescription), is(expected));
+        }
+        assertThat(
+            index.find(TypeDescription.ForLoadedType.of(ArrayList.class)),
+            is(Arrays.asList("multi", "shorterPrefix", "hierarchy"))
+        );
+    }
+
+    @Test
+    public void testMatchAsJunctions() {
+        for (Class<?> type : TYPES) {
+            TypeDescription typeDescription = TypeDescription.ForLoadedType.of(type);
+            boolean expected = false;
+            for (IndirectMatch match : matches.values()) {
+                expected |= match.buildJunction().matches(typeDescription);
+            }
+            assertThat(type.getName(), index.matches(typeDescription), is(expected));
+        }
+        assertThat(index.matches(TypeDescription.ForLoadedType.of(ClassMatchIndexTest.class)), is(false));
+        assertThat(new ClassMatchIndex<String>().matches(TypeDescription.ForLoadedType.of(String.class)), is(false));
+    }
+
+    public static class Task implements Runnable, Serializable {
+        @Override
+        public void run() {
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.red;
+
+import java.util.Collections;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.context.IgnoredTracerContext;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.EntrySpan;
+import org.apache.skywalking.apm.agent.core.context.trace.ExitSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.NoopSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.meter.AbstractHistogram;
+import org.apache.skywalking.apm.agent.core.meter.Counter;
+import org.apache.skywalking.apm.agent.core.meter.MeterId;
+import org.apache.skywalking.apm.agent.core.meter.MeterTag;
+import org.apache.skywalking.apm.agent.core.meter.MeterType;
+import org.apache.skywalking.apm.network.language.agent.v3.MeterBucketValue;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class RedMetricsServiceTest {
+
+    @After
+    public void tearDown() {
+        Config.Red.MAX_ENDPOINTS = 100;
+        Config.Red.MAX_PEERS = 50;
+    }
+
+    @Test
+    public void testIgnoredTracerContext() {
+        final RedMetricsService service = new RedMetricsService();
+        final IgnoredTracerContext context = new IgnoredTracerContext(service);
+
+        final AbstractSpan entry = context.createEntrySpan("/tomcat");
+        // nested entry span is merged, with the new operation name
+        assertThat(context.createEntrySpan("/mvc/{id}"), sameInstance(entry));
+        assertThat(context.createLocalSpan("local"), instanceOf(NoopSpan.class));
+        context.stopSpan(context.activeSpan());
+
+        final AbstractSpan exit = context.createExitSpan("/call", "127.0.0.1:8080");
+        assertThat(context.createExitSpan("/http-client", "127.0.0.1:8080"), sameInstance(exit));
+        context.activeSpan().errorOccurred();
+        context.stopSpan(context.activeSpan());
+        assertThat(context.activeSpan(), sameInstance(exit));
+        context.stopSpan(context.activeSpan());
+
+        assertThat(context.activeSpan(), sameInstance(entry));
+        context.stopSpan(context.activeSpan());
+        assertThat(counter(service, "red_endpoint_calls_counter", "endpoint", "/mvc/{id}"), nullValue());
+        context.stopSpan(context.activeSpan());
+
+        assertThat(counter(service, "red_endpoint_calls_counter", "endpoint", "/mvc/{id}").get(), is(1d));
+        assertThat(counter(service, "red_endpoint_errors_counter", "endpoint", "/mvc/{id}").get(), is(0d));
+        assertThat(counter(service, "red_peer_calls_counter", "peer", "127.0.0.1:8080").get(), is(1d));
+        assertThat(counter(service, "red_peer_errors_counter", "peer", "127.0.0.1:8080").get(), is(1d));
+        assertThat(durationCount(service, "red_endpoint_duration", "endpoint", "/mvc/{id}"), is(1L));
+    }
+
+    @Test
+    public void testIgnoredTracerContextWithoutService() {
+        final IgnoredTracerContext context = new IgnoredTracerContext();
+        final AbstractSpan entry = context.createEntrySpan("/test");
+        assertThat(entry.isEntry(), is(false));
+        assertThat(context.stopSpan(entry), is(true));
+    }
+
+    @Test
+    public void testTraceSegment() {
+        final RedMetricsService service = new RedMetricsService();
+        final TraceSegment segment = new TraceSegment();
+
+        final EntrySpan entry = new EntrySpan(0, -1, "/test", null);
+        entry.start();
+        final ExitSpan exit = new ExitSpan(1, 0, "/call", "127.0.0.1:8080", null);
+        exit.start();
+        exit.errorOccurred();
+        exit.finish(segment);
+        final ExitSpan noPeer = new ExitSpan(2, 0, "/local-exit", null);
+        noPeer.start();
+        noPeer.finish(segment);
+        entry.finish(segment);
+
+        service.afterFinished(segment);
+
+        assertThat(counter(service, "red_endpoint_calls_counter", "endpoint", "/test").get(), is(1d));
+        assertThat(counter(service, "red_peer_errors_counter", "peer", "127.0.0.1:8080").get(), is(1d));
+        assertThat(service.getPeers().size(), is(1));
+    }
+
+    @Test
+    public void testMaxKeys() {
+        Config.Red.MAX_ENDPOINTS = 2;
+        final RedMetricsService service = new RedMetricsService();
+        for (int i = 0; i < 5; i++) {
+            service.recordEndpoint("/test" + i, 10, false);
+        }
+        service.recordEndpoint("/test0", 10, false);
+
+        assertThat(service.getEndpoints().size(), is(3));
+        assertThat(counter(service, "red_endpoint_calls_counter", "endpoint", "/test0").get(), is(2d));
+        assertThat(counter(service, "red_endpoint_calls_counter", "endpoint", RedMeters.OTHERS).get(), is(3d));
+        assertThat(service.getMeters().size(), is(9));
+    }
+
+    private static Counter counter(RedMetricsService service, String name, String label, String key) {
+        return (Counter) service.getMeters().get(meterId(name, MeterType.COUNTER, label, key));
+    }
+
+    private static long durationCount(RedMetricsService service, String name, String label, String key) {
+        final AbstractHistogram histogram = (AbstractHistogram) service.getMeters()
+                                                                       .get(meterId(name, MeterType.HISTOGRAM, label, key));
+        return histogram.transform().getHistogram().getValuesList()
+                        .stream().mapToLong(MeterBucketValue::getCount).sum();
+    }
+
+    private static MeterId meterId(String name, MeterType type, String label, String key) {
+        return new MeterId(name, type, Collections.singletonList(new MeterTag(label, key)));
+    }
+}
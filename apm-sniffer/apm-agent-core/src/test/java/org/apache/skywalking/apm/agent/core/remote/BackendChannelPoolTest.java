@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import io.grpc.testing.GrpcServerRule;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.skywalking.apm.network.common.v3.Commands;
+import org.apache.skywalking.apm.network.management.v3.InstancePingPkg;
+import org.apache.skywalking.apm.network.management.v3.ManagementServiceGrpc;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class BackendChannelPoolTest {
+
+    @Rule
+    public GrpcServerRule backendA = new GrpcServerRule().directExecutor();
+    @Rule
+    public GrpcServerRule backendB = new GrpcServerRule().directExecutor();
+    @Rule
+    public GrpcServerRule backendC = new GrpcServerRule().directExecutor();
+
+    private final Map<String, GrpcServerRule> backends = new HashMap<>();
+    private final Map<String, Integer> calls = new HashMap<>();
+    private BackendChannelPool pool;
+
+    @Before
+    public void setUp() {
+        backends.put("a", backendA);
+        backends.put("b", backendB);
+        backends.put("c", backendC);
+        backends.forEach((server, backend) -> backend.getServiceRegistry().addService(
+            new ManagementServiceGrpc.ManagementServiceImplBase() {
+                @Override
+                public void keepAlive(InstancePingPkg request, StreamObserver<Commands> responseObserver) {
+                    calls.merge(server, 1, Integer::sum);
+                    responseObserver.onNext(Commands.getDefaultInstance());
+                    responseObserver.onCompleted();
+                }
+            }));
+    }
+
+    @After
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRoundRobin() throws Exception {
+        pool = newPool(BackendPoolStrategy.ROUND_ROBIN, "a", "b");
+        for (int i = 0; i < 4; i++) {
+            keepAlive();
+        }
+        assertThat(calls.get("a"), is(2));
+        assertThat(calls.get("b"), is(2));
+    }
+
+    @Test
+    public void testLeastOutstanding() throws Exception {
+        pool = newPool(BackendPoolStrategy.LEAST_OUTSTANDING, "a", "b");
+        // Keep a call to backend a in flight.
+        ClientCall<InstancePingPkg, Commands> inFlight = pool.newCall(
+            ManagementServiceGrpc.getKeepAliveMethod(), CallOptions.DEFAULT);
+        inFlight.start(new ClientCall.Listener<Commands>() {
+        }, new Metadata());
+
+        for (int i = 0; i < 3; i++) {
+            keepAlive();
+        }
+        assertThat(calls.get("a"), is((Integer) null));
+        assertThat(calls.get("b"), is(3));
+
+        inFlight.cancel("test", null);
+        assertThat(pool.healthyCount(), is(2));
+        keepAlive();
+        keepAlive();
+        assertThat(calls.get("a"), is(1));
+    }
+
+    @Test
+    public void testEvictAndReplaceUnhealthyBackend() throws Exception {
+        pool = newPool(BackendPoolStrategy.ROUND_ROBIN, "a", "b");
+        backendA.getServer().shutdownNow();
+
+        int failures = 0;
+        for (int i = 0; i < 4; i++) {
+            try {
+                keepAlive();
+            } catch (StatusRuntimeException e) {
+                failures++;
+            }
+        }
+        assertThat(failures, is(1));
+        assertThat(calls.get("b"), is(3));
+        assertThat(pool.healthyCount(), is(1));
+
+        assertThat(pool.check(Arrays.asList("a", "b", "c")), is(2));
+        keepAlive();
+        keepAlive();
+        assertThat(calls.get("b"), is(4));
+        assertThat(calls.get("c"), is(1));
+    }
+
+    @Test
+    public void testAuthorityOfSelectedBackend() throws Exception {
+        pool = new BackendChannelPool(
+            BackendPoolStrategy.ROUND_ROBIN, Arrays.asList("a", "b"),
+            server -> new GRPCChannel(
+                InProcessChannelBuilder.forName(backends.get(server).getServerName())
+                                       .overrideAuthority(server)
+                                       .directExecutor()
+                                       .build(),
+                Collections.emptyList()
+            )
+        );
+        backendA.getServer().shutdownNow();
+        for (int i = 0; i < 2; i++) {
+            try {
+                keepAlive();
+            } catch (StatusRuntimeException ignored) {
+            }
+        }
+        assertThat(pool.healthyCount(), is(1));
+        for (int i = 0; i < 3; i++) {
+            assertThat(pool.authority(), is("b"));
+            keepAlive();
+        }
+    }
+
+    private BackendChannelPool newPool(BackendPoolStrategy strategy, String... servers) throws Exception {
+        return new BackendChannelPool(
+            strategy, Arrays.asList(servers),
+            server -> new GRPCChannel(backends.get(server).getChannel(), Collections.emptyList())
+        );
+    }
+
+    private void keepAlive() {
+        ManagementServiceGrpc.newBlockingStub(pool).keepAlive(InstancePingPkg.getDefaultInstance());
+    }
+}
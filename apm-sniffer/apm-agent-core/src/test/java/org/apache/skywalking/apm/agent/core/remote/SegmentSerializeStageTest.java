@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SegmentSerializeStageTest {
+
+    @Test
+    public void testSerializeOnConsumerThread() {
+        SegmentSerializeStage<String> stage = new SegmentSerializeStage<>(
+            "test", 0, true, TraceSegment::getTraceSegmentId);
+        List<TraceSegment> segments = createSegments(10);
+        List<String> payloads = new ArrayList<>();
+        stage.process(segments, payloads::add);
+
+        assertThat(payloads, is(ids(segments)));
+        stage.shutdown();
+    }
+
+    @Test
+    public void testOrderedParallelSerialize() {
+        SegmentSerializeStage<String> stage = new SegmentSerializeStage<>(
+            "test", 4, true, TraceSegment::getTraceSegmentId);
+        List<TraceSegment> segments = createSegments(100);
+        List<String> payloads = new ArrayList<>();
+        stage.process(segments, payloads::add);
+
+        assertThat(payloads, is(ids(segments)));
+        stage.shutdown();
+    }
+
+    @Test
+    public void testUnorderedParallelSerialize() {
+        SegmentSerializeStage<String> stage = new SegmentSerializeStage<>(
+            "test", 4, false, TraceSegment::getTraceSegmentId);
+        List<TraceSegment> segments = createSegments(100);
+        List<String> payloads = new ArrayList<>();
+        stage.process(segments, payloads::add);
+
+        assertThat(new HashSet<>(payloads), is(new HashSet<>(ids(segments))));
+        assertThat(payloads.size(), is(100));
+        stage.shutdown();
+    }
+
+    @Test
+    public void testSkipFailedSegment() {
+        List<TraceSegment> segments = createSegments(10);
+        TraceSegment broken = segments.get(3);
+        SegmentSerializeStage<String> stage = new SegmentSerializeStage<>("test", 2, true, segment -> {
+            if (segment == broken) {
+                throw new IllegalStateException("broken segment");
+            }
+            return segment.getTraceSegmentId();
+        });
+        List<String> payloads = new ArrayList<>();
+        stage.process(segments, payloads::add);
+
+        List<String> expected = ids(segments);
+        expected.remove(3);
+        assertThat(payloads, is(expected));
+        stage.shutdown();
+    }
+
+    private static List<TraceSegment> createSegments(int size) {
+        List<TraceSegment> segments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            segments.add(new TraceSegment());
+        }
+        return segments;
+    }
+
+    private static List<String> ids(List<TraceSegment> segments) {
+        List<String> ids = new ArrayList<>(segments.size());
+        for (TraceSegment segment : segments) {
+            ids.add(segment.getTraceSegmentId());
+        }
+        return ids;
+    }
+}
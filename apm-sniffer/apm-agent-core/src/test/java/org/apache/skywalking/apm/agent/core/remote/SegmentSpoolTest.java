@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.remote;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SegmentSpoolTest {
+    private static final int FILE_SIZE = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        SegmentSpool spool = SegmentSpool.open(folder.getRoot(), FILE_SIZE, 4, 60_000);
+        for (int i = 0; i < 5; i++) {
+            assertThat(spool.append(segment(i)), is(true));
+        }
+
+        assertThat(strings(spool.peek(3)), is(strings(segment(0), segment(1), segment(2))));
+        // Not committed, read again.
+        assertThat(strings(spool.peek(3)), is(strings(segment(0), segment(1), segment(2))));
+        spool.commit();
+        assertThat(strings(spool.peek(3)), is(strings(segment(3), segment(4))));
+        spool.commit();
+        assertThat(spool.isEmpty(), is(true));
+        assertThat(spool.peek(3).size(), is(0));
+        spool.close();
+    }
+
+    @Test
+    public void testDropOldestFile() throws IOException {
+        SegmentSpool spool = SegmentSpool.open(folder.getRoot(), FILE_SIZE, 2, 60_000);
+        final byte[] large = new byte[FILE_SIZE / 2];
+        for (int i = 0; i < 3; i++) {
+            large[0] = (byte) i;
+            spool.append(large);
+        }
+        assertThat(spool.fileCount(), is(2));
+        assertThat(spool.peek(10).get(0)[0], is((byte) 1));
+        assertThat(spool.append(new byte[FILE_SIZE]), is(false));
+        spool.close();
+    }
+
+    @Test
+    public void testDropExpiredSegments() throws IOException {
+        SegmentSpool spool = SegmentSpool.open(folder.getRoot(), FILE_SIZE, 2, -1);
+        spool.append(segment(0));
+        assertThat(spool.peek(10).size(), is(0));
+        assertThat(spool.isEmpty(), is(true));
+        spool.close();
+    }
+
+    @Test
+    public void testReopenAfterCrash() throws IOException {
+        SegmentSpool spool = SegmentSpool.open(folder.getRoot(), FILE_SIZE, 4, 60_000);
+        // Locked by the running one.
+        assertThat(SegmentSpool.open(folder.getRoot(), FILE_SIZE, 4, 60_000), nullValue());
+        for (int i = 0; i < 4; i++) {
+            spool.append(segment(i));
+        }
+        spool.peek(1);
+        spool.commit();
+        spool.close();
+
+        // Tear the last record, as the process crashed while writing it.
+        File file = new File(folder.getRoot(), String.format("%s%020d%s", SegmentSpool.FILE_PREFIX, 0, SegmentSpool.FILE_SUFFIX));
+        int lastRecord = SegmentSpool.HEADER_SIZE + (SegmentSpool.RECORD_HEADER_SIZE + segment(0).length) * 3;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(lastRecord + SegmentSpool.RECORD_HEADER_SIZE);
+            randomAccessFile.write('x');
+        }
+
+        spool = SegmentSpool.open(folder.getRoot(), FILE_SIZE, 4, 60_000);
+        assertThat(strings(spool.peek(10)), is(strings(segment(1), segment(2))));
+        spool.commit();
+        // The new segments go to a new file.
+        spool.append(segment(5));
+        assertThat(strings(spool.peek(10)), is(strings(segment(5))));
+        spool.commit();
+        assertThat(spool.fileCount(), is(1));
+        spool.close();
+    }
+
+    private static byte[] segment(int index) {
+        return ("segment-" + index).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> strings(byte[]... segments) {
+        List<String> strings = new ArrayList<>();
+        for (byte[] segment : segments) {
+            strings.add(new String(segment, StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+
+    private static List<String> strings(List<byte[]> segments) {
+        return strings(segments.toArray(new byte[0][]));
+    }
+}
@@ -41,11 +41,13 @@ import org.apache.skywalking.apm.network.language.agent.v3.SpanObject;
 import org.apache.skywalking.apm.network.language.agent.v3.SpanType;
 import org.apache.skywalking.apm.network.language.agent.v3.TraceSegmentReportServiceGrpc;
 import org.apache.skywalking.apm.network.trace.component.ComponentsDefine;
+import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 
 import static org.hamcrest.CoreMatchers.is;
@@ -61,15 +63,21 @@ public class TraceSegmentServiceClientTest {
     @Rule
     public GrpcServerRule grpcServerRule = new GrpcServerRule().directExecutor();
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     @SegmentStoragePoint
     private SegmentStorage storage;
 
     private TraceSegmentServiceClient serviceClient = new TraceSegmentServiceClient();
     private List<SegmentObject> upstreamSegments;
+    private int openedStreams;
+    private int completedStreams;
 
     private TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase serviceImplBase = new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
         @Override
         public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+            openedStreams++;
             return new StreamObserver<SegmentObject>() {
                 @Override
                 public void onNext(SegmentObject value) {
@@ -82,6 +90,7 @@ public class TraceSegmentServiceClientTest {
 
                 @Override
                 public void onCompleted() {
+                    completedStreams++;
                     responseObserver.onNext(Commands.getDefaultInstance());
                     responseObserver.onCompleted();
                 }
@@ -115,6 +124,14 @@ public class TraceSegmentServiceClientTest {
         status.set(serviceClient, GRPCChannelStatus.CONNECTED);
 
         upstreamSegments = new ArrayList<>();
+        openedStreams = 0;
+        completedStreams = 0;
+    }
+
+    @After
+    public void tearDown() {
+        Config.Collector.SEGMENT_STREAM_LONG_LIVED = false;
+        Config.Collector.SEGMENT_STREAM_MAX_AGE = 60;
     }
 
     @Test
@@ -161,4 +178,124 @@ public class TraceSegmentServiceClientTest {
         assertThat(reconnect, is(true));
 
     }
+
+    @Test
+    public void testSendTraceSegmentsThroughLongLivedStream() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.SEGMENT_STREAM_LONG_LIVED = true;
+
+        for (int i = 0; i < 3; i++) {
+            ContextManager.createEntrySpan("/testLongLived" + i, null);
+            ContextManager.stopSpan();
+            serviceClient.consume(storage.getTraceSegments().subList(i, i + 1));
+        }
+
+        assertThat(upstreamSegments.size(), is(3));
+        assertThat(openedStreams, is(1));
+        assertThat(completedStreams, is(0));
+
+        serviceClient.onExit();
+        assertThat(completedStreams, is(1));
+    }
+
+    @Test
+    public void testRotateExpiredLongLivedStream() {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Config.Collector.SEGMENT_STREAM_LONG_LIVED = true;
+        Config.Collector.SEGMENT_STREAM_MAX_AGE = 0;
+
+        ContextManager.createEntrySpan("/testRotate", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+        serviceClient.nothingToConsume();
+
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(openedStreams, is(1));
+        assertThat(completedStreams, is(1));
+    }
+
+    @Test
+    public void testReplaySpooledSegments() throws Exception {
+        grpcServerRule.getServiceRegistry().addService(serviceImplBase);
+        Field spool = TraceSegmentServiceClient.class.getDeclaredField("spool");
+        spool.setAccessible(true);
+        spool.set(serviceClient, SegmentSpool.open(folder.getRoot(), 1024 * 1024, 2, 60_000));
+        Field status = TraceSegmentServiceClient.class.getDeclaredField("status");
+        status.setAccessible(true);
+        status.set(serviceClient, GRPCChannelStatus.DISCONNECT);
+
+        for (int i = 0; i < 3; i++) {
+            ContextManager.createEntrySpan("/testSpool" + i, null);
+            ContextManager.stopSpan();
+        }
+        serviceClient.consume(storage.getTraceSegments());
+        serviceClient.nothingToConsume();
+        assertThat(upstreamSegments.size(), is(0));
+
+        status.set(serviceClient, GRPCChannelStatus.CONNECTED);
+        serviceClient.nothingToConsume();
+        assertThat(upstreamSegments.size(), is(3));
+        assertThat(upstreamSegments.get(0).getSpans(0).getOperationName(), is("/testSpool0"));
+        assertThat(openedStreams, is(1));
+
+        // Replayed once only.
+        serviceClient.nothingToConsume();
+        assertThat(upstreamSegments.size(), is(3));
+        serviceClient.onExit();
+    }
+
+    @Test
+    public void testReplayNotWaitForCollector() throws Exception {
+        final List<StreamObserver<Commands>> pendingResponses = new ArrayList<>();
+        grpcServerRule.getServiceRegistry().addService(new TraceSegmentReportServiceGrpc.TraceSegmentReportServiceImplBase() {
+            @Override
+            public StreamObserver<SegmentObject> collect(final StreamObserver<Commands> responseObserver) {
+                openedStreams++;
+                return new StreamObserver<SegmentObject>() {
+                    @Override
+                    public void onNext(SegmentObject value) {
+                        upstreamSegments.add(value);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        // Hold the response, as a slow collector.
+                        pendingResponses.add(responseObserver);
+                    }
+                };
+            }
+        });
+        final SegmentSpool segmentSpool = SegmentSpool.open(folder.getRoot(), 1024 * 1024, 2, 60_000);
+        Field spool = TraceSegmentServiceClient.class.getDeclaredField("spool");
+        spool.setAccessible(true);
+        spool.set(serviceClient, segmentSpool);
+        Field status = TraceSegmentServiceClient.class.getDeclaredField("status");
+        status.setAccessible(true);
+        status.set(serviceClient, GRPCChannelStatus.DISCONNECT);
+
+        ContextManager.createEntrySpan("/testSlowCollector", null);
+        ContextManager.stopSpan();
+        serviceClient.consume(storage.getTraceSegments());
+
+        status.set(serviceClient, GRPCChannelStatus.CONNECTED);
+        serviceClient.nothingToConsume();
+        assertThat(upstreamSegments.size(), is(1));
+        assertThat(pendingResponses.size(), is(1));
+        assertThat(segmentSpool.isEmpty(), is(false));
+
+        // Not replayed again while the previous replay is not completed.
+        serviceClient.nothingToConsume();
+        assertThat(openedStreams, is(1));
+
+        pendingResponses.get(0).onNext(Commands.getDefaultInstance());
+        pendingResponses.get(0).onCompleted();
+        assertThat(segmentSpool.isEmpty(), is(true));
+        serviceClient.nothingToConsume();
+        assertThat(openedStreams, is(1));
+        serviceClient.onExit();
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class EndpointSamplingLimiterTest {
+
+    @Test
+    public void testFairShare() {
+        assertThat(EndpointSamplingLimiter.fairShare(Collections.emptyList(), 10), is(10));
+        assertThat(EndpointSamplingLimiter.fairShare(Arrays.asList(3L, 4L), 10), is(10));
+        assertThat(EndpointSamplingLimiter.fairShare(Arrays.asList(1L, 100L), 10), is(9));
+        assertThat(EndpointSamplingLimiter.fairShare(Arrays.asList(100L, 100L), 10), is(5));
+        assertThat(EndpointSamplingLimiter.fairShare(Arrays.asList(2L, 100L, 100L), 10), is(4));
+        assertThat(EndpointSamplingLimiter.fairShare(Arrays.asList(100L, 100L, 100L), 2), is(1));
+    }
+
+    @Test
+    public void testBusyEndpointLowered() {
+        StripedSamplingCounter counter = new StripedSamplingCounter(1);
+        EndpointSamplingLimiter limiter = new EndpointSamplingLimiter(100, 10);
+
+        // The first window has no history, the busy endpoint takes the whole limit.
+        int sampled = 0;
+        for (int i = 0; i < 50; i++) {
+            sampled += limiter.trySampling("/health", counter, 10) ? 1 : 0;
+        }
+        assertThat(sampled, is(10));
+        assertThat(limiter.trySampling("/order", counter, 10), is(false));
+
+        limiter.reset(10);
+        counter.reset();
+        assertThat(limiter.getShare(), is(9));
+
+        sampled = 0;
+        for (int i = 0; i < 50; i++) {
+            sampled += limiter.trySampling("/health", counter, 10) ? 1 : 0;
+        }
+        assertThat(sampled, is(9));
+        assertThat(limiter.trySampling("/order", counter, 10), is(true));
+    }
+
+    @Test
+    public void testTokenReturnedWhenLimitReached() {
+        StripedSamplingCounter counter = new StripedSamplingCounter(1);
+        EndpointSamplingLimiter limiter = new EndpointSamplingLimiter(100, 2);
+        counter.increment();
+        counter.increment();
+        assertThat(limiter.trySampling("/order", counter, 2), is(false));
+
+        counter.reset();
+        assertThat(limiter.trySampling("/order", counter, 2), is(true));
+        assertThat(limiter.trySampling("/order", counter, 2), is(true));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEndpointsEvicted() {
+        StripedSamplingCounter counter = new StripedSamplingCounter(1);
+        EndpointSamplingLimiter limiter = new EndpointSamplingLimiter(16, 10);
+        for (int i = 0; i < 1000; i++) {
+            limiter.trySampling("/endpoint/" + i, counter, 10);
+        }
+        assertThat(limiter.size() <= 16, is(true));
+    }
+
+    @Test
+    public void testRecentlyUsedEndpointKept() {
+        StripedSamplingCounter counter = new StripedSamplingCounter(1);
+        EndpointSamplingLimiter limiter = new EndpointSamplingLimiter(16, 10);
+        for (int i = 0; i < 16; i++) {
+            limiter.trySampling("/endpoint/" + i, counter, 10);
+        }
+        limiter.reset(10);
+        counter.reset();
+
+        limiter.trySampling("/endpoint/0", counter, 10);
+        limiter.reset(10);
+        counter.reset();
+        limiter.trySampling("/new", counter, 10);
+
+        // The idle endpoints are evicted first, down to three quarters of the max endpoints.
+        assertThat(limiter.size(), is(12));
+        assertThat(limiter.contains("/endpoint/0"), is(true));
+        assertThat(limiter.contains("/new"), is(true));
+    }
+}
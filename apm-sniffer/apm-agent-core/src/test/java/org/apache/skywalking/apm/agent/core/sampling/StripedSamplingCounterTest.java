@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class StripedSamplingCounterTest {
+
+    @Test
+    public void testLimitReachedAcrossStripes() {
+        StripedSamplingCounter counter = new StripedSamplingCounter(8);
+        for (int i = 0; i < 5; i++) {
+            assertThat(counter.tryIncrement(5), is(true));
+        }
+        assertThat(counter.tryIncrement(5), is(false));
+        assertThat(counter.sum(), is(5));
+
+        counter.increment();
+        assertThat(counter.sum(), is(6));
+        counter.reset();
+        assertThat(counter.sum(), is(0));
+        assertThat(counter.tryIncrement(5), is(true));
+    }
+
+    @Test
+    public void testLimitNotExceededConcurrently() throws InterruptedException {
+        final StripedSamplingCounter counter = new StripedSamplingCounter(4);
+        final AtomicInteger sampled = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++) {
+            new Thread(() -> {
+                for (int j = 0; j < 1000; j++) {
+                    if (counter.tryIncrement(100)) {
+                        sampled.incrementAndGet();
+                    }
+                }
+                latch.countDown();
+            }).start();
+        }
+        latch.await();
+        assertThat(sampled.get(), is(100));
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.sampling;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.AgentConfigChangeWatcher;
+import org.apache.skywalking.apm.agent.core.conf.dynamic.watcher.TailSamplingPolicyWatcher;
+import org.apache.skywalking.apm.agent.core.context.ContextManager;
+import org.apache.skywalking.apm.agent.core.context.trace.AbstractSpan;
+import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
+import org.apache.skywalking.apm.agent.core.context.util.FieldGetter;
+import org.apache.skywalking.apm.agent.core.test.tools.AgentServiceRule;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStorage;
+import org.apache.skywalking.apm.agent.core.test.tools.SegmentStoragePoint;
+import org.apache.skywalking.apm.agent.core.test.tools.TracingSegmentRunner;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+@RunWith(TracingSegmentRunner.class)
+public class TailSamplingServiceTest {
+
+    @SegmentStoragePoint
+    private SegmentStorage tracingData;
+
+    @Rule
+    public AgentServiceRule agentServiceRule = new AgentServiceRule();
+
+    private TailSamplingService tailSamplingService;
+    private final List<TraceSegment> reported = new ArrayList<>();
+
+    @BeforeClass
+    public static void beforeClass() {
+        Config.Agent.KEEP_TRACING = true;
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        Config.Agent.KEEP_TRACING = false;
+        ServiceManager.INSTANCE.shutdown();
+    }
+
+    @Before
+    public void setUp() {
+        Config.TailSampling.ACTIVE = true;
+        // Decisions are made by the test, rather than the background checker.
+        Config.TailSampling.DECISION_WAIT = 60_000;
+        Config.TailSampling.MAX_BUFFERED_SPANS = 100;
+        Config.TailSampling.SAMPLE_N_PER_3_SECS = 0;
+        tailSamplingService = new TailSamplingService();
+        tailSamplingService.boot();
+    }
+
+    @After
+    public void tearDown() {
+        tailSamplingService.shutdown();
+        Config.TailSampling.ACTIVE = false;
+        Config.TailSampling.DECISION_WAIT = 2000;
+        Config.TailSampling.MAX_BUFFERED_SPANS = 50000;
+        Config.TailSampling.SAMPLE_N_PER_3_SECS = 10;
+    }
+
+    @Test
+    public void testErrorTraceKept() {
+        AbstractSpan span = ContextManager.createLocalSpan("/error");
+        span.errorOccurred();
+        ContextManager.stopSpan();
+
+        TraceSegment segment = tracingData.getTraceSegments().get(0);
+        tailSamplingService.afterFinished(segment, reported::add);
+        assertThat(reported.size(), is(0));
+        assertThat(tailSamplingService.getBufferedSpans(), is(1));
+
+        tailSamplingService.decideQuietTraces(System.currentTimeMillis() + 60_000);
+        assertThat(reported.size(), is(1));
+        assertThat(tailSamplingService.getBufferedSpans(), is(0));
+    }
+
+    @Test
+    public void testSlowTraceKept() {
+        AbstractSpan span = ContextManager.createLocalSpan("/slow");
+        span.start(System.currentTimeMillis() - 5000);
+        ContextManager.stopSpan();
+
+        tailSamplingService.afterFinished(tracingData.getTraceSegments().get(0), reported::add);
+        tailSamplingService.decideQuietTraces(System.currentTimeMillis() + 60_000);
+        assertThat(reported.size(), is(1));
+    }
+
+    @Test
+    public void testNormalTraceDroppedOverBudget() {
+        ContextManager.createLocalSpan("/normal");
+        ContextManager.stopSpan();
+
+        tailSamplingService.afterFinished(tracingData.getTraceSegments().get(0), reported::add);
+        tailSamplingService.decideQuietTraces(System.currentTimeMillis() + 60_000);
+        assertThat(reported.size(), is(0));
+        assertThat(tailSamplingService.getBufferedSpans(), is(0));
+    }
+
+    @Test
+    public void testQuietTraceOnlyDecidedAfterWait() {
+        AbstractSpan span = ContextManager.createLocalSpan("/error");
+        span.errorOccurred();
+        ContextManager.stopSpan();
+
+        tailSamplingService.afterFinished(tracingData.getTraceSegments().get(0), reported::add);
+        tailSamplingService.decideQuietTraces(System.currentTimeMillis());
+        assertThat(reported.size(), is(0));
+        tailSamplingService.shutdown();
+        assertThat(reported.size(), is(1));
+    }
+
+    @Test
+    public void testEvictedWhenBufferIsFull() {
+        Config.TailSampling.MAX_BUFFERED_SPANS = 2;
+        for (int i = 0; i < 3; i++) {
+            AbstractSpan span = ContextManager.createLocalSpan("/error-" + i);
+            span.errorOccurred();
+            ContextManager.stopSpan();
+        }
+        for (TraceSegment segment : tracingData.getTraceSegments()) {
+            tailSamplingService.afterFinished(segment, reported::add);
+        }
+        // The third trace exceeds the cap, it is decided immediately.
+        assertThat(reported.size(), is(1));
+        assertThat(tailSamplingService.getBufferedSpans(), is(2));
+    }
+
+    @Test
+    public void testPolicyChangedDynamically() throws Exception {
+        TailSamplingPolicyWatcher endpointWatcher = FieldGetter.getValue(
+            tailSamplingService, "endpointLatencyThresholdsWatcher");
+        endpointWatcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            "/fast=1", AgentConfigChangeWatcher.EventType.MODIFY));
+        TailSamplingPolicyWatcher sampleRateWatcher = FieldGetter.getValue(
+            tailSamplingService, "sampleRateWatcher");
+        sampleRateWatcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            "illegal", AgentConfigChangeWatcher.EventType.MODIFY));
+
+        AbstractSpan span = ContextManager.createLocalSpan("/fast");
+        span.start(System.currentTimeMillis() - 10);
+        ContextManager.stopSpan();
+        tailSamplingService.afterFinished(tracingData.getTraceSegments().get(0), reported::add);
+        tailSamplingService.decideQuietTraces(System.currentTimeMillis() + 60_000);
+        assertThat(reported.size(), is(1));
+
+        endpointWatcher.notify(new AgentConfigChangeWatcher.ConfigChangeEvent(
+            null, AgentConfigChangeWatcher.EventType.DELETE));
+        assertThat(endpointWatcher.value(), is(""));
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.scheduler;
+
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.skywalking.apm.agent.core.boot.BootService;
+import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.meter.AbstractBuilder;
+import org.apache.skywalking.apm.agent.core.meter.BaseMeter;
+import org.apache.skywalking.apm.agent.core.meter.MeterService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class SchedulerServiceTest {
+    private SchedulerService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = new SchedulerService();
+        scheduler.prepare();
+        scheduler.boot();
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testSchedule() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        scheduler.schedule("test", () -> {
+            runs.incrementAndGet();
+            latch.countDown();
+        }, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertThat(runs.get(), is(1));
+    }
+
+    @Test
+    public void testFixedRateAndCancel() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledTask task = scheduler.scheduleAtFixedRate("test", () -> {
+            runs.incrementAndGet();
+            latch.countDown();
+            // The failed runs don't stop the next runs.
+            throw new IllegalStateException();
+        }, 0, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        Thread.sleep(50);
+        int cancelledRuns = runs.get();
+        Thread.sleep(100);
+        assertThat(runs.get(), is(cancelledRuns));
+    }
+
+    @Test
+    public void testOverrunSkipped() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        ScheduledTask task = scheduler.scheduleAtFixedRate("test", () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            latch.countDown();
+        }, 0, 5, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        assertThat(maxRunning.get(), is(1));
+    }
+
+    @Test
+    public void testFixedDelay() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        long[] finished = new long[1];
+        long[] minGap = {Long.MAX_VALUE};
+        ScheduledTask task = scheduler.scheduleWithFixedDelay("test", () -> {
+            long now = System.nanoTime();
+            if (finished[0] > 0) {
+                minGap[0] = Math.min(minGap[0], now - finished[0]);
+            }
+            finished[0] = System.nanoTime();
+            latch.countDown();
+        }, 0, 20, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        task.cancel();
+        assertTrue(minGap[0] >= TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void testInTimerTaskNotBlockedByWorkers() throws InterruptedException {
+        CountDownLatch blocked = new CountDownLatch(1);
+        // More blocking tasks than the workers, such as the calls to an unreachable backend.
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule("blocking-" + i, () -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 0, TimeUnit.MILLISECONDS);
+        }
+        CountDownLatch latch = new CountDownLatch(3);
+        ScheduledTask task = scheduler.scheduleInTimerAtFixedRate(
+            "in-timer", latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+        ScheduledTask delayTask = scheduler.scheduleInTimerWithFixedDelay(
+            "in-timer-delay", latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } finally {
+            task.cancel();
+            delayTask.cancel();
+            blocked.countDown();
+        }
+    }
+
+    @Test
+    public void testMeterFailureNotStopTask() throws Exception {
+        Map<Class, BootService> services = new HashMap<>();
+        services.put(MeterService.class, new MeterService() {
+            @Override
+            public <T extends BaseMeter> T register(T meter) {
+                throw new IllegalStateException("meter failure");
+            }
+        });
+        boolean booted = ServiceManager.INSTANCE.isBooted();
+        setField(ServiceManager.INSTANCE, ServiceManager.class, "bootedServices", services);
+        setField(ServiceManager.INSTANCE, ServiceManager.class, "isBooted", true);
+        setField(null, AbstractBuilder.class, "METER_SERVICE", null);
+        try {
+            CountDownLatch latch = new CountDownLatch(3);
+            ScheduledTask task = scheduler.scheduleAtFixedRate(
+                "meter-failure", latch::countDown, 0, 10, TimeUnit.MILLISECONDS);
+
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+            task.cancel();
+        } finally {
+            setField(ServiceManager.INSTANCE, ServiceManager.class, "bootedServices", new HashMap<>());
+            setField(ServiceManager.INSTANCE, ServiceManager.class, "isBooted", booted);
+            setField(null, AbstractBuilder.class, "METER_SERVICE", null);
+        }
+    }
+
+    private static void setField(Object target, Class<?> clazz, String name, Object value) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.skywalking.apm.agent;
 
 import java.lang.instrument.Instrumentation;
 import java.security.ProtectionDomain;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -55,7 +56,9 @@ import org.apache.skywalking.apm.agent.core.plugin.PluginBootstrap;
 import org.apache.skywalking.apm.agent.core.plugin.PluginException;
 import org.apache.skywalking.apm.agent.core.plugin.PluginFinder;
 import org.apache.skywalking.apm.agent.core.plugin.bootstrap.BootstrapInstrumentBoost;
+import org.apache.skywalking.apm.agent.core.plugin.cache.EnhancedClassCache;
 import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.DelegateNamingResolver;
+import org.apache.skywalking.apm.agent.core.plugin.interceptor.enhance.InterceptSite;
 import org.apache.skywalking.apm.agent.core.plugin.jdk9module.JDK9ModuleExporter;
 
 import static net.bytebuddy.matcher.ElementMatchers.nameContains;
@@ -73,6 +76,7 @@ public class SkyWalkingAgent {
      * Main entrance. Use byte-buddy transform to enhance all classes, which define in plugins.
      */
     public static void premain(String agentArgs, Instrumentation instrumentation) throws PluginException {
+        final long premainStartTime = System.currentTimeMillis();
         final PluginFinder pluginFinder;
         try {
             SnifferConfigInitializer.initializeCoreConfig(agentArgs);
@@ -91,6 +95,7 @@ public class SkyWalkingAgent {
             return;
         }
 
+        final long pluginStartTime = System.currentTimeMillis();
         try {
             pluginFinder = new PluginFinder(new PluginBootstrap().loadPlugins());
         } catch (AgentPackageNotFoundException ape) {
@@ -101,26 +106,53 @@ public class SkyWalkingAgent {
             return;
         }
 
+        final long transformerStartTime = System.currentTimeMillis();
+        EnhancedClassCache enhancedClassCache = null;
         try {
-            installClassTransformer(instrumentation, pluginFinder);
+            enhancedClassCache = EnhancedClassCache.open(pluginFinder);
+        } catch (Exception e) {
+            LOGGER.error(e, "Skywalking agent open enhanced class cache failure, the cache is disabled.");
+        }
+
+        try {
+            installClassTransformer(instrumentation, pluginFinder, enhancedClassCache);
         } catch (Exception e) {
             LOGGER.error(e, "Skywalking agent installed class transformer failure.");
         }
+        // Set after the bootstrap classes are injected, so the interceptors and the bootstrap templates share it.
+        InterceptSite.setTimeCostSampleInterval(Config.Plugin.INTERCEPTOR_TIME_COST_SAMPLE_INTERVAL);
 
+        final long serviceStartTime = System.currentTimeMillis();
         try {
             ServiceManager.INSTANCE.boot();
+            if (enhancedClassCache != null) {
+                enhancedClassCache.registerMeters();
+            }
         } catch (Exception e) {
             LOGGER.error(e, "Skywalking agent boot failure.");
         }
 
+        final long premainEndTime = System.currentTimeMillis();
+        LOGGER.info(
+            "Skywalking agent premain finished in {} ms, config: {} ms, plugins: {} ms, transformer: {} ms, services: {} ms.",
+            premainEndTime - premainStartTime, pluginStartTime - premainStartTime, transformerStartTime - pluginStartTime,
+            serviceStartTime - transformerStartTime, premainEndTime - serviceStartTime
+        );
+
         Runtime.getRuntime()
                .addShutdownHook(new Thread(ServiceManager.INSTANCE::shutdown, "skywalking service shutdown thread"));
     }
 
     static void installClassTransformer(Instrumentation instrumentation, PluginFinder pluginFinder) throws Exception {
+        installClassTransformer(instrumentation, pluginFinder, null);
+    }
+
+    static void installClassTransformer(Instrumentation instrumentation,
+                                        PluginFinder pluginFinder,
+                                        EnhancedClassCache enhancedClassCache) throws Exception {
         LOGGER.info("Skywalking agent begin to install transformer ...");
 
-        AgentBuilder agentBuilder = newAgentBuilder().ignore(
+        AgentBuilder.Ignored ignored = newAgentBuilder().ignore(
             nameStartsWith("net.bytebuddy.")
                 .or(nameStartsWith("org.slf4j."))
                 .or(nameStartsWith("org.groovy."))
@@ -130,6 +162,13 @@ public class SkyWalkingAgent {
                 .or(nameStartsWith("sun.reflect"))
                 .or(allSkyWalkingAgentExcludeToolkit())
                 .or(ElementMatchers.isSynthetic()));
+        AgentBuilder agentBuilder = ignored;
+        if (enhancedClassCache != null) {
+            // The cache transformer can't retransform classes, so it always runs before the byte-buddy one.
+            instrumentation.addTransformer(enhancedClassCache, false);
+            agentBuilder = ignored.or(enhancedClassCache.servedClasses())
+                                  .with(enhancedClassCache.initializationStrategy());
+        }
 
         JDK9ModuleExporter.EdgeClasses edgeClasses = new JDK9ModuleExporter.EdgeClasses();
         try {
@@ -145,7 +184,7 @@ public class SkyWalkingAgent {
         }
 
         agentBuilder.type(pluginFinder.buildMatch())
-                    .transform(new Transformer(pluginFinder))
+                    .transform(new Transformer(pluginFinder, enhancedClassCache))
                     .with(AgentBuilder.RedefinitionStrategy.RETRANSFORMATION)
                     .with(new RedefinitionListener())
                     .with(new Listener())
@@ -173,9 +212,11 @@ public class SkyWalkingAgent {
 
     private static class Transformer implements AgentBuilder.Transformer {
         private PluginFinder pluginFinder;
+        private EnhancedClassCache enhancedClassCache;
 
-        Transformer(PluginFinder pluginFinder) {
+        Transformer(PluginFinder pluginFinder, EnhancedClassCache enhancedClassCache) {
             this.pluginFinder = pluginFinder;
+            this.enhancedClassCache = enhancedClassCache;
         }
 
         @Override
@@ -189,13 +230,19 @@ public class SkyWalkingAgent {
             if (pluginDefines.size() > 0) {
                 DynamicType.Builder<?> newBuilder = builder;
                 EnhanceContext context = new EnhanceContext();
+                List<AbstractClassEnhancePluginDefine> appliedDefines = new ArrayList<>(pluginDefines.size());
                 for (AbstractClassEnhancePluginDefine define : pluginDefines) {
                     DynamicType.Builder<?> possibleNewBuilder = define.define(
                         typeDescription, newBuilder, classLoader, context);
                     if (possibleNewBuilder != null) {
                         newBuilder = possibleNewBuilder;
+                        appliedDefines.add(define);
                     }
                 }
+                if (enhancedClassCache != null) {
+                    enhancedClassCache.prepare(
+                        typeDescription.getName(), classLoader, pluginDefines, appliedDefines, context);
+                }
                 if (context.isEnhanced()) {
                     LOGGER.debug("Finish the prepare stage for {}.", typeDescription.getName());
                 }
@@ -26,16 +26,17 @@ import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfigInitializer;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
-import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
 import org.apache.skywalking.apm.util.StringUtil;
 
 @OverrideImplementor(SamplingService.class)
 public class TraceIgnoreExtendService extends SamplingService {
     private static final ILog LOGGER = LogManager.getLogger(TraceIgnoreExtendService.class);
     private static final String PATTERN_SEPARATOR = ",";
-    private TracePathMatcher pathMatcher = new FastPathMatcher();
-    private volatile String[] patterns = new String[] {};
+    /**
+     * Compiled from all patterns, replaced as a whole when the patterns change.
+     */
+    private volatile CompiledPathPatterns patterns = new CompiledPathPatterns(new String[] {});
     private TraceIgnorePatternWatcher traceIgnorePatternWatcher;
 
     @Override
@@ -49,7 +50,7 @@ public class TraceIgnoreExtendService extends SamplingService {
 
         IgnoreConfigInitializer.initialize();
         if (StringUtil.isNotEmpty(IgnoreConfig.Trace.IGNORE_PATH)) {
-            patterns = IgnoreConfig.Trace.IGNORE_PATH.split(PATTERN_SEPARATOR);
+            patterns = new CompiledPathPatterns(IgnoreConfig.Trace.IGNORE_PATH.split(PATTERN_SEPARATOR));
         }
 
         traceIgnorePatternWatcher = new TraceIgnorePatternWatcher("agent.trace.ignore_path", this);
@@ -70,17 +71,18 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     @Override
     public boolean trySampling(final String operationName) {
-        if (patterns.length > 0) {
-            for (String pattern : patterns) {
-                if (pathMatcher.match(pattern, operationName)) {
-                    LOGGER.debug("operationName : " + operationName + " Ignore tracking");
-                    return false;
-                }
-            }
+        if (patterns.match(operationName)) {
+            LOGGER.debug("operationName : " + operationName + " Ignore tracking");
+            return false;
         }
         return super.trySampling(operationName);
     }
 
+    @Override
+    public boolean isIgnored(final String operationName) {
+        return patterns.match(operationName);
+    }
+
     @Override
     public void forceSampled() {
         super.forceSampled();
@@ -88,9 +90,10 @@ public class TraceIgnoreExtendService extends SamplingService {
 
     void handleTraceIgnorePatternsChanged() {
         if (StringUtil.isNotBlank(traceIgnorePatternWatcher.getTraceIgnorePathPatterns())) {
-            patterns = traceIgnorePatternWatcher.getTraceIgnorePathPatterns().split(PATTERN_SEPARATOR);
+            patterns = new CompiledPathPatterns(
+                traceIgnorePatternWatcher.getTraceIgnorePathPatterns().split(PATTERN_SEPARATOR));
         } else {
-            patterns = new String[] {};
+            patterns = new CompiledPathPatterns(new String[] {});
         }
     }
 }
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ignore patterns compiled into one matcher, with the same result as matching every pattern by
+ * {@link FastPathMatcher}.
+ * <p>
+ * The patterns without any wildcard are kept in a set. The others are indexed in a trie by the path segments before
+ * the segment holding the first wildcard, so only the patterns sharing the leading segments with the path are
+ * matched, from that segment on. The results are cached, until {@link #MAX_CACHED_PATHS} paths are cached, then the
+ * cache is cleared.
+ * <p>
+ * The instance is immutable besides the cache, rebuild a new one when the patterns change.
+ */
+public class CompiledPathPatterns {
+    static final int MAX_CACHED_PATHS = 1024;
+
+    private static final FastPathMatcher MATCHER = new FastPathMatcher();
+
+    private final Set<String> literals = new HashSet<>();
+    private final Node root = new Node();
+    private final boolean empty;
+    private final Map<String, Boolean> cache = new ConcurrentHashMap<>();
+
+    public CompiledPathPatterns(String[] patterns) {
+        for (String pattern : patterns) {
+            int wildcard = firstWildcard(pattern);
+            if (wildcard < 0) {
+                literals.add(pattern);
+                continue;
+            }
+            // The index of the segment holding the first wildcard.
+            int remainder = pattern.lastIndexOf('/', wildcard) + 1;
+            Node node = root;
+            for (int begin = 0, end; begin < remainder; begin = end + 1) {
+                end = pattern.indexOf('/', begin);
+                node = node.children.computeIfAbsent(pattern.substring(begin, end), segment -> new Node());
+            }
+            node.patterns.add(new Remainder(pattern, remainder));
+        }
+        empty = patterns.length == 0;
+    }
+
+    /**
+     * @return true if any pattern matches the path.
+     */
+    public boolean match(String path) {
+        if (empty) {
+            return false;
+        }
+        Boolean matched = cache.get(path);
+        if (matched == null) {
+            matched = doMatch(path);
+            if (cache.size() >= MAX_CACHED_PATHS) {
+                cache.clear();
+            }
+            cache.put(path, matched);
+        }
+        return matched;
+    }
+
+    /**
+     * Match without the cache.
+     */
+    boolean doMatch(String path) {
+        if (literals.contains(path)) {
+            return true;
+        }
+        Node node = root;
+        int position = 0;
+        while (true) {
+            for (Remainder pattern : node.patterns) {
+                if (MATCHER.match(pattern.pattern, pattern.index, path, position)) {
+                    return true;
+                }
+            }
+            int end = path.indexOf('/', position);
+            if (end < 0 || node.children.isEmpty()) {
+                return false;
+            }
+            node = node.children.get(path.substring(position, end));
+            if (node == null) {
+                return false;
+            }
+            position = end + 1;
+        }
+    }
+
+    private static int firstWildcard(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private final List<Remainder> patterns = new ArrayList<>();
+    }
+
+    /**
+     * The pattern with the index of the segment holding its first wildcard.
+     */
+    private static class Remainder {
+        private final String pattern;
+        private final int index;
+
+        private Remainder(String pattern, int index) {
+            this.pattern = pattern;
+            this.index = index;
+        }
+    }
+}
@@ -24,6 +24,14 @@ public class FastPathMatcher implements TracePathMatcher {
         return normalMatch(pattern, 0, path, 0);
     }
 
+    /**
+     * Match the pattern from the pattern index against the path from the path index, as the chars before them are
+     * matched already.
+     */
+    boolean match(String pattern, int patternIndex, String path, int pathIndex) {
+        return normalMatch(pattern, patternIndex, path, pathIndex);
+    }
+
     private boolean normalMatch(String pat, int p, String str, int s) {
         while (p < pat.length()) {
             char pc = pat.charAt(p);
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore;
+
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.FastPathMatcher;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.TracePathMatcher;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompiledPathPatternsTest {
+    private static final String[] PATTERNS = {
+        "/eureka/*", "/eureka/**", "/eureka/*/", "eureka/apps/?", "eureka/**/lists", "eureka/**/test/**",
+        "/health", "/actuator/health/", "/static/**/*.js", "**/*.css", "/api/v?/users/*/avatar", "/a*b/c", "",
+        "/metrics/**/prometheus", "*"
+    };
+
+    private static final String[] PATHS = {
+        "/eureka/apps", "/eureka/", "/eureka/apps/", "/eureka/apps/list", "/eureka/test", "/eureka",
+        "eureka/apps/list", "eureka/apps/", "eureka/apps/a", "eureka/apps/lists", "eureka/apps/test/lists",
+        "eureka/apps/test/", "eureka/apps/test", "eureka/apps/test/list", "/health", "/health/", "/healthz",
+        "/actuator/health/", "/actuator/health", "/static/js/app.js", "/static/app.js", "/static/app.css",
+        "/css/a/b/main.css", "/api/v1/users/42/avatar", "/api/v12/users/42/avatar", "/axxb/c", "/ab/c", "",
+        "/metrics/prometheus", "/metrics/x/y/prometheus", "/metricsprometheus", "abc", "abc/", "abc/d"
+    };
+
+    @Test
+    public void testSameAsFastPathMatcher() {
+        TracePathMatcher pathMatcher = new FastPathMatcher();
+        for (String pattern : PATTERNS) {
+            CompiledPathPatterns patterns = new CompiledPathPatterns(new String[] {pattern});
+            for (String path : PATHS) {
+                Assert.assertEquals(
+                    pattern + " matches " + path, pathMatcher.match(pattern, path), patterns.match(path));
+            }
+        }
+
+        CompiledPathPatterns patterns = new CompiledPathPatterns(PATTERNS);
+        for (String path : PATHS) {
+            boolean expected = false;
+            for (String pattern : PATTERNS) {
+                expected |= pathMatcher.match(pattern, path);
+            }
+            Assert.assertEquals(path, expected, patterns.match(path));
+            // Cached
+            Assert.assertEquals(path, expected, patterns.match(path));
+        }
+    }
+
+    @Test
+    public void testEmptyPatterns() {
+        CompiledPathPatterns patterns = new CompiledPathPatterns(new String[] {});
+        Assert.assertFalse(patterns.match(""));
+        Assert.assertFalse(patterns.match("/eureka/apps"));
+    }
+
+    @Test
+    public void testCacheBounded() {
+        CompiledPathPatterns patterns = new CompiledPathPatterns(new String[] {"/static/**", "/health"});
+        for (int i = 0; i < 5000; i++) {
+            Assert.assertTrue(patterns.match("/static/" + i));
+            Assert.assertFalse(patterns.match("/api/" + i));
+        }
+        Assert.assertTrue(patterns.match("/health"));
+    }
+}
@@ -26,6 +26,7 @@ import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.sampling.SamplingService;
 import org.apache.skywalking.apm.agent.test.tools.AgentServiceRule;
 import org.apache.skywalking.apm.plugin.trace.ignore.conf.IgnoreConfig;
+import org.apache.skywalking.apm.plugin.trace.ignore.matcher.CompiledPathPatterns;
 import org.apache.skywalking.apm.util.ConfigInitializer;
 import org.apache.skywalking.apm.util.PropertyPlaceholderHelper;
 import org.junit.Assert;
@@ -55,11 +56,13 @@ public class TraceIgnoreTest {
         patterns.setAccessible(true);
         patterns.set(
             service,
-            new String[] {"/eureka/**"}
+            new CompiledPathPatterns(new String[] {"/eureka/**"})
         );
 
         Assert.assertFalse(service.trySampling("/eureka/apps"));
         Assert.assertTrue(service.trySampling("/consul/apps"));
+        Assert.assertTrue(service.isIgnored("/eureka/apps"));
+        Assert.assertFalse(service.isIgnored("/consul/apps"));
     }
 
     @Test
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.plugin.trace.ignore.matcher;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Match the operation names against the ignore patterns one by one, as before, and by the compiled patterns, with and
+ * without the result cache.
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CompiledPathPatternsBenchmark {
+    private static final String[] PATHS = {
+        "/api/v1/orders/42", "/service7/health/live", "/static3/js/vendor/app.js", "/metrics5",
+        "/api/v2/internal9/status", "/users/42/profile", "/service7/health", "/static3/index.html"
+    };
+
+    @Param({"10", "100", "1000"})
+    private int patternCount;
+
+    private final FastPathMatcher pathMatcher = new FastPathMatcher();
+    private String[] patterns;
+    private CompiledPathPatterns compiled;
+    private int index;
+
+    @Setup
+    public void setup() {
+        patterns = new String[patternCount];
+        for (int i = 0; i < patternCount; i++) {
+            switch (i % 4) {
+                case 0:
+                    patterns[i] = "/service" + i + "/health/**";
+                    break;
+                case 1:
+                    patterns[i] = "/static" + i + "/**/*.js";
+                    break;
+                case 2:
+                    patterns[i] = "/api/v?/internal" + i + "/*";
+                    break;
+                default:
+                    patterns[i] = "/metrics" + i;
+            }
+        }
+        compiled = new CompiledPathPatterns(patterns);
+    }
+
+    private String nextPath() {
+        return PATHS[index++ & (PATHS.length - 1)];
+    }
+
+    @Benchmark
+    public boolean loop() {
+        String path = nextPath();
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return compiled.doMatch(nextPath());
+    }
+
+    @Benchmark
+    public boolean compiledCached() {
+        return compiled.match(nextPath());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options opt = new OptionsBuilder()
+            .include(CompiledPathPatternsBenchmark.class.getSimpleName())
+            .build();
+        new Runner(opt).run();
+    }
+
+    /*
+     * # JMH version: 1.33
+     * # VM version: JDK 17.0.9, OpenJDK 64-Bit Server VM, 17.0.9+9
+     * # Warmup: 2 iterations, 2 s each
+     * # Measurement: 5 iterations, 2 s each
+     * # Threads: 1 thread, will synchronize iterations
+     * # Benchmark mode: Average time, time/op
+     *
+     * Benchmark                                     (patternCount)  Mode  Cnt      Score      Error  Units
+     * CompiledPathPatternsBenchmark.compiled                    10  avgt    5     68.741 ±   40.663  ns/op
+     * CompiledPathPatternsBenchmark.compiled                   100  avgt    5    224.799 ±  139.597  ns/op
+     * CompiledPathPatternsBenchmark.compiled                  1000  avgt    5   1811.827 ± 1063.375  ns/op
+     * CompiledPathPatternsBenchmark.compiledCached              10  avgt    5      7.029 ±    3.784  ns/op
+     * CompiledPathPatternsBenchmark.compiledCached             100  avgt    5      7.091 ±    2.701  ns/op
+     * CompiledPathPatternsBenchmark.compiledCached            1000  avgt    5      5.429 ±    2.829  ns/op
+     * CompiledPathPatternsBenchmark.loop                        10  avgt    5    130.058 ±   36.429  ns/op
+     * CompiledPathPatternsBenchmark.loop                       100  avgt    5   1042.407 ±  321.032  ns/op
+     * CompiledPathPatternsBenchmark.loop                      1000  avgt    5  11311.731 ± 5704.989  ns/op
+     */
+}
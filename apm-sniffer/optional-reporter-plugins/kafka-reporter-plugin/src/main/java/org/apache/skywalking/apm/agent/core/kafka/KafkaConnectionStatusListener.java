@@ -20,4 +20,11 @@ package org.apache.skywalking.apm.agent.core.kafka;
 
 interface KafkaConnectionStatusListener {
     void onStatusChanged(KafkaConnectionStatus status);
+
+    /**
+     * Called by {@link KafkaProducerManager#shutdown()} before the producer is flushed and closed, the listener should
+     * send what it has buffered and stop sending by the time it returns.
+     */
+    default void beforeProducerClose() {
+    }
 }
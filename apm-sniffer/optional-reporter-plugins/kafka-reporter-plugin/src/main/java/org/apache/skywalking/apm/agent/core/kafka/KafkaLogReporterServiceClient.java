@@ -18,21 +18,33 @@
 package org.apache.skywalking.apm.agent.core.kafka;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
+import org.apache.skywalking.apm.agent.core.logging.api.ILog;
+import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.remote.LogReportServiceClient;
 import org.apache.skywalking.apm.agent.core.util.CollectionUtil;
 import org.apache.skywalking.apm.network.logging.v3.LogData;
 
 @OverrideImplementor(LogReportServiceClient.class)
 public class KafkaLogReporterServiceClient extends LogReportServiceClient implements KafkaConnectionStatusListener {
+    private static final ILog LOGGER = LogManager.getLogger(KafkaLogReporterServiceClient.class);
+    private static final long CONSUMER_EXIT_TIMEOUT_SECONDS = 5;
 
     private String topic;
     private KafkaProducer<String, Bytes> producer;
+    /**
+     * Null unless {@link KafkaReporterPluginConfig.Plugin.Kafka#PACK_RECORDS} is enabled.
+     */
+    private KafkaRecordPacker packer;
+    private final CountDownLatch consumerExited = new CountDownLatch(1);
 
     @Override
     public void prepare() {
@@ -41,6 +53,17 @@ public class KafkaLogReporterServiceClient extends LogReportServiceClient implem
         topic = producerManager.formatTopicNameThenRegister(KafkaReporterPluginConfig.Plugin.Kafka.TOPIC_LOGGING);
     }
 
+    @Override
+    public void boot() throws Throwable {
+        if (KafkaReporterPluginConfig.Plugin.Kafka.PACK_RECORDS) {
+            packer = new KafkaRecordPacker(
+                topic, Config.Agent.SERVICE_NAME, KafkaReporterPluginConfig.Plugin.Kafka.PACK_MAX_BYTES,
+                KafkaReporterPluginConfig.Plugin.Kafka.PACK_LINGER_MS, this::send
+            );
+        }
+        super.boot();
+    }
+
     @Override
     public void produce(final LogData.Builder logData) {
         super.produce(logData);
@@ -56,14 +79,63 @@ public class KafkaLogReporterServiceClient extends LogReportServiceClient implem
             // Kafka Log reporter sends one log per time.
             // Every time, service name should be set to keep data integrity.
             data.setService(Config.Agent.SERVICE_NAME);
-            producer.send(new ProducerRecord<>(topic, data.getService(), Bytes.wrap(data.build().toByteArray())));
+            if (packer != null) {
+                packer.add(data.build().toByteArray());
+            } else {
+                send(new ProducerRecord<>(topic, data.getService(), Bytes.wrap(data.build().toByteArray())));
+            }
+        }
+        if (packer != null) {
+            packer.flushIfLingered(System.currentTimeMillis());
         }
     }
 
+    @Override
+    public void nothingToConsume() {
+        if (producer != null && packer != null) {
+            packer.flushIfLingered(System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void onExit() {
+        try {
+            if (producer != null && packer != null) {
+                packer.flush();
+            }
+        } finally {
+            consumerExited.countDown();
+        }
+    }
+
+    private void send(ProducerRecord<String, Bytes> record) {
+        producer.send(record, (m, e) -> {
+            if (Objects.nonNull(e)) {
+                LOGGER.error("Failed to report log data.", e);
+            }
+        });
+    }
+
     @Override
     public void onStatusChanged(final org.apache.skywalking.apm.agent.core.kafka.KafkaConnectionStatus status) {
         if (status == KafkaConnectionStatus.CONNECTED) {
             producer = ServiceManager.INSTANCE.findService(KafkaProducerManager.class).getProducer();
         }
     }
+
+    /**
+     * Stop the consumer and wait for its last batch and packed record, which are sent in {@link #onExit()}.
+     */
+    @Override
+    public void beforeProducerClose() {
+        shutdown();
+        try {
+            if (!consumerExited.await(CONSUMER_EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("The log consumer didn't exit in {}s, the buffered logs may be lost.",
+                            CONSUMER_EXIT_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -29,8 +29,6 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
@@ -43,11 +41,12 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.DefaultImplementor;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.kafka.KafkaReporterPluginConfig.Plugin.Kafka;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.agent.core.plugin.loader.AgentClassLoader;
 import org.apache.skywalking.apm.agent.core.remote.GRPCChannelManager;
 import org.apache.skywalking.apm.util.RunnableWithExceptionProtection;
@@ -66,7 +65,7 @@ public class KafkaProducerManager implements BootService, Runnable {
 
     private volatile KafkaProducer<String, Bytes> producer;
 
-    private ScheduledFuture<?> bootProducerFuture;
+    private ScheduledTask bootProducerTask;
 
     @Override
     public void prepare() {
@@ -74,12 +73,11 @@ public class KafkaProducerManager implements BootService, Runnable {
 
     @Override
     public void boot() {
-        bootProducerFuture = Executors.newSingleThreadScheduledExecutor(
-                new DefaultNamedThreadFactory("kafkaProducerInitThread")
-        ).scheduleAtFixedRate(new RunnableWithExceptionProtection(
-                this,
-                t -> LOGGER.error("unexpected exception.", t)
-        ), 0, 120, TimeUnit.SECONDS);
+        bootProducerTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+                "kafkaProducerInitThread",
+                new RunnableWithExceptionProtection(this, t -> LOGGER.error("unexpected exception.", t)),
+                0, 120, TimeUnit.SECONDS
+        );
     }
 
     String formatTopicNameThenRegister(String topic) {
@@ -140,7 +138,7 @@ public class KafkaProducerManager implements BootService, Runnable {
             }
             //notify listeners to send data if no exception been throw
             notifyListeners(KafkaConnectionStatus.CONNECTED);
-            bootProducerFuture.cancel(true);
+            bootProducerTask.cancel();
         }
     }
 
@@ -193,8 +191,22 @@ public class KafkaProducerManager implements BootService, Runnable {
         return ServiceManager.INSTANCE.findService(GRPCChannelManager.class).priority() - 1;
     }
 
+    /**
+     * The reporters shut down after this service, so they are asked to drain their buffers before the producer is
+     * closed, otherwise their last records would be sent on a closed producer.
+     */
     @Override
     public void shutdown() {
+        if (producer == null) {
+            return;
+        }
+        for (KafkaConnectionStatusListener listener : listeners) {
+            try {
+                listener.beforeProducerClose();
+            } catch (Throwable t) {
+                LOGGER.error(t, "Failed to drain {} before closing the Kafka producer.", listener.getClass().getName());
+            }
+        }
         producer.flush();
         producer.close();
     }
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Consumer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.utils.Bytes;
+
+/**
+ * Pack the encoded messages into length-delimited records, the varint length of every message followed by its bytes,
+ * the same as the protobuf {@code writeDelimitedTo}. A record is sent when the next message would make it larger than
+ * the max bytes, or when its first message has waited longer than the linger time. A message larger than the max
+ * bytes is sent in a record of its own.
+ * <p>
+ * The packed records carry the {@link #FORMAT_HEADER} header, to be told apart from the records of one message.
+ * <p>
+ * Not thread safe, it should be used by the DataCarrier consumer thread only.
+ */
+class KafkaRecordPacker {
+    static final String FORMAT_HEADER = "sw-record-format";
+    static final String LENGTH_DELIMITED = "length-delimited";
+
+    private static final Iterable<Header> HEADERS = Collections.singletonList(
+        new RecordHeader(FORMAT_HEADER, LENGTH_DELIMITED.getBytes(StandardCharsets.UTF_8)));
+
+    private final String topic;
+    private final String key;
+    private final int maxBytes;
+    private final long lingerMillis;
+    private final Consumer<ProducerRecord<String, Bytes>> sender;
+
+    private byte[] buffer = new byte[4096];
+    private int size;
+    private long firstAddedTime;
+
+    /**
+     * @param key    of the packed records, null to let the partitioner spread them.
+     * @param sender sends the packed records.
+     */
+    KafkaRecordPacker(String topic, String key, int maxBytes, long lingerMillis,
+                      Consumer<ProducerRecord<String, Bytes>> sender) {
+        this.topic = topic;
+        this.key = key;
+        this.maxBytes = maxBytes;
+        this.lingerMillis = lingerMillis;
+        this.sender = sender;
+    }
+
+    void add(byte[] message) {
+        int length = varintSize(message.length) + message.length;
+        if (size > 0 && size + length > maxBytes) {
+            flush();
+        }
+        if (size == 0) {
+            firstAddedTime = System.currentTimeMillis();
+        }
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+        int value = message.length;
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        System.arraycopy(message, 0, buffer, size, message.length);
+        size += message.length;
+        if (size >= maxBytes) {
+            flush();
+        }
+    }
+
+    /**
+     * Send the packed messages, if the first of them has waited longer than the linger time.
+     */
+    void flushIfLingered(long currentTimeMillis) {
+        if (size > 0 && currentTimeMillis - firstAddedTime >= lingerMillis) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (size == 0) {
+            return;
+        }
+        // The producer keeps the bytes until the record is sent, the buffer can't be reused.
+        Bytes value = Bytes.wrap(Arrays.copyOf(buffer, size));
+        size = 0;
+        sender.accept(new ProducerRecord<>(topic, null, key, value, HEADERS));
+    }
+
+    private static int varintSize(int value) {
+        int bytes = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            bytes++;
+        }
+        return bytes;
+    }
+}
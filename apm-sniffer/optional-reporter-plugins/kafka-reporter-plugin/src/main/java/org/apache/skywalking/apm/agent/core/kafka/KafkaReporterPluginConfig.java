@@ -67,6 +67,20 @@ public class KafkaReporterPluginConfig {
              * Class name of decoding encoded information in kafka configuration.
              */
             public static String DECODE_CLASS = "";
+            /**
+             * Pack many trace segments or logs into one length-delimited record, rather than one record for each of
+             * them. The Kafka fetcher of OAP should support the packed records.
+             */
+            public static boolean PACK_RECORDS = false;
+            /**
+             * The max size of a packed record, the unit is byte. It should be smaller than the
+             * <code>max.request.size</code> of the producer.
+             */
+            public static int PACK_MAX_BYTES = 512 * 1024;
+            /**
+             * The max time of a message waiting in a packed record, the unit is millisecond.
+             */
+            public static long PACK_LINGER_MS = 500;
         }
     }
 }
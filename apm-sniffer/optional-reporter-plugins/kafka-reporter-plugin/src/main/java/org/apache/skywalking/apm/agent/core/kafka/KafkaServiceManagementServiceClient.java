@@ -19,15 +19,12 @@
 package org.apache.skywalking.apm.agent.core.kafka;
 
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
-import org.apache.skywalking.apm.agent.core.boot.DefaultNamedThreadFactory;
 import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
 import org.apache.skywalking.apm.agent.core.conf.Config;
@@ -35,6 +32,8 @@ import org.apache.skywalking.apm.agent.core.jvm.LoadedLibraryCollector;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
 import org.apache.skywalking.apm.agent.core.os.OSUtil;
+import org.apache.skywalking.apm.agent.core.scheduler.ScheduledTask;
+import org.apache.skywalking.apm.agent.core.scheduler.SchedulerService;
 import org.apache.skywalking.apm.agent.core.remote.ServiceManagementClient;
 import org.apache.skywalking.apm.agent.core.util.InstanceJsonPropertiesUtil;
 import org.apache.skywalking.apm.network.common.v3.KeyStringValuePair;
@@ -53,7 +52,7 @@ public class KafkaServiceManagementServiceClient implements BootService, Runnabl
 
     private static final String TOPIC_KEY_REGISTER = "register-";
 
-    private ScheduledFuture<?> heartbeatFuture;
+    private ScheduledTask heartbeatTask;
     private KafkaProducer<String, Bytes> producer;
 
     private String topic;
@@ -70,12 +69,11 @@ public class KafkaServiceManagementServiceClient implements BootService, Runnabl
 
     @Override
     public void boot() {
-        heartbeatFuture = Executors.newSingleThreadScheduledExecutor(
-            new DefaultNamedThreadFactory("ServiceManagementClientKafkaProducer")
-        ).scheduleAtFixedRate(new RunnableWithExceptionProtection(
-            this,
-            t -> LOGGER.error("unexpected exception.", t)
-        ), 0, Config.Collector.HEARTBEAT_PERIOD, TimeUnit.SECONDS);
+        heartbeatTask = ServiceManager.INSTANCE.findService(SchedulerService.class).scheduleAtFixedRate(
+            "ServiceManagementClientKafkaProducer",
+            new RunnableWithExceptionProtection(this, t -> LOGGER.error("unexpected exception.", t)),
+            0, Config.Collector.HEARTBEAT_PERIOD, TimeUnit.SECONDS
+        );
     }
 
     @Override
@@ -122,6 +120,6 @@ public class KafkaServiceManagementServiceClient implements BootService, Runnabl
 
     @Override
     public void shutdown() {
-        heartbeatFuture.cancel(true);
+        heartbeatTask.cancel();
     }
 }
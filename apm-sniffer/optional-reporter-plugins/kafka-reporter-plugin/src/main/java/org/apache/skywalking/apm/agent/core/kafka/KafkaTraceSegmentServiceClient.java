@@ -21,22 +21,26 @@ package org.apache.skywalking.apm.agent.core.kafka;
 import java.util.List;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.skywalking.apm.agent.core.boot.BootService;
 import org.apache.skywalking.apm.agent.core.boot.OverrideImplementor;
 import org.apache.skywalking.apm.agent.core.boot.ServiceManager;
+import org.apache.skywalking.apm.agent.core.conf.Config;
 import org.apache.skywalking.apm.agent.core.context.TracingContext;
 import org.apache.skywalking.apm.agent.core.context.TracingContextListener;
 import org.apache.skywalking.apm.agent.core.context.trace.TraceSegment;
 import org.apache.skywalking.apm.agent.core.logging.api.ILog;
 import org.apache.skywalking.apm.agent.core.logging.api.LogManager;
+import org.apache.skywalking.apm.agent.core.remote.SegmentSerializeStage;
 import org.apache.skywalking.apm.agent.core.remote.TraceSegmentServiceClient;
+import org.apache.skywalking.apm.agent.core.sampling.TailSamplingService;
 import org.apache.skywalking.apm.commons.datacarrier.DataCarrier;
 import org.apache.skywalking.apm.commons.datacarrier.buffer.BufferStrategy;
 import org.apache.skywalking.apm.commons.datacarrier.consumer.IConsumer;
-import org.apache.skywalking.apm.network.language.agent.v3.SegmentObject;
 
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.BUFFER_SIZE;
 import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SIZE;
@@ -47,11 +51,25 @@ import static org.apache.skywalking.apm.agent.core.conf.Config.Buffer.CHANNEL_SI
 @OverrideImplementor(TraceSegmentServiceClient.class)
 public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<TraceSegment>, TracingContextListener, KafkaConnectionStatusListener {
     private static final ILog LOGGER = LogManager.getLogger(KafkaTraceSegmentServiceClient.class);
+    private static final long CONSUMER_EXIT_TIMEOUT_SECONDS = 5;
 
     private String topic;
     private KafkaProducer<String, Bytes> producer;
 
     private volatile DataCarrier<TraceSegment> carrier;
+    private TailSamplingService tailSamplingService;
+    /**
+     * Null unless {@link KafkaReporterPluginConfig.Plugin.Kafka#PACK_RECORDS} is enabled.
+     */
+    private KafkaRecordPacker packer;
+    private final CountDownLatch consumerExited = new CountDownLatch(1);
+    /**
+     * The worker threads are created on the first batch, nothing is started if this service is overridden.
+     */
+    private final SegmentSerializeStage<ProducerRecord<String, Bytes>> serializeStage = new SegmentSerializeStage<>(
+        "KafkaTraceSegmentSerializer", Config.Collector.SEGMENT_SERIALIZE_THREADS,
+        Config.Collector.SEGMENT_SERIALIZE_ORDERED, this::toRecord
+    );
 
     @Override
     public void prepare() {
@@ -62,8 +80,15 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
 
     @Override
     public void boot() {
+        if (KafkaReporterPluginConfig.Plugin.Kafka.PACK_RECORDS) {
+            packer = new KafkaRecordPacker(
+                topic, null, KafkaReporterPluginConfig.Plugin.Kafka.PACK_MAX_BYTES,
+                KafkaReporterPluginConfig.Plugin.Kafka.PACK_LINGER_MS, this::send
+            );
+        }
         carrier = new DataCarrier<>(CHANNEL_SIZE, BUFFER_SIZE, BufferStrategy.IF_POSSIBLE);
         carrier.consume(this, 1);
+        tailSamplingService = ServiceManager.INSTANCE.findService(TailSamplingService.class);
     }
 
     @Override
@@ -75,6 +100,7 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
     public void shutdown() {
         TracingContext.ListenerManager.remove(this);
         carrier.shutdownConsumers();
+        serializeStage.shutdown();
     }
 
     @Override
@@ -87,21 +113,37 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
         if (producer == null) {
             return;
         }
-        data.forEach(traceSegment -> {
-            SegmentObject upstreamSegment = traceSegment.transform();
-            ProducerRecord<String, Bytes> record = new ProducerRecord<>(
-                topic,
-                upstreamSegment.getTraceSegmentId(),
-                Bytes.wrap(upstreamSegment.toByteArray())
-            );
-            producer.send(record, (m, e) -> {
-                if (Objects.nonNull(e)) {
-                    LOGGER.error("Failed to report TraceSegment.", e);
-                }
-            });
+        if (packer == null) {
+            serializeStage.process(data, this::send);
+            return;
+        }
+        serializeStage.process(data, record -> packer.add(record.value().get()));
+        packer.flushIfLingered(System.currentTimeMillis());
+    }
+
+    @Override
+    public void nothingToConsume() {
+        if (producer != null && packer != null) {
+            packer.flushIfLingered(System.currentTimeMillis());
+        }
+    }
+
+    private void send(ProducerRecord<String, Bytes> record) {
+        producer.send(record, (m, e) -> {
+            if (Objects.nonNull(e)) {
+                LOGGER.error("Failed to report TraceSegment.", e);
+            }
         });
     }
 
+    private ProducerRecord<String, Bytes> toRecord(TraceSegment traceSegment) {
+        return new ProducerRecord<>(
+            topic,
+            traceSegment.getTraceSegmentId(),
+            Bytes.wrap(traceSegment.encode())
+        );
+    }
+
     @Override
     public void onError(final List<TraceSegment> data, final Throwable t) {
         LOGGER.error(t, "Try to send {} trace segments to collector, with unexpected exception.", data.size());
@@ -109,7 +151,13 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
 
     @Override
     public void onExit() {
-
+        try {
+            if (producer != null && packer != null) {
+                packer.flush();
+            }
+        } finally {
+            consumerExited.countDown();
+        }
     }
 
     @Override
@@ -122,7 +170,7 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             LOGGER.debug("Trace[TraceId={}] is ignored.", traceSegment.getTraceSegmentId());
             return;
         }
-        carrier.produce(traceSegment);
+        tailSamplingService.afterFinished(traceSegment, carrier::produce);
     }
 
     @Override
@@ -131,4 +179,23 @@ public class KafkaTraceSegmentServiceClient implements BootService, IConsumer<Tr
             producer = ServiceManager.INSTANCE.findService(KafkaProducerManager.class).getProducer();
         }
     }
+
+    /**
+     * Stop the consumer and wait for its last batch and packed record, which are sent in {@link #onExit()}.
+     */
+    @Override
+    public void beforeProducerClose() {
+        if (carrier == null) {
+            return;
+        }
+        carrier.shutdownConsumers();
+        try {
+            if (!consumerExited.await(CONSUMER_EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("The trace segment consumer didn't exit in {}s, the buffered segments may be lost.",
+                            CONSUMER_EXIT_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.kafka;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class KafkaLogReporterServiceClientTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFlushPackedLogsBeforeProducerClose() throws Throwable {
+        AtomicBoolean closed = new AtomicBoolean();
+        KafkaProducer<String, Bytes> producer = mock(KafkaProducer.class);
+        doAnswer(invocation -> {
+            closed.set(true);
+            return null;
+        }).when(producer).close();
+
+        List<byte[]> packed = new ArrayList<>();
+        KafkaLogReporterServiceClient client = new KafkaLogReporterServiceClient();
+        client.boot();
+        setField(KafkaLogReporterServiceClient.class, client, "producer", producer);
+        setField(KafkaLogReporterServiceClient.class, client, "packer", new KafkaRecordPacker(
+            "logs", "service", 1024, 60_000, record -> {
+                assertThat(closed.get(), is(false));
+                packed.add(record.value().get());
+            }));
+
+        KafkaProducerManager producerManager = new KafkaProducerManager();
+        producerManager.addListener(client);
+        setField(KafkaProducerManager.class, producerManager, "producer", producer);
+
+        for (int i = 0; i < 3; i++) {
+            client.produce(LogData.newBuilder().setEndpoint("log-" + i));
+        }
+        producerManager.shutdown();
+
+        assertThat(closed.get(), is(true));
+        assertThat(packed.size(), is(1));
+        ByteArrayInputStream input = new ByteArrayInputStream(packed.get(0));
+        for (int i = 0; i < 3; i++) {
+            assertThat(LogData.parseDelimitedFrom(input).getEndpoint(), is("log-" + i));
+        }
+        assertThat(LogData.parseDelimitedFrom(input), nullValue());
+    }
+
+    private static void setField(Class<?> type, Object target, String name, Object value) throws Exception {
+        Field field = type.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
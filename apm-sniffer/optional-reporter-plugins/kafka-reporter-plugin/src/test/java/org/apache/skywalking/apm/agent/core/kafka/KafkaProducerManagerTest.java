@@ -19,6 +19,7 @@
 package org.apache.skywalking.apm.agent.core.kafka;
 
 import static org.junit.Assert.assertEquals;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -27,6 +28,12 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.common.utils.Bytes;
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 
 public class KafkaProducerManagerTest {
     @Test
@@ -86,6 +93,28 @@ public class KafkaProducerManagerTest {
         assertEquals(value, decodeConfig.get("test.password"));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShutdownDrainsListenersBeforeClose() throws Exception {
+        KafkaProducerManager kafkaProducerManager = new KafkaProducerManager();
+        KafkaConnectionStatusListener listener = mock(KafkaConnectionStatusListener.class);
+        kafkaProducerManager.addListener(listener);
+        // Nothing to drain if the producer has never been created.
+        kafkaProducerManager.shutdown();
+
+        KafkaProducer<String, Bytes> producer = mock(KafkaProducer.class);
+        Field producerField = KafkaProducerManager.class.getDeclaredField("producer");
+        producerField.setAccessible(true);
+        producerField.set(kafkaProducerManager, producer);
+        kafkaProducerManager.shutdown();
+
+        InOrder inOrder = inOrder(listener, producer);
+        inOrder.verify(listener).beforeProducerClose();
+        inOrder.verify(producer).flush();
+        inOrder.verify(producer).close();
+        inOrder.verifyNoMoreInteractions();
+    }
+
     static class MockListener implements KafkaConnectionStatusListener {
 
         private AtomicInteger counter;
@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package org.apache.skywalking.apm.agent.core.kafka;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.skywalking.apm.network.logging.v3.LogData;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class KafkaRecordPackerTest {
+    private final List<ProducerRecord<String, Bytes>> records = new ArrayList<>();
+
+    @Test
+    public void testPackDelimitedMessages() throws Exception {
+        KafkaRecordPacker packer = new KafkaRecordPacker("logs", "service", 1024, 1000, records::add);
+        for (int i = 0; i < 3; i++) {
+            packer.add(log("log-" + i).toByteArray());
+        }
+        assertThat(records.size(), is(0));
+
+        packer.flush();
+        assertThat(records.size(), is(1));
+        ProducerRecord<String, Bytes> record = records.get(0);
+        assertThat(record.topic(), is("logs"));
+        assertThat(record.key(), is("service"));
+        Header header = record.headers().lastHeader(KafkaRecordPacker.FORMAT_HEADER);
+        assertThat(new String(header.value(), StandardCharsets.UTF_8), is(KafkaRecordPacker.LENGTH_DELIMITED));
+
+        ByteArrayInputStream input = new ByteArrayInputStream(record.value().get());
+        for (int i = 0; i < 3; i++) {
+            assertThat(LogData.parseDelimitedFrom(input).getEndpoint(), is("log-" + i));
+        }
+        assertThat(LogData.parseDelimitedFrom(input), nullValue());
+
+        packer.flush();
+        assertThat(records.size(), is(1));
+    }
+
+    @Test
+    public void testMaxBytes() throws Exception {
+        // 1 byte of length and 100 bytes of message
+        KafkaRecordPacker packer = new KafkaRecordPacker("segments", null, 250, 1000, records::add);
+        for (int i = 0; i < 5; i++) {
+            packer.add(new byte[100]);
+        }
+        // A message larger than the max bytes is sent alone, after the packed ones.
+        packer.add(new byte[600]);
+
+        assertThat(records.size(), is(4));
+        assertThat(records.get(0).value().get().length, is(202));
+        assertThat(records.get(1).value().get().length, is(202));
+        assertThat(records.get(2).value().get().length, is(101));
+        assertThat(records.get(3).value().get().length, is(602));
+        assertThat(records.get(3).key(), nullValue());
+    }
+
+    @Test
+    public void testLinger() {
+        KafkaRecordPacker packer = new KafkaRecordPacker("segments", null, 1024, 100, records::add);
+        packer.flushIfLingered(System.currentTimeMillis() + 1000);
+        assertThat(records.size(), is(0));
+
+        packer.add(new byte[10]);
+        packer.flushIfLingered(System.currentTimeMillis());
+        assertThat(records.size(), is(0));
+
+        packer.flushIfLingered(System.currentTimeMillis() + 100);
+        assertThat(records.size(), is(1));
+    }
+
+    private static LogData log(String endpoint) {
+        return LogData.newBuilder().setService("service").setEndpoint(endpoint).build();
+    }
+}